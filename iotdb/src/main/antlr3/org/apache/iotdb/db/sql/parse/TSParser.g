@@ -410,8 +410,8 @@ propertyValue
   ;
 
 setStorageGroup
-  : KW_SET KW_STORAGE KW_GROUP KW_TO prefixPath
-  -> ^(TOK_SET ^(TOK_STORAGEGROUP prefixPath))
+  : KW_SET KW_STORAGE KW_GROUP KW_TO prefixPath (KW_WITH KW_COMPRESSOR EQUAL compressor=propertyValue)?
+  -> ^(TOK_SET ^(TOK_STORAGEGROUP prefixPath) ^(TOK_COMPRESSOR $compressor)?)
   ;
 
 addAPropertyTree
@@ -32,8 +32,13 @@ public enum ThreadName {
   FORCE_FLUSH_ALL_POLICY("IoTDB-ForceFlushAllPolicy-Thread"),
   STAT_MONITOR("StatMonitor-ServerServiceImpl"),
   FLUSH_SERVICE("Flush-ServerServiceImpl"),
+  FLUSH_ENCODE_SERVICE("Flush-Encode-ServerServiceImpl"),
   WAL_DAEMON("IoTDB-MultiFileLogNodeManager-Sync-Thread"),
   WAL_FORCE_DAEMON("IoTDB-MultiFileLogNodeManager-Force-Thread"),
+  WAL_GROUP_COMMIT_DAEMON("IoTDB-WAL-GroupCommit-Thread"),
+  SHARED_WAL_DAEMON("IoTDB-SharedLogNodeManager-Sync-Thread"),
+  SHARED_WAL_FORCE_DAEMON("IoTDB-SharedLogNodeManager-Force-Thread"),
+  WAL_RECOVER_SERVICE("IoTDB-WAL-Recover"),
   INDEX_SERVICE("Index-ServerServiceImpl"),
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync-Server"),
@@ -23,6 +23,7 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +67,55 @@ public class IoTDBConfig {
    */
   private long forceWalPeriodInMs = 10;
 
+  /**
+   * Whether write ahead logs of all log nodes are written by a single thread which writes and
+   * forces them in batches. If enabled, the timed sync and force of logs are not needed, and if
+   * force_wal_period_in_ms is 0, every write waits until its log is forced to disk.
+   */
+  private boolean enableWalGroupCommit = false;
+
+  /**
+   * The max number of logs waiting for the group commit thread, writers wait when it is reached.
+   */
+  private int walGroupCommitQueueSize = 65536;
+
+  /**
+   * Size in byte of the direct buffer the group commit thread writes logs with.
+   */
+  private int walGroupCommitBufferSize = 16 * 1024 * 1024;
+
+  /**
+   * Whether the write ahead logs of all storage groups are written into a few shared files instead
+   * of a file per storage group.
+   */
+  private boolean enableSharedWal = false;
+
+  /**
+   * The number of shared write ahead log files written concurrently.
+   */
+  private int sharedWalStreamNum = 1;
+
+  /**
+   * A shared write ahead log file is rolled when its size in byte exceeds this.
+   */
+  private long sharedWalSegmentSize = 64L * 1024 * 1024;
+
+  /**
+   * How many storage groups can recover their write ahead logs concurrently when IoTDB starts.
+   */
+  private int walRecoverThreadNum = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The max number of consecutive logs of a device which are replayed as one batch.
+   */
+  private int walReplayBatchSize = 1024;
+
+  /**
+   * The compression applied to each batch of write ahead logs written at once, UNCOMPRESSED or
+   * SNAPPY.
+   */
+  private CompressionType walCompressor = CompressionType.UNCOMPRESSED;
+
   /**
    * Data directory.
    */
@@ -170,6 +220,24 @@ public class IoTDBConfig {
    */
   private int concurrentFlushThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads can concurrently encode and compress the series of flushing memtables. When
+   * <= 0, use CPU core number.
+   */
+  private int concurrentFlushEncodeThread = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * How many memtables of a bufferwrite processor can wait for flushing or be flushing at the same
+   * time. When they are all taken, writers have to wait for a flush to end.
+   */
+  private int maxFlushingMemTableNum = 4;
+
+  /**
+   * How long (in ms) a writer waits for a flushing memtable slot of a bufferwrite processor whose
+   * work memtable is full. The insertion is rejected after that.
+   */
+  private long flushBackPressureWaitTimeInMs = 10000;
+
   private ZoneId zoneID = ZoneId.systemDefault();
   /**
    * BufferWriteProcessor and OverflowProcessor will immediately flush if this threshold is
@@ -456,6 +524,78 @@ public class IoTDBConfig {
     this.flushWalPeriodInMs = flushWalPeriodInMs;
   }
 
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
+  public int getWalGroupCommitQueueSize() {
+    return walGroupCommitQueueSize;
+  }
+
+  public void setWalGroupCommitQueueSize(int walGroupCommitQueueSize) {
+    this.walGroupCommitQueueSize = walGroupCommitQueueSize;
+  }
+
+  public int getWalGroupCommitBufferSize() {
+    return walGroupCommitBufferSize;
+  }
+
+  public void setWalGroupCommitBufferSize(int walGroupCommitBufferSize) {
+    this.walGroupCommitBufferSize = walGroupCommitBufferSize;
+  }
+
+  public boolean isEnableSharedWal() {
+    return enableSharedWal;
+  }
+
+  public void setEnableSharedWal(boolean enableSharedWal) {
+    this.enableSharedWal = enableSharedWal;
+  }
+
+  public int getSharedWalStreamNum() {
+    return sharedWalStreamNum;
+  }
+
+  public void setSharedWalStreamNum(int sharedWalStreamNum) {
+    this.sharedWalStreamNum = sharedWalStreamNum;
+  }
+
+  public long getSharedWalSegmentSize() {
+    return sharedWalSegmentSize;
+  }
+
+  public void setSharedWalSegmentSize(long sharedWalSegmentSize) {
+    this.sharedWalSegmentSize = sharedWalSegmentSize;
+  }
+
+  public int getWalRecoverThreadNum() {
+    return walRecoverThreadNum;
+  }
+
+  public void setWalRecoverThreadNum(int walRecoverThreadNum) {
+    this.walRecoverThreadNum = walRecoverThreadNum;
+  }
+
+  public int getWalReplayBatchSize() {
+    return walReplayBatchSize;
+  }
+
+  public void setWalReplayBatchSize(int walReplayBatchSize) {
+    this.walReplayBatchSize = walReplayBatchSize;
+  }
+
+  public CompressionType getWalCompressor() {
+    return walCompressor;
+  }
+
+  public void setWalCompressor(CompressionType walCompressor) {
+    this.walCompressor = walCompressor;
+  }
+
   public long getForceWalPeriodInMs() {
     return forceWalPeriodInMs;
   }
@@ -620,6 +760,30 @@ public class IoTDBConfig {
     this.concurrentFlushThread = concurrentFlushThread;
   }
 
+  public int getConcurrentFlushEncodeThread() {
+    return concurrentFlushEncodeThread;
+  }
+
+  public void setConcurrentFlushEncodeThread(int concurrentFlushEncodeThread) {
+    this.concurrentFlushEncodeThread = concurrentFlushEncodeThread;
+  }
+
+  public int getMaxFlushingMemTableNum() {
+    return maxFlushingMemTableNum;
+  }
+
+  public void setMaxFlushingMemTableNum(int maxFlushingMemTableNum) {
+    this.maxFlushingMemTableNum = maxFlushingMemTableNum;
+  }
+
+  public long getFlushBackPressureWaitTimeInMs() {
+    return flushBackPressureWaitTimeInMs;
+  }
+
+  public void setFlushBackPressureWaitTimeInMs(long flushBackPressureWaitTimeInMs) {
+    this.flushBackPressureWaitTimeInMs = flushBackPressureWaitTimeInMs;
+  }
+
   public void setZoneID(ZoneId zoneID) {
     this.zoneID = zoneID;
   }
@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.Properties;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController.ControllerType;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -126,6 +127,47 @@ public class IoTDBDescriptor {
       conf.setForceWalPeriodInMs(Long
           .parseLong(properties.getProperty("force_wal_period_in_ms",
                   Long.toString(conf.getForceWalPeriodInMs()))));
+      conf.setEnableWalGroupCommit(Boolean
+          .parseBoolean(properties.getProperty("enable_wal_group_commit",
+                  Boolean.toString(conf.isEnableWalGroupCommit()))));
+      conf.setWalGroupCommitQueueSize(Integer
+          .parseInt(properties.getProperty("wal_group_commit_queue_size",
+                  Integer.toString(conf.getWalGroupCommitQueueSize()))));
+      conf.setWalGroupCommitBufferSize(Integer
+          .parseInt(properties.getProperty("wal_group_commit_buffer_size",
+                  Integer.toString(conf.getWalGroupCommitBufferSize()))));
+      conf.setEnableSharedWal(Boolean
+          .parseBoolean(properties.getProperty("enable_shared_wal",
+                  Boolean.toString(conf.isEnableSharedWal()))));
+      conf.setSharedWalStreamNum(Integer
+          .parseInt(properties.getProperty("shared_wal_stream_num",
+                  Integer.toString(conf.getSharedWalStreamNum()))));
+      if (conf.getSharedWalStreamNum() <= 0) {
+        conf.setSharedWalStreamNum(1);
+      }
+      conf.setSharedWalSegmentSize(Long
+          .parseLong(properties.getProperty("shared_wal_segment_size",
+                  Long.toString(conf.getSharedWalSegmentSize()))));
+      conf.setWalRecoverThreadNum(Integer
+          .parseInt(properties.getProperty("wal_recover_thread_num",
+                  Integer.toString(conf.getWalRecoverThreadNum()))));
+      if (conf.getWalRecoverThreadNum() <= 0) {
+        conf.setWalRecoverThreadNum(Runtime.getRuntime().availableProcessors());
+      }
+      conf.setWalReplayBatchSize(Integer
+          .parseInt(properties.getProperty("wal_replay_batch_size",
+                  Integer.toString(conf.getWalReplayBatchSize()))));
+      conf.setWalCompressor(CompressionType.valueOf(properties
+          .getProperty("wal_compressor", conf.getWalCompressor().name()).trim().toUpperCase()));
+      if (conf.getWalCompressor() != CompressionType.UNCOMPRESSED
+          && conf.getWalCompressor() != CompressionType.SNAPPY
+          && conf.getWalCompressor() != CompressionType.GZIP
+          && conf.getWalCompressor() != CompressionType.LZ4
+          && conf.getWalCompressor() != CompressionType.ZSTD) {
+        LOGGER.warn("Unsupported wal_compressor {}, use UNCOMPRESSED instead",
+            conf.getWalCompressor());
+        conf.setWalCompressor(CompressionType.UNCOMPRESSED);
+      }
 
       conf.setDataDir(properties.getProperty("data_dir", conf.getDataDir()));
       conf.setBufferWriteDirs(properties.getProperty("tsfile_dir", conf.DEFAULT_TSFILE_DIR)
@@ -216,6 +258,24 @@ public class IoTDBDescriptor {
         conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
       }
 
+      conf.setConcurrentFlushEncodeThread(Integer
+          .parseInt(properties.getProperty("concurrent_flush_encode_thread",
+              Integer.toString(conf.getConcurrentFlushEncodeThread()))));
+      if (conf.getConcurrentFlushEncodeThread() <= 0) {
+        conf.setConcurrentFlushEncodeThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setMaxFlushingMemTableNum(Integer
+          .parseInt(properties.getProperty("max_flushing_memtable_num",
+              Integer.toString(conf.getMaxFlushingMemTableNum()))));
+      if (conf.getMaxFlushingMemTableNum() <= 0) {
+        conf.setMaxFlushingMemTableNum(1);
+      }
+
+      conf.setFlushBackPressureWaitTimeInMs(Long
+          .parseLong(properties.getProperty("flush_back_pressure_wait_time_in_ms",
+              Long.toString(conf.getFlushBackPressureWaitTimeInMs()))));
+
       conf.setEnableMemMonitor(Boolean
           .parseBoolean(properties.getProperty("enable_mem_monitor",
                   Boolean.toString(conf.isEnableMemMonitor())).trim()));
@@ -20,14 +20,22 @@ package org.apache.iotdb.db.engine.bufferwrite;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -35,17 +43,19 @@ import org.apache.iotdb.db.engine.Processor;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.engine.memtable.MemSeriesLazyMerger;
 import org.apache.iotdb.db.engine.memtable.MemTableFlushUtil;
-import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.engine.memtable.MemTablePool;
 import org.apache.iotdb.db.engine.pool.FlushManager;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.version.VersionController;
 import org.apache.iotdb.db.exception.BufferWriteProcessorException;
 import org.apache.iotdb.db.qp.constant.DatetimeUtils;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.utils.ImmediateFuture;
 import org.apache.iotdb.db.utils.MemUtils;
-import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
+import org.apache.iotdb.db.writelog.manager.WriteLogNodeManagerFactory;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
@@ -64,17 +74,33 @@ public class BufferWriteProcessor extends Processor {
   private FileSchema fileSchema;
   private volatile Future<Boolean> flushFuture = new ImmediateFuture<>(true);
   private ReentrantLock flushQueryLock = new ReentrantLock();
+  // signalled when a flushing memtable is released
+  private Condition flushEnded = flushQueryLock.newCondition();
+  // writers share this lock, while switching the work memtable for flushing takes it exclusively
+  private ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  // memory of the work memtable which has been accepted by the BasicMemController
   private AtomicLong memSize = new AtomicLong();
   private long memThreshold = TSFileDescriptor.getInstance().getConfig().groupSizeInByte;
-  private IMemTable workMemTable;
-  private IMemTable flushMemTable;
+  // volatile since the size of the work memtable is also read without insertLock, e.g., memoryUsage
+  private volatile IMemTable workMemTable;
+  // memtables to be flushed in the order they are written, the head one is being flushed. Both the
+  // queue and flushTaskSubmitted are guarded by flushQueryLock.
+  private Deque<FlushingMemTable> flushingMemTables = new ArrayDeque<>();
+  // true if a flush task of this processor is submitted and has not ended, flush tasks of a
+  // processor run one by one since they append to the same file
+  private boolean flushTaskSubmitted = false;
+  // set when the FlushManager rejects a flush task, the memtable is then flushed by the thread
+  // which finds it (see flushRejectedMemTables), so that its future is still completed
+  private boolean flushInline = false;
+  private int maxFlushingMemTableNum = IoTDBDescriptor.getInstance().getConfig()
+      .getMaxFlushingMemTableNum();
   private Action bufferwriteFlushAction;
   private Action bufferwriteCloseAction;
   private Action filenodeFlushAction;
 
   //lastFlushTime time unit: nanosecond
   private long lastFlushTime = -1;
-  private long valueCount = 0;
+  private AtomicLong valueCount = new AtomicLong();
 
   private String baseDir;
   private String fileName;
@@ -124,11 +150,11 @@ public class BufferWriteProcessor extends Processor {
     bufferwriteFlushAction = parameters.get(FileNodeConstants.BUFFERWRITE_FLUSH_ACTION);
     bufferwriteCloseAction = parameters.get(FileNodeConstants.BUFFERWRITE_CLOSE_ACTION);
     filenodeFlushAction = parameters.get(FileNodeConstants.FILENODE_PROCESSOR_FLUSH_ACTION);
-    workMemTable = new PrimitiveMemTable();
+    workMemTable = MemTablePool.getInstance().getAvailableMemTable();
 
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
       try {
-        logNode = MultiFileLogNodeManager.getInstance().getNode(
+        logNode = WriteLogNodeManagerFactory.getManager().getNode(
             processorName + IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX,
             getBufferwriteRestoreFilePath(),
             FileNodeManager.getInstance().getRestoreFilePath(processorName));
@@ -168,35 +194,196 @@ public class BufferWriteProcessor extends Processor {
    * @throws BufferWriteProcessorException if a flushing operation occurs and failed.
    */
   public boolean write(TSRecord tsRecord) throws BufferWriteProcessorException {
-    long memUsage = MemUtils.getRecordSize(tsRecord);
-    BasicMemController.UsageLevel level = BasicMemController.getInstance()
-        .reportUse(this, memUsage);
-    for (DataPoint dataPoint : tsRecord.dataPointList) {
-      workMemTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
-          tsRecord.time,
-          dataPoint.getValue().toString());
-    }
-    valueCount++;
+    BasicMemController.UsageLevel level;
+    insertLock.readLock().lock();
+    try {
+      level = insertIntoWorkMemTable(tsRecord);
+    } finally {
+      insertLock.readLock().unlock();
+    }
+    return checkMemUsage(level);
+  }
+
+  /**
+   * write a ts record into the memtable if the admission check passes. The check and the insertion
+   * are done under the same lock which guards switching the work memtable for flushing, so a record
+   * admitted against the current flush time always lands in the memtable it was checked against.
+   * Several threads may call this method concurrently.
+   *
+   * @param tsRecord data to be written
+   * @param admission the check (and its side effects, e.g. WAL) done before inserting
+   * @return false if the record is not admitted and nothing has been written
+   * @throws BufferWriteProcessorException if the admission or a flushing operation fails, or the
+   * record is rejected by {@link #checkFlushBackPressure()}.
+   */
+  public boolean write(TSRecord tsRecord, InsertAdmission admission)
+      throws BufferWriteProcessorException {
+    BasicMemController.UsageLevel level;
+    insertLock.readLock().lock();
+    try {
+      checkFlushBackPressure();
+      if (!admission.admit()) {
+        return false;
+      }
+      level = insertIntoWorkMemTable(tsRecord);
+    } finally {
+      insertLock.readLock().unlock();
+    }
+    checkMemUsage(level);
+    return true;
+  }
+
+  /**
+   * write all rows of a batch into the memtable. If the memory usage is beyond the memThreshold,
+   * an async flushing operation will be called.
+   *
+   * @param batchInsertPlan rows to be written
+   * @return false if the memory usage is dangerous
+   * @throws BufferWriteProcessorException if a flushing operation occurs and failed.
+   */
+  public boolean write(BatchInsertPlan batchInsertPlan) throws BufferWriteProcessorException {
+    BasicMemController.UsageLevel level;
+    insertLock.readLock().lock();
+    try {
+      long memUsage = workMemTable.insertBatch(batchInsertPlan);
+      valueCount.addAndGet(batchInsertPlan.getRowCount());
+      level = reportMemUsage(memUsage);
+    } finally {
+      insertLock.readLock().unlock();
+    }
+    return checkMemUsage(level);
+  }
+
+  /**
+   * write all rows of a batch into the memtable if the admission check passes, like {@link
+   * #write(TSRecord, InsertAdmission)}.
+   *
+   * @return false if the batch is not admitted and nothing has been written
+   * @throws BufferWriteProcessorException if the admission or a flushing operation fails, or the
+   * batch is rejected by {@link #checkFlushBackPressure()}.
+   */
+  public boolean write(BatchInsertPlan batchInsertPlan, InsertAdmission admission)
+      throws BufferWriteProcessorException {
+    BasicMemController.UsageLevel level;
+    insertLock.readLock().lock();
+    try {
+      checkFlushBackPressure();
+      if (!admission.admit()) {
+        return false;
+      }
+      long memUsage = workMemTable.insertBatch(batchInsertPlan);
+      valueCount.addAndGet(batchInsertPlan.getRowCount());
+      level = reportMemUsage(memUsage);
+    } finally {
+      insertLock.readLock().unlock();
+    }
+    checkMemUsage(level);
+    return true;
+  }
+
+  /**
+   * slow down writers when the work memtable should be flushed but all the flushing memtable slots
+   * are taken, so that a burst of writes does not pile up memtables in memory. It waits for a flush
+   * to end at most flushBackPressureWaitTimeInMs, and rejects the insertion after that. It must be
+   * called before anything (e.g., WAL) of the insertion is written. The caller must hold the read
+   * lock of insertLock, so the work memtable checked is the one the insertion goes into. Waiting
+   * under the read lock is safe since the flush tasks never take insertLock.
+   *
+   * @throws BufferWriteProcessorException if the flushes do not catch up with the insertions.
+   */
+  private void checkFlushBackPressure() throws BufferWriteProcessorException {
+    if (workMemTable.memSize() <= memThreshold || !isFlushQueueFull()) {
+      return;
+    }
+    long waitTime = IoTDBDescriptor.getInstance().getConfig().getFlushBackPressureWaitTimeInMs();
+    boolean rejected = !waitForFlushSlot(waitTime);
+    FlushManager.getInstance().recordBackPressure(rejected);
+    if (rejected) {
+      throw new BufferWriteProcessorException(String.format(
+          "The bufferwrite processor %s rejects the insertion, since %d memtables are waiting for "
+              + "flushing after %dms", getProcessorName(), maxFlushingMemTableNum, waitTime));
+    }
+  }
+
+  private boolean isFlushQueueFull() {
+    flushQueryLock.lock();
+    try {
+      return flushingMemTables.size() >= maxFlushingMemTableNum;
+    } finally {
+      flushQueryLock.unlock();
+    }
+  }
+
+  /**
+   * wait until fewer than maxFlushingMemTableNum memtables are flushing.
+   *
+   * @return false if the time is out or the thread is interrupted
+   */
+  private boolean waitForFlushSlot(long timeoutInMs) {
+    flushQueryLock.lock();
+    try {
+      long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutInMs);
+      while (flushingMemTables.size() >= maxFlushingMemTableNum) {
+        if (remaining <= 0) {
+          return false;
+        }
+        remaining = flushEnded.awaitNanos(remaining);
+      }
+      return true;
+    } catch (InterruptedException e) {
+      LOGGER.error("Interrupted while waiting for the flushing of bufferwrite processor {}.",
+          getProcessorName(), e);
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      flushQueryLock.unlock();
+    }
+  }
+
+  private BasicMemController.UsageLevel insertIntoWorkMemTable(TSRecord tsRecord) {
+    long memUsage = workMemTable.insert(tsRecord);
+    valueCount.incrementAndGet();
+    return reportMemUsage(memUsage);
+  }
+
+  /**
+   * report the memory newly taken by the work memtable. It is called under the read lock of
+   * insertLock, so the memory is always counted for the memtable which has taken it.
+   */
+  private BasicMemController.UsageLevel reportMemUsage(long memUsage) {
+    if (memUsage == 0) {
+      // most points are put into blocks which have been allocated
+      return BasicMemController.getInstance().getCurrLevel();
+    }
+    // the controller records the usage even if it is dangerous, so it is always freed later
+    memSize.addAndGet(memUsage);
+    return BasicMemController.getInstance().reportUse(this, memUsage);
+  }
+
+  private boolean checkMemUsage(BasicMemController.UsageLevel level)
+      throws BufferWriteProcessorException {
     String memory;
     switch (level) {
       case SAFE:
-        checkMemThreshold4Flush(memUsage);
+        checkMemThreshold4Flush();
         return true;
       case WARNING:
         memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
         LOGGER.warn("Memory usage will exceed warning threshold, current : {}.", memory);
-        checkMemThreshold4Flush(memUsage);
+        checkMemThreshold4Flush();
         return true;
       case DANGEROUS:
       default:
         memory = MemUtils.bytesCntToStr(BasicMemController.getInstance().getTotalUsage());
         LOGGER.warn("Memory usage will exceed dangerous threshold, current : {}.", memory);
+        // the memory has been taken anyway, flushing is the only way to give it back
+        checkMemThreshold4Flush();
         return false;
     }
   }
 
-  private void checkMemThreshold4Flush(long addedMemory) throws BufferWriteProcessorException {
-    long newMem = memSize.addAndGet(addedMemory);
+  private void checkMemThreshold4Flush() throws BufferWriteProcessorException {
+    long newMem = workMemTable.memSize();
     if (newMem > memThreshold) {
       String usageMem = MemUtils.bytesCntToStr(newMem);
       String threshold = MemUtils.bytesCntToStr(memThreshold);
@@ -226,14 +413,17 @@ public class BufferWriteProcessor extends Processor {
     flushQueryLock.lock();
     try {
       MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger();
-      if (flushMemTable != null) {
-        memSeriesLazyMerger.addMemSeries(flushMemTable.query(deviceId, measurementId, dataType, props));
+      for (FlushingMemTable flushing : flushingMemTables) {
+        memSeriesLazyMerger
+            .addMemSeries(flushing.memTable.query(deviceId, measurementId, dataType, props));
       }
       memSeriesLazyMerger.addMemSeries(workMemTable.query(deviceId, measurementId, dataType, props));
       // memSeriesLazyMerger has handled the props,
       // so we do not need to handle it again in the following readOnlyMemChunk
       ReadOnlyMemChunk timeValuePairSorter = new ReadOnlyMemChunk(dataType, memSeriesLazyMerger,
           Collections.emptyMap());
+      // the memtables are recycled after being flushed, so read them out before releasing the lock
+      timeValuePairSorter.materialize();
       return new Pair<>(timeValuePairSorter,
           writer.getMetadatas(deviceId, measurementId, dataType));
     } finally {
@@ -241,13 +431,12 @@ public class BufferWriteProcessor extends Processor {
     }
   }
 
-  private void switchWorkToFlush() {
+  private void switchWorkToFlush(FlushingMemTable flushing) {
     flushQueryLock.lock();
     try {
-      if (flushMemTable == null) {
-        flushMemTable = workMemTable;
-        workMemTable = new PrimitiveMemTable();
-      }
+      flushingMemTables.addLast(flushing);
+      workMemTable = MemTablePool.getInstance().getAvailableMemTable();
+      submitFlushTask();
     } finally {
       flushQueryLock.unlock();
     }
@@ -256,33 +445,99 @@ public class BufferWriteProcessor extends Processor {
   private void switchFlushToWork() {
     flushQueryLock.lock();
     try {
-      flushMemTable.clear();
-      flushMemTable = null;
+      FlushingMemTable flushed = flushingMemTables.pollFirst();
+      // free the memory before the blocks go back to the pool, which is bounded by the usage
+      if (flushed.memSize > 0) {
+        BasicMemController.getInstance().reportFree(this, flushed.memSize);
+      }
+      flushed.release();
       writer.appendMetadata();
+      flushEnded.signalAll();
+      flushTaskSubmitted = false;
+      submitFlushTask();
     } finally {
       flushQueryLock.unlock();
     }
   }
 
+  /**
+   * submit a task to flush the oldest flushing memtable if no task of this processor is running.
+   * The caller must hold flushQueryLock.
+   */
+  private void submitFlushTask() {
+    if (flushTaskSubmitted || flushingMemTables.isEmpty()) {
+      return;
+    }
+    FlushingMemTable oldest = flushingMemTables.peekFirst();
+    try {
+      FlushManager.getInstance().submit(this::flushOldestMemTable, oldest.memTable.memSize());
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("The bufferwrite processor {} cannot submit a flush task, the memtable is "
+          + "flushed by the current thread.", getProcessorName(), e);
+      flushInline = true;
+    }
+    // a rejected task is still taken as submitted, so only one thread flushes it
+    flushTaskSubmitted = true;
+  }
+
+  private boolean flushOldestMemTable() {
+    boolean result = flushOneMemTable();
+    flushRejectedMemTables();
+    return result;
+  }
+
+  /**
+   * flush the memtables whose flush tasks have been rejected by the FlushManager (e.g., it has been
+   * shut down) in the current thread. The caller must not hold insertLock or flushQueryLock.
+   */
+  private void flushRejectedMemTables() {
+    while (true) {
+      flushQueryLock.lock();
+      try {
+        if (!flushInline) {
+          return;
+        }
+        flushInline = false;
+      } finally {
+        flushQueryLock.unlock();
+      }
+      flushOneMemTable();
+    }
+  }
+
+  private boolean flushOneMemTable() {
+    FlushingMemTable oldest;
+    flushQueryLock.lock();
+    try {
+      oldest = flushingMemTables.peekFirst();
+    } finally {
+      flushQueryLock.unlock();
+    }
+    boolean result = flushTask("asynchronously", oldest);
+    oldest.future.complete(result);
+    return result;
+  }
+
 
   /**
    * the caller mast guarantee no other concurrent caller entering this function.
    *
    * @param displayMessage message that will appear in system log.
-   * @param version the operation version that will tagged on the to be flushed memtable
-   * (i.e., ChunkGroup)
+   * @param flushing the memtable to be flushed and its operation version that will tagged on the
+   * to be flushed memtable (i.e., ChunkGroup)
    * @return true if successfully.
    */
-  private boolean flushTask(String displayMessage, long version) {
+  private boolean flushTask(String displayMessage, FlushingMemTable flushing) {
     boolean result;
     long flushStartTime = System.currentTimeMillis();
     LOGGER.info("The bufferwrite processor {} starts flushing {}.", getProcessorName(),
         displayMessage);
     try {
-      if (flushMemTable != null && !flushMemTable.isEmpty()) {
+      IMemTable flushMemTable = flushing.memTable;
+      if (!flushMemTable.isEmpty()) {
         // flush data
         MemTableFlushUtil.flushMemTable(fileSchema, writer, flushMemTable,
-            version);
+            flushing.version);
         // write restore information
         writer.flush();
       }
@@ -315,7 +570,11 @@ public class BufferWriteProcessor extends Processor {
     return result;
   }
 
-  // keyword synchronized is added in this method, so that only one flush task can be submitted now.
+  /**
+   * switch the work memtable to the flushing queue and return the future of its flush. It does not
+   * wait for the former flushes unless maxFlushingMemTableNum memtables are already flushing. The
+   * keyword synchronized is added, so that the memtables are queued in the order of their versions.
+   */
   @Override
   public synchronized Future<Boolean> flush() throws IOException {
     // statistic information for flush
@@ -332,37 +591,36 @@ public class BufferWriteProcessor extends Processor {
     }
     lastFlushTime = System.nanoTime();
     // check value count
-    if (valueCount > 0) {
-      // waiting for the end of last flush operation.
+    if (valueCount.get() > 0) {
+      // waiting for a flushing memtable slot, the flushes are not waited if there is one.
+      waitForFlushSlot(Long.MAX_VALUE);
+      FlushingMemTable flushing;
+      // no writer may enter between updating the lastUpdatetime and switching the memtable
+      insertLock.writeLock().lock();
       try {
-        flushFuture.get();
-      } catch (InterruptedException | ExecutionException e) {
-        LOGGER.error("Encounter an interrupt error when waitting for the flushing, "
-                + "the bufferwrite processor is {}.",
-            getProcessorName(), e);
-        Thread.currentThread().interrupt();
+        // update the lastUpdatetime, prepare for flush
+        try {
+          bufferwriteFlushAction.act();
+        } catch (Exception e) {
+          LOGGER.error("Failed to flush bufferwrite row group when calling the action function.");
+          throw new IOException(e);
+        }
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+          logNode.notifyStartFlush();
+        }
+        valueCount.set(0);
+        flushing = new FlushingMemTable(workMemTable, memSize.getAndSet(0),
+            versionController.nextVersion());
+        switchWorkToFlush(flushing);
+      } finally {
+        insertLock.writeLock().unlock();
       }
-      // update the lastUpdatetime, prepare for flush
-      try {
-        bufferwriteFlushAction.act();
-      } catch (Exception e) {
-        LOGGER.error("Failed to flush bufferwrite row group when calling the action function.");
-        throw new IOException(e);
-      }
-      if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
-        logNode.notifyStartFlush();
-      }
-      valueCount = 0;
-      switchWorkToFlush();
-      long version = versionController.nextVersion();
-      BasicMemController.getInstance().reportFree(this, memSize.get());
-      memSize.set(0);
-      // switch
-      flushFuture = FlushManager.getInstance().submit(() -> flushTask("asynchronously",
-          version));
-    } else {
+      flushFuture = flushing.future;
+      flushRejectedMemTables();
+    } else if (!isFlush()) {
       flushFuture = new ImmediateFuture<>(true);
     }
+    // otherwise flushFuture is the future of the last queued memtable, whose flush ends last
     return flushFuture;
   }
 
@@ -407,7 +665,16 @@ public class BufferWriteProcessor extends Processor {
 
   @Override
   public long memoryUsage() {
-    return memSize.get();
+    long usage = workMemTable.memSize();
+    flushQueryLock.lock();
+    try {
+      for (FlushingMemTable flushing : flushingMemTables) {
+        usage += flushing.memTable.memSize();
+      }
+    } finally {
+      flushQueryLock.unlock();
+    }
+    return usage;
   }
 
   /**
@@ -416,13 +683,30 @@ public class BufferWriteProcessor extends Processor {
    * @return True if flushing
    */
   public boolean isFlush() {
-    // starting a flush task has two steps: set the flushMemtable, and then set the flushFuture
-    // So, the following case exists: flushMemtable != null but flushFuture is done (because the
-    // flushFuture refers to the last finished flush.
-    // And, the following case exists,too: flushMemtable == null, but flushFuture is not done.
+    // starting a flush task has two steps: queue the flushing memtable, and then set the
+    // flushFuture. So, the following case exists: a memtable is queued but flushFuture is done
+    // (because the flushFuture refers to the last finished flush.
+    // And, the following case exists,too: no memtable is queued, but flushFuture is not done.
     // (flushTask() is not finished, but switchToWork() has done)
-    // So, checking flushMemTable is more meaningful than flushFuture.isDone().
-    return  flushMemTable != null;
+    // So, checking the flushing memtables is more meaningful than flushFuture.isDone().
+    flushQueryLock.lock();
+    try {
+      return !flushingMemTables.isEmpty();
+    } finally {
+      flushQueryLock.unlock();
+    }
+  }
+
+  /**
+   * get the number of memtables which are waiting for flushing or being flushed.
+   */
+  public int getFlushingMemTableNum() {
+    flushQueryLock.lock();
+    try {
+      return flushingMemTables.size();
+    } finally {
+      flushQueryLock.unlock();
+    }
   }
 
   /**
@@ -532,10 +816,14 @@ public class BufferWriteProcessor extends Processor {
    */
   public void delete(String deviceId, String measurementId, long timestamp) {
     workMemTable.delete(deviceId, measurementId, timestamp);
-    if (isFlush()) {
-      // flushing MemTable cannot be directly modified since another thread is reading it
-      flushMemTable = flushMemTable.copy();
-      flushMemTable.delete(deviceId, measurementId, timestamp);
+    // the flushing MemTables are recycled once their flushes end, hold the lock to keep them
+    flushQueryLock.lock();
+    try {
+      for (FlushingMemTable flushing : flushingMemTables) {
+        flushing.delete(deviceId, measurementId, timestamp);
+      }
+    } finally {
+      flushQueryLock.unlock();
     }
   }
 
@@ -559,4 +847,63 @@ public class BufferWriteProcessor extends Processor {
   public int hashCode() {
     return Objects.hash(super.hashCode(), baseDir, fileName);
   }
+
+  /**
+   * a memtable which is waiting for flushing or being flushed.
+   */
+  private static class FlushingMemTable {
+
+    // the memtable switched out of work, which is given back to the MemTablePool after the flush
+    private final IMemTable original;
+    // the memtable to be flushed and queried, replaced by a copy when data is deleted from it
+    private volatile IMemTable memTable;
+    // the series created by the deletions, which are not in the original memtable
+    private final List<IWritableMemChunk> chunksOfDeletions = new ArrayList<>();
+    // memory which has been accepted by the BasicMemController, it is freed when the flush ends
+    private final long memSize;
+    private final long version;
+    private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    private FlushingMemTable(IMemTable memTable, long memSize, long version) {
+      this.original = memTable;
+      this.memTable = memTable;
+      this.memSize = memSize;
+      this.version = version;
+    }
+
+    /**
+     * delete the data from a copy of the memtable, since the memtable cannot be directly modified
+     * while another thread may be flushing it. The caller must hold flushQueryLock.
+     */
+    private void delete(String deviceId, String measurementId, long timestamp) {
+      IWritableMemChunk chunk = getChunk(memTable, deviceId, measurementId);
+      if (chunk == null) {
+        return;
+      }
+      IMemTable copy = memTable.copy();
+      copy.delete(deviceId, measurementId, timestamp);
+      IWritableMemChunk newChunk = getChunk(copy, deviceId, measurementId);
+      if (newChunk != chunk) {
+        chunksOfDeletions.add(newChunk);
+        memTable = copy;
+      }
+    }
+
+    private static IWritableMemChunk getChunk(IMemTable memTable, String deviceId,
+        String measurementId) {
+      Map<String, IWritableMemChunk> seriesMap = memTable.getMemTableMap().get(deviceId);
+      return seriesMap == null ? null : seriesMap.get(measurementId);
+    }
+
+    /**
+     * give the blocks of the original memtable and of the series created by the deletions back to
+     * the PrimitiveArrayPool. The caller must make sure nobody reads the memtable any more.
+     */
+    private void release() {
+      MemTablePool.getInstance().putBack(original);
+      for (IWritableMemChunk chunk : chunksOfDeletions) {
+        chunk.reset();
+      }
+    }
+  }
 }
@@ -34,6 +34,7 @@ import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.FileSchema;
@@ -93,13 +94,23 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
     File insertFile = new File(insertFilePath);
     File restoreFile = new File(restoreFilePath);
     if (insertFile.exists() && restoreFile.exists()) {
+      // go on writing the tsfile in its own version
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(insertFilePath, false)) {
+        version = reader.readVersion();
+      }
       // read restore file
       Pair<Long, List<ChunkGroupMetaData>> restoreInfo = readRestoreInfo();
       long position = restoreInfo.left;
       List<ChunkGroupMetaData> existedMetadatas = restoreInfo.right;
       // cut off tsfile
       this.out = new DefaultTsFileOutput(new FileOutputStream(insertFile, true));
-      out.truncate(position);
+      if (existedMetadatas.isEmpty()) {
+        // the head may be incomplete, so rewrite it
+        out.truncate(0);
+        startFile();
+      } else {
+        out.truncate(position);
+      }
       this.chunkGroupMetaDataList = existedMetadatas;
       lastFlushedChunkGroupIndex = chunkGroupMetaDataList.size();
       append = new ArrayList<>();
@@ -163,7 +174,7 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
         out.seek(out.length() - TS_POSITION_BYTE_SIZE);
       }
       ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      tsDeviceMetadata.serializeTo(baos);
+      tsDeviceMetadata.serializeTo(baos, version);
       // write metadata size using int
       int metadataSize = baos.size();
       out.write(BytesUtils.intToBytes(metadataSize));
@@ -201,7 +212,7 @@ public class RestorableTsFileIOWriter extends TsFileIOWriter {
         byte[] thriftBytes = new byte[metadataSize];
         randomAccessFile.read(thriftBytes);
         ByteArrayInputStream inputStream = new ByteArrayInputStream(thriftBytes);
-        TsDeviceMetadata tsDeviceMetadata = TsDeviceMetadata.deserializeFrom(inputStream);
+        TsDeviceMetadata tsDeviceMetadata = TsDeviceMetadata.deserializeFrom(inputStream, version);
         groupMetaDatas.addAll(tsDeviceMetadata.getChunkGroupMetaDataList());
         point = randomAccessFile.getFilePointer();
       }
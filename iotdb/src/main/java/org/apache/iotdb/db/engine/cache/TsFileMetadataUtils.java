@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.cache;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 
@@ -62,18 +63,19 @@ public class TsFileMetadataUtils {
    */
   public static TsDeviceMetadata getTsRowGroupBlockMetaData(String filePath, String deviceId,
       TsFileMetaData fileMetaData) throws IOException {
-    if (!fileMetaData.getDeviceMap().containsKey(deviceId)) {
+    TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(deviceId);
+    if (index == null) {
       return null;
     } else {
       TsFileSequenceReader reader = null;
       try {
         reader = new TsFileSequenceReader(filePath);
-        long offset = fileMetaData.getDeviceMap().get(deviceId).getOffset();
-        int size = fileMetaData.getDeviceMap().get(deviceId).getLen();
+        long offset = index.getOffset();
+        int size = index.getLen();
         ByteBuffer data = ByteBuffer.allocate(size);
         reader.readRaw(offset, size, data);
         data.flip();
-        return TsDeviceMetadata.deserializeFrom(data);
+        return TsDeviceMetadata.deserializeFrom(data, reader.readVersion());
       } finally {
         if (reader != null) {
           reader.close();
@@ -36,7 +36,9 @@ import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.Directories;
 import org.apache.iotdb.db.engine.Processor;
+import org.apache.iotdb.db.engine.bufferwrite.ActionException;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
 import org.apache.iotdb.db.engine.overflow.io.OverflowProcessor;
 import org.apache.iotdb.db.engine.pool.FlushManager;
@@ -50,6 +52,7 @@ import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.monitor.IStatistic;
 import org.apache.iotdb.db.monitor.MonitorConstants;
 import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -58,16 +61,17 @@ import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.db.utils.MemUtils;
-import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
+import org.apache.iotdb.db.writelog.manager.WriteLogNodeManagerFactory;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
-import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -125,10 +129,14 @@ public class FileNodeManager implements IStatistic, IService {
   }
 
   private void updateStatHashMapWhenFail(TSRecord tsRecord) {
+    updateStatHashMapWhenFail(tsRecord.dataPointList.size());
+  }
+
+  private void updateStatHashMapWhenFail(long pointNum) {
     statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_FAIL.name())
         .incrementAndGet();
     statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_FAIL.name())
-        .addAndGet(tsRecord.dataPointList.size());
+        .addAndGet(pointNum);
   }
 
   /**
@@ -278,30 +286,41 @@ public class FileNodeManager implements IStatistic, IService {
    * @return an int value represents the insert type
    */
   public int insert(TSRecord tsRecord, boolean isMonitor) throws FileNodeManagerException {
-    long timestamp = tsRecord.time;
-
     String deviceId = tsRecord.deviceId;
     checkTimestamp(tsRecord);
     updateStat(isMonitor, tsRecord);
 
-    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
-    int insertType;
-
+    // most records are appended to the working bufferwrite file, which only needs the read lock
+    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, false);
+    boolean appended;
+    boolean fileFull = false;
     try {
-      long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
-      if (timestamp < lastUpdateTime) {
-        insertOverflow(fileNodeProcessor, timestamp, tsRecord, isMonitor, deviceId);
-        insertType = 1;
-      } else {
-        insertBufferWrite(fileNodeProcessor, timestamp, isMonitor, tsRecord, deviceId);
-        insertType = 2;
+      appended = appendBufferWrite(fileNodeProcessor, tsRecord, isMonitor);
+      if (appended) {
+        fileFull = isBufferWriteFileFull(fileNodeProcessor);
       }
     } catch (FileNodeProcessorException e) {
-      LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
-          fileNodeProcessor.getProcessorName()), e);
       throw new FileNodeManagerException(e);
     } finally {
-      fileNodeProcessor.writeUnlock();
+      fileNodeProcessor.readUnlock();
+    }
+
+    int insertType = 2;
+    if (!appended || fileFull) {
+      fileNodeProcessor = getProcessor(deviceId, true);
+      try {
+        if (appended) {
+          closeBufferWriteIfFull(fileNodeProcessor);
+        } else {
+          insertType = insertExclusively(fileNodeProcessor, tsRecord, isMonitor);
+        }
+      } catch (FileNodeProcessorException e) {
+        LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
+            fileNodeProcessor.getProcessorName()), e);
+        throw new FileNodeManagerException(e);
+      } finally {
+        fileNodeProcessor.writeUnlock();
+      }
     }
     // Modify the insert
     if (!isMonitor) {
@@ -320,18 +339,68 @@ public class FileNodeManager implements IStatistic, IService {
     return insertType;
   }
 
+  /**
+   * append a record to the working bufferwrite processor while holding only the read lock of the
+   * filenode processor, so that writers of the same storage group do not block each other.
+   *
+   * @return false if nothing has been written and the record must be inserted exclusively, e.g.,
+   * it is overflowed, a new bufferwrite file has to be opened or a new device has to be registered
+   */
+  private boolean appendBufferWrite(FileNodeProcessor fileNodeProcessor, TSRecord tsRecord,
+      boolean isMonitor) throws FileNodeManagerException {
+    if (!fileNodeProcessor.hasBufferwriteProcessor()) {
+      return false;
+    }
+    try {
+      BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor.getBufferWriteProcessor();
+      return bufferWriteProcessor.write(tsRecord, () -> {
+        if (!fileNodeProcessor.canAppendConcurrently(tsRecord.deviceId, tsRecord.time)) {
+          return false;
+        }
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+          try {
+            bufferWriteProcessor.getLogNode().write(new InsertPlan(2, tsRecord));
+          } catch (IOException e) {
+            throw new BufferWriteProcessorException(e);
+          }
+        }
+        fileNodeProcessor.setLastUpdateTime(tsRecord.deviceId, tsRecord.time);
+        return true;
+      });
+    } catch (FileNodeProcessorException | BufferWriteProcessorException e) {
+      if (!isMonitor) {
+        updateStatHashMapWhenFail(tsRecord);
+      }
+      throw new FileNodeManagerException(e);
+    }
+  }
+
+  /**
+   * a record is overflowed only if it is earlier than the data already flushed to the bufferwrite
+   * file of its device. A late record which is earlier than the last update time but not flushed
+   * yet is still put into the working memtable, which is sorted when it is flushed.
+   *
+   * @return 1 if the record is inserted into overflow, 2 if into bufferwrite
+   */
+  private int insertExclusively(FileNodeProcessor fileNodeProcessor, TSRecord tsRecord,
+      boolean isMonitor) throws FileNodeManagerException, FileNodeProcessorException {
+    long timestamp = tsRecord.time;
+    String deviceId = tsRecord.deviceId;
+    long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+    if (timestamp < lastUpdateTime) {
+      insertOverflow(fileNodeProcessor, timestamp, tsRecord, isMonitor, deviceId);
+      return 1;
+    } else {
+      insertBufferWrite(fileNodeProcessor, timestamp, isMonitor, tsRecord, deviceId);
+      return 2;
+    }
+  }
+
   private void writeLog(TSRecord tsRecord, boolean isMonitor, WriteLogNode logNode)
       throws FileNodeManagerException {
     try {
       if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
-        List<String> measurementList = new ArrayList<>();
-        List<String> insertValues = new ArrayList<>();
-        for (DataPoint dp : tsRecord.dataPointList) {
-          measurementList.add(dp.getMeasurementId());
-          insertValues.add(dp.getValue().toString());
-        }
-        logNode.write(new InsertPlan(2, tsRecord.deviceId, tsRecord.time, measurementList,
-            insertValues));
+        logNode.write(new InsertPlan(2, tsRecord));
       }
     } catch (IOException e) {
       if (!isMonitor) {
@@ -403,48 +472,185 @@ public class FileNodeManager implements IStatistic, IService {
       }
       throw new FileNodeManagerException(e);
     }
-    // Add a new interval file to newfilelist
+    try {
+      addIntervalFileNodeIfNew(fileNodeProcessor, bufferWriteProcessor);
+    } catch (Exception e) {
+      if (!isMonitor) {
+        updateStatHashMapWhenFail(tsRecord);
+      }
+      throw new FileNodeManagerException(e);
+    }
+    try {
+      // the flush back-pressure is checked before the wal is written
+      bufferWriteProcessor.write(tsRecord, () -> {
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+          try {
+            bufferWriteProcessor.getLogNode().write(new InsertPlan(2, tsRecord));
+          } catch (IOException e) {
+            throw new BufferWriteProcessorException(e);
+          }
+        }
+        fileNodeProcessor.setIntervalFileNodeStartTime(deviceId);
+        fileNodeProcessor.setLastUpdateTime(deviceId, timestamp);
+        return true;
+      });
+    } catch (BufferWriteProcessorException e) {
+      if (!isMonitor) {
+        updateStatHashMapWhenFail(tsRecord);
+      }
+      throw new FileNodeManagerException(e);
+    }
+
+    closeBufferWriteIfFull(fileNodeProcessor);
+  }
+
+  /**
+   * Add a new interval file to newfilelist if the bufferwrite processor has just been created.
+   */
+  private void addIntervalFileNodeIfNew(FileNodeProcessor fileNodeProcessor,
+      BufferWriteProcessor bufferWriteProcessor) throws ActionException {
     if (bufferWriteProcessor.isNewProcessor()) {
       bufferWriteProcessor.setNewProcessor(false);
       String bufferwriteBaseDir = bufferWriteProcessor.getBaseDir();
       String bufferwriteRelativePath = bufferWriteProcessor.getFileRelativePath();
-      try {
-        fileNodeProcessor.addIntervalFileNode(bufferwriteBaseDir, bufferwriteRelativePath);
-      } catch (Exception e) {
-        if (!isMonitor) {
-          updateStatHashMapWhenFail(tsRecord);
+      fileNodeProcessor.addIntervalFileNode(bufferwriteBaseDir, bufferwriteRelativePath);
+    }
+  }
+
+  /**
+   * insert all rows of a batch of one device. The write lock of the filenode processor is taken
+   * only once. The rows not earlier than the last flushed time are written into the bufferwrite
+   * processor column by column with a single WAL record, while the overflowed rows, which should
+   * be rare, are inserted one by one.
+   *
+   * @param batchInsertPlan rows to be inserted
+   * @param isMonitor if true, the insertion is done by StatMonitor and the statistic Info will not
+   * be recorded.
+   */
+  public void insertBatch(BatchInsertPlan batchInsertPlan, boolean isMonitor)
+      throws FileNodeManagerException {
+    String deviceId = batchInsertPlan.getDeviceId();
+    int rowCount = batchInsertPlan.getRowCount();
+    if (rowCount == 0) {
+      return;
+    }
+    if (batchInsertPlan.getMinTime() < 0) {
+      LOGGER.error("The insert time lt 0, {}.", batchInsertPlan);
+      throw new FileNodeManagerException("The insert time lt 0, the batch is " + batchInsertPlan);
+    }
+    long pointNum = (long) rowCount * batchInsertPlan.getMeasurements().size();
+    if (!isMonitor) {
+      statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS.name())
+          .addAndGet(pointNum);
+    }
+
+    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
+    try {
+      long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+      long[] times = batchInsertPlan.getTimes();
+      int[] bufferWriteRows = new int[rowCount];
+      int bufferWriteRowCount = 0;
+      for (int i = 0; i < rowCount; i++) {
+        if (times[i] < lastUpdateTime) {
+          TSRecord tsRecord = batchInsertPlan.getRecord(i);
+          insertOverflow(fileNodeProcessor, tsRecord.time, tsRecord, isMonitor, deviceId);
+        } else {
+          bufferWriteRows[bufferWriteRowCount++] = i;
         }
-        throw new FileNodeManagerException(e);
       }
+      if (bufferWriteRowCount == rowCount) {
+        insertBufferWrite(fileNodeProcessor, batchInsertPlan, isMonitor);
+      } else if (bufferWriteRowCount > 0) {
+        insertBufferWrite(fileNodeProcessor,
+            batchInsertPlan.selectRows(bufferWriteRows, bufferWriteRowCount), isMonitor);
+      }
+    } catch (FileNodeProcessorException e) {
+      LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
+          fileNodeProcessor.getProcessorName()), e);
+      throw new FileNodeManagerException(e);
+    } finally {
+      fileNodeProcessor.writeUnlock();
     }
-    // write wal
-    writeLog(tsRecord, isMonitor, bufferWriteProcessor.getLogNode());
-    // Write data
-    fileNodeProcessor.setIntervalFileNodeStartTime(deviceId);
-    fileNodeProcessor.setLastUpdateTime(deviceId, timestamp);
+    if (!isMonitor) {
+      fileNodeProcessor.getStatParamsHashMap()
+          .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
+          .addAndGet(pointNum);
+      fileNodeProcessor.getStatParamsHashMap()
+          .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_REQ_SUCCESS.name())
+          .incrementAndGet();
+      statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_SUCCESS.name())
+          .incrementAndGet();
+      statParamsHashMap
+          .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
+          .addAndGet(pointNum);
+    }
+  }
+
+  private void insertBufferWrite(FileNodeProcessor fileNodeProcessor,
+      BatchInsertPlan batchInsertPlan, boolean isMonitor)
+      throws FileNodeManagerException, FileNodeProcessorException {
+    String deviceId = batchInsertPlan.getDeviceId();
+    long pointNum = (long) batchInsertPlan.getRowCount() * batchInsertPlan.getMeasurements().size();
+    String filenodeName = fileNodeProcessor.getProcessorName();
     try {
-      bufferWriteProcessor.write(tsRecord);
-    } catch (BufferWriteProcessorException e) {
+      BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor
+          .getBufferWriteProcessor(filenodeName, batchInsertPlan.getMinTime());
+      addIntervalFileNodeIfNew(fileNodeProcessor, bufferWriteProcessor);
+      // the flush back-pressure is checked before the wal is written
+      bufferWriteProcessor.write(batchInsertPlan, () -> {
+        // write wal, one record for the whole batch unless it exceeds the max log entry size
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
+          try {
+            for (BatchInsertPlan logPlan : PhysicalPlanLogTransfer.splitForLog(batchInsertPlan)) {
+              bufferWriteProcessor.getLogNode().write(logPlan);
+            }
+          } catch (IOException e) {
+            throw new BufferWriteProcessorException(e);
+          }
+        }
+        fileNodeProcessor.setIntervalFileNodeStartTime(deviceId);
+        fileNodeProcessor.setLastUpdateTime(deviceId, batchInsertPlan.getMaxTime());
+        return true;
+      });
+    } catch (FileNodeProcessorException | ActionException | BufferWriteProcessorException e) {
+      LOGGER.error("Insert a batch into the bufferwrite processor of {} failed.", filenodeName);
       if (!isMonitor) {
-        updateStatHashMapWhenFail(tsRecord);
+        updateStatHashMapWhenFail(pointNum);
       }
       throw new FileNodeManagerException(e);
     }
 
-    if (bufferWriteProcessor
-        .getFileSize() > IoTDBDescriptor.getInstance()
-        .getConfig().getBufferwriteFileSizeThreshold()) {
-      if (LOGGER.isInfoEnabled()) {
-        LOGGER.info(
-            "The filenode processor {} will close the bufferwrite processor, "
-                + "because the size[{}] of tsfile {} reaches the threshold {}",
-            filenodeName, MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
-            bufferWriteProcessor.getFileName(), MemUtils.bytesCntToStr(
-                IoTDBDescriptor.getInstance().getConfig().getBufferwriteFileSizeThreshold()));
-      }
+    closeBufferWriteIfFull(fileNodeProcessor);
+  }
 
-      fileNodeProcessor.closeBufferWrite();
+  private boolean isBufferWriteFileFull(FileNodeProcessor fileNodeProcessor)
+      throws FileNodeProcessorException {
+    return fileNodeProcessor.hasBufferwriteProcessor()
+        && fileNodeProcessor.getBufferWriteProcessor().getFileSize() > IoTDBDescriptor
+        .getInstance().getConfig().getBufferwriteFileSizeThreshold();
+  }
+
+  /**
+   * close the bufferwrite processor if its file reaches the size threshold. The caller must hold
+   * the write lock of the filenode processor.
+   */
+  private void closeBufferWriteIfFull(FileNodeProcessor fileNodeProcessor)
+      throws FileNodeProcessorException {
+    if (!isBufferWriteFileFull(fileNodeProcessor)) {
+      return;
     }
+    BufferWriteProcessor bufferWriteProcessor = fileNodeProcessor.getBufferWriteProcessor();
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info(
+          "The filenode processor {} will close the bufferwrite processor, "
+              + "because the size[{}] of tsfile {} reaches the threshold {}",
+          fileNodeProcessor.getProcessorName(),
+          MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
+          bufferWriteProcessor.getFileName(), MemUtils.bytesCntToStr(
+              IoTDBDescriptor.getInstance().getConfig().getBufferwriteFileSizeThreshold()));
+    }
+
+    fileNodeProcessor.closeBufferWrite();
   }
 
   /**
@@ -851,9 +1057,9 @@ public class FileNodeManager implements IStatistic, IService {
 
       cleanBufferWrite(processorName);
 
-      MultiFileLogNodeManager.getInstance()
+      WriteLogNodeManagerFactory.getManager()
           .deleteNode(processorName + IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX);
-      MultiFileLogNodeManager.getInstance()
+      WriteLogNodeManagerFactory.getManager()
           .deleteNode(processorName + IoTDBConstant.OVERFLOW_LOG_NODE_SUFFIX);
     } catch (IOException e) {
       LOGGER.error("Delete the filenode processor {} error.", processorName, e);
@@ -876,6 +1082,7 @@ public class FileNodeManager implements IStatistic, IService {
       if (bufferFiles != null) {
         for (File bufferFile : bufferFiles) {
           FileReaderManager.getInstance().closeFileAndRemoveReader(bufferFile.getPath());
+          TsFileMetaDataCache.getInstance().remove(bufferFile.getPath());
         }
       }
       FileUtils.deleteDirectory(new File(bufferwritePath));
@@ -1104,17 +1311,21 @@ public class FileNodeManager implements IStatistic, IService {
   }
 
   private void flushTop(float percentage) throws IOException {
-    List<FileNodeProcessor> tempProcessors = new ArrayList<>(processorMap.values());
+    // take a snapshot of the memory usages, which keep changing while sorting
+    List<Pair<FileNodeProcessor, Long>> tempProcessors = new ArrayList<>();
+    for (FileNodeProcessor processor : processorMap.values()) {
+      tempProcessors.add(new Pair<>(processor, processor.memoryUsage()));
+    }
     // sort the tempProcessors as descending order
-    tempProcessors.sort((o1, o2) -> (int) (o2.memoryUsage() - o1.memoryUsage()));
+    tempProcessors.sort((o1, o2) -> Long.compare(o2.right, o1.right));
     int flushNum =
         (int) (tempProcessors.size() * percentage) > 1
             ? (int) (tempProcessors.size() * percentage)
             : 1;
     for (int i = 0; i < flushNum && i < tempProcessors.size(); i++) {
-      FileNodeProcessor processor = tempProcessors.get(i);
+      FileNodeProcessor processor = tempProcessors.get(i).left;
       // 64M
-      if (processor.memoryUsage() <= TSFileConfig.groupSizeInByte / 2) {
+      if (tempProcessors.get(i).right <= TSFileConfig.groupSizeInByte / 2) {
         continue;
       }
       processor.writeLock();
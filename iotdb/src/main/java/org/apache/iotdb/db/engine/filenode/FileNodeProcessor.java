@@ -38,6 +38,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -53,6 +54,7 @@ import org.apache.iotdb.db.engine.bufferwrite.Action;
 import org.apache.iotdb.db.engine.bufferwrite.ActionException;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
 import org.apache.iotdb.db.engine.bufferwrite.FileNodeConstants;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
@@ -261,15 +263,15 @@ public class FileNodeProcessor extends Processor implements IStatistic {
           processorName, e);
       throw new FileNodeProcessorException(e);
     }
-    // TODO deep clone the lastupdate time
-    lastUpdateTimeMap = fileNodeProcessorStore.getLastUpdateTimeMap();
+    // updated by concurrent writers, see canAppendConcurrently
+    lastUpdateTimeMap = new ConcurrentHashMap<>(fileNodeProcessorStore.getLastUpdateTimeMap());
     emptyTsFileResource = fileNodeProcessorStore.getEmptyTsFileResource();
     newFileNodes = fileNodeProcessorStore.getNewFileNodes();
     isMerging = fileNodeProcessorStore.getFileNodeProcessorStatus();
     numOfMergeFile = fileNodeProcessorStore.getNumOfMergeFile();
     invertedIndexOfFiles = new HashMap<>();
     // deep clone
-    flushLastUpdateTimeMap = new HashMap<>();
+    flushLastUpdateTimeMap = new ConcurrentHashMap<>();
     for (Entry<String, Long> entry : lastUpdateTimeMap.entrySet()) {
       flushLastUpdateTimeMap.put(entry.getKey(), entry.getValue() + 1);
     }
@@ -585,9 +587,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    * set last update time.
    */
   public void setLastUpdateTime(String deviceId, long timestamp) {
-    if (!lastUpdateTimeMap.containsKey(deviceId) || lastUpdateTimeMap.get(deviceId) < timestamp) {
-      lastUpdateTimeMap.put(deviceId, timestamp);
-    }
+    lastUpdateTimeMap.merge(deviceId, timestamp, Math::max);
   }
 
   /**
@@ -606,10 +606,24 @@ public class FileNodeProcessor extends Processor implements IStatistic {
    * get flush last update time.
    */
   public long getFlushLastUpdateTime(String deviceId) {
-    if (!flushLastUpdateTimeMap.containsKey(deviceId)) {
-      flushLastUpdateTimeMap.put(deviceId, 0L);
-    }
-    return flushLastUpdateTimeMap.get(deviceId);
+    return flushLastUpdateTimeMap.computeIfAbsent(deviceId, k -> 0L);
+  }
+
+  /**
+   * check whether a record can be appended to the working bufferwrite processor by a writer which
+   * only holds the read lock of this processor. It is true when the record is not overflowed and
+   * the device has been registered in the current interval file, so that the insertion changes
+   * neither the interval files nor the inverted index. The caller must hold the insert lock of the
+   * bufferwrite processor, see {@code BufferWriteProcessor.write(TSRecord, InsertAdmission)}.
+   *
+   * @param deviceId device ID
+   * @param timestamp insert time
+   */
+  public boolean canAppendConcurrently(String deviceId, long timestamp) {
+    Long flushLastUpdateTime = flushLastUpdateTimeMap.get(deviceId);
+    return flushLastUpdateTime != null && timestamp >= flushLastUpdateTime
+        && bufferWriteProcessor != null && !bufferWriteProcessor.isNewProcessor()
+        && currentTsFileResource != null && currentTsFileResource.getStartTime(deviceId) != -1;
   }
 
   public Map<String, Long> getLastUpdateTimeMap() {
@@ -1419,6 +1433,7 @@ public class FileNodeProcessor extends Processor implements IStatistic {
       for (File file : files) {
         if (!bufferFiles.contains(file.getPath())) {
           FileReaderManager.getInstance().closeFileAndRemoveReader(file.getPath());
+          TsFileMetaDataCache.getInstance().remove(file.getPath());
           if (!file.delete()) {
             LOGGER.warn("Cannot delete BufferWrite file {}", file.getPath());
           }
@@ -18,8 +18,8 @@
  */
 package org.apache.iotdb.db.engine.memcontrol;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
@@ -29,7 +29,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This class hold global memory usage of MemUsers. This only counts record(tuple) sizes.
+ * This class hold global memory usage of MemUsers. The processors report the exact memory taken
+ * and given back by their memtables, which is counted by TVList#getMemSize(). Every request is
+ * recorded, since the memory has been taken by the time it is reported, and a request which
+ * reaches the dangerous threshold is answered with DANGEROUS so that the user flushes.
  */
 public class RecordMemController extends BasicMemController {
 
@@ -41,7 +44,7 @@ public class RecordMemController extends BasicMemController {
 
   private RecordMemController(IoTDBConfig config) {
     super(config);
-    memMap = new HashMap<>();
+    memMap = new ConcurrentHashMap<>();
     totalMemUsed = new AtomicLong(0);
   }
 
@@ -85,44 +88,24 @@ public class RecordMemController extends BasicMemController {
    */
   @Override
   public UsageLevel reportUse(Object user, long usage) {
-    Long oldUsage = memMap.get(user);
-    if (oldUsage == null) {
-      oldUsage = 0L;
-    }
-    long newTotUsage = totalMemUsed.get() + usage;
-    // check if the new usage will reach dangerous threshold
-    if (newTotUsage > dangerouseThreshold) {
+    long oldUsage = memMap.merge(user, usage, Long::sum) - usage;
+    long newTotUsage = totalMemUsed.addAndGet(usage);
+    if (newTotUsage < warningThreshold) {
+      logSafe(newTotUsage, user, usage, oldUsage);
+      return UsageLevel.SAFE;
+    } else if (newTotUsage < dangerouseThreshold) {
+      logWarn(newTotUsage, user, usage, oldUsage);
+      return UsageLevel.WARNING;
+    } else {
       logDangerous(newTotUsage, user);
       return UsageLevel.DANGEROUS;
     }
-
-    if (newTotUsage < dangerouseThreshold) {
-      newTotUsage = totalMemUsed.addAndGet(usage);
-      // double check if updating will reach dangerous threshold
-      if (newTotUsage < warningThreshold) {
-        // still safe, action taken
-        memMap.put(user, oldUsage + usage);
-        logSafe(newTotUsage, user, usage, oldUsage);
-        return UsageLevel.SAFE;
-      } else if (newTotUsage < dangerouseThreshold) {
-        // become warning because competition with other threads, still take the action
-        memMap.put(user, oldUsage + usage);
-        logWarn(newTotUsage, user, usage, oldUsage);
-        return UsageLevel.WARNING;
-      } else {
-        logDangerous(newTotUsage, user);
-        // become dangerous because competition with other threads, discard this action
-        totalMemUsed.addAndGet(-usage);
-        return UsageLevel.DANGEROUS;
-      }
-    }
-    return null;
   }
 
   private void logDangerous(long newTotUsage, Object user) {
     if (LOGGER.isWarnEnabled()) {
-      LOGGER.warn("Memory request from {} is denied, memory usage : {}", user.getClass(),
-          MemUtils.bytesCntToStr(newTotUsage));
+      LOGGER.warn("Memory usage reaches the dangerous threshold after a request from {} : {}",
+          user.getClass(), MemUtils.bytesCntToStr(newTotUsage));
     }
   }
 
@@ -149,21 +132,22 @@ public class RecordMemController extends BasicMemController {
    */
   @Override
   public void reportFree(Object user, long freeSize) {
-    Long usage = memMap.get(user);
-    if (usage == null) {
+    long[] registered = {-1};
+    memMap.computeIfPresent(user, (k, usage) -> {
+      registered[0] = usage;
+      return usage > freeSize ? usage - freeSize : null;
+    });
+    if (registered[0] < 0) {
       LOGGER.error("Unregistered memory usage from {}", user.getClass());
-    } else if (freeSize > usage) {
+      return;
+    }
+    long usage = registered[0];
+    if (freeSize > usage) {
       LOGGER
           .error("Request to free {} bytes while it only registered {} bytes", freeSize, usage);
       totalMemUsed.addAndGet(-usage);
-      memMap.remove(user);
     } else {
       long newTotalMemUsage = totalMemUsed.addAndGet(-freeSize);
-      if (usage - freeSize > 0) {
-        memMap.put(user, usage - freeSize);
-      } else {
-        memMap.remove(user);
-      }
       if (LOGGER.isInfoEnabled()) {
         LOGGER.info("{} freed from {}, it is using {}, total usage {}",
             MemUtils.bytesCntToStr(freeSize),
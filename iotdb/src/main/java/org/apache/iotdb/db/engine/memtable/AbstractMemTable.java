@@ -21,20 +21,34 @@ package org.apache.iotdb.db.engine.memtable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public abstract class AbstractMemTable implements IMemTable {
 
   private final Map<String, Map<String, IWritableMemChunk>> memTableMap;
 
+  /**
+   * sum of the memory of all series, maintained by the increments returned by the series.
+   */
+  private final AtomicLong memSize = new AtomicLong();
+
   public AbstractMemTable() {
     this.memTableMap = new HashMap<>();
   }
 
   public AbstractMemTable(Map<String, Map<String, IWritableMemChunk>> memTableMap) {
     this.memTableMap = memTableMap;
+    for (Map<String, IWritableMemChunk> seriesMap : memTableMap.values()) {
+      for (IWritableMemChunk writableMemChunk : seriesMap.values()) {
+        memSize.addAndGet(writableMemChunk.getMemSize());
+      }
+    }
   }
 
   @Override
@@ -53,23 +67,64 @@ public abstract class AbstractMemTable implements IMemTable {
 
   private IWritableMemChunk createIfNotExistAndGet(String deviceId, String measurement,
       TSDataType dataType) {
-    if (!memTableMap.containsKey(deviceId)) {
-      memTableMap.put(deviceId, new HashMap<>());
-    }
-    Map<String, IWritableMemChunk> memSeries = memTableMap.get(deviceId);
-    if (!memSeries.containsKey(measurement)) {
-      memSeries.put(measurement, genMemSeries(dataType));
-    }
-    return memSeries.get(measurement);
+    Map<String, IWritableMemChunk> memSeries = memTableMap
+        .computeIfAbsent(deviceId, k -> genSeriesMap());
+    return memSeries.computeIfAbsent(measurement, k -> genMemSeries(dataType));
+  }
+
+  /**
+   * create the map which holds the series of one device.
+   */
+  protected Map<String, IWritableMemChunk> genSeriesMap() {
+    return new HashMap<>();
   }
 
   protected abstract IWritableMemChunk genMemSeries(TSDataType dataType);
 
   @Override
-  public void write(String deviceId, String measurement, TSDataType dataType, long insertTime,
+  public long write(String deviceId, String measurement, TSDataType dataType, long insertTime,
       String insertValue) {
     IWritableMemChunk memSeries = createIfNotExistAndGet(deviceId, measurement, dataType);
-    memSeries.write(insertTime, insertValue);
+    long increasedMemSize = memSeries.write(insertTime, insertValue);
+    memSize.addAndGet(increasedMemSize);
+    return increasedMemSize;
+  }
+
+  @Override
+  public long write(String deviceId, String measurement, TSDataType dataType, long insertTime,
+      Object insertValue) {
+    IWritableMemChunk memSeries = createIfNotExistAndGet(deviceId, measurement, dataType);
+    long increasedMemSize = memSeries.write(insertTime, insertValue);
+    memSize.addAndGet(increasedMemSize);
+    return increasedMemSize;
+  }
+
+  @Override
+  public long insert(TSRecord tsRecord) {
+    long increasedMemSize = 0;
+    for (DataPoint dataPoint : tsRecord.dataPointList) {
+      IWritableMemChunk memSeries = createIfNotExistAndGet(tsRecord.deviceId,
+          dataPoint.getMeasurementId(), dataPoint.getType());
+      increasedMemSize += memSeries.write(tsRecord.time, dataPoint);
+    }
+    memSize.addAndGet(increasedMemSize);
+    return increasedMemSize;
+  }
+
+  @Override
+  public long insertBatch(BatchInsertPlan batchInsertPlan) {
+    List<String> measurements = batchInsertPlan.getMeasurements();
+    TSDataType[] dataTypes = batchInsertPlan.getDataTypes();
+    Object[] columns = batchInsertPlan.getColumns();
+    long increasedMemSize = 0;
+    for (int i = 0; i < measurements.size(); i++) {
+      IWritableMemChunk memSeries = createIfNotExistAndGet(batchInsertPlan.getDeviceId(),
+          measurements.get(i), dataTypes[i]);
+      increasedMemSize += memSeries
+          .write(batchInsertPlan.getTimes(), columns[i], batchInsertPlan.getRowCount());
+    }
+    memSize.addAndGet(increasedMemSize);
+    return increasedMemSize;
   }
 
   @Override
@@ -83,9 +138,20 @@ public abstract class AbstractMemTable implements IMemTable {
     return sum;
   }
 
+  @Override
+  public long memSize() {
+    return memSize.get();
+  }
+
   @Override
   public void clear() {
+    for (Map<String, IWritableMemChunk> seriesMap : memTableMap.values()) {
+      for (IWritableMemChunk writableMemChunk : seriesMap.values()) {
+        writableMemChunk.reset();
+      }
+    }
     memTableMap.clear();
+    memSize.set(0);
   }
 
   @Override
@@ -114,6 +180,7 @@ public abstract class AbstractMemTable implements IMemTable {
       IWritableMemChunk newChunk = filterChunk(chunk, timestamp);
       if (newChunk != null) {
         deviceMap.put(measurementId, newChunk);
+        memSize.addAndGet(newChunk.getMemSize() - chunk.getMemSize());
       }
     }
   }
@@ -128,30 +195,31 @@ public abstract class AbstractMemTable implements IMemTable {
    * null.
    */
   private IWritableMemChunk filterChunk(IWritableMemChunk chunk, long timestamp) {
-    List<TimeValuePair> timeValuePairs = chunk.getSortedTimeValuePairList();
-    if (!timeValuePairs.isEmpty() && timeValuePairs.get(0).getTimestamp() <= timestamp) {
+    TVList sortedList = chunk.getSortedTVList();
+    if (sortedList.size() > 0 && sortedList.getTime(0) <= timestamp) {
       TSDataType dataType = chunk.getType();
       IWritableMemChunk newChunk = genMemSeries(dataType);
-      for (TimeValuePair pair : timeValuePairs) {
-        if (pair.getTimestamp() > timestamp) {
+      for (int i = 0; i < sortedList.size(); i++) {
+        long time = sortedList.getTime(i);
+        if (time > timestamp) {
           switch (dataType) {
             case BOOLEAN:
-              newChunk.putBoolean(pair.getTimestamp(), pair.getValue().getBoolean());
+              newChunk.putBoolean(time, sortedList.getBoolean(i));
               break;
             case DOUBLE:
-              newChunk.putDouble(pair.getTimestamp(), pair.getValue().getDouble());
+              newChunk.putDouble(time, sortedList.getDouble(i));
               break;
             case INT64:
-              newChunk.putLong(pair.getTimestamp(), pair.getValue().getLong());
+              newChunk.putLong(time, sortedList.getLong(i));
               break;
             case INT32:
-              newChunk.putInt(pair.getTimestamp(), pair.getValue().getInt());
+              newChunk.putInt(time, sortedList.getInt(i));
               break;
             case FLOAT:
-              newChunk.putFloat(pair.getTimestamp(), pair.getValue().getFloat());
+              newChunk.putFloat(time, sortedList.getFloat(i));
               break;
             case TEXT:
-              newChunk.putBinary(pair.getTimestamp(), pair.getValue().getBinary());
+              newChunk.putBinary(time, sortedList.getBinary(i));
               break;
             default:
                 throw new UnsupportedOperationException("Unknown datatype: " + dataType);
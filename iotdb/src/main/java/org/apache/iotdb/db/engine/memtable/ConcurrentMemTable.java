@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+/**
+ * A memtable which can be written by several threads at the same time. Devices and series are
+ * created through concurrent maps, and each {@link WritableMemChunk} serializes the writes of its
+ * own series, so writers of different series never block each other.
+ */
+public class ConcurrentMemTable extends AbstractMemTable {
+
+  public ConcurrentMemTable() {
+    super(new ConcurrentHashMap<>());
+  }
+
+  public ConcurrentMemTable(Map<String, Map<String, IWritableMemChunk>> memTableMap) {
+    super(memTableMap);
+  }
+
+  @Override
+  protected Map<String, IWritableMemChunk> genSeriesMap() {
+    return new ConcurrentHashMap<>();
+  }
+
+  @Override
+  protected IWritableMemChunk genMemSeries(TSDataType dataType) {
+    return new WritableMemChunk(dataType);
+  }
+
+  @Override
+  public IMemTable copy() {
+    Map<String, Map<String, IWritableMemChunk>> newMap = new ConcurrentHashMap<>();
+    for (Map.Entry<String, Map<String, IWritableMemChunk>> entry : getMemTableMap().entrySet()) {
+      newMap.put(entry.getKey(), new ConcurrentHashMap<>(entry.getValue()));
+    }
+
+    return new ConcurrentMemTable(newMap);
+  }
+}
@@ -20,7 +20,9 @@ package org.apache.iotdb.db.engine.memtable;
 
 import java.util.Map;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
 
 /**
  * IMemTable is designed to store data points which are not flushed into TsFile yet. An instance of
@@ -33,16 +35,48 @@ public interface IMemTable {
 
   Map<String, Map<String, IWritableMemChunk>> getMemTableMap();
 
-  void write(String deviceId, String measurement, TSDataType dataType,
+  /**
+   * @return the increased memory in byte, see {@link #memSize()}
+   */
+  long write(String deviceId, String measurement, TSDataType dataType,
       long insertTime, String insertValue);
 
+  /**
+   * write a typed value, see {@link IWritableMemChunk#write(long, Object)}.
+   *
+   * @return the increased memory in byte, see {@link #memSize()}
+   */
+  long write(String deviceId, String measurement, TSDataType dataType,
+      long insertTime, Object insertValue);
+
+  /**
+   * write all data points of a TSRecord without converting their values to String.
+   *
+   * @return the increased memory in byte, see {@link #memSize()}
+   */
+  long insert(TSRecord tsRecord);
+
+  /**
+   * write all rows of a batch, each column is appended to its series at once.
+   *
+   * @return the increased memory in byte, see {@link #memSize()}
+   */
+  long insertBatch(BatchInsertPlan batchInsertPlan);
+
   int size();
 
+  /**
+   * @return the exact memory in byte taken by the data of all series, which is the sum of
+   * {@link IWritableMemChunk#getMemSize()}.
+   */
+  long memSize();
+
   ReadOnlyMemChunk query(String deviceId, String measurement, TSDataType dataType,
       Map<String, String> props);
 
   /**
-   * release all the memory resources.
+   * release all the memory resources. The blocks of all series are given back to the
+   * PrimitiveArrayPool, so neither this memtable nor any copy of it may be read after that.
    */
   void clear();
 
@@ -59,7 +93,8 @@ public interface IMemTable {
   void delete(String deviceId, String measurementId, long timestamp);
 
   /**
-   * Make a copy of this MemTable.
+   * Make a copy of this MemTable. The series are shared with this MemTable, but the maps holding
+   * them are not, so replacing a series of the copy (e.g., by delete()) does not change this one.
    *
    * @return a MemTable with the same data as this one.
    */
@@ -18,28 +18,58 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IPointWriter;
 
-public interface IWritableMemChunk extends TimeValuePairSorter {
+public interface IWritableMemChunk extends TimeValuePairSorter, IPointWriter {
 
-  void putLong(long t, long v);
+  /**
+   * @return the increased memory in byte, see {@link #getMemSize()}
+   */
+  long write(long insertTime, String insertValue);
 
-  void putInt(long t, int v);
+  /**
+   * write a value which is already of the java type matching the data type of this chunk, i.e.,
+   * Boolean, Integer, Long, Float, Double or Binary. No string parsing is involved.
+   *
+   * @return the increased memory in byte, see {@link #getMemSize()}
+   */
+  long write(long insertTime, Object objectValue);
 
-  void putFloat(long t, float v);
+  /**
+   * write the value of a DataPoint of the data type of this chunk by its primitive put method, see
+   * {@link DataPoint#writeTo(long, IPointWriter)}.
+   *
+   * @return the increased memory in byte, see {@link #getMemSize()}
+   */
+  long write(long insertTime, DataPoint dataPoint);
 
-  void putDouble(long t, double v);
+  /**
+   * write the first length points of a column of values, which is a primitive array (or Binary[])
+   * matching the data type of this chunk.
+   *
+   * @return the increased memory in byte, see {@link #getMemSize()}
+   */
+  long write(long[] times, Object values, int length);
 
-  void putBinary(long t, Binary v);
-
-  void putBoolean(long t, boolean v);
-
-  void write(long insertTime, String insertValue);
+  /**
+   * sort the data in place by time and remove the points of duplicated timestamps (the last
+   * written one is kept), then return the underlying list, which can be read by index without
+   * creating any TimeValuePair. The returned list must not be modified by the caller.
+   */
+  TVList getSortedTVList();
 
   void reset();
 
   int count();
 
+  /**
+   * @return the exact memory in byte taken by the data of this chunk, i.e., the allocated blocks
+   * and the payloads of binary values.
+   */
+  long getMemSize();
+
   TSDataType getType();
 }
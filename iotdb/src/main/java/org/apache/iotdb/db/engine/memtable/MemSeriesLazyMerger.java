@@ -24,6 +24,12 @@ import java.util.List;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.utils.TimeValuePair;
 
+/**
+ * merge the series of several memtables of one processor, e.g., the flushing one and the working
+ * one. Each series is sorted by itself, but the working memtable accepts late points, so the time
+ * ranges of the series may overlap. If several series have a point of the same timestamp, the one
+ * of the series added last is kept, since it is written last.
+ */
 public class MemSeriesLazyMerger implements TimeValuePairSorter {
 
   private List<ReadOnlyMemChunk> memSeriesList;
@@ -35,7 +41,7 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
   /**
    * Constructor of MemSeriesLazyMerger.
    *
-   * @param memSerieses Please ensure that the memSerieses are in ascending order by timestamp.
+   * @param memSerieses the memSerieses in the order they are written.
    */
   public MemSeriesLazyMerger(ReadOnlyMemChunk... memSerieses) {
     this();
@@ -43,8 +49,7 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
   }
 
   /**
-   * IMPORTANT: Please ensure that the minimum timestamp of added {@link IWritableMemChunk} is
-   * larger than any timestamps of the IWritableMemChunk already added in.
+   * add a series which is written after the series already added in.
    */
   public void addMemSeries(ReadOnlyMemChunk series) {
     memSeriesList.add(series);
@@ -54,8 +59,39 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
   public List<TimeValuePair> getSortedTimeValuePairList() {
     List<TimeValuePair> res = new ArrayList<>();
     for (int i = 0; i < memSeriesList.size(); i++) {
-      res.addAll(memSeriesList.get(i).getSortedTimeValuePairList());
+      List<TimeValuePair> series = memSeriesList.get(i).getSortedTimeValuePairList();
+      if (res.isEmpty() || series.isEmpty()
+          || res.get(res.size() - 1).getTimestamp() < series.get(0).getTimestamp()) {
+        // the common case, the series does not overlap with the former ones
+        res.addAll(series);
+      } else {
+        res = merge(res, series);
+      }
+    }
+    return res;
+  }
+
+  /**
+   * merge two sorted lists, the point of the newer list is kept if both have the timestamp.
+   */
+  private List<TimeValuePair> merge(List<TimeValuePair> older, List<TimeValuePair> newer) {
+    List<TimeValuePair> res = new ArrayList<>(older.size() + newer.size());
+    int i = 0;
+    int j = 0;
+    while (i < older.size() && j < newer.size()) {
+      long olderTime = older.get(i).getTimestamp();
+      long newerTime = newer.get(j).getTimestamp();
+      if (olderTime < newerTime) {
+        res.add(older.get(i++));
+      } else {
+        if (olderTime == newerTime) {
+          i++;
+        }
+        res.add(newer.get(j++));
+      }
     }
+    res.addAll(older.subList(i, older.size()));
+    res.addAll(newer.subList(j, newer.size()));
     return res;
   }
 }
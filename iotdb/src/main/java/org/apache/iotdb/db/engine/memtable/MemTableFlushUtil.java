@@ -19,9 +19,19 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
-
-import org.apache.iotdb.db.utils.TimeValuePair;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.engine.pool.FlushEncodeManager;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -43,35 +53,29 @@ public class MemTableFlushUtil {
 
   }
 
-  private static void writeOneSeries(List<TimeValuePair> tvPairs, IChunkWriter seriesWriterImpl,
+  private static void writeOneSeries(TVList tvList, IChunkWriter seriesWriterImpl,
       TSDataType dataType)
       throws IOException {
-    for (TimeValuePair timeValuePair : tvPairs) {
+    for (int i = 0; i < tvList.size(); i++) {
+      long time = tvList.getTime(i);
       switch (dataType) {
         case BOOLEAN:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
+          seriesWriterImpl.write(time, tvList.getBoolean(i));
           break;
         case INT32:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getInt());
+          seriesWriterImpl.write(time, tvList.getInt(i));
           break;
         case INT64:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getLong());
+          seriesWriterImpl.write(time, tvList.getLong(i));
           break;
         case FLOAT:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getFloat());
+          seriesWriterImpl.write(time, tvList.getFloat(i));
           break;
         case DOUBLE:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(),
-                            timeValuePair.getValue().getDouble());
+          seriesWriterImpl.write(time, tvList.getDouble(i));
           break;
         case TEXT:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
+          seriesWriterImpl.write(time, tvList.getBinary(i));
           break;
         default:
           LOGGER.error("don't support data type: {}", dataType);
@@ -81,28 +85,100 @@ public class MemTableFlushUtil {
   }
 
   /**
-   * the function for flushing memtable.
+   * sort, encode and compress one series into a chunk which is ready to be written.
+   */
+  private static IChunkWriter encodeSeries(IWritableMemChunk series, MeasurementSchema desc)
+      throws IOException {
+    ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
+    IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
+    writeOneSeries(series.getSortedTVList(), seriesWriter, desc.getType());
+    // seal the last page here, so that writing the chunk into the file is pure I/O
+    seriesWriter.sealCurrentPage();
+    return seriesWriter;
+  }
+
+  /**
+   * the function for flushing memtable. The series are encoded and compressed concurrently by
+   * {@link FlushEncodeManager}, while the calling thread writes the encoded chunks into the file
+   * in the order of devices, so the file is the same as that written by one thread. At most as many
+   * series as the encoding threads are submitted ahead of the one being written, so the encoded
+   * chunks buffered in memory by a flush are bounded.
    */
   public static void flushMemTable(FileSchema fileSchema, TsFileIOWriter tsFileIoWriter,
       IMemTable imemTable, long version)
       throws IOException {
-    for (String deviceId : imemTable.getMemTableMap().keySet()) {
-      long startPos = tsFileIoWriter.getPos();
-      tsFileIoWriter.startFlushChunkGroup(deviceId);
-      int seriesNumber = imemTable.getMemTableMap().get(deviceId).size();
-      for (String measurementId : imemTable.getMemTableMap().get(deviceId).keySet()) {
+    List<Callable<IChunkWriter>> encodeTasks = new ArrayList<>();
+    for (Map<String, IWritableMemChunk> deviceSeries : imemTable.getMemTableMap().values()) {
+      for (Entry<String, IWritableMemChunk> seriesEntry : deviceSeries.entrySet()) {
         // TODO if we can not use TSFileIO writer, then we have to redesign the class of TSFileIO.
-        IWritableMemChunk series = imemTable.getMemTableMap().get(deviceId).get(measurementId);
-        MeasurementSchema desc = fileSchema.getMeasurementSchema(measurementId);
-        ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
-        IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
-        writeOneSeries(series.getSortedTimeValuePairList(), seriesWriter,
-            desc.getType());
-        seriesWriter.writeToFileWriter(tsFileIoWriter);
+        MeasurementSchema desc = fileSchema.getMeasurementSchema(seriesEntry.getKey());
+        IWritableMemChunk series = seriesEntry.getValue();
+        encodeTasks.add(() -> encodeSeries(series, desc));
+      }
+    }
+    int maxEncodingNum = Math.max(1, FlushEncodeManager.getInstance().getThreadCnt());
+    Deque<Future<IChunkWriter>> encodingChunks = new ArrayDeque<>();
+    int submittedNum = 0;
+
+    boolean succeeded = false;
+    try {
+      for (Entry<String, Map<String, IWritableMemChunk>> deviceEntry : imemTable.getMemTableMap()
+          .entrySet()) {
+        String deviceId = deviceEntry.getKey();
+        int seriesNum = deviceEntry.getValue().size();
+        long startPos = tsFileIoWriter.getPos();
+        tsFileIoWriter.startFlushChunkGroup(deviceId);
+        for (int i = 0; i < seriesNum; i++) {
+          while (submittedNum < encodeTasks.size() && encodingChunks.size() < maxEncodingNum) {
+            encodingChunks.addLast(FlushEncodeManager.getInstance()
+                .submit(encodeTasks.get(submittedNum++)));
+          }
+          getEncodedChunk(encodingChunks.pollFirst()).writeToFileWriter(tsFileIoWriter);
+        }
+        long memSize = tsFileIoWriter.getPos() - startPos;
+        ChunkGroupFooter footer = new ChunkGroupFooter(deviceId, memSize, seriesNum);
+        tsFileIoWriter.endChunkGroup(footer, version);
+      }
+      succeeded = true;
+    } finally {
+      if (!succeeded) {
+        cancelEncoding(encodingChunks);
       }
-      long memSize = tsFileIoWriter.getPos() - startPos;
-      ChunkGroupFooter footer = new ChunkGroupFooter(deviceId, memSize, seriesNumber);
-      tsFileIoWriter.endChunkGroup(footer, version);
+    }
+  }
+
+  /**
+   * the memtable may be recycled once the flush ends, so the tasks which have not started are
+   * cancelled and the running ones are waited.
+   */
+  private static void cancelEncoding(Collection<Future<IChunkWriter>> encodingChunks) {
+    for (Future<IChunkWriter> chunk : encodingChunks) {
+      chunk.cancel(false);
+    }
+    for (Future<IChunkWriter> chunk : encodingChunks) {
+      if (!chunk.isCancelled()) {
+        try {
+          chunk.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException e) {
+          LOGGER.debug("Encoding a chunk of a failed flush failed.", e);
+        }
+      }
+    }
+  }
+
+  private static IChunkWriter getEncodedChunk(Future<IChunkWriter> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for the encoding of a chunk", e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } catch (CancellationException e) {
+      throw new IOException("The encoding of a chunk is cancelled", e);
     }
   }
 }
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool;
+
+/**
+ * Recycle the memtables of bufferwrite processors. A flushed memtable is cleared, which gives its
+ * primitive blocks back to the {@link PrimitiveArrayPool}, and is then kept here to be the next
+ * work memtable of any bufferwrite processor.
+ */
+public class MemTablePool {
+
+  /**
+   * every bufferwrite processor holds at most two memtables (work and flush), cleared memtables
+   * are tiny so keeping this number of them is cheap.
+   */
+  private static final int MAX_POOLED_MEMTABLE_NUM = 128;
+
+  private final Deque<IMemTable> availableMemTables = new ArrayDeque<>();
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  private MemTablePool() {
+  }
+
+  public static MemTablePool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * @return an empty memtable which can be written concurrently.
+   */
+  public synchronized IMemTable getAvailableMemTable() {
+    IMemTable memTable = availableMemTables.poll();
+    if (memTable != null) {
+      hitCount++;
+      return memTable;
+    }
+    missCount++;
+    return new ConcurrentMemTable();
+  }
+
+  /**
+   * clear the given memtable and keep it for reuse. The caller must make sure nobody reads the
+   * memtable (or any copy of it) any more.
+   */
+  public void putBack(IMemTable memTable) {
+    memTable.clear();
+    synchronized (this) {
+      if (availableMemTables.size() < MAX_POOLED_MEMTABLE_NUM) {
+        availableMemTables.push(memTable);
+      }
+    }
+  }
+
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  public synchronized int getAvailableMemTableNum() {
+    return availableMemTables.size();
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+    }
+
+    private static final MemTablePool INSTANCE = new MemTablePool();
+  }
+}
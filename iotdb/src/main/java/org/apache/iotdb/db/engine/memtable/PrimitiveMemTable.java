@@ -40,7 +40,10 @@ public class PrimitiveMemTable extends AbstractMemTable {
 
   @Override
   public IMemTable copy() {
-    Map<String, Map<String, IWritableMemChunk>> newMap = new HashMap<>(getMemTableMap());
+    Map<String, Map<String, IWritableMemChunk>> newMap = new HashMap<>();
+    for (Map.Entry<String, Map<String, IWritableMemChunk>> entry : getMemTableMap().entrySet()) {
+      newMap.put(entry.getKey(), new HashMap<>(entry.getValue()));
+    }
 
     return new PrimitiveMemTable(newMap);
   }
@@ -19,22 +19,22 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
-import org.apache.iotdb.db.utils.PrimitiveArrayList;
+import java.util.NoSuchElementException;
 import org.apache.iotdb.db.utils.PrimitiveArrayListFactory;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public class WritableMemChunk implements IWritableMemChunk {
 
   private TSDataType dataType;
-  private PrimitiveArrayList list;
+  private TVList list;
 
   public WritableMemChunk(TSDataType dataType) {
     this.dataType = dataType;
@@ -42,7 +42,8 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public void write(long insertTime, String insertValue) {
+  public synchronized long write(long insertTime, String insertValue) {
+    long oldMemSize = list.getMemSize();
     switch (dataType) {
       case BOOLEAN:
         putBoolean(insertTime, Boolean.valueOf(insertValue));
@@ -65,64 +66,171 @@ public class WritableMemChunk implements IWritableMemChunk {
       default:
         throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
     }
+    return list.getMemSize() - oldMemSize;
   }
 
   @Override
-  public void putLong(long t, long v) {
-    list.putTimestamp(t, v);
+  public synchronized long write(long insertTime, Object objectValue) {
+    long oldMemSize = list.getMemSize();
+    switch (dataType) {
+      case BOOLEAN:
+        putBoolean(insertTime, (Boolean) objectValue);
+        break;
+      case INT32:
+        putInt(insertTime, (Integer) objectValue);
+        break;
+      case INT64:
+        putLong(insertTime, (Long) objectValue);
+        break;
+      case FLOAT:
+        putFloat(insertTime, (Float) objectValue);
+        break;
+      case DOUBLE:
+        putDouble(insertTime, (Double) objectValue);
+        break;
+      case TEXT:
+        putBinary(insertTime, (Binary) objectValue);
+        break;
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
+    return list.getMemSize() - oldMemSize;
   }
 
   @Override
-  public void putInt(long t, int v) {
-    list.putTimestamp(t, v);
+  public synchronized long write(long insertTime, DataPoint dataPoint) {
+    if (dataPoint.getType() != dataType) {
+      throw new UnSupportedDataTypeException(
+          "Data type " + dataPoint.getType() + " does not match the series type " + dataType);
+    }
+    long oldMemSize = list.getMemSize();
+    dataPoint.writeTo(insertTime, this);
+    return list.getMemSize() - oldMemSize;
   }
 
   @Override
-  public void putFloat(long t, float v) {
-    list.putTimestamp(t, v);
+  public synchronized long write(long[] times, Object values, int length) {
+    long oldMemSize = list.getMemSize();
+    list.putAll(times, values, length);
+    return list.getMemSize() - oldMemSize;
   }
 
   @Override
-  public void putDouble(long t, double v) {
-    list.putTimestamp(t, v);
+  public synchronized void putLong(long t, long v) {
+    list.putLong(t, v);
   }
 
   @Override
-  public void putBinary(long t, Binary v) {
-    list.putTimestamp(t, v);
+  public synchronized void putInt(long t, int v) {
+    list.putInt(t, v);
   }
 
   @Override
-  public void putBoolean(long t, boolean v) {
-    list.putTimestamp(t, v);
+  public synchronized void putFloat(long t, float v) {
+    list.putFloat(t, v);
   }
 
   @Override
-  // TODO: Consider using arrays to sort and remove duplicates
-  public List<TimeValuePair> getSortedTimeValuePairList() {
-    int length = list.size();
+  public synchronized void putDouble(long t, double v) {
+    list.putDouble(t, v);
+  }
+
+  @Override
+  public synchronized void putBinary(long t, Binary v) {
+    list.putBinary(t, v);
+  }
+
+  @Override
+  public synchronized void putBoolean(long t, boolean v) {
+    list.putBoolean(t, v);
+  }
+
+  @Override
+  public synchronized TVList getSortedTVList() {
+    list.sort();
+    return list;
+  }
 
-    Map<Long, TsPrimitiveType> map = new HashMap<>(length, 1.0f);
+  @Override
+  public synchronized List<TimeValuePair> getSortedTimeValuePairList() {
+    list.sort();
+    int length = list.size();
+    List<TimeValuePair> ret = new ArrayList<>(length);
     for (int i = 0; i < length; i++) {
-      map.put(list.getTimestamp(i), TsPrimitiveType.getByType(dataType, list.getValue(i)));
+      ret.add(new TimeValuePairInMemTable(list.getTime(i), getValue(i)));
     }
-    List<TimeValuePair> ret = new ArrayList<>(map.size());
-    map.forEach((k, v) -> ret.add(new TimeValuePairInMemTable(k, v)));
-    ret.sort(TimeValuePair::compareTo);
     return ret;
+  }
 
+  /**
+   * a cursor over the list sorted in place, which creates a TimeValuePair only for the point it
+   * returns instead of copying the whole series. The list is read directly, so it must not be
+   * written or cleared while the cursor is used.
+   */
+  @Override
+  public synchronized Iterator<TimeValuePair> getIterator() {
+    list.sort();
+    int length = list.size();
+    return new Iterator<TimeValuePair>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < length;
+      }
+
+      @Override
+      public TimeValuePair next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        TimeValuePair pair = new TimeValuePairInMemTable(list.getTime(index), getValue(index));
+        index++;
+        return pair;
+      }
+    };
   }
 
   @Override
-  public void reset() {
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+  public synchronized boolean isEmpty() {
+    // removing the duplicated timestamps never empties a list, so there is no need to sort it
+    return list.size() == 0;
+  }
+
+  private TsPrimitiveType getValue(int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(list.getBoolean(index));
+      case INT32:
+        return new TsPrimitiveType.TsInt(list.getInt(index));
+      case INT64:
+        return new TsPrimitiveType.TsLong(list.getLong(index));
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(list.getFloat(index));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(list.getDouble(index));
+      case TEXT:
+        return new TsPrimitiveType.TsBinary(list.getBinary(index));
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
   }
 
   @Override
-  public int count() {
+  public synchronized void reset() {
+    list.clear();
+  }
+
+  @Override
+  public synchronized int count() {
     return list.size();
   }
 
+  @Override
+  public synchronized long getMemSize() {
+    return list.getMemSize();
+  }
+
   @Override
   public TSDataType getType() {
     return dataType;
@@ -26,8 +26,8 @@ import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
-import java.util.ArrayList;
 
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 import org.apache.iotdb.tsfile.write.writer.TsFileOutput;
@@ -37,8 +37,16 @@ public class OverflowIO extends TsFileIOWriter {
   private OverflowReadWriter overflowReadWriter;
 
   public OverflowIO(OverflowReadWriter overflowReadWriter) throws IOException {
-    super(overflowReadWriter, new ArrayList<>());
+    super();
+    this.out = overflowReadWriter;
     this.overflowReadWriter = overflowReadWriter;
+    // the reader shares the input of this writer, so it is not closed
+    version = new TsFileSequenceReader(overflowReadWriter, false).readVersion();
+    if (overflowReadWriter.size() <= getHeadSize(version)) {
+      // the file has no data and its head may be incomplete, so rewrite it
+      overflowReadWriter.truncate(0);
+      startFile();
+    }
     toTail();
   }
 
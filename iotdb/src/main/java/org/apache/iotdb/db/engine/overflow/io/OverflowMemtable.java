@@ -28,7 +28,6 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.LongStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
-import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 /**
  * This class is used to store and query all overflow data in memory.<br>
@@ -50,12 +49,11 @@ public class OverflowMemtable {
     memTable = new PrimitiveMemTable();
   }
 
-  public void insert(TSRecord tsRecord) {
-    for (DataPoint dataPoint : tsRecord.dataPointList) {
-      memTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
-              tsRecord.time,
-              dataPoint.getValue().toString());
-    }
+  /**
+   * @return the increased memory in byte of the memtable
+   */
+  public long insert(TSRecord tsRecord) {
+    return memTable.insert(tsRecord);
   }
 
   /**
@@ -104,13 +102,18 @@ public class OverflowMemtable {
     return memTable;
   }
 
+  /**
+   * @return the exact memory in byte of the inserted data, the statistics of updates are not
+   * counted.
+   */
   public long getSize() {
-    // TODO: calculate the size of this overflow support
-    return 0;
+    return memTable.memSize();
   }
 
   public void clear() {
     indexTrees.clear();
-    memTable.clear();
+    // queries read the chunks of the memtable lazily, so its blocks are not recycled by
+    // memTable.clear() but left to the GC. Overflow data is rare, so they are not worth pooling.
+    memTable = new PrimitiveMemTable();
   }
 }
@@ -54,7 +54,7 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.utils.ImmediateFuture;
 import org.apache.iotdb.db.utils.MemUtils;
-import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
+import org.apache.iotdb.db.writelog.manager.WriteLogNodeManagerFactory;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
@@ -90,7 +90,10 @@ public class OverflowProcessor extends Processor {
   private FileSchema fileSchema;
 
   private long memThreshold = TSFileConfig.groupSizeInByte;
+  // memory of the work memtable which has been accepted by the BasicMemController
   private AtomicLong memSize = new AtomicLong();
+  // memory of the flushing memtable which has been accepted, it is freed when the flush ends
+  private volatile long flushMemSize = 0;
 
   private WriteLogNode logNode;
   private VersionController versionController;
@@ -120,7 +123,7 @@ public class OverflowProcessor extends Processor {
         .get(FileNodeConstants.FILENODE_PROCESSOR_FLUSH_ACTION);
 
     if (IoTDBDescriptor.getInstance().getConfig().isEnableWal()) {
-      logNode = MultiFileLogNodeManager.getInstance().getNode(
+      logNode = WriteLogNodeManagerFactory.getManager().getNode(
           processorName + IoTDBConstant.OVERFLOW_LOG_NODE_SUFFIX,
           getOverflowRestoreFile(),
           FileNodeManager.getInstance().getRestoreFilePath(processorName));
@@ -172,14 +175,16 @@ public class OverflowProcessor extends Processor {
    * insert one time-series record
    */
   public void insert(TSRecord tsRecord) throws IOException {
-    // memory control
-    long memUage = MemUtils.getRecordSize(tsRecord);
-    BasicMemController.getInstance().reportUse(this, memUage);
     // write data
-    workSupport.insert(tsRecord);
+    long memUage = workSupport.insert(tsRecord);
     valueCount++;
+    // memory control, the controller records the usage even if it is dangerous
+    if (memUage > 0) {
+      BasicMemController.getInstance().reportUse(this, memUage);
+      memSize.addAndGet(memUage);
+    }
     // check flush
-    memUage = memSize.addAndGet(memUage);
+    memUage = workSupport.getSize();
     if (memUage > memThreshold) {
       LOGGER.warn("The usage of memory {} in overflow processor {} reaches the threshold {}",
           MemUtils.bytesCntToStr(memUage), getProcessorName(),
@@ -390,6 +395,10 @@ public class OverflowProcessor extends Processor {
   private void switchFlushToWork() {
     queryFlushLock.lock();
     try {
+      if (flushMemSize > 0) {
+        BasicMemController.getInstance().reportFree(this, flushMemSize);
+        flushMemSize = 0;
+      }
       flushSupport.clear();
       workResource.appendMetadatas();
       flushSupport = null;
@@ -514,13 +523,12 @@ public class OverflowProcessor extends Processor {
               getProcessorName(), e);
         }
       }
-      BasicMemController.getInstance().reportFree(this, memSize.get());
-      memSize.set(0);
+      flushMemSize = memSize.getAndSet(0);
       valueCount = 0;
       // switch from work to flush
       switchWorkToFlush();
       flushFuture = FlushManager.getInstance().submit( () ->
-          flushTask("asynchronously"));
+          flushTask("asynchronously"), flushSupport.getSize());
     } else {
       flushFuture = new ImmediateFuture(true);
     }
@@ -573,7 +581,8 @@ public class OverflowProcessor extends Processor {
 
   @Override
   public long memoryUsage() {
-    return memSize.get();
+    OverflowMemtable flushing = flushSupport;
+    return workSupport.getSize() + (flushing == null ? 0 : flushing.getSize());
   }
 
   public String getOverflowRestoreFile() {
@@ -151,14 +151,15 @@ public class OverflowResource {
     // read insert meta-data
     insertIO.toTail();
     long position = insertIO.getPos();
-    while (position != TsFileIOWriter.magicStringBytes.length) {
+    while (position != TsFileIOWriter.getHeadSize(insertIO.getVersion())) {
       insertIO.getReader().position(position - FOOTER_LENGTH);
       int metadataLength = insertIO.getReader().readInt();
       byte[] buf = new byte[metadataLength];
       insertIO.getReader().position(position - FOOTER_LENGTH - metadataLength);
       insertIO.getReader().read(buf, 0, buf.length);
       ByteArrayInputStream inputStream = new ByteArrayInputStream(buf);
-      TsDeviceMetadata tsDeviceMetadata = TsDeviceMetadata.deserializeFrom(inputStream);
+      TsDeviceMetadata tsDeviceMetadata = TsDeviceMetadata
+          .deserializeFrom(inputStream, insertIO.getVersion());
       byte[] bytesPosition = new byte[8];
       insertIO.getReader().position(position - FOOTER_LENGTH - metadataLength - POS_LENGTH);
       insertIO.getReader().read(bytesPosition, 0, POS_LENGTH);
@@ -236,7 +237,7 @@ public class OverflowResource {
         TsDeviceMetadata tsDeviceMetadata = new TsDeviceMetadata();
         tsDeviceMetadata.setChunkGroupMetadataList(rowGroupMetaDatas);
         long start = insertIO.getPos();
-        tsDeviceMetadata.serializeTo(insertIO.getOutputStream());
+        tsDeviceMetadata.serializeTo(insertIO.getOutputStream(), insertIO.getVersion());
         long end = insertIO.getPos();
         insertIO.getWriter().write(BytesUtils.intToBytes((int) (end - start)));
         // clear the meta-data of insert IO
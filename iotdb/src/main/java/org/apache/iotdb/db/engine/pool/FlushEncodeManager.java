@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+/**
+ * FlushEncodeManager sorts, encodes and compresses the series of flushing memtables, while the
+ * flush threads of {@link FlushManager} write the encoded chunks into files. Its tasks never wait
+ * for other tasks, so a flush thread can safely wait for them. It is shut down together with the
+ * FlushManager, after which the tasks are run by the submitting (flush) thread.
+ */
+public class FlushEncodeManager {
+
+  private ExecutorService pool;
+  private int threadCnt;
+
+  private FlushEncodeManager() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    this.threadCnt = config.getConcurrentFlushEncodeThread();
+    pool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadCnt, ThreadName.FLUSH_ENCODE_SERVICE.getName());
+  }
+
+  public static FlushEncodeManager getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * recreate the pool if it has been shut down.
+   */
+  public synchronized void reopen() {
+    if (pool.isShutdown()) {
+      pool = IoTDBThreadPoolFactory
+          .newFixedThreadPool(threadCnt, ThreadName.FLUSH_ENCODE_SERVICE.getName());
+    }
+  }
+
+  /**
+   * refuse new tasks, the submitted ones are still run by the pool.
+   */
+  public synchronized void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * refuse new tasks and cancel the submitted ones which have not started, so that no flush thread
+   * waits for a task which will never run.
+   */
+  public synchronized void forceClose() {
+    for (Runnable task : pool.shutdownNow()) {
+      if (task instanceof Future) {
+        ((Future<?>) task).cancel(false);
+      }
+    }
+  }
+
+  /**
+   * submit an encoding task. If the pool has been shut down, the task is run by the calling thread
+   * before returning.
+   */
+  public <T> Future<T> submit(Callable<T> task) {
+    try {
+      return pool.submit(task);
+    } catch (RejectedExecutionException e) {
+      FutureTask<T> futureTask = new FutureTask<>(task);
+      futureTask.run();
+      return futureTask;
+    }
+  }
+
+  public int getActiveCnt() {
+    return ((ThreadPoolExecutor) pool).getActiveCount();
+  }
+
+  public int getThreadCnt() {
+    return threadCnt;
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      //allowed to do nothing
+    }
+
+    private static FlushEncodeManager instance = new FlushEncodeManager();
+  }
+}
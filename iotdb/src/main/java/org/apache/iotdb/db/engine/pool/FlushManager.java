@@ -18,24 +18,44 @@
  */
 package org.apache.iotdb.db.engine.pool;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.ProcessorException;
 
+/**
+ * FlushManager runs the flush tasks of all storage groups on a fixed number of threads. The pending
+ * tasks are not run in the order they are submitted: a free flush thread takes the task which has
+ * waited for more than MAX_WAIT_TIME_IN_MS first, and otherwise the task of the largest memtable,
+ * which releases the most memory.
+ */
 public class FlushManager {
 
   private static final int EXIT_WAIT_TIME = 60 * 1000;
+  /**
+   * a task waiting longer than this is run before larger ones, so small tasks are not starved.
+   */
+  private static final long MAX_WAIT_TIME_IN_MS = 10 * 1000L;
 
   private ExecutorService pool;
   private int threadCnt;
+  // guarded by this
+  private List<PendingTask<?>> pendingTasks = new ArrayList<>();
+  private AtomicLong completedTaskCount = new AtomicLong();
+  private AtomicLong backPressureWaitCount = new AtomicLong();
+  private AtomicLong backPressureRejectCount = new AtomicLong();
 
   private FlushManager() {
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -57,6 +77,7 @@ public class FlushManager {
     }
     IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     pool = Executors.newFixedThreadPool(config.getConcurrentFlushThread());
+    FlushEncodeManager.getInstance().reopen();
   }
 
   public FlushManager(ExecutorService pool) {
@@ -75,6 +96,13 @@ public class FlushManager {
    */
   public void forceClose(boolean block, long timeOut) throws ProcessorException {
     pool.shutdownNow();
+    FlushEncodeManager.getInstance().forceClose();
+    synchronized (this) {
+      for (PendingTask<?> task : pendingTasks) {
+        task.cancel(false);
+      }
+      pendingTasks.clear();
+    }
     if (block) {
       try {
         if (!pool.awaitTermination(timeOut, TimeUnit.MILLISECONDS)) {
@@ -101,6 +129,8 @@ public class FlushManager {
    */
   public void close(boolean block, long timeOut) throws ProcessorException {
     pool.shutdown();
+    // the running flushes encode the rest of their series by themselves
+    FlushEncodeManager.getInstance().close();
     if (block) {
       try {
         if (!pool.awaitTermination(timeOut, TimeUnit.MILLISECONDS)) {
@@ -115,11 +145,73 @@ public class FlushManager {
   }
 
   public synchronized Future<?> submit(Runnable task) {
-    return pool.submit(task);
+    return submit(() -> {
+      task.run();
+      return null;
+    }, 0);
   }
 
   public synchronized <T>Future<T> submit(Callable<T> task){
-    return pool.submit(task);
+    return submit(task, 0);
+  }
+
+  /**
+   * submit a flush task.
+   *
+   * @param task the flush task
+   * @param memSize the size of the memtable to be flushed, tasks of larger memtables run first
+   * @return the future of the task
+   */
+  public synchronized <T> Future<T> submit(Callable<T> task, long memSize) {
+    PendingTask<T> pendingTask = new PendingTask<>(task, memSize);
+    pendingTasks.add(pendingTask);
+    try {
+      // each submission wakes one thread, which runs the most urgent task at that time
+      pool.execute(this::runMostUrgentTask);
+    } catch (RejectedExecutionException e) {
+      pendingTasks.remove(pendingTask);
+      throw e;
+    }
+    return pendingTask;
+  }
+
+  private void runMostUrgentTask() {
+    PendingTask<?> task = pollMostUrgentTask();
+    if (task != null) {
+      task.run();
+      completedTaskCount.incrementAndGet();
+    }
+  }
+
+  private synchronized PendingTask<?> pollMostUrgentTask() {
+    if (pendingTasks.isEmpty()) {
+      return null;
+    }
+    long now = System.currentTimeMillis();
+    PendingTask<?> oldest = pendingTasks.get(0);
+    PendingTask<?> largest = oldest;
+    for (PendingTask<?> task : pendingTasks) {
+      if (task.memSize > largest.memSize) {
+        largest = task;
+      }
+    }
+    // tasks are appended, so the first one is the oldest
+    PendingTask<?> selected = now - oldest.submitTime > MAX_WAIT_TIME_IN_MS ? oldest : largest;
+    pendingTasks.remove(selected);
+    return selected;
+  }
+
+  /**
+   * record that a writer has waited for a flush to end because its storage group had too many
+   * memtables to be flushed.
+   *
+   * @param rejected true if the writer still could not write after waiting
+   */
+  public void recordBackPressure(boolean rejected) {
+    backPressureWaitCount.incrementAndGet();
+    if (rejected) {
+      backPressureRejectCount.incrementAndGet();
+    }
   }
 
   public int getActiveCnt() {
@@ -130,6 +222,33 @@ public class FlushManager {
     return threadCnt;
   }
 
+  public synchronized int getPendingTaskNum() {
+    return pendingTasks.size();
+  }
+
+  public long getCompletedTaskNum() {
+    return completedTaskCount.get();
+  }
+
+  public long getBackPressureWaitCount() {
+    return backPressureWaitCount.get();
+  }
+
+  public long getBackPressureRejectCount() {
+    return backPressureRejectCount.get();
+  }
+
+  private static class PendingTask<T> extends FutureTask<T> {
+
+    private long memSize;
+    private long submitTime = System.currentTimeMillis();
+
+    private PendingTask(Callable<T> callable, long memSize) {
+      super(callable);
+      this.memSize = memSize;
+    }
+  }
+
   private static class InstanceHolder {
     private InstanceHolder(){
       //allowed to do nothing
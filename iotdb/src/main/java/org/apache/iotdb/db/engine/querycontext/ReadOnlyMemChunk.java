@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.querycontext;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -71,27 +72,46 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
     }
   }
 
+  /**
+   * copy the points out of the series through its cursor. The copy is kept because the series of
+   * the working memtable is still written, and the series of a flushed memtable is cleared and its
+   * blocks are reused, while a query reads them.
+   */
   private void init() {
-    sortedTimeValuePairList = memSeries.getSortedTimeValuePairList();
-    if (!(memSeries instanceof MemSeriesLazyMerger)) {
+    if (memSeries instanceof MemSeriesLazyMerger) {
+      sortedTimeValuePairList = memSeries.getSortedTimeValuePairList();
+      initialized = true;
+      return;
+    }
+    sortedTimeValuePairList = new ArrayList<>();
+    Iterator<TimeValuePair> iterator = memSeries.getIterator();
+    while (iterator.hasNext()) {
+      TimeValuePair pair = iterator.next();
       switch (dataType) {
         case FLOAT:
-          sortedTimeValuePairList.replaceAll(x -> new TimeValuePair(x.getTimestamp(),
-              new TsFloat(
-                  MathUtils.roundWithGivenPrecision(x.getValue().getFloat(), floatPrecision))));
+          pair = new TimeValuePair(pair.getTimestamp(), new TsFloat(
+              MathUtils.roundWithGivenPrecision(pair.getValue().getFloat(), floatPrecision)));
           break;
         case DOUBLE:
-          sortedTimeValuePairList.replaceAll(x -> new TimeValuePair(x.getTimestamp(),
-              new TsDouble(
-                  MathUtils.roundWithGivenPrecision(x.getValue().getDouble(), floatPrecision))));
+          pair = new TimeValuePair(pair.getTimestamp(), new TsDouble(
+              MathUtils.roundWithGivenPrecision(pair.getValue().getDouble(), floatPrecision)));
           break;
         default:
           break;
       }
+      sortedTimeValuePairList.add(pair);
     }
     initialized = true;
   }
 
+  /**
+   * read all points out of the underlying memtable(s) now instead of at the first access. It must
+   * be called before the memtables are cleared, since their blocks are reused after that.
+   */
+  public void materialize() {
+    checkInitialized();
+  }
+
   /**
    * only for test now.
    */
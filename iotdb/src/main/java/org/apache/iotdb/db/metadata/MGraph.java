@@ -144,6 +144,22 @@ public class MGraph implements Serializable {
     mtree.setStorageGroup(path);
   }
 
+  /**
+   * Set storage level with the default compressor of its timeseries for current Metadata Tree.
+   *
+   * @param path Format: root.node.(node)*
+   */
+  public void setStorageLevel(String path, CompressionType compressor) throws PathErrorException {
+    mtree.setStorageGroup(path, compressor);
+  }
+
+  /**
+   * Get the default compressor of the storage group of given seriesPath, null if it is not set.
+   */
+  public CompressionType getCompressorByPath(String path) throws PathErrorException {
+    return mtree.getCompressorByPath(path);
+  }
+
   /**
    * Check whether the input path is storage level for current Metadata Tree or not.
    *
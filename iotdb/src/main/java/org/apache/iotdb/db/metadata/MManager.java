@@ -213,7 +213,11 @@ public class MManager {
         deletePathFromMTree(args[1]);
         break;
       case MetadataOperationType.SET_STORAGE_LEVEL_TO_MTREE:
-        setStorageLevelToMTree(args[1]);
+        if (args.length > 2) {
+          setStorageLevelToMTree(args[1], CompressionType.deserialize(Short.valueOf(args[2])));
+        } else {
+          setStorageLevelToMTree(args[1]);
+        }
         break;
       case MetadataOperationType.ADD_A_PTREE:
         addAPTree(args[1]);
@@ -255,7 +259,8 @@ public class MManager {
    * @param path the timeseries seriesPath
    * @param dataType the datetype {@code DataType} for the timeseries
    * @param encoding the encoding function {@code Encoding} for the timeseries
-   * @param compressor the compressor function {@code Compressor} for the time series
+   * @param compressor the compressor function {@code Compressor} for the time series, null to use
+   * the default one of its storage group
    */
   public void addPathToMTree(String path, TSDataType dataType, TSEncoding encoding,
       CompressionType compressor, Map<String, String> props)
@@ -263,6 +268,9 @@ public class MManager {
 
     lock.writeLock().lock();
     try {
+      if (compressor == null) {
+        compressor = getDefaultCompressorWithoutLock(path);
+      }
       mgraph.addPathToMTree(path, dataType, encoding, compressor, props);
       if (writeToLog) {
         initLogStream();
@@ -295,8 +303,7 @@ public class MManager {
       throws PathErrorException, IOException, MetadataArgsErrorException {
     TSDataType tsDataType = TSDataType.valueOf(dataType);
     TSEncoding tsEncoding = TSEncoding.valueOf(encoding);
-    CompressionType type = CompressionType.valueOf(TSFileConfig.compressor);
-    addPathToMTree(path, tsDataType, tsEncoding, type, Collections.emptyMap());
+    addPathToMTree(path, tsDataType, tsEncoding, null, Collections.emptyMap());
   }
 
   /**
@@ -324,15 +331,29 @@ public class MManager {
    * function for setting storage level of the given path to mTree.
    */
   public void setStorageLevelToMTree(String path) throws PathErrorException, IOException {
+    setStorageLevelToMTree(path, null);
+  }
+
+  /**
+   * function for setting storage level of the given path to mTree.
+   *
+   * @param compressor the default compressor of the timeseries in the storage group, which are
+   * created without a compressor, null to use the one in the config
+   */
+  public void setStorageLevelToMTree(String path, CompressionType compressor)
+      throws PathErrorException, IOException {
 
     lock.writeLock().lock();
     try {
       checkAndGetDataTypeCache.clear();
       mNodeCache.clear();
-      mgraph.setStorageLevel(path);
+      mgraph.setStorageLevel(path, compressor);
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.SET_STORAGE_LEVEL_TO_MTREE + "," + path);
+        if (compressor != null) {
+          logWriter.write("," + compressor.serialize());
+        }
         logWriter.newLine();
         logWriter.flush();
       }
@@ -654,6 +675,26 @@ public class MManager {
     }
   }
 
+  /**
+   * Get the compressor of the timeseries created without one in the storage group of given
+   * seriesPath, which is the default compressor of the storage group if it is set, or the one in
+   * the config otherwise.
+   */
+  public CompressionType getDefaultCompressor(String path) throws PathErrorException {
+
+    lock.readLock().lock();
+    try {
+      return getDefaultCompressorWithoutLock(path);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private CompressionType getDefaultCompressorWithoutLock(String path) throws PathErrorException {
+    CompressionType compressor = mgraph.getCompressorByPath(path);
+    return compressor == null ? CompressionType.valueOf(TSFileConfig.compressor) : compressor;
+  }
+
   /**
    * function for getting file name by path.
    */
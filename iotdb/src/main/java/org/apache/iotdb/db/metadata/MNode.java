@@ -44,6 +44,8 @@ public class MNode implements Serializable {
   // Map for the schema in this storage group
   private Map<String, MeasurementSchema> schemaMap;
   private Map<String, Integer> numSchemaMap;
+  // Default compressor of the timeseries in this storage group, null if it is not set
+  private CompressionType compressor;
   // Corresponding data file name for current node
   private String dataFileName;
   // Column's Schema for one timeseries represented by current node if current
@@ -153,6 +155,14 @@ public class MNode implements Serializable {
     }
   }
 
+  public CompressionType getCompressor() {
+    return compressor;
+  }
+
+  public void setCompressor(CompressionType compressor) {
+    this.compressor = compressor;
+  }
+
   public String getDataFileName() {
     return dataFileName;
   }
@@ -179,6 +179,16 @@ public class MTree implements Serializable {
    * make sure check seriesPath before setting storage group.
    */
   public void setStorageGroup(String path) throws PathErrorException {
+    setStorageGroup(path, null);
+  }
+
+  /**
+   * make sure check seriesPath before setting storage group.
+   *
+   * @param compressor the default compressor of the timeseries in the storage group, null to use
+   * the one in the config
+   */
+  public void setStorageGroup(String path, CompressionType compressor) throws PathErrorException {
     String[] nodeNames = path.split(DOUB_SEPARATOR);
     MNode cur = root;
     if (nodeNames.length <= 1 || !nodeNames[0].equals(root.getName())) {
@@ -210,6 +220,7 @@ public class MTree implements Serializable {
     }
     cur = cur.getChild(nodeNames[i]);
     cur.setStorageLevel(true);
+    cur.setCompressor(compressor);
     setDataFileName(path, cur);
   }
 
@@ -558,6 +569,19 @@ public class MTree implements Serializable {
    * @return String storage group seriesPath
    */
   public String getFileNameByPath(String path) throws PathErrorException {
+    return getStorageGroupNodeByPath(path).getDataFileName();
+  }
+
+  /**
+   * Get the default compressor of the storage group of the seriesPath.
+   *
+   * @return the default compressor, null if it is not set
+   */
+  public CompressionType getCompressorByPath(String path) throws PathErrorException {
+    return getStorageGroupNodeByPath(path).getCompressor();
+  }
+
+  private MNode getStorageGroupNodeByPath(String path) throws PathErrorException {
 
     String[] nodes = path.split(DOUB_SEPARATOR);
     MNode cur = getRoot();
@@ -567,13 +591,13 @@ public class MTree implements Serializable {
             String.format(NOT_SERIES_PATH,
                 path));
       } else if (cur.isStorageLevel()) {
-        return cur.getDataFileName();
+        return cur;
       } else {
         cur = cur.getChild(nodes[i]);
       }
     }
-    if (cur.isStorageLevel()) {
-      return cur.getDataFileName();
+    if (cur != null && cur.isStorageLevel()) {
+      return cur;
     }
     throw new PathErrorException(
         String.format(NOT_SERIES_PATH, path));
@@ -44,6 +44,7 @@ import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -117,6 +118,8 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
         int result = multiInsert(insert.getDeviceId(), insert.getTime(), insert.getMeasurements(),
             insert.getValues());
         return result > 0;
+      case BATCHINSERT:
+        return insertBatch((BatchInsertPlan) plan);
       case CREATE_ROLE:
       case DELETE_ROLE:
       case CREATE_USER:
@@ -265,19 +268,7 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
       MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
 
       for (int i = 0; i < measurementList.size(); i++) {
-        if (!node.hasChild(measurementList.get(i))) {
-          throw new ProcessorException(
-              String.format("Current deviceId[%s] does not contains measurement:%s",
-                  deviceId, measurementList.get(i)));
-        }
-        MNode measurementNode = node.getChild(measurementList.get(i));
-        if (!measurementNode.isLeaf()) {
-          throw new ProcessorException(
-              String.format("Current Path is not leaf node. %s.%s", deviceId,
-                  measurementList.get(i)));
-        }
-
-        TSDataType dataType = measurementNode.getSchema().getType();
+        TSDataType dataType = getMeasurementType(node, deviceId, measurementList.get(i));
         String value = insertValues.get(i);
         value = checkValue(dataType, value);
         DataPoint dataPoint = DataPoint.getDataPoint(dataType, measurementList.get(i), value);
@@ -290,6 +281,45 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
     }
   }
 
+  private TSDataType getMeasurementType(MNode deviceNode, String deviceId, String measurement)
+      throws ProcessorException {
+    if (!deviceNode.hasChild(measurement)) {
+      throw new ProcessorException(
+          String.format("Current deviceId[%s] does not contains measurement:%s",
+              deviceId, measurement));
+    }
+    MNode measurementNode = deviceNode.getChild(measurement);
+    if (!measurementNode.isLeaf()) {
+      throw new ProcessorException(
+          String.format("Current Path is not leaf node. %s.%s", deviceId, measurement));
+    }
+    return measurementNode.getSchema().getType();
+  }
+
+  /**
+   * check the measurements of a batch against the metadata and insert all its rows.
+   */
+  private boolean insertBatch(BatchInsertPlan batchInsertPlan) throws ProcessorException {
+    try {
+      String deviceId = batchInsertPlan.getDeviceId();
+      MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
+      List<String> measurementList = batchInsertPlan.getMeasurements();
+      TSDataType[] dataTypes = batchInsertPlan.getDataTypes();
+      for (int i = 0; i < measurementList.size(); i++) {
+        TSDataType dataType = getMeasurementType(node, deviceId, measurementList.get(i));
+        if (dataType != dataTypes[i]) {
+          throw new ProcessorException(
+              String.format("The data type of %s.%s is %s, but %s is given", deviceId,
+                  measurementList.get(i), dataType, dataTypes[i]));
+        }
+      }
+      fileNodeManager.insertBatch(batchInsertPlan, false);
+      return true;
+    } catch (PathErrorException | FileNodeManagerException e) {
+      throw new ProcessorException(e.getMessage());
+    }
+  }
+
   @Override
   public List<String> getAllPaths(String originPath) throws PathErrorException {
     return MManager.getInstance().getPaths(originPath);
@@ -499,6 +529,9 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
           if (!mManager.checkFileNameByPath(path.getFullPath())) {
             throw new ProcessorException("Storage group should be created first");
           }
+          if (compressor == null) {
+            compressor = mManager.getDefaultCompressor(path.getFullPath());
+          }
           // optimize the speed of adding timeseries
           String fileNodePath = mManager.getFileNameByPath(path.getFullPath());
           // the two map is stored in the storage group node
@@ -613,7 +646,7 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
           }
           break;
         case SET_FILE_LEVEL:
-          mManager.setStorageLevelToMTree(path.getFullPath());
+          mManager.setStorageLevelToMTree(path.getFullPath(), compressor);
           break;
         default:
           throw new ProcessorException("unknown namespace type:" + namespaceType);
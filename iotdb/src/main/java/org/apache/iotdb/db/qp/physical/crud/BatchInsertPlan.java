@@ -0,0 +1,375 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.physical.crud;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+
+/**
+ * Insert many rows of one device at once. The values are organized in columns: columns[i] holds
+ * the values of measurements[i] and is a long[], int[], float[], double[], boolean[] or Binary[]
+ * according to dataTypes[i]. The j-th element of every column belongs to times[j].
+ */
+public class BatchInsertPlan extends PhysicalPlan {
+
+  private String deviceId;
+  private List<String> measurements;
+  private TSDataType[] dataTypes;
+  private long[] times;
+  private Object[] columns;
+  private int rowCount;
+
+  public BatchInsertPlan(String deviceId, List<String> measurements, TSDataType[] dataTypes,
+      long[] times, Object[] columns, int rowCount) {
+    super(false, Operator.OperatorType.BATCHINSERT);
+    this.deviceId = deviceId;
+    this.measurements = measurements;
+    this.dataTypes = dataTypes;
+    this.times = times;
+    this.columns = columns;
+    this.rowCount = rowCount;
+  }
+
+  @Override
+  public List<Path> getPaths() {
+    List<Path> ret = new ArrayList<>();
+
+    for (String m : measurements) {
+      ret.add(new Path(deviceId + "." + m));
+    }
+    return ret;
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public List<String> getMeasurements() {
+    return measurements;
+  }
+
+  public TSDataType[] getDataTypes() {
+    return dataTypes;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public Object[] getColumns() {
+    return columns;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public long getMinTime() {
+    long minTime = Long.MAX_VALUE;
+    for (int i = 0; i < rowCount; i++) {
+      minTime = Math.min(minTime, times[i]);
+    }
+    return minTime;
+  }
+
+  public long getMaxTime() {
+    long maxTime = Long.MIN_VALUE;
+    for (int i = 0; i < rowCount; i++) {
+      maxTime = Math.max(maxTime, times[i]);
+    }
+    return maxTime;
+  }
+
+  /**
+   * @return the value of the given column in the given row, boxed in the java type matching the
+   * data type of the column.
+   */
+  public Object getValue(int column, int row) {
+    switch (dataTypes[column]) {
+      case BOOLEAN:
+        return ((boolean[]) columns[column])[row];
+      case INT32:
+        return ((int[]) columns[column])[row];
+      case INT64:
+        return ((long[]) columns[column])[row];
+      case FLOAT:
+        return ((float[]) columns[column])[row];
+      case DOUBLE:
+        return ((double[]) columns[column])[row];
+      case TEXT:
+        return ((Binary[]) columns[column])[row];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataTypes[column]));
+    }
+  }
+
+  /**
+   * convert one row of this plan to a TSRecord.
+   */
+  public TSRecord getRecord(int row) {
+    TSRecord tsRecord = new TSRecord(times[row], deviceId);
+    for (int i = 0; i < measurements.size(); i++) {
+      tsRecord.addTuple(DataPoint.getDataPoint(dataTypes[i], measurements.get(i), getValue(i, row)));
+    }
+    return tsRecord;
+  }
+
+  /**
+   * build a plan which only contains the given rows of this plan.
+   *
+   * @param rows indexes of the selected rows, in the order they appear in the new plan
+   * @param length number of valid elements in rows
+   */
+  public BatchInsertPlan selectRows(int[] rows, int length) {
+    long[] newTimes = new long[length];
+    Object[] newColumns = new Object[columns.length];
+    for (int i = 0; i < length; i++) {
+      newTimes[i] = times[rows[i]];
+    }
+    for (int i = 0; i < columns.length; i++) {
+      newColumns[i] = selectColumn(dataTypes[i], columns[i], rows, length);
+    }
+    BatchInsertPlan plan = new BatchInsertPlan(deviceId, measurements, dataTypes, newTimes,
+        newColumns, length);
+    plan.setProposer(getProposer());
+    return plan;
+  }
+
+  /**
+   * build a plan which only contains the rows in [from, to) of this plan.
+   */
+  public BatchInsertPlan subPlan(int from, int to) {
+    int[] rows = new int[to - from];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = from + i;
+    }
+    return selectRows(rows, rows.length);
+  }
+
+  /**
+   * @return the size in byte of the time and the values of the given row, when they are written
+   * by {@link #serializeColumn(TSDataType, Object, int, ByteBuffer)}
+   */
+  public int getRowSerializedSize(int row) {
+    int size = Long.BYTES;
+    for (int i = 0; i < columns.length; i++) {
+      switch (dataTypes[i]) {
+        case BOOLEAN:
+          size += 1;
+          break;
+        case INT32:
+        case FLOAT:
+          size += Integer.BYTES;
+          break;
+        case INT64:
+        case DOUBLE:
+          size += Long.BYTES;
+          break;
+        case TEXT:
+          size += Integer.BYTES + ((Binary[]) columns[i])[row].getLength();
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes[i]));
+      }
+    }
+    return size;
+  }
+
+  private static Object selectColumn(TSDataType dataType, Object column, int[] rows, int length) {
+    Object newColumn = newColumn(dataType, length);
+    for (int i = 0; i < length; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          ((boolean[]) newColumn)[i] = ((boolean[]) column)[rows[i]];
+          break;
+        case INT32:
+          ((int[]) newColumn)[i] = ((int[]) column)[rows[i]];
+          break;
+        case INT64:
+          ((long[]) newColumn)[i] = ((long[]) column)[rows[i]];
+          break;
+        case FLOAT:
+          ((float[]) newColumn)[i] = ((float[]) column)[rows[i]];
+          break;
+        case DOUBLE:
+          ((double[]) newColumn)[i] = ((double[]) column)[rows[i]];
+          break;
+        case TEXT:
+          ((Binary[]) newColumn)[i] = ((Binary[]) column)[rows[i]];
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+    return newColumn;
+  }
+
+  /**
+   * create an empty column of the given data type.
+   */
+  public static Object newColumn(TSDataType dataType, int length) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[length];
+      case INT32:
+        return new int[length];
+      case INT64:
+        return new long[length];
+      case FLOAT:
+        return new float[length];
+      case DOUBLE:
+        return new double[length];
+      case TEXT:
+        return new Binary[length];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /**
+   * write the first length values of a column to the buffer, a TEXT value is written as the length
+   * of its bytes followed by the bytes. Columns of all clients and of the WAL share this format.
+   */
+  public static void serializeColumn(TSDataType dataType, Object column, int length,
+      ByteBuffer buffer) {
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) column;
+        for (int i = 0; i < length; i++) {
+          buffer.put((byte) (booleans[i] ? 1 : 0));
+        }
+        break;
+      case INT32:
+        buffer.asIntBuffer().put((int[]) column, 0, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        break;
+      case INT64:
+        buffer.asLongBuffer().put((long[]) column, 0, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+        break;
+      case FLOAT:
+        buffer.asFloatBuffer().put((float[]) column, 0, length);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        break;
+      case DOUBLE:
+        buffer.asDoubleBuffer().put((double[]) column, 0, length);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) column;
+        for (int i = 0; i < length; i++) {
+          buffer.putInt(binaries[i].getLength());
+          buffer.put(binaries[i].getValues());
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+
+  /**
+   * read a column written by {@link #serializeColumn(TSDataType, Object, int, ByteBuffer)}.
+   */
+  public static Object deserializeColumn(TSDataType dataType, int length, ByteBuffer buffer) {
+    Object column = newColumn(dataType, length);
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) column;
+        for (int i = 0; i < length; i++) {
+          booleans[i] = buffer.get() == 1;
+        }
+        break;
+      case INT32:
+        buffer.asIntBuffer().get((int[]) column);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        break;
+      case INT64:
+        buffer.asLongBuffer().get((long[]) column);
+        buffer.position(buffer.position() + length * Long.BYTES);
+        break;
+      case FLOAT:
+        buffer.asFloatBuffer().get((float[]) column);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        break;
+      case DOUBLE:
+        buffer.asDoubleBuffer().get((double[]) column);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) column;
+        for (int i = 0; i < length; i++) {
+          byte[] bytes = new byte[buffer.getInt()];
+          buffer.get(bytes);
+          binaries[i] = new Binary(bytes);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return column;
+  }
+
+  @Override
+  public String toString() {
+    return "deviceId: " + deviceId + ", measurements: " + measurements + ", rows: " + rowCount;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BatchInsertPlan that = (BatchInsertPlan) o;
+    if (rowCount != that.rowCount || !Objects.equals(deviceId, that.deviceId)
+        || !Objects.equals(measurements, that.measurements)
+        || !Arrays.equals(dataTypes, that.dataTypes)) {
+      return false;
+    }
+    for (int i = 0; i < rowCount; i++) {
+      if (times[i] != that.times[i]) {
+        return false;
+      }
+      for (int j = 0; j < columns.length; j++) {
+        if (!getValue(j, i).equals(that.getValue(j, i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(deviceId, measurements, rowCount);
+  }
+}
@@ -23,7 +23,10 @@ import java.util.List;
 import java.util.Objects;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public class InsertPlan extends PhysicalPlan {
 
@@ -32,6 +35,10 @@ public class InsertPlan extends PhysicalPlan {
   private List<String> values;
   private long time;
 
+  // typed values, only set when the plan is built from a TSRecord or a typed log. Each data point
+  // keeps the value of its measurement in the primitive type, so it is neither boxed nor parsed.
+  private List<DataPoint> dataPoints;
+
   // insertType
   // 1 : BufferWrite Insert 2 : Overflow Insert
   private int insertType;
@@ -55,6 +62,54 @@ public class InsertPlan extends PhysicalPlan {
     this.values = insertValues;
   }
 
+  /**
+   * build a typed InsertPlan from a TSRecord. The values are kept in their original types and are
+   * only converted to strings if {@link #getValues()} is called.
+   */
+  public InsertPlan(int insertType, TSRecord tsRecord) {
+    super(false, Operator.OperatorType.INSERT);
+    this.insertType = insertType;
+    this.time = tsRecord.time;
+    this.deviceId = tsRecord.deviceId;
+    setDataPoints(new ArrayList<>(tsRecord.dataPointList));
+  }
+
+  /**
+   * build a typed InsertPlan whose measurements are the measurement ids of the data points.
+   */
+  public InsertPlan(int insertType, String deviceId, long insertTime, List<DataPoint> dataPoints) {
+    super(false, Operator.OperatorType.INSERT);
+    this.insertType = insertType;
+    this.time = insertTime;
+    this.deviceId = deviceId;
+    setDataPoints(dataPoints);
+  }
+
+  /**
+   * build a typed InsertPlan from values which are already of the java types matching the data
+   * types, see {@link DataPoint#getDataPoint(TSDataType, String, Object)}.
+   */
+  public InsertPlan(int insertType, String deviceId, long insertTime, List<String> measurementList,
+      TSDataType[] dataTypes, Object[] typedValues) {
+    super(false, Operator.OperatorType.INSERT);
+    this.insertType = insertType;
+    this.time = insertTime;
+    this.deviceId = deviceId;
+    this.measurements = measurementList;
+    this.dataPoints = new ArrayList<>(measurementList.size());
+    for (int i = 0; i < measurementList.size(); i++) {
+      dataPoints.add(DataPoint.getDataPoint(dataTypes[i], measurementList.get(i), typedValues[i]));
+    }
+  }
+
+  private void setDataPoints(List<DataPoint> dataPoints) {
+    this.dataPoints = dataPoints;
+    this.measurements = new ArrayList<>(dataPoints.size());
+    for (DataPoint dataPoint : dataPoints) {
+      measurements.add(dataPoint.getMeasurementId());
+    }
+  }
+
   public long getTime() {
     return time;
   }
@@ -98,13 +153,64 @@ public class InsertPlan extends PhysicalPlan {
   }
 
   public List<String> getValues() {
+    if (values == null && dataPoints != null) {
+      values = toStringValues();
+    }
     return this.values;
   }
 
+  /**
+   * @return the string values of this plan, converted from the typed values without caching them
+   * if they are absent.
+   */
+  private List<String> toStringValues() {
+    if (values != null || dataPoints == null) {
+      return values;
+    }
+    List<String> stringValues = new ArrayList<>(dataPoints.size());
+    for (DataPoint dataPoint : dataPoints) {
+      stringValues.add(String.valueOf(dataPoint.getValue()));
+    }
+    return stringValues;
+  }
+
   public void setValues(List<String> values) {
     this.values = values;
   }
 
+  /**
+   * @return true if the values of this plan are kept in their original types.
+   */
+  public boolean isTyped() {
+    return dataPoints != null;
+  }
+
+  /**
+   * @return the typed values of this plan, or null if the values are strings. The data points must
+   * not be modified by the caller.
+   */
+  public List<DataPoint> getDataPoints() {
+    return dataPoints;
+  }
+
+  /**
+   * convert this plan to a TSRecord. Typed values are used directly, otherwise the string values
+   * are parsed according to the given data types.
+   *
+   * @param seriesTypes the data types of the measurements, only used when this plan is not typed.
+   */
+  public TSRecord toTSRecord(TSDataType[] seriesTypes) {
+    TSRecord tsRecord = new TSRecord(time, deviceId);
+    if (isTyped()) {
+      tsRecord.dataPointList.addAll(dataPoints);
+      return tsRecord;
+    }
+    for (int i = 0; i < measurements.size(); i++) {
+      tsRecord.addTuple(DataPoint.getDataPoint(seriesTypes[i], measurements.get(i), values.get(i)));
+    }
+    return tsRecord;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -114,9 +220,33 @@ public class InsertPlan extends PhysicalPlan {
       return false;
     }
     InsertPlan that = (InsertPlan) o;
-    return time == that.time && Objects.equals(deviceId, that.deviceId)
-        && Objects.equals(measurements, that.measurements)
-        && Objects.equals(values, that.values);
+    if (time != that.time || !Objects.equals(deviceId, that.deviceId)
+        || !Objects.equals(measurements, that.measurements)) {
+      return false;
+    }
+    if (isTyped() && that.isTyped()) {
+      return typedValuesEqual(dataPoints, that.dataPoints);
+    }
+    // a typed plan and a string plan are compared by the string forms of their values
+    return Objects.equals(toStringValues(), that.toStringValues());
+  }
+
+  private static boolean typedValuesEqual(List<DataPoint> left, List<DataPoint> right) {
+    if (left.size() != right.size()) {
+      return false;
+    }
+    for (int i = 0; i < left.size(); i++) {
+      if (left.get(i).getType() != right.get(i).getType()
+          || !Objects.equals(left.get(i).getValue(), right.get(i).getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(deviceId, measurements, time);
   }
 
 }
@@ -55,7 +55,6 @@ import org.apache.iotdb.db.query.fill.PreviousFill;
 import org.apache.iotdb.db.sql.parse.AstNode;
 import org.apache.iotdb.db.sql.parse.Node;
 import org.apache.iotdb.db.sql.parse.TSParser;
-import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.constant.SystemConstant;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -63,6 +62,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.StringContainer;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -373,14 +373,13 @@ public class LogicalGenerator {
     AstNode paramNode = astNode.getChild(1);
     String dataType = paramNode.getChild(0).getChild(0).getText();
     String encodingType = paramNode.getChild(1).getChild(0).getText();
-    String compressor;
+    // the default compressor of the storage group is used if it is not specified
+    String compressor = null;
     int offset = 2;
     if (paramNode.getChildren().size() > offset
         && paramNode.getChild(offset).getToken().getText().equals("TOK_COMPRESSOR")) {
       compressor = paramNode.getChild(offset).getChild(0).getText();
       offset++;
-    } else {
-      compressor = TSFileConfig.compressor;
     }
     checkMetadataArgs(dataType, encodingType, compressor);
     Map<String, String> props = new HashMap<>(paramNode.getChildCount() - offset + 1, 1);
@@ -388,13 +387,16 @@ public class LogicalGenerator {
       AstNode node = paramNode.getChild(offset++);
       props.put(node.getChild(0).getText().toLowerCase(), node.getChild(1).getText());
     }
+    checkTimeEncoding(props.get(MeasurementSchema.TIME_ENCODING));
     MetadataOperator metadataOperator = new MetadataOperator(SQLConstant.TOK_METADATA_CREATE,
         MetadataOperator.NamespaceType.ADD_PATH);
     metadataOperator.setPath(series);
     metadataOperator.setDataType(TSDataType.valueOf(dataType));
     metadataOperator.setEncoding(TSEncoding.valueOf(encodingType));
     metadataOperator.setProps(props);
-    metadataOperator.setCompressor(CompressionType.valueOf(compressor));
+    if (compressor != null) {
+      metadataOperator.setCompressor(CompressionType.valueOf(compressor));
+    }
     initializedOperator = metadataOperator;
   }
 
@@ -409,12 +411,18 @@ public class LogicalGenerator {
     initializedOperator = metadataOperator;
   }
 
-  private void analyzeMetadataSetFileLevel(AstNode astNode) {
+  private void analyzeMetadataSetFileLevel(AstNode astNode) throws MetadataArgsErrorException {
     MetadataOperator metadataOperator = new MetadataOperator(
         SQLConstant.TOK_METADATA_SET_FILE_LEVEL,
         MetadataOperator.NamespaceType.SET_FILE_LEVEL);
     Path path = parsePath(astNode.getChild(0).getChild(0));
     metadataOperator.setPath(path);
+    if (astNode.getChildCount() > 1) {
+      // the default compressor of the timeseries in the storage group
+      String compressor = astNode.getChild(1).getChild(0).getText();
+      checkCompressor(compressor);
+      metadataOperator.setCompressor(CompressionType.valueOf(compressor));
+    }
     initializedOperator = metadataOperator;
   }
 
@@ -1094,10 +1102,8 @@ public class LogicalGenerator {
       throw new MetadataArgsErrorException(String.format("encoding %s is not support", encoding));
     }
 
-    try {
-      CompressionType.valueOf(compressor);
-    } catch (Exception e) {
-      throw new MetadataArgsErrorException(String.format("compressor %s is not support", compressor));
+    if (compressor != null) {
+      checkCompressor(compressor);
     }
     boolean throwExp = false;
     switch (tsDataType) {
@@ -1109,7 +1115,7 @@ public class LogicalGenerator {
       case INT32:
       case INT64:
         if (!(tsEncoding.equals(TSEncoding.RLE) || tsEncoding.equals(TSEncoding.PLAIN)
-            || tsEncoding.equals(TSEncoding.TS_2DIFF))) {
+            || tsEncoding.equals(TSEncoding.TS_2DIFF) || tsEncoding.equals(TSEncoding.GORILLA))) {
           throwExp = true;
         }
         break;
@@ -1121,7 +1127,8 @@ public class LogicalGenerator {
         }
         break;
       case TEXT:
-        if (!tsEncoding.equals(TSEncoding.PLAIN)) {
+        if (!(tsEncoding.equals(TSEncoding.PLAIN)
+            || tsEncoding.equals(TSEncoding.PLAIN_DICTIONARY))) {
           throwExp = true;
         }
         break;
@@ -1134,4 +1141,48 @@ public class LogicalGenerator {
     }
   }
 
+  /**
+   * check the encoding of timestamps given by the property time_encoding, if any.
+   */
+  private void checkTimeEncoding(String timeEncoding) throws MetadataArgsErrorException {
+    if (timeEncoding == null) {
+      return;
+    }
+    TSEncoding tsEncoding;
+    try {
+      tsEncoding = TSEncoding.valueOf(timeEncoding.toUpperCase());
+    } catch (Exception e) {
+      throw new MetadataArgsErrorException(
+          String.format("time encoding %s is not support", timeEncoding));
+    }
+    if (!(tsEncoding.equals(TSEncoding.RLE) || tsEncoding.equals(TSEncoding.PLAIN)
+        || tsEncoding.equals(TSEncoding.TS_2DIFF) || tsEncoding.equals(TSEncoding.GORILLA))) {
+      throw new MetadataArgsErrorException(
+          String.format("encoding %s does not support time", timeEncoding));
+    }
+  }
+
+  /**
+   * check the compressor of a timeseries or the default one of a storage group.
+   */
+  private void checkCompressor(String compressor) throws MetadataArgsErrorException {
+    CompressionType compressionType;
+    try {
+      compressionType = CompressionType.valueOf(compressor);
+    } catch (Exception e) {
+      throw new MetadataArgsErrorException(String.format("compressor %s is not support", compressor));
+    }
+    switch (compressionType) {
+      case UNCOMPRESSED:
+      case SNAPPY:
+      case GZIP:
+      case LZ4:
+      case ZSTD:
+        break;
+      default:
+        throw new MetadataArgsErrorException(
+            String.format("compressor %s is not support", compressor));
+    }
+  }
+
 }
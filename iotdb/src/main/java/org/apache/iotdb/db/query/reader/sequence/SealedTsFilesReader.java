@@ -22,6 +22,7 @@ package org.apache.iotdb.db.query.reader.sequence;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.TsFileMetaDataCache;
 import org.apache.iotdb.db.engine.filenode.TsFileResource;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -155,15 +156,19 @@ public class SealedTsFilesReader implements IReader {
     }
   }
 
-  private boolean singleTsFileSatisfied(TsFileResource fileNode) {
+  private boolean singleTsFileSatisfied(TsFileResource fileNode) throws IOException {
 
-    if (filter == null) {
-      return true;
+    if (filter != null) {
+      long startTime = fileNode.getStartTime(seriesPath.getDevice());
+      long endTime = fileNode.getEndTime(seriesPath.getDevice());
+      if (!filter.satisfyStartEndTime(startTime, endTime)) {
+        return false;
+      }
     }
 
-    long startTime = fileNode.getStartTime(seriesPath.getDevice());
-    long endTime = fileNode.getEndTime(seriesPath.getDevice());
-    return filter.satisfyStartEndTime(startTime, endTime);
+    // the bloom filter of the file is cached, so the file is not opened for an absent series
+    return TsFileMetaDataCache.getInstance().get(fileNode.getFilePath())
+        .mayContainSeries(seriesPath.getFullPath());
   }
 
   private void initSingleTsFileReader(TsFileResource fileNode, QueryContext context)
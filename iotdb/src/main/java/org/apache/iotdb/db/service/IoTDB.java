@@ -36,7 +36,9 @@ import org.apache.iotdb.db.monitor.StatMonitor;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.sync.receiver.SyncServerManager;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
+import org.apache.iotdb.db.writelog.manager.SharedLogNodeManager;
 import org.apache.iotdb.db.writelog.manager.WriteLogNodeManager;
+import org.apache.iotdb.db.writelog.manager.WriteLogNodeManagerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,6 +83,9 @@ public class IoTDB implements IoTDBMBean {
     LOGGER.info("Setting up IoTDB...");
     setUncaughtExceptionHandler();
 
+    // the progress of the recovery is shown by the Monitor MBean
+    registerManager.register(JMXService.getInstance());
+    registerManager.register(Monitor.INSTANCE);
     FileNodeManager.getInstance().recovery();
     try {
       systemDataRecovery();
@@ -98,10 +103,12 @@ public class IoTDB implements IoTDBMBean {
     }
 
     registerManager.register(FileNodeManager.getInstance());
-    registerManager.register(MultiFileLogNodeManager.getInstance());
-    registerManager.register(JMXService.getInstance());
+    if (IoTDBDescriptor.getInstance().getConfig().isEnableSharedWal()) {
+      registerManager.register(SharedLogNodeManager.getInstance());
+    } else {
+      registerManager.register(MultiFileLogNodeManager.getInstance());
+    }
     registerManager.register(JDBCService.getInstance());
-    registerManager.register(Monitor.INSTANCE);
     registerManager.register(CloseMergeService.getInstance());
     registerManager.register(StatMonitor.getInstance());
     registerManager.register(BasicMemController.getInstance());
@@ -144,7 +151,7 @@ public class IoTDB implements IoTDBMBean {
   private void systemDataRecovery() throws RecoverException {
     LOGGER.info("{}: start checking write log...", IoTDBConstant.GLOBAL_DB_NAME);
 
-    WriteLogNodeManager writeLogManager = MultiFileLogNodeManager.getInstance();
+    WriteLogNodeManager writeLogManager = WriteLogNodeManagerFactory.getManager();
     List<String> filenodeNames = null;
     try {
       filenodeNames = MManager.getInstance().getAllFileNames();
@@ -23,8 +23,12 @@ import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.memtable.MemTablePool;
+import org.apache.iotdb.db.engine.pool.FlushManager;
 import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.utils.OpenFileNumUtil;
+import org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool;
+import org.apache.iotdb.db.writelog.recover.LogRecoverStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -130,6 +134,76 @@ public class Monitor implements MonitorMBean, IService {
         .get(OpenFileNumUtil.OpenFileNumStatistics.SOCKET_OPEN_FILE_NUM);
   }
 
+  @Override
+  public long getMemTablePoolHitCount() {
+    return MemTablePool.getInstance().getHitCount();
+  }
+
+  @Override
+  public long getMemTablePoolMissCount() {
+    return MemTablePool.getInstance().getMissCount();
+  }
+
+  @Override
+  public long getArrayPoolHitCount() {
+    return PrimitiveArrayPool.getInstance().getHitCount();
+  }
+
+  @Override
+  public long getArrayPoolMissCount() {
+    return PrimitiveArrayPool.getInstance().getMissCount();
+  }
+
+  @Override
+  public long getArrayPoolSizeInByte() {
+    return PrimitiveArrayPool.getInstance().getPooledMemory();
+  }
+
+  @Override
+  public int getFlushPendingTaskNum() {
+    return FlushManager.getInstance().getPendingTaskNum();
+  }
+
+  @Override
+  public int getFlushActiveThreadNum() {
+    return FlushManager.getInstance().getActiveCnt();
+  }
+
+  @Override
+  public long getFlushCompletedTaskNum() {
+    return FlushManager.getInstance().getCompletedTaskNum();
+  }
+
+  @Override
+  public long getFlushBackPressureWaitCount() {
+    return FlushManager.getInstance().getBackPressureWaitCount();
+  }
+
+  @Override
+  public long getFlushBackPressureRejectCount() {
+    return FlushManager.getInstance().getBackPressureRejectCount();
+  }
+
+  @Override
+  public int getWalRecoverTotalNodeNum() {
+    return LogRecoverStatistics.getInstance().getTotalNodeNum();
+  }
+
+  @Override
+  public int getWalRecoveredNodeNum() {
+    return LogRecoverStatistics.getInstance().getRecoveredNodeNum();
+  }
+
+  @Override
+  public long getWalReplayedLogNum() {
+    return LogRecoverStatistics.getInstance().getReplayedLogNum();
+  }
+
+  @Override
+  public long getWalReplayThroughput() {
+    return LogRecoverStatistics.getInstance().getReplayThroughput();
+  }
+
   @Override
   public long getMergePeriodInSecond() {
     return config.getPeriodTimeForMerge();
@@ -51,4 +51,32 @@ public interface MonitorMBean {
   int getMetadataOpenFileNum();
 
   int getSocketOpenFileNum();
+
+  long getMemTablePoolHitCount();
+
+  long getMemTablePoolMissCount();
+
+  long getArrayPoolHitCount();
+
+  long getArrayPoolMissCount();
+
+  long getArrayPoolSizeInByte();
+
+  int getFlushPendingTaskNum();
+
+  int getFlushActiveThreadNum();
+
+  long getFlushCompletedTaskNum();
+
+  long getFlushBackPressureWaitCount();
+
+  long getFlushBackPressureRejectCount();
+
+  int getWalRecoverTotalNodeNum();
+
+  int getWalRecoveredNodeNum();
+
+  long getWalReplayedLogNum();
+
+  long getWalReplayThroughput();
 }
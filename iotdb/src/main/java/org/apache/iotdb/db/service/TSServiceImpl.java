@@ -47,11 +47,13 @@ import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.query.control.OpenedFilePathsManager;
 import org.apache.iotdb.db.query.control.QueryTokenManager;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
@@ -79,6 +81,7 @@ import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.thrift.TException;
@@ -427,6 +430,120 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     }
   }
 
+  @Override
+  public TSExecuteBatchStatementResp insertBatch(TSBatchInsertionReq req) throws TException {
+    try {
+      if (!checkLogin()) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      BatchInsertPlan batchInsertPlan;
+      try {
+        batchInsertPlan = toBatchInsertPlan(req);
+      } catch (IllegalArgumentException e) {
+        LOGGER.warn("{}: reject a malformed batch: {}", IoTDBConstant.GLOBAL_DB_NAME,
+            e.getMessage());
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+      }
+      batchInsertPlan.setProposer(username.get());
+      TSExecuteStatementResp resp = executeUpdateStatement(batchInsertPlan);
+      return getTSBathExecuteStatementResp(resp.getStatus().getStatusCode(),
+          resp.getStatus().getErrorMessage(), null);
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when inserting a batch", IoTDBConstant.GLOBAL_DB_NAME, e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    }
+  }
+
+  /**
+   * build a plan from the request. The request is checked before anything is deserialized, so a
+   * malformed one is rejected with an IllegalArgumentException.
+   */
+  private BatchInsertPlan toBatchInsertPlan(TSBatchInsertionReq req) {
+    List<String> measurements = req.getMeasurements();
+    if (req.getTypes().size() != measurements.size()) {
+      throw new IllegalArgumentException(String.format(
+          "%d measurements but %d data types are given", measurements.size(),
+          req.getTypes().size()));
+    }
+    TSDataType[] dataTypes = new TSDataType[measurements.size()];
+    for (int i = 0; i < dataTypes.length; i++) {
+      int type = req.getTypes().get(i);
+      if (type < 0 || type >= TSDataType.values().length) {
+        throw new IllegalArgumentException(String.format(
+            "Invalid data type %d of measurement %s", type, measurements.get(i)));
+      }
+      dataTypes[i] = TSDataType.deserialize((short) type);
+    }
+    int rowCount = req.getRowCount();
+    if (rowCount < 0) {
+      throw new IllegalArgumentException("Invalid row count " + rowCount);
+    }
+    ByteBuffer timeBuffer = req.bufferForTimestamps();
+    if (timeBuffer.remaining() != (long) rowCount * Long.BYTES) {
+      throw new IllegalArgumentException(String.format(
+          "%d rows but %d bytes of timestamps are given", rowCount, timeBuffer.remaining()));
+    }
+    ByteBuffer valueBuffer = req.bufferForValues();
+    checkColumns(dataTypes, rowCount, valueBuffer);
+
+    long[] times = new long[rowCount];
+    timeBuffer.asLongBuffer().get(times);
+    Object[] columns = new Object[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      columns[i] = BatchInsertPlan.deserializeColumn(dataTypes[i], rowCount, valueBuffer);
+    }
+    return new BatchInsertPlan(req.getDeviceId(), measurements, dataTypes, times, columns,
+        rowCount);
+  }
+
+  /**
+   * check that the buffer holds exactly rowCount values of each column, without moving its
+   * position.
+   */
+  private static void checkColumns(TSDataType[] dataTypes, int rowCount, ByteBuffer valueBuffer) {
+    ByteBuffer buffer = valueBuffer.duplicate();
+    for (TSDataType dataType : dataTypes) {
+      if (dataType == TSDataType.TEXT) {
+        for (int i = 0; i < rowCount; i++) {
+          if (buffer.remaining() < Integer.BYTES) {
+            throw new IllegalArgumentException("The values of the batch are truncated");
+          }
+          int length = buffer.getInt();
+          if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid length of a TEXT value: " + length);
+          }
+          buffer.position(buffer.position() + length);
+        }
+      } else {
+        long columnSize = (long) rowCount * getValueSize(dataType);
+        if (columnSize > buffer.remaining()) {
+          throw new IllegalArgumentException("The values of the batch are truncated");
+        }
+        buffer.position(buffer.position() + (int) columnSize);
+      }
+    }
+    if (buffer.hasRemaining()) {
+      throw new IllegalArgumentException(
+          buffer.remaining() + " bytes are left after the values of the batch");
+    }
+  }
+
+  private static int getValueSize(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return 1;
+      case INT32:
+      case FLOAT:
+        return Integer.BYTES;
+      case INT64:
+      case DOUBLE:
+        return Long.BYTES;
+      default:
+        throw new IllegalArgumentException("Unsupported data type " + dataType);
+    }
+  }
+
   @Override
   public TSExecuteStatementResp executeStatement(TSExecuteStatementReq req) throws TException {
     try {
@@ -294,7 +294,12 @@ public class SyncServiceImpl implements SyncService.Iface {
         metadataManger.deletePathFromMTree(args[1]);
         break;
       case MetadataOperationType.SET_STORAGE_LEVEL_TO_MTREE:
-        metadataManger.setStorageLevelToMTree(args[1]);
+        if (args.length > 2) {
+          metadataManger.setStorageLevelToMTree(args[1],
+              CompressionType.deserialize(Short.valueOf(args[2])));
+        } else {
+          metadataManger.setStorageLevelToMTree(args[1]);
+        }
         break;
       case MetadataOperationType.ADD_A_PTREE:
         metadataManger.addAPTree(args[1]);
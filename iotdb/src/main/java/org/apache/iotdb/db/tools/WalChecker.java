@@ -27,7 +27,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.apache.iotdb.db.exception.SysCheckException;
-import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.io.MappedLogReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,9 +74,9 @@ public class WalChecker {
         continue;
       }
 
-      RAFLogReader logReader = null;
+      MappedLogReader logReader = null;
       try {
-        logReader = new RAFLogReader(walFile);
+        logReader = new MappedLogReader(walFile);
         while (logReader.hasNext()) {
           logReader.next();
         }
@@ -40,36 +40,6 @@ public class MemUtils {
 
   }
 
-  /**
-   * function for getting the record size.
-   */
-  public static long getRecordSize(TSRecord record) {
-    long memSize = 0;
-    for (DataPoint dataPoint : record.dataPointList) {
-      memSize += getPointSize(dataPoint);
-    }
-    return memSize;
-  }
-
-  private static long getPointSize(DataPoint dataPoint) {
-    switch (dataPoint.getType()) {
-      case INT32:
-        return 8L + 4L;
-      case INT64:
-        return 8L + 8L;
-      case FLOAT:
-        return 8L + 4L;
-      case DOUBLE:
-        return 8L + 8L;
-      case BOOLEAN:
-        return 8L + 1L;
-      case TEXT:
-        return 8L + dataPoint.getValue().toString().length() * 2;
-      default:
-        return 8L + 8L;
-    }
-  }
-
   /**
    * Calculate how much memory will be used if the given record is written to Bufferwrite.
    */
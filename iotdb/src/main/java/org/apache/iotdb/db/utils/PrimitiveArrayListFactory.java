@@ -18,30 +18,14 @@
  */
 package org.apache.iotdb.db.utils;
 
-import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.utils.Binary;
 
 public class PrimitiveArrayListFactory {
 
   private PrimitiveArrayListFactory(){}
 
-  public static PrimitiveArrayList getByDataType(TSDataType dataType) {
-    switch (dataType) {
-      case BOOLEAN:
-        return new PrimitiveArrayList(boolean.class);
-      case INT32:
-        return new PrimitiveArrayList(int.class);
-      case INT64:
-        return new PrimitiveArrayList(long.class);
-      case FLOAT:
-        return new PrimitiveArrayList(float.class);
-      case DOUBLE:
-        return new PrimitiveArrayList(double.class);
-      case TEXT:
-        return new PrimitiveArrayList(Binary.class);
-      default:
-        throw new UnSupportedDataTypeException("DataType: " + dataType);
-    }
+  public static TVList getByDataType(TSDataType dataType) {
+    return TVList.newList(dataType);
   }
 }
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+public class BinaryTVList extends TVList {
+
+  private List<Binary[]> values;
+
+  private Binary[][] sortedValues;
+  private Binary pivotValue;
+
+  public BinaryTVList() {
+    super();
+    values = new ArrayList<>();
+  }
+
+  @Override
+  public void putBinary(long time, Binary value) {
+    int elementIndex = checkExpansion();
+    int arrayIndex = size / ARRAY_SIZE;
+    timestamps.get(arrayIndex)[elementIndex] = time;
+    values.get(arrayIndex)[elementIndex] = value;
+    size++;
+    memSize += value.getLength();
+    updateMaxTime(time);
+  }
+
+  @Override
+  public Binary getBinary(int index) {
+    checkIndex(index);
+    return values.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.TEXT;
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add((Binary[]) PrimitiveArrayPool.getInstance().getPrimitiveDataListByType(TSDataType.TEXT));
+  }
+
+  @Override
+  protected void copyValues(Object values, int srcIndex, int arrayIndex, int elementIndex,
+      int length) {
+    Binary[] binaries = (Binary[]) values;
+    for (int i = srcIndex; i < srcIndex + length; i++) {
+      memSize += binaries[i].getLength();
+    }
+    System.arraycopy(values, srcIndex, this.values.get(arrayIndex), elementIndex, length);
+  }
+
+  @Override
+  protected long getValuePayloadSize(int index) {
+    return values.get(index / ARRAY_SIZE)[index % ARRAY_SIZE].getLength();
+  }
+
+  @Override
+  protected void releaseValues() {
+    for (Binary[] valueArray : values) {
+      PrimitiveArrayPool.getInstance().release(valueArray);
+    }
+    values.clear();
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    PrimitiveArrayPool.getInstance().release(values.remove(values.size() - 1));
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    setTime(dest, timeAt(src));
+    values.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] = values.get(src / ARRAY_SIZE)[src
+        % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = timeAt(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = values.get(src / ARRAY_SIZE)[src
+        % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    setTime(dest, sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+    values.get(dest / ARRAY_SIZE)[dest % ARRAY_SIZE] = sortedValues[src / ARRAY_SIZE][src
+        % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = timeAt(pos);
+    pivotValue = values.get(pos / ARRAY_SIZE)[pos % ARRAY_SIZE];
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    setTime(pos, pivotTime);
+    values.get(pos / ARRAY_SIZE)[pos % ARRAY_SIZE] = pivotValue;
+  }
+
+  @Override
+  protected void prepareSortedValues(int arrayNum) {
+    sortedValues = new Binary[arrayNum][];
+    for (int i = 0; i < arrayNum; i++) {
+      sortedValues[i] = (Binary[]) PrimitiveArrayPool.getInstance()
+          .getPrimitiveDataListByType(TSDataType.TEXT);
+    }
+  }
+
+  @Override
+  protected void releaseSortedValues() {
+    for (Binary[] valueArray : sortedValues) {
+      PrimitiveArrayPool.getInstance().release(valueArray);
+    }
+    sortedValues = null;
+  }
+}
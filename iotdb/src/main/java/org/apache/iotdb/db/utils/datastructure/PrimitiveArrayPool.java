@@ -0,0 +1,194 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.memcontrol.BasicMemController;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Manage all primitive data blocks used by {@link TVList}s. Every block has the same length
+ * {@link #ARRAY_SIZE}, so a block released by one list can be reused by any other list of the
+ * same data type. Timestamp blocks share the INT64 queue as they are both long[].<br>
+ *
+ * Blocks of flushed memtables are given back here and reused by the following memtables, so the
+ * memory of the memtables is not turned into garbage after each flush. The free blocks kept by the
+ * pool and the memory used by the memtables together never exceed the memory budget of the
+ * memtables (memThresholdWarning), blocks released beyond that are left to the GC.
+ */
+public class PrimitiveArrayPool {
+
+  /**
+   * the number of elements in each block.
+   */
+  public static final int ARRAY_SIZE = 512;
+
+  private final EnumMap<TSDataType, ArrayDeque<Object>> primitiveArraysMap = new EnumMap<>(
+      TSDataType.class);
+
+  /**
+   * memory in byte of all blocks kept by the pool.
+   */
+  private long pooledMemory = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  private PrimitiveArrayPool() {
+    for (TSDataType dataType : TSDataType.values()) {
+      primitiveArraysMap.put(dataType, new ArrayDeque<>());
+    }
+  }
+
+  public static PrimitiveArrayPool getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  /**
+   * get a block of the given data type, a new one is allocated if there is no free block.
+   *
+   * @return boolean[], int[], long[], float[], double[] or Binary[] according to the data type
+   */
+  public synchronized Object getPrimitiveDataListByType(TSDataType dataType) {
+    Object dataArray = primitiveArraysMap.get(dataType).poll();
+    if (dataArray != null) {
+      pooledMemory -= getBlockSize(dataType);
+      hitCount++;
+      return dataArray;
+    }
+    missCount++;
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[ARRAY_SIZE];
+      case INT32:
+        return new int[ARRAY_SIZE];
+      case INT64:
+        return new long[ARRAY_SIZE];
+      case FLOAT:
+        return new float[ARRAY_SIZE];
+      case DOUBLE:
+        return new double[ARRAY_SIZE];
+      case TEXT:
+        return new Binary[ARRAY_SIZE];
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  public long[] getTimestampArray() {
+    return (long[]) getPrimitiveDataListByType(TSDataType.INT64);
+  }
+
+  /**
+   * give a block back to the pool, the caller must not use it any more.
+   */
+  public synchronized void release(Object dataArray) {
+    TSDataType dataType;
+    if (dataArray instanceof boolean[]) {
+      dataType = TSDataType.BOOLEAN;
+    } else if (dataArray instanceof int[]) {
+      dataType = TSDataType.INT32;
+    } else if (dataArray instanceof long[]) {
+      dataType = TSDataType.INT64;
+    } else if (dataArray instanceof float[]) {
+      dataType = TSDataType.FLOAT;
+    } else if (dataArray instanceof double[]) {
+      dataType = TSDataType.DOUBLE;
+    } else if (dataArray instanceof Binary[]) {
+      dataType = TSDataType.TEXT;
+      // do not keep the references of the values
+      Arrays.fill((Binary[]) dataArray, null);
+    } else {
+      throw new UnSupportedDataTypeException(
+          "Unsupported block type: " + dataArray.getClass().getName());
+    }
+    long blockSize = getBlockSize(dataType);
+    if (pooledMemory + blockSize + BasicMemController.getInstance().getTotalUsage()
+        > IoTDBDescriptor.getInstance().getConfig().getMemThresholdWarning()) {
+      return;
+    }
+    primitiveArraysMap.get(dataType).push(dataArray);
+    pooledMemory += blockSize;
+  }
+
+  /**
+   * @return the number of blocks which were taken from the pool instead of being allocated.
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of blocks which were allocated because the pool had no free one.
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return memory in byte of all free blocks kept by the pool.
+   */
+  public synchronized long getPooledMemory() {
+    return pooledMemory;
+  }
+
+  /**
+   * drop all free blocks and reset the statistics.
+   */
+  public synchronized void clear() {
+    for (ArrayDeque<Object> arrays : primitiveArraysMap.values()) {
+      arrays.clear();
+    }
+    pooledMemory = 0;
+    hitCount = 0;
+    missCount = 0;
+  }
+
+  /**
+   * @return memory in byte of one block of the given data type, the content of a Binary[] is not
+   * counted as it is not kept by the pool.
+   */
+  public static long getBlockSize(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return ARRAY_SIZE;
+      case INT32:
+      case FLOAT:
+        return 4L * ARRAY_SIZE;
+      case INT64:
+      case DOUBLE:
+      case TEXT:
+        return 8L * ARRAY_SIZE;
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+    }
+
+    private static final PrimitiveArrayPool INSTANCE = new PrimitiveArrayPool();
+  }
+}
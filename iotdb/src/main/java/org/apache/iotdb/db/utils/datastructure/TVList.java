@@ -0,0 +1,440 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool.ARRAY_SIZE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * TVList stores the timestamps and the values of one series in memory. Both timestamps and values
+ * are kept in primitive blocks of {@link PrimitiveArrayPool#ARRAY_SIZE} elements which are taken
+ * from (and given back to) the {@link PrimitiveArrayPool}, so no value is ever boxed. Each sub-class
+ * only supports the put and get methods of its own data type.<br>
+ *
+ * A TVList can be sorted by time in place with {@link #sort()}, which also removes the points of
+ * duplicated timestamps except the last written one. If the points are appended in strictly
+ * increasing time order, which is the common case, sort() does nothing.
+ */
+public abstract class TVList {
+
+  /**
+   * ranges not larger than this are sorted by binary insertion sort.
+   */
+  private static final int SMALL_ARRAY_LENGTH = 32;
+
+  protected List<long[]> timestamps;
+  protected int size;
+
+  /**
+   * true if the timestamps are strictly increasing, i.e., the list is sorted and has no duplicated
+   * timestamp.
+   */
+  protected boolean sorted = true;
+  protected long maxTime = Long.MIN_VALUE;
+
+  /**
+   * memory in byte of the blocks held by this list and of the payloads of its binary values.
+   */
+  protected long memSize = 0;
+
+  // scratch blocks of the merge sort, only valid during sort()
+  protected long[][] sortedTimestamps;
+  protected long pivotTime;
+
+  public TVList() {
+    timestamps = new ArrayList<>();
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getTime(int index) {
+    checkIndex(index);
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  public boolean isSorted() {
+    return sorted;
+  }
+
+  /**
+   * @return the exact memory in byte taken by this list, which changes when a block is allocated or
+   * given back and, for TEXT, when a value is put.
+   */
+  public long getMemSize() {
+    return memSize;
+  }
+
+  /**
+   * @return the max timestamp put into this list, or Long.MIN_VALUE if the list is empty.
+   */
+  public long getMaxTime() {
+    return maxTime;
+  }
+
+  public void putLong(long time, long value) {
+    throw new UnsupportedOperationException("putLong is not supported by " + getDataType());
+  }
+
+  public void putInt(long time, int value) {
+    throw new UnsupportedOperationException("putInt is not supported by " + getDataType());
+  }
+
+  public void putFloat(long time, float value) {
+    throw new UnsupportedOperationException("putFloat is not supported by " + getDataType());
+  }
+
+  public void putDouble(long time, double value) {
+    throw new UnsupportedOperationException("putDouble is not supported by " + getDataType());
+  }
+
+  public void putBinary(long time, Binary value) {
+    throw new UnsupportedOperationException("putBinary is not supported by " + getDataType());
+  }
+
+  public void putBoolean(long time, boolean value) {
+    throw new UnsupportedOperationException("putBoolean is not supported by " + getDataType());
+  }
+
+  /**
+   * put the first {@code length} points of the given arrays. Timestamps and values are copied into
+   * the blocks with System.arraycopy instead of one by one.
+   *
+   * @param time timestamps of the points
+   * @param values values of the points, which must be a long[], int[], float[], double[], Binary[]
+   * or boolean[] matching the data type of this list
+   * @param length number of points to put
+   */
+  public void putAll(long[] time, Object values, int length) {
+    int srcIndex = 0;
+    while (srcIndex < length) {
+      int elementIndex = checkExpansion();
+      int arrayIndex = size / ARRAY_SIZE;
+      int copyLength = Math.min(length - srcIndex, ARRAY_SIZE - elementIndex);
+      System.arraycopy(time, srcIndex, timestamps.get(arrayIndex), elementIndex, copyLength);
+      copyValues(values, srcIndex, arrayIndex, elementIndex, copyLength);
+      for (int i = srcIndex; i < srcIndex + copyLength; i++) {
+        updateMaxTime(time[i]);
+      }
+      size += copyLength;
+      srcIndex += copyLength;
+    }
+  }
+
+  public long getLong(int index) {
+    throw new UnsupportedOperationException("getLong is not supported by " + getDataType());
+  }
+
+  public int getInt(int index) {
+    throw new UnsupportedOperationException("getInt is not supported by " + getDataType());
+  }
+
+  public float getFloat(int index) {
+    throw new UnsupportedOperationException("getFloat is not supported by " + getDataType());
+  }
+
+  public double getDouble(int index) {
+    throw new UnsupportedOperationException("getDouble is not supported by " + getDataType());
+  }
+
+  public Binary getBinary(int index) {
+    throw new UnsupportedOperationException("getBinary is not supported by " + getDataType());
+  }
+
+  public boolean getBoolean(int index) {
+    throw new UnsupportedOperationException("getBoolean is not supported by " + getDataType());
+  }
+
+  public abstract TSDataType getDataType();
+
+  /**
+   * add a value block for the next ARRAY_SIZE elements.
+   */
+  protected abstract void expandValues();
+
+  /**
+   * copy values[srcIndex, srcIndex + length) into the value block arrayIndex from elementIndex.
+   */
+  protected abstract void copyValues(Object values, int srcIndex, int arrayIndex,
+      int elementIndex, int length);
+
+  /**
+   * give all value blocks back to the pool.
+   */
+  protected abstract void releaseValues();
+
+  /**
+   * copy the element (time and value) at src to dest.
+   */
+  protected abstract void set(int src, int dest);
+
+  /**
+   * copy the element at src to the position dest of the scratch blocks.
+   */
+  protected abstract void setToSorted(int src, int dest);
+
+  /**
+   * copy the element at the position src of the scratch blocks to dest.
+   */
+  protected abstract void setFromSorted(int src, int dest);
+
+  /**
+   * remember the element at pos as the pivot of the insertion sort.
+   */
+  protected abstract void saveAsPivot(int pos);
+
+  /**
+   * put the remembered pivot to pos.
+   */
+  protected abstract void setPivotTo(int pos);
+
+  /**
+   * allocate the value scratch blocks for the merge sort.
+   */
+  protected abstract void prepareSortedValues(int arrayNum);
+
+  protected abstract void releaseSortedValues();
+
+  /**
+   * give the last value block back to the pool.
+   */
+  protected abstract void releaseLastValueArray();
+
+  /**
+   * @return memory in byte referenced by the value at index besides its slot in the block, which
+   * is only non-zero for binary values.
+   */
+  protected long getValuePayloadSize(int index) {
+    return 0;
+  }
+
+  /**
+   * @return memory in byte of a timestamp block and a value block.
+   */
+  private long getBlockPairSize() {
+    return PrimitiveArrayPool.getBlockSize(TSDataType.INT64) + PrimitiveArrayPool
+        .getBlockSize(getDataType());
+  }
+
+  protected long timeAt(int index) {
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  protected void setTime(int index, long time) {
+    timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE] = time;
+  }
+
+  /**
+   * called by every put method of the sub-classes to maintain the sorted flag.
+   */
+  protected void updateMaxTime(long time) {
+    if (time <= maxTime) {
+      sorted = false;
+    } else {
+      maxTime = time;
+    }
+  }
+
+  /**
+   * sort the points by time in place and remove the points of duplicated timestamps, the last
+   * written one of these points is kept. Nothing is done if the list is already sorted.
+   */
+  public void sort() {
+    if (sorted) {
+      return;
+    }
+    int arrayNum = timestamps.size();
+    sortedTimestamps = new long[arrayNum][];
+    for (int i = 0; i < arrayNum; i++) {
+      sortedTimestamps[i] = PrimitiveArrayPool.getInstance().getTimestampArray();
+    }
+    prepareSortedValues(arrayNum);
+    try {
+      sort(0, size);
+    } finally {
+      for (long[] timestampArray : sortedTimestamps) {
+        PrimitiveArrayPool.getInstance().release(timestampArray);
+      }
+      sortedTimestamps = null;
+      releaseSortedValues();
+    }
+    deduplicate();
+    sorted = true;
+  }
+
+  /**
+   * stable merge sort of [lo, hi).
+   */
+  private void sort(int lo, int hi) {
+    if (hi - lo <= SMALL_ARRAY_LENGTH) {
+      binarySort(lo, hi);
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    sort(lo, mid);
+    sort(mid, hi);
+    merge(lo, mid, hi);
+  }
+
+  private void merge(int lo, int mid, int hi) {
+    if (timeAt(mid - 1) <= timeAt(mid)) {
+      // the two halves are already in order
+      return;
+    }
+    int i = lo;
+    int j = mid;
+    int k = lo;
+    while (i < mid && j < hi) {
+      if (timeAt(i) <= timeAt(j)) {
+        setToSorted(i++, k++);
+      } else {
+        setToSorted(j++, k++);
+      }
+    }
+    while (i < mid) {
+      setToSorted(i++, k++);
+    }
+    while (j < hi) {
+      setToSorted(j++, k++);
+    }
+    for (k = lo; k < hi; k++) {
+      setFromSorted(k, k);
+    }
+  }
+
+  /**
+   * stable binary insertion sort of [lo, hi).
+   */
+  private void binarySort(int lo, int hi) {
+    for (int start = lo + 1; start < hi; start++) {
+      if (timeAt(start - 1) <= timeAt(start)) {
+        continue;
+      }
+      saveAsPivot(start);
+      // find the first element which is larger than the pivot, so that equal elements keep
+      // their original order
+      int left = lo;
+      int right = start;
+      while (left < right) {
+        int mid = (left + right) >>> 1;
+        if (pivotTime < timeAt(mid)) {
+          right = mid;
+        } else {
+          left = mid + 1;
+        }
+      }
+      for (int n = start; n > left; n--) {
+        set(n - 1, n);
+      }
+      setPivotTo(left);
+    }
+  }
+
+  /**
+   * remove the points of duplicated timestamps from a sorted list and keep the last one of them.
+   */
+  private void deduplicate() {
+    if (size == 0) {
+      return;
+    }
+    int last = 0;
+    for (int i = 1; i < size; i++) {
+      if (timeAt(i) != timeAt(last)) {
+        last++;
+      } else {
+        // the point at last is replaced by a later written one of the same timestamp
+        memSize -= getValuePayloadSize(last);
+      }
+      if (last != i) {
+        set(i, last);
+      }
+    }
+    size = last + 1;
+    maxTime = timeAt(last);
+    // give back the blocks which are no longer used
+    int arrayNum = (size + ARRAY_SIZE - 1) / ARRAY_SIZE;
+    while (timestamps.size() > arrayNum) {
+      PrimitiveArrayPool.getInstance().release(timestamps.remove(timestamps.size() - 1));
+      releaseLastValueArray();
+      memSize -= getBlockPairSize();
+    }
+  }
+
+  /**
+   * make sure the position of the next element is allocated, and return its offset in the last
+   * block.
+   */
+  protected int checkExpansion() {
+    int elementIndex = size % ARRAY_SIZE;
+    if (elementIndex == 0) {
+      timestamps.add(PrimitiveArrayPool.getInstance().getTimestampArray());
+      expandValues();
+      memSize += getBlockPairSize();
+    }
+    return elementIndex;
+  }
+
+  protected void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new ArrayIndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+  }
+
+  /**
+   * release all blocks of this list to the pool and make it empty. The list can be reused after
+   * being cleared.
+   */
+  public void clear() {
+    for (long[] timestampArray : timestamps) {
+      PrimitiveArrayPool.getInstance().release(timestampArray);
+    }
+    timestamps.clear();
+    releaseValues();
+    size = 0;
+    memSize = 0;
+    sorted = true;
+    maxTime = Long.MIN_VALUE;
+  }
+
+  public static TVList newList(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new BooleanTVList();
+      case INT32:
+        return new IntTVList();
+      case INT64:
+        return new LongTVList();
+      case FLOAT:
+        return new FloatTVList();
+      case DOUBLE:
+        return new DoubleTVList();
+      case TEXT:
+        return new BinaryTVList();
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+}
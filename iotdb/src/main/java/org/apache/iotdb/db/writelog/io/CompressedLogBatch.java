@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.iotdb.db.writelog.transfer.SystemLogOperator;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+/**
+ * A batch of logs compressed together is written as one log, so it is framed and check summed like
+ * the others. Its content is the COMPRESSED_BATCH opcode, the compression type (1 byte), the
+ * uncompressed size (int) and the compressed logs, each of which is its length (int) followed by
+ * its bytes.
+ */
+public class CompressedLogBatch {
+
+  private static final int BATCH_HEADER_SIZE = 1 + 1 + 4;
+
+  private CompressedLogBatch() {
+  }
+
+  /**
+   * @return whether the log, from its position, is a compressed batch
+   */
+  public static boolean isBatch(ByteBuffer log) {
+    return log.remaining() > 0 && log.get(log.position()) == SystemLogOperator.COMPRESSED_BATCH;
+  }
+
+  /**
+   * Compress the logs into a batch.
+   */
+  public static byte[] compress(List<byte[]> logs, ICompressor compressor) throws IOException {
+    int uncompressedSize = 0;
+    for (byte[] log : logs) {
+      uncompressedSize += Integer.BYTES + log.length;
+    }
+    ByteBuffer uncompressed = ByteBuffer.allocate(uncompressedSize);
+    for (byte[] log : logs) {
+      uncompressed.putInt(log.length);
+      uncompressed.put(log);
+    }
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
+    int compressedSize = compressor
+        .compress(uncompressed.array(), 0, uncompressedSize, compressed);
+    byte[] batch = new byte[BATCH_HEADER_SIZE + compressedSize];
+    ByteBuffer buffer = ByteBuffer.wrap(batch);
+    buffer.put((byte) SystemLogOperator.COMPRESSED_BATCH);
+    buffer.put((byte) compressor.getType().serialize());
+    buffer.putInt(uncompressedSize);
+    buffer.put(compressed, 0, compressedSize);
+    return batch;
+  }
+
+  /**
+   * Uncompress a batch from its position to its limit.
+   *
+   * @return the logs, to be read by {@link #nextLog(ByteBuffer)}
+   */
+  public static ByteBuffer uncompress(ByteBuffer batch) throws IOException {
+    if (batch.remaining() < BATCH_HEADER_SIZE) {
+      throw new IOException("The compressed log batch is incomplete");
+    }
+    batch.get(); // skip the opcode
+    CompressionType type = CompressionType.deserialize(batch.get());
+    int uncompressedSize = batch.getInt();
+    byte[] compressed = new byte[batch.remaining()];
+    batch.get(compressed);
+    byte[] uncompressed = new byte[uncompressedSize];
+    IUnCompressor.getUnCompressor(type)
+        .uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    return ByteBuffer.wrap(uncompressed);
+  }
+
+  /**
+   * @param logs the logs returned by {@link #uncompress(ByteBuffer)} with remaining bytes
+   * @return the next log as a slice of the logs
+   */
+  public static ByteBuffer nextLog(ByteBuffer logs) throws IOException {
+    int logSize = logs.getInt();
+    if (logSize < 0 || logSize > logs.remaining()) {
+      throw new IOException("The log in the compressed log batch is incomplete");
+    }
+    ByteBuffer log = logs.slice();
+    log.limit(logSize);
+    logs.position(logs.position() + logSize);
+    return log;
+  }
+}
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * GroupCommitWriter writes the logs of all log nodes with a single thread. Writers enqueue their
+ * logs into a lock-free ring buffer and the writer thread drains it in batches: the logs of a
+ * batch that belong to the same log file are put into one direct buffer, written at once and
+ * forced once, then the futures of these logs are completed. So every log is durable when its
+ * future completes, while an fsync is shared by all logs arriving during the previous one.
+ */
+public class GroupCommitWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+  private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final LogRingBuffer<LogEntry> ringBuffer;
+  private final ByteBuffer buffer;
+  private final CRC32 checkSummer = new CRC32();
+
+  private volatile boolean running = false;
+  private volatile boolean writerWaiting = false;
+  private Thread writerThread;
+
+  private GroupCommitWriter() {
+    ringBuffer = new LogRingBuffer<>(config.getWalGroupCommitQueueSize());
+    buffer = ByteBuffer.allocateDirect(config.getWalGroupCommitBufferSize());
+  }
+
+  public static GroupCommitWriter getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Enqueue a log to be written to the writer.
+   *
+   * @param log the log, or null to get a future which completes when all logs enqueued before to
+   * the same writer are durable
+   * @return a future which completes when the log is durable, or completes exceptionally if the
+   * log cannot be written or the writer thread is not running
+   */
+  public CompletableFuture<Void> submit(ILogWriter writer, byte[] log) {
+    LogEntry entry = new LogEntry(writer, log);
+    while (true) {
+      if (!running) {
+        entry.future.completeExceptionally(
+            new IOException("The WAL group commit writer is not running"));
+        return entry.future;
+      }
+      if (ringBuffer.offer(entry)) {
+        break;
+      }
+      // the ring buffer is full, let the writer thread catch up
+      wakeUpWriter();
+      Thread.yield();
+    }
+    if (!running) {
+      // the writer thread may have stopped before seeing the log
+      commitRest();
+    } else if (writerWaiting) {
+      wakeUpWriter();
+    }
+    return entry.future;
+  }
+
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    writerThread = new Thread(this::writeLoop, ThreadName.WAL_GROUP_COMMIT_DAEMON.getName());
+    writerThread.start();
+    logger.info("WAL group commit writer started");
+  }
+
+  /**
+   * Stop the writer thread after all enqueued logs are written.
+   */
+  public synchronized void close() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    wakeUpWriter();
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      logger.error("Interrupted when waiting for the WAL group commit writer to stop", e);
+      Thread.currentThread().interrupt();
+      return;
+    }
+    writerThread = null;
+    commitRest();
+    logger.info("WAL group commit writer stopped");
+  }
+
+  /**
+   * Commit the logs enqueued by writers which saw the writer running just before it stopped. It
+   * holds the monitor, so the writer thread is not restarted while the ring buffer is drained.
+   */
+  private synchronized void commitRest() {
+    if (running) {
+      return;
+    }
+    List<LogEntry> rest = new ArrayList<>();
+    LogEntry entry;
+    while ((entry = ringBuffer.poll()) != null) {
+      rest.add(entry);
+    }
+    if (!rest.isEmpty()) {
+      commit(rest);
+    }
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void wakeUpWriter() {
+    Thread thread = writerThread;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private void writeLoop() {
+    List<LogEntry> batch = new ArrayList<>();
+    while (true) {
+      LogEntry entry = ringBuffer.poll();
+      if (entry == null) {
+        if (!running) {
+          break;
+        }
+        writerWaiting = true;
+        // re-check after announcing the wait, a producer may have missed the flag; the timeout
+        // bounds the latency of a lost wake-up anyway
+        entry = ringBuffer.poll();
+        if (entry == null) {
+          LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        writerWaiting = false;
+        if (entry == null) {
+          continue;
+        }
+      }
+      batch.add(entry);
+      while (batch.size() < ringBuffer.capacity() && (entry = ringBuffer.poll()) != null) {
+        batch.add(entry);
+      }
+      commit(batch);
+      batch.clear();
+    }
+    logger.info("WAL group commit thread exits.");
+  }
+
+  private void commit(List<LogEntry> batch) {
+    Map<ILogWriter, List<LogEntry>> writerEntries = new LinkedHashMap<>();
+    for (LogEntry entry : batch) {
+      writerEntries.computeIfAbsent(entry.writer, k -> new ArrayList<>()).add(entry);
+    }
+    for (Entry<ILogWriter, List<LogEntry>> writerEntry : writerEntries.entrySet()) {
+      try {
+        if (write(writerEntry.getKey(), writerEntry.getValue())) {
+          writerEntry.getKey().force();
+        }
+        for (LogEntry entry : writerEntry.getValue()) {
+          entry.future.complete(null);
+        }
+      } catch (IOException e) {
+        logger.error("Cannot write {} logs", writerEntry.getValue().size(), e);
+        for (LogEntry entry : writerEntry.getValue()) {
+          entry.future.completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return whether any log is written
+   */
+  private boolean write(ILogWriter writer, List<LogEntry> entries) throws IOException {
+    boolean written = false;
+    buffer.clear();
+    for (LogEntry entry : entries) {
+      if (entry.log == null) {
+        continue;
+      }
+      written = true;
+      int logSize = LogWriter.LOG_HEADER_SIZE + entry.log.length;
+      if (buffer.remaining() < logSize) {
+        flushBuffer(writer);
+      }
+      if (buffer.remaining() < logSize) {
+        // larger than the whole buffer
+        ByteBuffer largeBuffer = ByteBuffer.allocate(logSize);
+        LogWriter.putLog(largeBuffer, checkSummer, entry.log);
+        largeBuffer.flip();
+        writer.write(largeBuffer);
+      } else {
+        LogWriter.putLog(buffer, checkSummer, entry.log);
+      }
+    }
+    flushBuffer(writer);
+    return written;
+  }
+
+  private void flushBuffer(ILogWriter writer) throws IOException {
+    if (buffer.position() == 0) {
+      return;
+    }
+    buffer.flip();
+    writer.write(buffer);
+    buffer.clear();
+  }
+
+  private static class LogEntry {
+
+    private final ILogWriter writer;
+    private final byte[] log;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private LogEntry(ILogWriter writer, byte[] log) {
+      this.writer = writer;
+      this.log = log;
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+    }
+
+    private static GroupCommitWriter instance = new GroupCommitWriter();
+  }
+}
@@ -19,13 +19,23 @@
 package org.apache.iotdb.db.writelog.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public interface ILogWriter {
 
   void write(List<byte[]> logCache) throws IOException;
 
+  /**
+   * Write the remaining bytes of the buffer, which are logs already framed by
+   * {@link LogWriter#putLog}, without forcing them to disk.
+   */
+  void write(ByteBuffer logBuffer) throws IOException;
+
   void force() throws IOException;
 
+  /**
+   * Close the log file, the logs written afterwards are rejected with an IOException.
+   */
   void close() throws IOException;
 }
@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free ring buffer for many producers and a single consumer. Each slot carries a
+ * sequence number: a producer claims the slot whose sequence equals the tail by CAS on the tail and
+ * publishes its element by advancing the sequence, the consumer takes the slot whose sequence is
+ * one ahead of the head and hands it back to the producers of the next round.
+ */
+class LogRingBuffer<E> {
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> elements;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  /**
+   * only accessed by the consumer.
+   */
+  private long head = 0;
+
+  /**
+   * @param minCapacity the capacity is rounded up to a power of 2
+   */
+  LogRingBuffer(int minCapacity) {
+    int size = 1;
+    while (size < minCapacity) {
+      size <<= 1;
+    }
+    capacity = size;
+    mask = size - 1;
+    elements = new AtomicReferenceArray<>(size);
+    sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * @return false if the buffer is full
+   */
+  boolean offer(E element) {
+    while (true) {
+      long position = tail.get();
+      int index = (int) position & mask;
+      long diff = sequences.get(index) - position;
+      if (diff == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          elements.set(index, element);
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (diff < 0) {
+        return false;
+      }
+      // else another producer has claimed this slot, retry with the new tail
+    }
+  }
+
+  /**
+   * Must only be called by the consumer.
+   *
+   * @return null if the buffer is empty
+   */
+  E poll() {
+    int index = (int) head & mask;
+    if (sequences.get(index) != head + 1) {
+      return null;
+    }
+    E element = elements.get(index);
+    elements.set(index, null);
+    sequences.set(index, head + capacity);
+    head++;
+    return element;
+  }
+
+  int capacity() {
+    return capacity;
+  }
+}
@@ -23,48 +23,113 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Collections;
 import java.util.List;
 import java.util.zip.CRC32;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 public class LogWriter implements ILogWriter {
 
+  /**
+   * size of the header of a log, which is the length (int) and the check sum (long) of the log.
+   */
+  public static final int LOG_HEADER_SIZE = 4 + 8;
+
+  private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * the logs are framed into this reusable buffer and written when it is full.
+   */
+  private static ThreadLocal<ByteBuffer> writeBuffer = ThreadLocal
+      .withInitial(() -> ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE));
+
   private File logFile;
   private FileOutputStream fileOutputStream;
   private FileChannel outputStream;
   private CRC32 checkSummer = new CRC32();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private ICompressor compressor;
+  /**
+   * a closed writer rejects logs instead of reopening the file, which may have been renamed or
+   * deleted since.
+   */
+  private volatile boolean closed = false;
 
   public LogWriter(String logFilePath) {
+    this(logFilePath, CompressionType.UNCOMPRESSED);
+  }
+
+  /**
+   * @param compressionType if it is not UNCOMPRESSED, each batch of logs written by
+   * {@link #write(List)} is compressed into one log, which the log readers uncompress.
+   */
+  public LogWriter(String logFilePath, CompressionType compressionType) {
     logFile = new File(logFilePath);
+    compressor = ICompressor.getCompressor(compressionType);
+  }
+
+  /**
+   * Put a log with its header into the buffer, the buffer must have LOG_HEADER_SIZE + log.length
+   * bytes remaining.
+   */
+  public static void putLog(ByteBuffer buffer, CRC32 checkSummer, byte[] log) {
+    buffer.putInt(log.length);
+    checkSummer.reset();
+    checkSummer.update(log);
+    buffer.putLong(checkSummer.getValue());
+    buffer.put(log);
   }
 
   @Override
   public void write(List<byte[]> logCache) throws IOException {
-    if (outputStream == null) {
-      fileOutputStream = new FileOutputStream(logFile, true);
-      outputStream = fileOutputStream.getChannel();
+    List<byte[]> logs = logCache;
+    if (compressor.getType() != CompressionType.UNCOMPRESSED && !logCache.isEmpty()) {
+      // the batch is written as one log
+      logs = Collections.singletonList(CompressedLogBatch.compress(logCache, compressor));
     }
-    int totalSize = 0;
-    for (byte[] bytes : logCache) {
-      totalSize += 4 + 8 + bytes.length;
-    }
-    ByteBuffer buffer = ByteBuffer.allocate(totalSize);
-    for (byte[] bytes : logCache) {
-      buffer.putInt(bytes.length);
-      checkSummer.reset();
-      checkSummer.update(bytes);
-      buffer.putLong(checkSummer.getValue());
-      buffer.put(bytes);
+    ByteBuffer buffer = writeBuffer.get();
+    buffer.clear();
+    for (byte[] bytes : logs) {
+      int logSize = LOG_HEADER_SIZE + bytes.length;
+      if (buffer.remaining() < logSize) {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+      }
+      if (buffer.remaining() < logSize) {
+        // larger than the whole buffer
+        ByteBuffer largeBuffer = ByteBuffer.allocate(logSize);
+        putLog(largeBuffer, checkSummer, bytes);
+        largeBuffer.flip();
+        write(largeBuffer);
+      } else {
+        putLog(buffer, checkSummer, bytes);
+      }
     }
     buffer.flip();
-    outputStream.write(buffer);
+    write(buffer);
     if (config.getForceWalPeriodInMs() == 0) {
       outputStream.force(true);
     }
   }
 
+  @Override
+  public void write(ByteBuffer logBuffer) throws IOException {
+    if (closed) {
+      throw new IOException("Log writer of " + logFile + " is closed");
+    }
+    if (outputStream == null) {
+      fileOutputStream = new FileOutputStream(logFile, true);
+      outputStream = fileOutputStream.getChannel();
+    }
+    while (logBuffer.hasRemaining()) {
+      outputStream.write(logBuffer);
+    }
+  }
+
   @Override
   public void force() throws IOException {
     if (outputStream != null) {
@@ -74,6 +139,7 @@ public class LogWriter implements ILogWriter {
 
   @Override
   public void close() throws IOException {
+    closed = true;
     if (outputStream != null) {
       fileOutputStream.close();
       fileOutputStream = null;
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.writelog.transfer.LogDictionary;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MappedLogReader reads a log file written by LogWriter through memory-mapped regions of the file.
+ * When a region is mapped, the check sums of all complete logs in it are validated in one pass,
+ * then the logs are returned as slices of the region without being copied. A file larger than a
+ * region is mapped region by region, a region starts at the first log not validated by the last
+ * one.
+ */
+public class MappedLogReader implements ILogReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedLogReader.class);
+
+  /**
+   * max size in byte of a mapped region.
+   */
+  private static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+  private long regionSize;
+  private FileChannel channel;
+  private String filepath;
+  private long fileSize;
+
+  private MappedByteBuffer region;
+  /**
+   * offset in the file of the first byte of the region.
+   */
+  private long regionStart;
+  /**
+   * position in the region before which all logs have been validated.
+   */
+  private int validatedEnd;
+
+  private CRC32 checkSummer = new CRC32();
+  private PhysicalPlan planBuffer = null;
+  private LogDictionary dictionary = new LogDictionary();
+  /**
+   * the next log, which is returned by nextLog().
+   */
+  private ByteBuffer pendingLog = null;
+  /**
+   * the uncompressed logs of the last compressed batch.
+   */
+  private ByteBuffer batchLogs = null;
+
+  public MappedLogReader() {
+    this(DEFAULT_REGION_SIZE);
+  }
+
+  public MappedLogReader(File logFile) throws IOException {
+    this(DEFAULT_REGION_SIZE);
+    open(logFile);
+  }
+
+  MappedLogReader(long regionSize) {
+    this.regionSize = regionSize;
+  }
+
+  @Override
+  public void open(File logFile) throws IOException {
+    open(logFile, 0);
+  }
+
+  /**
+   * Open the log file and read it from the offset, which must be the start of a log.
+   */
+  public void open(File logFile, long startOffset) throws IOException {
+    close();
+    channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+    filepath = logFile.getPath();
+    fileSize = channel.size();
+    planBuffer = null;
+    pendingLog = null;
+    batchLogs = null;
+    dictionary.reset();
+    if (startOffset < 0 || startOffset > fileSize) {
+      close();
+      throw new IOException(String.format("Offset %d is out of the log file %s of %d bytes",
+          startOffset, filepath, fileSize));
+    }
+    map(startOffset);
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (planBuffer != null) {
+      return true;
+    }
+    if (!hasNextLog()) {
+      return false;
+    }
+    planBuffer = PhysicalPlanLogTransfer.logToOperator(nextLog(), dictionary);
+    return true;
+  }
+
+  @Override
+  public PhysicalPlan next() throws IOException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    PhysicalPlan ret = planBuffer;
+    planBuffer = null;
+    return ret;
+  }
+
+  /**
+   * @return whether there is another log whose check sum is correct.
+   * @throws IOException if the check sum of the next log is incorrect or the log is incomplete.
+   */
+  public boolean hasNextLog() throws IOException {
+    while (pendingLog == null) {
+      if (batchLogs != null && batchLogs.hasRemaining()) {
+        pendingLog = CompressedLogBatch.nextLog(batchLogs);
+      } else if (!hasNextFrame()) {
+        return false;
+      } else {
+        ByteBuffer frame = nextFrame();
+        if (CompressedLogBatch.isBatch(frame)) {
+          batchLogs = CompressedLogBatch.uncompress(frame);
+        } else {
+          pendingLog = frame;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return the next log without decoding it. The logs of a compressed batch are returned one by
+   * one. A log which is not compressed is a slice of the mapped file, which is only valid until
+   * the reader moves to the next region or is closed, so it must not be kept.
+   */
+  public ByteBuffer nextLog() throws IOException {
+    if (!hasNextLog()) {
+      throw new NoSuchElementException();
+    }
+    ByteBuffer log = pendingLog;
+    pendingLog = null;
+    return log;
+  }
+
+  private boolean hasNextFrame() throws IOException {
+    if (region.position() < validatedEnd) {
+      return true;
+    }
+    long offset = regionStart + region.position();
+    if (offset + LogWriter.LOG_HEADER_SIZE > fileSize) {
+      return false;
+    }
+    if (region.position() > 0) {
+      // the next log crosses the end of the region
+      map(offset);
+      if (validatedEnd > 0) {
+        return true;
+      }
+    }
+    throw new IOException(String.format("The log at %d of %s is incomplete", offset, filepath));
+  }
+
+  /**
+   * @return the content of the next framed log, whose check sum has been validated
+   */
+  private ByteBuffer nextFrame() {
+    int logSize = region.getInt();
+    // the check sum has been validated
+    region.position(region.position() + Long.BYTES);
+    ByteBuffer log = region.slice();
+    log.limit(logSize);
+    region.position(region.position() + logSize);
+    return log;
+  }
+
+  private void map(long start) throws IOException {
+    unmap();
+    regionStart = start;
+    region = channel.map(MapMode.READ_ONLY, start, Math.min(regionSize, fileSize - start));
+    validatedEnd = validate(region);
+  }
+
+  /**
+   * Validate the check sums of the complete logs in the region.
+   *
+   * @return the position after the last complete log
+   */
+  private int validate(ByteBuffer buffer) throws IOException {
+    ByteBuffer log = buffer.duplicate();
+    int limit = buffer.limit();
+    int position = 0;
+    while (position + LogWriter.LOG_HEADER_SIZE <= limit) {
+      int logSize = buffer.getInt(position);
+      if (logSize < 0) {
+        throw new IOException(String.format("The log at %d of %s has an illegal size %d",
+            regionStart + position, filepath, logSize));
+      }
+      if (logSize > limit - position - LogWriter.LOG_HEADER_SIZE) {
+        break;
+      }
+      int logEnd = position + LogWriter.LOG_HEADER_SIZE + logSize;
+      log.limit(logEnd);
+      log.position(position + LogWriter.LOG_HEADER_SIZE);
+      checkSummer.reset();
+      checkSummer.update(log);
+      if (checkSummer.getValue() != buffer.getLong(position + Integer.BYTES)) {
+        throw new IOException("The check sum is incorrect!");
+      }
+      position = logEnd;
+    }
+    return position;
+  }
+
+  private void unmap() {
+    if (region == null) {
+      return;
+    }
+    try {
+      CommonUtils.destroyBuffer(region);
+    } catch (Exception e) {
+      logger.warn("Cannot unmap log file {}", filepath, e);
+    }
+    region = null;
+  }
+
+  @Override
+  public void close() {
+    unmap();
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        logger.error("Cannot close log file {}", filepath, e);
+      }
+      channel = null;
+    }
+  }
+}
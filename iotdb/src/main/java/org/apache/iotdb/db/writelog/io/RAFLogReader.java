@@ -22,10 +22,13 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.NoSuchElementException;
 import java.util.zip.CRC32;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.transfer.LogDictionary;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.apache.iotdb.db.writelog.transfer.SystemLogOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +41,11 @@ public class RAFLogReader implements ILogReader {
   private byte[] buffer = new byte[bufferSize];
   private CRC32 checkSummer = new CRC32();
   private PhysicalPlan planBuffer = null;
+  private LogDictionary dictionary = new LogDictionary();
+  /**
+   * the uncompressed logs of the last compressed batch.
+   */
+  private ByteBuffer batchLogs = null;
 
   public RAFLogReader() {
     // allowed to construct RAFLogReader without input.
@@ -53,6 +61,12 @@ public class RAFLogReader implements ILogReader {
       return true;
     }
 
+    if (batchLogs != null && batchLogs.hasRemaining()) {
+      planBuffer = PhysicalPlanLogTransfer
+          .logToOperator(CompressedLogBatch.nextLog(batchLogs), dictionary);
+      return true;
+    }
+
     if (logRaf.getFilePointer() + 12 > logRaf.length()) {
       return false;
     }
@@ -69,7 +83,11 @@ public class RAFLogReader implements ILogReader {
     if (checkSummer.getValue() != checkSum) {
       throw new IOException("The check sum is incorrect!");
     }
-    planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer);
+    if (buffer[0] == SystemLogOperator.COMPRESSED_BATCH) {
+      batchLogs = CompressedLogBatch.uncompress(ByteBuffer.wrap(buffer, 0, logSize));
+      return hasNext();
+    }
+    planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer, dictionary);
     return true;
   }
 
@@ -99,5 +117,8 @@ public class RAFLogReader implements ILogReader {
   public void open(File logFile) throws FileNotFoundException {
     logRaf = new RandomAccessFile(logFile, "r");
     this.filepath = logFile.getPath();
+    dictionary.reset();
+    planBuffer = null;
+    batchLogs = null;
   }
 }
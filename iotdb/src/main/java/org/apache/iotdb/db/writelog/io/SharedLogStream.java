@@ -0,0 +1,301 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SharedLogStream writes the logs of many log nodes into one sequence of segment files, so that
+ * syncing and forcing them costs one file instead of one per node. Each log of a node gets a
+ * sequence number of that node; when a flush of the node ends, a checkpoint record tells that its
+ * logs before a sequence number are obsolete. A segment is rolled when it exceeds the segment size
+ * and is deleted once every node having logs in it has checkpointed past them.
+ *
+ * <p>Every record is framed like the logs of LogWriter, its content starts with the record type:
+ * <ul>
+ * <li>DECLARE: node id (int), identifier, declares the id of a node in the segment;</li>
+ * <li>LOG: node id (int), sequence number (long), the serialized plan;</li>
+ * <li>CHECKPOINT: node id (int), sequence number (long), the logs of the node before the sequence
+ * number are obsolete.</li>
+ * </ul>
+ * A new segment starts with the checkpoints of all nodes, so the checkpoints in a deleted segment
+ * are never lost.
+ */
+public class SharedLogStream {
+
+  public static final String SEGMENT_PREFIX = "segment-";
+  public static final byte RECORD_DECLARE = 0;
+  public static final byte RECORD_LOG = 1;
+  public static final byte RECORD_CHECKPOINT = 2;
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedLogStream.class);
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final File directory;
+  private final long segmentSize;
+
+  private long segmentIndex;
+  private ILogWriter segmentWriter;
+  private long segmentLength = 0;
+  private List<byte[]> logCache = new ArrayList<>();
+
+  private Map<Integer, NodeState> nodes = new HashMap<>();
+  /**
+   * nodes whose ids are declared in the current segment.
+   */
+  private Set<Integer> declaredNodes = new HashSet<>();
+  /**
+   * segment index -> node id -> the sequence number after the last log of the node in the
+   * segment, only nodes whose logs in the segment are not checkpointed are kept.
+   */
+  private TreeMap<Long, Map<Integer, Long>> segmentNodeEnds = new TreeMap<>();
+
+  /**
+   * @param directory the directory of the segments, which should contain no segment
+   */
+  public SharedLogStream(File directory, long segmentSize) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    directory.mkdirs();
+    segmentIndex = 0;
+    openSegment();
+  }
+
+  public static long getSegmentIndex(File segment) {
+    return Long.parseLong(segment.getName().substring(SEGMENT_PREFIX.length()));
+  }
+
+  /**
+   * Register a node writing to this stream.
+   */
+  public synchronized void registerNode(int nodeId, String identifier) {
+    nodes.putIfAbsent(nodeId, new NodeState(identifier));
+  }
+
+  /**
+   * Unregister a node whose logs are no longer needed, e.g., it is deleted. A checkpoint covering
+   * all its logs is written at once, and the node is forgotten when no segment which may hold its
+   * logs is left. Until then its checkpoint is still copied to new segments, so its logs are never
+   * recovered.
+   */
+  public synchronized void unregisterNode(int nodeId) throws IOException {
+    NodeState node = nodes.get(nodeId);
+    if (node == null || node.lastSegment >= 0) {
+      return;
+    }
+    // the logs of the node are in this segment or the earlier ones
+    node.lastSegment = segmentIndex;
+    // removes the node from segmentNodeEnds, since all its logs are before the checkpoint
+    checkpoint(nodeId, Long.MAX_VALUE);
+    removeUnregisteredNodes();
+  }
+
+  public synchronized void append(int nodeId, byte[] log) throws IOException {
+    NodeState node = nodes.get(nodeId);
+    declare(nodeId, node);
+    long sequence = node.nextSequence++;
+    ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8 + log.length);
+    buffer.put(RECORD_LOG);
+    buffer.putInt(nodeId);
+    buffer.putLong(sequence);
+    buffer.put(log);
+    logCache.add(buffer.array());
+    segmentNodeEnds.get(segmentIndex).put(nodeId, node.nextSequence);
+
+    if (logCache.size() >= config.getFlushWalThreshold()) {
+      sync();
+    }
+  }
+
+  /**
+   * @return the sequence number of the next log of the node
+   */
+  public synchronized long getNextSequence(int nodeId) {
+    return nodes.get(nodeId).nextSequence;
+  }
+
+  /**
+   * Mark the logs of the node before the sequence number obsolete, the checkpoint is forced to
+   * disk before any segment is deleted.
+   */
+  public synchronized void checkpoint(int nodeId, long sequence) throws IOException {
+    NodeState node = nodes.get(nodeId);
+    if (sequence <= node.checkpoint) {
+      return;
+    }
+    node.checkpoint = sequence;
+    declare(nodeId, node);
+    logCache.add(checkpointRecord(nodeId, sequence));
+    sync();
+    force();
+
+    for (Map<Integer, Long> nodeEnds : segmentNodeEnds.values()) {
+      Long end = nodeEnds.get(nodeId);
+      if (end != null && end <= sequence) {
+        nodeEnds.remove(nodeId);
+      }
+    }
+    deleteObsoleteSegments();
+  }
+
+  /**
+   * Write the cached records to the current segment, and roll the segment if it is full.
+   */
+  public synchronized void sync() throws IOException {
+    if (logCache.isEmpty()) {
+      return;
+    }
+    writeCache();
+    if (segmentLength >= segmentSize) {
+      rollSegment();
+    }
+  }
+
+  public synchronized void force() throws IOException {
+    segmentWriter.force();
+  }
+
+  public synchronized void close() throws IOException {
+    sync();
+    force();
+    segmentWriter.close();
+  }
+
+  public synchronized int getSegmentNum() {
+    return segmentNodeEnds.size();
+  }
+
+  public synchronized int getNodeNum() {
+    return nodes.size();
+  }
+
+  private void declare(int nodeId, NodeState node) {
+    if (declaredNodes.add(nodeId)) {
+      byte[] identifier = node.identifier.getBytes(StandardCharsets.UTF_8);
+      ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + identifier.length);
+      buffer.put(RECORD_DECLARE);
+      buffer.putInt(nodeId);
+      buffer.put(identifier);
+      logCache.add(buffer.array());
+    }
+  }
+
+  private byte[] checkpointRecord(int nodeId, long sequence) {
+    ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 8);
+    buffer.put(RECORD_CHECKPOINT);
+    buffer.putInt(nodeId);
+    buffer.putLong(sequence);
+    return buffer.array();
+  }
+
+  private void writeCache() throws IOException {
+    segmentWriter.write(logCache);
+    for (byte[] record : logCache) {
+      segmentLength += LogWriter.LOG_HEADER_SIZE + record.length;
+    }
+    logCache.clear();
+  }
+
+  private void openSegment() {
+    segmentWriter = new LogWriter(
+        directory.getPath() + File.separator + SEGMENT_PREFIX + segmentIndex);
+    segmentLength = 0;
+    declaredNodes.clear();
+    segmentNodeEnds.put(segmentIndex, new HashMap<>());
+  }
+
+  private void rollSegment() throws IOException {
+    segmentWriter.force();
+    segmentWriter.close();
+    segmentIndex++;
+    openSegment();
+    // the checkpoints of all nodes must be durable in the new segment before older segments, which
+    // may contain the only copies of them, are deleted
+    for (Entry<Integer, NodeState> entry : nodes.entrySet()) {
+      if (entry.getValue().checkpoint > 0) {
+        declare(entry.getKey(), entry.getValue());
+        logCache.add(checkpointRecord(entry.getKey(), entry.getValue().checkpoint));
+      }
+    }
+    if (!logCache.isEmpty()) {
+      writeCache();
+      segmentWriter.force();
+    }
+    logger.info("Shared log {} rolled to segment {}", directory, segmentIndex);
+    deleteObsoleteSegments();
+  }
+
+  private void deleteObsoleteSegments() {
+    Iterator<Entry<Long, Map<Integer, Long>>> iterator = segmentNodeEnds.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<Long, Map<Integer, Long>> entry = iterator.next();
+      if (entry.getKey() == segmentIndex || !entry.getValue().isEmpty()) {
+        continue;
+      }
+      File segment = new File(directory, SEGMENT_PREFIX + entry.getKey());
+      if (segment.exists() && !segment.delete()) {
+        logger.error("Shared log {} cannot delete segment {}", directory, segment);
+        continue;
+      }
+      logger.info("Shared log {} deleted segment {}", directory, segment);
+      iterator.remove();
+    }
+    removeUnregisteredNodes();
+  }
+
+  /**
+   * forget the unregistered nodes whose logs are all in deleted segments.
+   */
+  private void removeUnregisteredNodes() {
+    long oldestSegment = segmentNodeEnds.firstKey();
+    nodes.values().removeIf(node -> node.lastSegment >= 0 && node.lastSegment < oldestSegment);
+  }
+
+  private static class NodeState {
+
+    private final String identifier;
+    private long nextSequence = 0;
+    private long checkpoint = 0;
+    /**
+     * the segment which was current when the node was unregistered, or -1 if it is registered.
+     */
+    private long lastSegment = -1;
+
+    private NodeState(String identifier) {
+      this.identifier = identifier;
+    }
+  }
+}
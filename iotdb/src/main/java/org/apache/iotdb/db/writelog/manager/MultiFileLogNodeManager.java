@@ -21,7 +21,6 @@ package org.apache.iotdb.db.writelog.manager;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.apache.iotdb.db.concurrent.ThreadName;
@@ -32,8 +31,10 @@ import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.writelog.io.GroupCommitWriter;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.recover.LogNodeRecoverer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -132,22 +133,13 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
    */
   @Override
   public void recover() throws RecoverException {
-    List<WriteLogNode> nodeList = new ArrayList<>(nodeMap.size());
-    nodeList.addAll(nodeMap.values());
-    nodeList.sort(null);
-    for (WriteLogNode node : nodeList) {
-      try {
-        node.recover();
-      } catch (RecoverException e) {
-        logger.error("{} failed to recover because {}", node.toString(), e.getMessage());
-        throw e;
-      }
-    }
+    LogNodeRecoverer.recover(new ArrayList<>(nodeMap.values()));
   }
 
   @Override
   public void close() {
-    if (!isActivated(syncThread) && !isActivated(forceThread)) {
+    if (!isActivated(syncThread) && !isActivated(forceThread) && !config
+        .isEnableWalGroupCommit()) {
       logger.error("MultiFileLogNodeManager has not yet started");
       return;
     }
@@ -175,6 +167,9 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       }
     }
     nodeMap.clear();
+    if (config.isEnableWalGroupCommit()) {
+      GroupCommitWriter.getInstance().close();
+    }
     logger.info("LogNodeManager closed.");
   }
 
@@ -211,6 +206,11 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       if (!config.isEnableWal()) {
         return;
       }
+      if (config.isEnableWalGroupCommit()) {
+        // logs are written and forced in batches, no timed sync or force is needed
+        GroupCommitWriter.getInstance().start();
+        return;
+      }
       if (!isActivated(syncThread)) {
         InstanceHolder.instance.syncThread = new Thread(InstanceHolder.instance.syncTask,
             ThreadName.WAL_DAEMON.getName());
@@ -0,0 +1,282 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.RecoverException;
+import org.apache.iotdb.db.exception.StartupException;
+import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.writelog.io.SharedLogStream;
+import org.apache.iotdb.db.writelog.node.SharedWriteLogNode;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.recover.LogNodeRecoverer;
+import org.apache.iotdb.db.writelog.recover.SharedLogSplitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SharedLogNodeManager writes the logs of all nodes into shared_wal_stream_num SharedLogStreams,
+ * a node is assigned to a stream by its identifier. So the timed sync and force touch a few files
+ * no matter how many storage groups there are. Before the streams are opened, the segments left
+ * by the last run are split into the log files of the nodes, which are then recovered as usual.
+ */
+public class SharedLogNodeManager implements WriteLogNodeManager, IService {
+
+  public static final String SHARED_WAL_FOLDER = "shared";
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedLogNodeManager.class);
+  private Map<String, WriteLogNode> nodeMap;
+  private SharedLogStream[] streams;
+  private AtomicInteger nextNodeId = new AtomicInteger();
+
+  private Thread syncThread;
+  private Thread forceThread;
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final Runnable syncTask = () -> {
+    while (true) {
+      if (Thread.interrupted()) {
+        logger.info("Shared WAL sync thread exits.");
+        break;
+      }
+      for (SharedLogStream stream : getStreams()) {
+        try {
+          stream.sync();
+        } catch (IOException e) {
+          logger.error("Cannot sync shared log", e);
+        }
+      }
+      try {
+        Thread.sleep(config.getFlushWalPeriodInMs());
+      } catch (InterruptedException e) {
+        logger.info("Shared WAL sync thread exits.");
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  };
+
+  private final Runnable forceTask = () -> {
+    while (true) {
+      if (Thread.interrupted()) {
+        logger.info("Shared WAL force thread exits.");
+        break;
+      }
+      for (SharedLogStream stream : getStreams()) {
+        try {
+          stream.force();
+        } catch (IOException e) {
+          logger.error("Cannot force shared log", e);
+        }
+      }
+      try {
+        Thread.sleep(config.getForceWalPeriodInMs());
+      } catch (InterruptedException e) {
+        logger.info("Shared WAL force thread exits.");
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  };
+
+  private SharedLogNodeManager() {
+    nodeMap = new ConcurrentHashMap<>();
+  }
+
+  public static SharedLogNodeManager getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * Split the segments left by the last run and open the streams, if not yet done.
+   */
+  private synchronized SharedLogStream[] getStreams() {
+    if (streams != null) {
+      return streams;
+    }
+    File sharedFolder = new File(config.getWalFolder(), SHARED_WAL_FOLDER);
+    File[] streamDirectories = sharedFolder.listFiles(File::isDirectory);
+    if (streamDirectories != null) {
+      SharedLogSplitter splitter = new SharedLogSplitter(config.getWalFolder());
+      for (File streamDirectory : streamDirectories) {
+        try {
+          splitter.split(streamDirectory);
+        } catch (IOException e) {
+          // the segments are kept and will be split by the next run
+          throw new IllegalStateException("Cannot split shared log " + streamDirectory, e);
+        }
+      }
+    }
+    SharedLogStream[] newStreams = new SharedLogStream[config.getSharedWalStreamNum()];
+    for (int i = 0; i < newStreams.length; i++) {
+      newStreams[i] = new SharedLogStream(new File(sharedFolder, String.valueOf(i)),
+          config.getSharedWalSegmentSize());
+    }
+    streams = newStreams;
+    return streams;
+  }
+
+  @Override
+  public WriteLogNode getNode(String identifier, String restoreFilePath,
+      String processorStoreFilePath) throws IOException {
+    WriteLogNode node = nodeMap.get(identifier);
+    if (node == null && restoreFilePath != null && processorStoreFilePath != null) {
+      SharedLogStream[] currentStreams = getStreams();
+      SharedLogStream stream = currentStreams[Math.floorMod(identifier.hashCode(),
+          currentStreams.length)];
+      node = new SharedWriteLogNode(identifier, restoreFilePath, processorStoreFilePath, stream,
+          nextNodeId.getAndIncrement());
+      WriteLogNode oldNode = nodeMap.putIfAbsent(identifier, node);
+      if (oldNode != null) {
+        return oldNode;
+      }
+    }
+    return node;
+  }
+
+  @Override
+  public void deleteNode(String identifier) throws IOException {
+    WriteLogNode node = nodeMap.remove(identifier);
+    if (node != null) {
+      node.delete();
+    }
+  }
+
+  /*
+   * Warning : caller must guarantee thread safety.
+   */
+  @Override
+  public void recover() throws RecoverException {
+    LogNodeRecoverer.recover(new ArrayList<>(nodeMap.values()));
+  }
+
+  @Override
+  public void close() {
+    logger.info("SharedLogNodeManager starts closing..");
+    stopThread(syncThread);
+    stopThread(forceThread);
+    logger.info("{} nodes to be closed", nodeMap.size());
+    for (WriteLogNode node : nodeMap.values()) {
+      try {
+        node.close();
+      } catch (IOException e) {
+        logger.error("{} failed to close", node.toString(), e);
+      }
+    }
+    nodeMap.clear();
+    synchronized (this) {
+      if (streams != null) {
+        for (SharedLogStream stream : streams) {
+          try {
+            stream.close();
+          } catch (IOException e) {
+            logger.error("Cannot close shared log", e);
+          }
+        }
+        streams = null;
+      }
+    }
+    logger.info("SharedLogNodeManager closed.");
+  }
+
+  private void stopThread(Thread thread) {
+    if (isActivated(thread)) {
+      thread.interrupt();
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        logger.error("Interrupted when waiting for {} to stop", thread.getName(), e);
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public boolean hasWAL(String fileNodeName) {
+    // the logs of the nodes are in their own directories after the split
+    getStreams();
+    return hasLogFiles(fileNodeName + IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX)
+        || hasLogFiles(fileNodeName + IoTDBConstant.OVERFLOW_LOG_NODE_SUFFIX);
+  }
+
+  private boolean hasLogFiles(String identifier) {
+    String[] files = new File(config.getWalFolder(), identifier).list();
+    return files != null && files.length > 0;
+  }
+
+  @Override
+  public void start() throws StartupException {
+    try {
+      if (!config.isEnableWal()) {
+        return;
+      }
+      getStreams();
+      if (!isActivated(syncThread)) {
+        syncThread = new Thread(syncTask, ThreadName.SHARED_WAL_DAEMON.getName());
+        syncThread.start();
+        if (config.getForceWalPeriodInMs() > 0 && !isActivated(forceThread)) {
+          forceThread = new Thread(forceTask, ThreadName.SHARED_WAL_FORCE_DAEMON.getName());
+          forceThread.start();
+        }
+      } else {
+        logger.warn("SharedLogNodeManager has already started");
+      }
+    } catch (Exception e) {
+      String errorMessage = String
+          .format("Failed to start %s because of %s", this.getID().getName(),
+              e.getMessage());
+      throw new StartupException(errorMessage);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (!config.isEnableWal()) {
+      return;
+    }
+    close();
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.WAL_SERVICE;
+  }
+
+  private boolean isActivated(Thread thread) {
+    return thread != null && thread.isAlive();
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+    }
+
+    private static SharedLogNodeManager instance = new SharedLogNodeManager();
+  }
+}
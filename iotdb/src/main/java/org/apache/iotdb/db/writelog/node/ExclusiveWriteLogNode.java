@@ -19,11 +19,23 @@
 package org.apache.iotdb.db.writelog.node;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
@@ -32,10 +44,12 @@ import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.LogPosition;
+import org.apache.iotdb.db.writelog.io.GroupCommitWriter;
 import org.apache.iotdb.db.writelog.io.ILogWriter;
 import org.apache.iotdb.db.writelog.io.LogWriter;
 import org.apache.iotdb.db.writelog.recover.ExclusiveLogRecoverPerformer;
 import org.apache.iotdb.db.writelog.recover.RecoverPerformer;
+import org.apache.iotdb.db.writelog.transfer.LogDictionary;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +61,12 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   public static final String WAL_FILE_NAME = "wal";
   public static final String OLD_SUFFIX = "-old";
+  /**
+   * the checkpoint file records the offset in the old log file before which all logs have been
+   * flushed, it must not contain WAL_FILE_NAME, which marks the files to be recovered.
+   */
+  public static final String CHECKPOINT_FILE_NAME = "checkpoint";
+  private static final String TEMP_SUFFIX = "-temp";
   private static final Logger logger = LoggerFactory.getLogger(ExclusiveWriteLogNode.class);
   /**
    * This should be the same as the corresponding FileNode's name.
@@ -63,10 +83,32 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
   private List<byte[]> logCache = new ArrayList<>(config.getFlushWalThreshold());
 
+  /**
+   * encodes the names in the logs of the current log file, it is reset when the file is closed.
+   */
+  private LogDictionary dictionary = new LogDictionary();
+
   private ReadWriteLock lock = new ReentrantReadWriteLock();
 
   private ReadWriteLock forceLock = new ReentrantReadWriteLock();
 
+  /**
+   * whether logs are written by the GroupCommitWriter instead of being cached.
+   */
+  private boolean groupCommit = config.isEnableWalGroupCommit();
+
+  /**
+   * number of flushes which have started but not ended. The old log file is shared by them and is
+   * discarded when the last of them ends.
+   */
+  private int flushingNum = 0;
+
+  /**
+   * the length of the old log file when each unfinished flush started, in the order of the
+   * flushes. All logs before it are flushed when the flush ends.
+   */
+  private Deque<Long> flushBoundaries = new ArrayDeque<>();
+
   /**
    * constructor of ExclusiveWriteLogNode.
    *
@@ -82,7 +124,11 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
 
     recoverPerformer = new ExclusiveLogRecoverPerformer(restoreFilePath, processorStoreFilePath,
         this);
-    currentFileWriter = new LogWriter(logDirectory + File.separator + WAL_FILE_NAME);
+    currentFileWriter = newFileWriter();
+  }
+
+  private ILogWriter newFileWriter() {
+    return new LogWriter(logDirectory + File.separator + WAL_FILE_NAME, config.getWalCompressor());
   }
 
   public void setRecoverPerformer(RecoverPerformer recoverPerformer) {
@@ -94,9 +140,16 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
    */
   @Override
   public LogPosition write(PhysicalPlan plan) throws IOException {
+    if (groupCommit) {
+      Future<Void> future = writeAsync(plan);
+      if (config.getForceWalPeriodInMs() == 0) {
+        waitDurable(future);
+      }
+      return null;
+    }
     lockForWrite();
     try {
-      byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan);
+      byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan, dictionary);
       logCache.add(logBytes);
 
       if (logCache.size() >= config.getFlushWalThreshold()) {
@@ -108,26 +161,67 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     return null;
   }
 
+  @Override
+  public Future<Void> writeAsync(PhysicalPlan plan) throws IOException {
+    if (!groupCommit) {
+      write(plan);
+      sync();
+      forceWal();
+      return CompletableFuture.completedFuture(null);
+    }
+    // the read lock lets writers enqueue concurrently, while sync() waits for all of them
+    lock.readLock().lock();
+    try {
+      // the logs must be enqueued in the order they are encoded by the dictionary
+      synchronized (dictionary) {
+        byte[] logBytes = PhysicalPlanLogTransfer.operatorToLog(plan, dictionary);
+        return GroupCommitWriter.getInstance().submit(currentFileWriter, logBytes);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void waitDurable(Future<Void> future) throws IOException {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Log node " + identifier + " is interrupted when writing logs", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Log node " + identifier + " cannot write logs", e.getCause());
+    }
+  }
+
   @Override
   public void recover() throws RecoverException {
     close();
     recoverPerformer.recover();
   }
 
+  /**
+   * The lock is taken before the logs are drained, so no log can be cached or enqueued between
+   * draining and closing the file, and the dictionary is reset together with the file it encodes.
+   */
   @Override
   public void close() {
-    sync();
-    forceWal();
     lockForOther();
     lockForForceOther();
     try {
+      sync();
+      forceWal();
       this.currentFileWriter.close();
+      // the next log may be written to a new file, while logs still holding the closed writer are
+      // rejected instead of reopening the file, which may be renamed by notifyStartFlush
+      currentFileWriter = newFileWriter();
+      dictionary.reset();
       logger.debug("Log node {} closed successfully", identifier);
     } catch (IOException e) {
       logger.error("Cannot close log node {} because {}", identifier, e.getMessage());
+    } finally {
+      unlockForForceOther();
+      unlockForOther();
     }
-    unlockForForceOther();
-    unlockForOther();
   }
 
   @Override
@@ -144,27 +238,130 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
    * Warning : caller must have lock.
    */
   @Override
-  public void notifyStartFlush() {
+  public synchronized void notifyStartFlush() throws IOException {
     close();
+    flushingNum++;
     File oldLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME);
     File newLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME + OLD_SUFFIX);
     if (!oldLogFile.exists()) {
+      flushBoundaries.addLast(newLogFile.length());
       return;
     }
-    if (!oldLogFile.renameTo(newLogFile)) {
-      logger.error("Log node {} renaming log file failed!", identifier);
+    if (newLogFile.exists()) {
+      // the old log file is still needed by an unfinished flush, so append to it
+      appendToOldLog(oldLogFile, newLogFile);
     } else {
-      logger.info("Log node {} renamed log file, file size is {}", identifier,
-          MemUtils.bytesCntToStr(newLogFile.length()));
+      // a checkpoint left by a crash refers to an old log file which does not exist any more
+      deleteCheckpoint();
+      if (!oldLogFile.renameTo(newLogFile)) {
+        logger.error("Log node {} renaming log file failed!", identifier);
+      } else {
+        logger.info("Log node {} renamed log file, file size is {}", identifier,
+            MemUtils.bytesCntToStr(newLogFile.length()));
+      }
+    }
+    flushBoundaries.addLast(newLogFile.length());
+  }
+
+  private void appendToOldLog(File logFile, File oldLogFile) throws IOException {
+    try (FileChannel source = new FileInputStream(logFile).getChannel();
+        FileChannel target = new FileOutputStream(oldLogFile, true).getChannel()) {
+      long position = 0;
+      long size = source.size();
+      while (position < size) {
+        position += source.transferTo(position, size - position, target);
+      }
+      target.force(true);
     }
+    if (!logFile.delete()) {
+      throw new IOException("Log node " + identifier + " cannot delete log file " + logFile);
+    }
+    logger.info("Log node {} appended log file to the old one, file size is {}", identifier,
+        MemUtils.bytesCntToStr(oldLogFile.length()));
   }
 
   /*
    * Warning : caller must have lock.
    */
   @Override
-  public void notifyEndFlush(List<LogPosition> logPositions) {
-    discard();
+  public synchronized void notifyEndFlush(List<LogPosition> logPositions) {
+    if (flushingNum > 0) {
+      flushingNum--;
+    }
+    // the flushes end in the order they start
+    Long boundary = flushBoundaries.pollFirst();
+    if (flushingNum == 0) {
+      flushBoundaries.clear();
+      discard();
+    } else if (boundary != null && boundary > 0) {
+      // the old log file is kept for the unfinished flushes, recovery only replays their logs
+      writeCheckpoint(boundary);
+    }
+  }
+
+  /**
+   * Persist the checkpoint to a temporary file and rename it, so that a crash never leaves a
+   * partial checkpoint. A checkpoint which is not written only makes recovery replay more logs.
+   */
+  private void writeCheckpoint(long offset) {
+    File checkpointFile = new File(logDirectory + File.separator + CHECKPOINT_FILE_NAME);
+    File tempFile = new File(logDirectory + File.separator + CHECKPOINT_FILE_NAME + TEMP_SUFFIX);
+    ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+    buffer.putLong(offset);
+    buffer.putLong(checkSum(offset));
+    try (FileOutputStream outputStream = new FileOutputStream(tempFile)) {
+      outputStream.write(buffer.array());
+      outputStream.getFD().sync();
+    } catch (IOException e) {
+      logger.error("Log node {} cannot write checkpoint {}", identifier, offset, e);
+      return;
+    }
+    try {
+      Files.move(tempFile.toPath(), checkpointFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      logger.debug("Log node {} checkpointed the old log file at {}", identifier, offset);
+    } catch (IOException e) {
+      logger.error("Log node {} cannot write checkpoint {}", identifier, offset, e);
+    }
+  }
+
+  /**
+   * Read the checkpoint of the log node in the directory.
+   *
+   * @return the offset in the old log file before which all logs have been flushed, or 0 if there
+   * is no valid checkpoint.
+   */
+  public static long readCheckpoint(String logDirectory) {
+    File checkpointFile = new File(logDirectory + File.separator + CHECKPOINT_FILE_NAME);
+    if (!checkpointFile.exists()) {
+      return 0;
+    }
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile.toPath()));
+      if (buffer.remaining() == 2 * Long.BYTES) {
+        long offset = buffer.getLong();
+        if (buffer.getLong() == checkSum(offset)) {
+          return offset;
+        }
+      }
+      logger.warn("The checkpoint in {} is broken, it is ignored", logDirectory);
+    } catch (IOException e) {
+      logger.warn("Cannot read the checkpoint in {}, it is ignored", logDirectory, e);
+    }
+    return 0;
+  }
+
+  private static long checkSum(long offset) {
+    CRC32 checkSummer = new CRC32();
+    checkSummer.update(ByteBuffer.allocate(Long.BYTES).putLong(offset).array());
+    return checkSummer.getValue();
+  }
+
+  private void deleteCheckpoint() {
+    File checkpointFile = new File(logDirectory + File.separator + CHECKPOINT_FILE_NAME);
+    if (checkpointFile.exists() && !checkpointFile.delete()) {
+      logger.error("Checkpoint of {} cannot be deleted", identifier);
+    }
   }
 
   @Override
@@ -181,7 +378,13 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   public void delete() throws IOException {
     lockForOther();
     try {
+      if (groupCommit) {
+        // drain the logs enqueued before, the closed writer rejects those enqueued afterwards
+        syncGroupCommit();
+      }
       logCache.clear();
+      dictionary.reset();
+      flushBoundaries.clear();
       if (currentFileWriter != null) {
         currentFileWriter.close();
       }
@@ -217,6 +420,10 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   }
 
   private void sync() {
+    if (groupCommit) {
+      syncGroupCommit();
+      return;
+    }
     lockForOther();
     try {
       logger.debug("Log node {} starts sync, {} logs to be synced", identifier, logCache.size());
@@ -235,6 +442,24 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     }
   }
 
+  /**
+   * Wait until all logs submitted to the GroupCommitWriter are written.
+   */
+  private void syncGroupCommit() {
+    Future<Void> future;
+    lockForOther();
+    try {
+      future = GroupCommitWriter.getInstance().submit(currentFileWriter, null);
+    } finally {
+      unlockForOther();
+    }
+    try {
+      waitDurable(future);
+    } catch (IOException e) {
+      logger.error("Log node {} sync failed", identifier, e);
+    }
+  }
+
   private void forceWal() {
     lockForForceOther();
     try {
@@ -251,6 +476,8 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
   }
 
   private void discard() {
+    // the checkpoint is deleted first, so that it never refers to another old log file
+    deleteCheckpoint();
     File oldLogFile = new File(logDirectory + File.separator + WAL_FILE_NAME + OLD_SUFFIX);
     if (!oldLogFile.exists()) {
       logger.info("No old log to be deleted");
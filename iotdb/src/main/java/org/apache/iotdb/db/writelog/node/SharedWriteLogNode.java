@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.node;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.LogPosition;
+import org.apache.iotdb.db.writelog.io.SharedLogStream;
+import org.apache.iotdb.db.writelog.transfer.LogDictionary;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This WriteLogNode writes the logs of a single FileNode into a SharedLogStream. Its directory
+ * only holds the log files split from the stream when recovering, so the recovery is the same as
+ * an ExclusiveWriteLogNode.
+ */
+public class SharedWriteLogNode extends ExclusiveWriteLogNode {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedWriteLogNode.class);
+
+  private SharedLogStream stream;
+
+  private int nodeId;
+
+  /**
+   * encodes the names in the logs of this node, it is reset when a flush starts, so the logs which
+   * are kept after the flush ends can be decoded without the logs before.
+   */
+  private LogDictionary dictionary = new LogDictionary();
+
+  /**
+   * number of flushes which have started but not ended.
+   */
+  private int flushingNum = 0;
+
+  /**
+   * the logs before this sequence number are flushed when all started flushes end.
+   */
+  private long flushSequence = 0;
+
+  /**
+   * constructor of SharedWriteLogNode.
+   *
+   * @param identifier             SharedWriteLogNode identifier
+   * @param restoreFilePath        restore file path
+   * @param processorStoreFilePath processor store file path
+   * @param stream                 the stream the logs are written to
+   * @param nodeId                 id of the node in the stream
+   */
+  public SharedWriteLogNode(String identifier, String restoreFilePath,
+      String processorStoreFilePath, SharedLogStream stream, int nodeId) {
+    super(identifier, restoreFilePath, processorStoreFilePath);
+    this.stream = stream;
+    this.nodeId = nodeId;
+    stream.registerNode(nodeId, identifier);
+  }
+
+  @Override
+  public LogPosition write(PhysicalPlan plan) throws IOException {
+    // the logs must be appended in the order they are encoded by the dictionary
+    synchronized (dictionary) {
+      stream.append(nodeId, PhysicalPlanLogTransfer.operatorToLog(plan, dictionary));
+    }
+    return null;
+  }
+
+  @Override
+  public Future<Void> writeAsync(PhysicalPlan plan) throws IOException {
+    write(plan);
+    stream.sync();
+    stream.force();
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public void close() {
+    try {
+      stream.sync();
+      stream.force();
+    } catch (IOException e) {
+      logger.error("{} cannot sync the shared log", this, e);
+    }
+  }
+
+  @Override
+  public void forceSync() {
+    try {
+      stream.sync();
+    } catch (IOException e) {
+      logger.error("{} sync failed", this, e);
+    }
+  }
+
+  @Override
+  public void force() {
+    try {
+      stream.force();
+    } catch (IOException e) {
+      logger.error("{} force failed", this, e);
+    }
+  }
+
+  @Override
+  public synchronized void notifyStartFlush() {
+    flushingNum++;
+    synchronized (dictionary) {
+      flushSequence = stream.getNextSequence(nodeId);
+      dictionary.reset();
+    }
+  }
+
+  @Override
+  public synchronized void notifyEndFlush(List<LogPosition> logPositions) {
+    if (flushingNum > 0) {
+      flushingNum--;
+    }
+    if (flushingNum == 0) {
+      try {
+        stream.checkpoint(nodeId, flushSequence);
+      } catch (IOException e) {
+        logger.error("{} cannot checkpoint the shared log", this, e);
+      }
+    }
+  }
+
+  @Override
+  public void delete() throws IOException {
+    // no log of the node is needed any more
+    stream.unregisterNode(nodeId);
+    FileUtils.deleteDirectory(new File(getLogDirectory()));
+  }
+
+  @Override
+  public String toString() {
+    return "Shared log node " + getIdentifier();
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.writelog.node;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Future;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.writelog.LogPosition;
@@ -36,6 +37,16 @@ public interface WriteLogNode {
    */
   LogPosition write(PhysicalPlan plan) throws IOException;
 
+  /**
+   * Write a log like {@link #write(PhysicalPlan)}, and return a future which completes when the log
+   * is forced to disk. Without group commit, the log is synced and forced before returning.
+   *
+   * @param plan -plan
+   * @return a future which completes when the log is durable, or completes exceptionally if the log
+   * cannot be written.
+   */
+  Future<Void> writeAsync(PhysicalPlan plan) throws IOException;
+
   /**
    * First judge the stage of recovery by status of files, and then recover from that stage.
    */
@@ -58,12 +69,13 @@ public interface WriteLogNode {
 
   /**
    * When a FileNode attempts to start a flush, this method must be called to rename log file.
+   * Several flushes may be started before the first of them ends.
    */
   void notifyStartFlush() throws IOException;
 
   /**
    * When the flush of a FlieNode ends, this method must be called to check if log file needs
-   * cleaning.
+   * cleaning. The logs are cleaned when all started flushes end.
    */
   void notifyEndFlush(List<LogPosition> logPositions);
 
@@ -25,20 +25,22 @@ import static org.apache.iotdb.db.writelog.RecoverStage.RECOVER_FILE;
 import static org.apache.iotdb.db.writelog.RecoverStage.REPLAY_LOG;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.RecoverStage;
-import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.io.MappedLogReader;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.db.writelog.replay.BatchedLogReplayer;
 import org.apache.iotdb.db.writelog.replay.ConcreteLogReplayer;
 import org.apache.iotdb.db.writelog.replay.LogReplayer;
 import org.slf4j.Logger;
@@ -50,8 +52,8 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
   public static final String RECOVER_SUFFIX = "-recover";
   public static final String FLAG_SEPERATOR = "-";
   private static final Logger logger = LoggerFactory.getLogger(ExclusiveLogRecoverPerformer.class);
-  // The two fields can be made static only because the recovery is a serial process.
-  private static RAFLogReader rafLogReader = new RAFLogReader();
+  // log nodes of different storage groups are recovered concurrently, so each has its own reader
+  private MappedLogReader logReader = new MappedLogReader();
   private ExclusiveWriteLogNode writeLogNode;
   private String recoveryFlagPath;
   private String restoreFilePath;
@@ -259,31 +261,48 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     replayLog();
   }
 
-  private int replayLogFile(File logFile) throws RecoverException, IOException {
+  private int replayLogFile(File logFile, long startOffset) throws RecoverException, IOException {
     int failedCnt = 0;
     if (logFile.exists()) {
       try {
-        rafLogReader.open(logFile);
-      } catch (FileNotFoundException e) {
+        logReader.open(logFile, startOffset);
+      } catch (IOException e) {
         logger
             .error("Log node {} cannot read old log file, because ", writeLogNode.getIdentifier(),
                 e);
         throw new RecoverException("Cannot read old log file, recovery aborted.");
       }
-      while (rafLogReader.hasNext()) {
+      // consecutive inserts of a device are replayed into the memtable as a batch
+      BatchedLogReplayer batchedReplayer = new BatchedLogReplayer(replayer,
+          IoTDBDescriptor.getInstance().getConfig().getWalReplayBatchSize());
+      long logNum = 0;
+      while (logReader.hasNext()) {
+        PhysicalPlan physicalPlan = logReader.next();
+        if (physicalPlan == null) {
+          logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
+          throw new RecoverException("Cannot read old log file, recovery aborted.");
+        }
+        logNum++;
+        int pendingNum = batchedReplayer.getPendingNum();
         try {
-          PhysicalPlan physicalPlan = rafLogReader.next();
-          if (physicalPlan == null) {
-            logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
-            throw new RecoverException("Cannot read old log file, recovery aborted.");
-          }
-          replayer.replay(physicalPlan, isOverflow);
+          batchedReplayer.replay(physicalPlan, isOverflow);
         } catch (ProcessorException e) {
-          failedCnt++;
+          // the pending inserts are replayed and fail along with this plan
+          failedCnt += pendingNum + 1;
           logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
         }
       }
-      rafLogReader.close();
+      int pendingNum = batchedReplayer.getPendingNum();
+      try {
+        batchedReplayer.flush();
+      } catch (ProcessorException e) {
+        failedCnt += pendingNum;
+        logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
+      }
+      logReader.close();
+      LogRecoverStatistics.getInstance().addReplayedLogs(logNum);
+      logger.info("Log node {} replayed {} logs of {}", writeLogNode.getIdentifier(), logNum,
+          logFile.getName());
     }
     return failedCnt;
   }
@@ -294,8 +313,18 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     File oldLogFile = new File(
         writeLogNode.getLogDirectory() + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME
             + ExclusiveWriteLogNode.OLD_SUFFIX);
+    // the logs before the checkpoint have been flushed by the flushes which ended
+    long checkpoint = ExclusiveWriteLogNode.readCheckpoint(writeLogNode.getLogDirectory());
+    if (checkpoint > oldLogFile.length()) {
+      logger.warn("Log node {} ignores checkpoint {} beyond the old log file of {} bytes",
+          writeLogNode.getIdentifier(), checkpoint, oldLogFile.length());
+      checkpoint = 0;
+    } else if (checkpoint > 0) {
+      logger.info("Log node {} skips {} of flushed logs in the old log file",
+          writeLogNode.getIdentifier(), MemUtils.bytesCntToStr(checkpoint));
+    }
     try {
-      failedEntryCnt += replayLogFile(oldLogFile);
+      failedEntryCnt += replayLogFile(oldLogFile, checkpoint);
     } catch (IOException e) {
       throw new RecoverException(e);
     }
@@ -303,7 +332,7 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     File newLogFile = new File(
         writeLogNode.getLogDirectory() + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME);
     try {
-      failedEntryCnt += replayLogFile(newLogFile);
+      failedEntryCnt += replayLogFile(newLogFile, 0);
     } catch (IOException e) {
       throw new RecoverException(e);
     }
@@ -343,7 +372,14 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
             writeLogNode.getLogDirectory());
         failedFiles.add(recoverProcessorStoreFilePath);
     }
-    // clean log file
+    // clean log file, the checkpoint first as it refers to the old log file
+    File checkpointFile = new File(
+        writeLogNode.getLogDirectory() + File.separator
+            + ExclusiveWriteLogNode.CHECKPOINT_FILE_NAME);
+    if (checkpointFile.exists() && !checkpointFile.delete()) {
+        logger.error("Log node {} cannot delete checkpoint", writeLogNode.getLogDirectory());
+        failedFiles.add(checkpointFile.getPath());
+    }
     File oldLogFile = new File(
         writeLogNode.getLogDirectory() + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME
             + ExclusiveWriteLogNode.OLD_SUFFIX);
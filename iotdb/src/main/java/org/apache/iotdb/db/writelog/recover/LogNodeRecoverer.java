@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.recover;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.RecoverException;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * LogNodeRecoverer recovers the log nodes of different storage groups concurrently on a pool of
+ * wal_recover_thread_num threads. The bufferwrite and overflow nodes of a storage group replay
+ * into the same FileNodeProcessor, so they are recovered one after another by the same task.
+ */
+public class LogNodeRecoverer {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogNodeRecoverer.class);
+
+  private LogNodeRecoverer() {
+  }
+
+  /**
+   * Recover the nodes and wait until all of them end. If any node fails, the nodes of other
+   * storage groups still finish recovering and the first failure is thrown.
+   */
+  public static void recover(Collection<WriteLogNode> nodes) throws RecoverException {
+    Map<String, List<WriteLogNode>> storageGroupNodes = new TreeMap<>();
+    for (WriteLogNode node : nodes) {
+      storageGroupNodes.computeIfAbsent(getStorageGroupName(node), k -> new ArrayList<>())
+          .add(node);
+    }
+    LogRecoverStatistics statistics = LogRecoverStatistics.getInstance();
+    statistics.start(nodes.size());
+    if (nodes.isEmpty()) {
+      statistics.end();
+      return;
+    }
+    int threadNum = Math.min(storageGroupNodes.size(),
+        IoTDBDescriptor.getInstance().getConfig().getWalRecoverThreadNum());
+    logger.info("Start recovering {} log nodes of {} storage groups with {} threads",
+        nodes.size(), storageGroupNodes.size(), threadNum);
+
+    ExecutorService pool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadNum, ThreadName.WAL_RECOVER_SERVICE.getName());
+    List<Future<Void>> futures = new ArrayList<>(storageGroupNodes.size());
+    for (List<WriteLogNode> groupNodes : storageGroupNodes.values()) {
+      groupNodes.sort(null);
+      futures.add(pool.submit(() -> recoverStorageGroup(groupNodes)));
+    }
+    RecoverException failure = null;
+    try {
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof RecoverException ? (RecoverException) e.getCause()
+                : new RecoverException(e.getCause());
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pool.shutdownNow();
+      throw new RecoverException("Interrupted when recovering log nodes", e);
+    } finally {
+      pool.shutdown();
+      statistics.end();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    logger.info("Recovered {} log nodes in {} ms, {} logs replayed, {} logs/s",
+        statistics.getRecoveredNodeNum(), statistics.getElapsedTimeInMs(),
+        statistics.getReplayedLogNum(), statistics.getReplayThroughput());
+  }
+
+  private static Void recoverStorageGroup(List<WriteLogNode> nodes) throws RecoverException {
+    for (WriteLogNode node : nodes) {
+      try {
+        node.recover();
+      } catch (RecoverException e) {
+        logger.error("{} failed to recover because {}", node.toString(), e.getMessage());
+        throw e;
+      }
+    }
+    LogRecoverStatistics statistics = LogRecoverStatistics.getInstance();
+    statistics.addRecoveredNodes(nodes.size());
+    logger.info("Recovered log nodes of {}, progress {}/{}, {} logs replayed, {} logs/s",
+        getStorageGroupName(nodes.get(0)), statistics.getRecoveredNodeNum(),
+        statistics.getTotalNodeNum(), statistics.getReplayedLogNum(),
+        statistics.getReplayThroughput());
+    return null;
+  }
+
+  /**
+   * The identifier of a log node is like "root.a.b-bufferwrite" or "root.a.b-overflow". Only the
+   * suffix is stripped, since the name of a storage group may contain '-' as well.
+   */
+  private static String getStorageGroupName(WriteLogNode node) {
+    String identifier = node.getIdentifier();
+    for (String suffix : new String[]{IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX,
+        IoTDBConstant.OVERFLOW_LOG_NODE_SUFFIX}) {
+      if (identifier.endsWith(suffix)) {
+        return identifier.substring(0, identifier.length() - suffix.length());
+      }
+    }
+    return identifier;
+  }
+}
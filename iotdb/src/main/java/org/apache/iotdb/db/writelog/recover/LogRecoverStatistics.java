@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.recover;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LogRecoverStatistics counts the progress of the latest recovery of the log nodes, it is shown by
+ * the logs of LogNodeRecoverer and by the Monitor MBean.
+ */
+public class LogRecoverStatistics {
+
+  private AtomicInteger totalNodeNum = new AtomicInteger();
+  private AtomicInteger recoveredNodeNum = new AtomicInteger();
+  private AtomicLong replayedLogNum = new AtomicLong();
+  private volatile long startTime = 0;
+  private volatile long endTime = 0;
+
+  private LogRecoverStatistics() {
+  }
+
+  public static LogRecoverStatistics getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  void start(int nodeNum) {
+    totalNodeNum.set(nodeNum);
+    recoveredNodeNum.set(0);
+    replayedLogNum.set(0);
+    endTime = 0;
+    startTime = System.currentTimeMillis();
+  }
+
+  void end() {
+    endTime = System.currentTimeMillis();
+  }
+
+  void addRecoveredNodes(int nodeNum) {
+    recoveredNodeNum.addAndGet(nodeNum);
+  }
+
+  void addReplayedLogs(long logNum) {
+    replayedLogNum.addAndGet(logNum);
+  }
+
+  public int getTotalNodeNum() {
+    return totalNodeNum.get();
+  }
+
+  public int getRecoveredNodeNum() {
+    return recoveredNodeNum.get();
+  }
+
+  public long getReplayedLogNum() {
+    return replayedLogNum.get();
+  }
+
+  /**
+   * @return the time in ms the recovery has taken, or 0 if no recovery has started
+   */
+  public long getElapsedTimeInMs() {
+    if (startTime == 0) {
+      return 0;
+    }
+    return (endTime == 0 ? System.currentTimeMillis() : endTime) - startTime;
+  }
+
+  /**
+   * @return the number of logs replayed per second
+   */
+  public long getReplayThroughput() {
+    long elapsedTime = getElapsedTimeInMs();
+    return elapsedTime == 0 ? 0 : getReplayedLogNum() * 1000 / elapsedTime;
+  }
+
+  private static class InstanceHolder {
+
+    private static final LogRecoverStatistics INSTANCE = new LogRecoverStatistics();
+
+    private InstanceHolder() {
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.recover;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.writelog.io.ILogWriter;
+import org.apache.iotdb.db.writelog.io.LogWriter;
+import org.apache.iotdb.db.writelog.io.SharedLogStream;
+import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * SharedLogSplitter splits the segments left by a SharedLogStream into the log files of the nodes,
+ * keeping only the logs after the checkpoint of each node, so that the nodes can be recovered like
+ * exclusive log nodes. The segments are deleted after the log files are forced to disk. If the
+ * split is interrupted, the log files are rewritten by the next split.
+ */
+public class SharedLogSplitter {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedLogSplitter.class);
+  private static final int BATCH_SIZE = 1000;
+
+  private String walFolder;
+
+  /**
+   * @param walFolder the folder of the log nodes
+   */
+  public SharedLogSplitter(String walFolder) {
+    this.walFolder = walFolder;
+  }
+
+  /**
+   * @return the number of logs written to the log files of the nodes
+   */
+  public int split(File streamDirectory) throws IOException {
+    File[] segments = streamDirectory
+        .listFiles((dir, name) -> name.startsWith(SharedLogStream.SEGMENT_PREFIX));
+    if (segments == null || segments.length == 0) {
+      return 0;
+    }
+    Arrays.sort(segments, Comparator.comparingLong(SharedLogStream::getSegmentIndex));
+
+    // the checkpoints may be in later segments than the logs they cover, so read them first
+    Map<String, Long> checkpoints = new HashMap<>();
+    for (File segment : segments) {
+      readSegment(segment, (identifier, type, sequence, log) -> {
+        if (type == SharedLogStream.RECORD_CHECKPOINT) {
+          checkpoints.merge(identifier, sequence, Math::max);
+        }
+      });
+    }
+
+    Map<String, NodeLogs> nodeLogs = new HashMap<>();
+    int[] logNum = {0};
+    for (File segment : segments) {
+      readSegment(segment, (identifier, type, sequence, log) -> {
+        if (type != SharedLogStream.RECORD_LOG
+            || sequence < checkpoints.getOrDefault(identifier, 0L)) {
+          return;
+        }
+        NodeLogs logs = nodeLogs.get(identifier);
+        if (logs == null) {
+          logs = new NodeLogs(identifier);
+          nodeLogs.put(identifier, logs);
+        }
+        logs.add(log);
+        logNum[0]++;
+      });
+    }
+    for (NodeLogs logs : nodeLogs.values()) {
+      logs.close();
+    }
+
+    for (File segment : segments) {
+      if (!segment.delete()) {
+        throw new IOException("Cannot delete shared log segment " + segment);
+      }
+    }
+    logger.info("Split {} logs of {} nodes from {} segments in {}", logNum[0], nodeLogs.size(),
+        segments.length, streamDirectory);
+    return logNum[0];
+  }
+
+  private void readSegment(File segment, RecordHandler handler) throws IOException {
+    Map<Integer, String> identifiers = new HashMap<>();
+    CRC32 checkSummer = new CRC32();
+    try (DataInputStream inputStream = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(segment)))) {
+      long remaining = segment.length();
+      while (remaining >= LogWriter.LOG_HEADER_SIZE) {
+        int recordSize = inputStream.readInt();
+        long checkSum = inputStream.readLong();
+        remaining -= LogWriter.LOG_HEADER_SIZE;
+        if (recordSize < 0 || recordSize > remaining) {
+          logger.warn("Shared log segment {} ends with an incomplete record", segment);
+          return;
+        }
+        byte[] record = new byte[recordSize];
+        inputStream.readFully(record);
+        remaining -= recordSize;
+        checkSummer.reset();
+        checkSummer.update(record);
+        if (checkSummer.getValue() != checkSum) {
+          logger.warn("Shared log segment {} ends with a broken record", segment);
+          return;
+        }
+        handleRecord(record, identifiers, handler);
+      }
+    } catch (EOFException e) {
+      logger.warn("Shared log segment {} ends with an incomplete record", segment);
+    }
+  }
+
+  private void handleRecord(byte[] record, Map<Integer, String> identifiers,
+      RecordHandler handler) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(record);
+    byte type = buffer.get();
+    int nodeId = buffer.getInt();
+    if (type == SharedLogStream.RECORD_DECLARE) {
+      identifiers.put(nodeId, new String(record, buffer.position(), buffer.remaining(),
+          StandardCharsets.UTF_8));
+      return;
+    }
+    String identifier = identifiers.get(nodeId);
+    if (identifier == null) {
+      throw new IOException("Shared log record of an undeclared node " + nodeId);
+    }
+    long sequence = buffer.getLong();
+    byte[] log = null;
+    if (type == SharedLogStream.RECORD_LOG) {
+      log = Arrays.copyOfRange(record, buffer.position(), record.length);
+    }
+    handler.handle(identifier, type, sequence, log);
+  }
+
+  @FunctionalInterface
+  private interface RecordHandler {
+
+    void handle(String identifier, byte type, long sequence, byte[] log) throws IOException;
+  }
+
+  private class NodeLogs {
+
+    private ILogWriter writer;
+    private List<byte[]> logs = new ArrayList<>();
+
+    private NodeLogs(String identifier) throws IOException {
+      File logDirectory = new File(walFolder, identifier);
+      logDirectory.mkdirs();
+      File logFile = new File(logDirectory, ExclusiveWriteLogNode.WAL_FILE_NAME);
+      // written by an interrupted split
+      if (logFile.exists() && !logFile.delete()) {
+        throw new IOException("Cannot delete log file " + logFile);
+      }
+      writer = new LogWriter(logFile.getPath(),
+          IoTDBDescriptor.getInstance().getConfig().getWalCompressor());
+    }
+
+    private void add(byte[] log) throws IOException {
+      logs.add(log);
+      if (logs.size() >= BATCH_SIZE) {
+        writer.write(logs);
+        logs.clear();
+      }
+    }
+
+    private void close() throws IOException {
+      if (!logs.isEmpty()) {
+        writer.write(logs);
+      }
+      writer.force();
+      writer.close();
+    }
+  }
+}
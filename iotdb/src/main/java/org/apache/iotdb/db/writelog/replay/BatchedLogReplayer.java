@@ -0,0 +1,189 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IPointWriter;
+
+/**
+ * BatchedLogReplayer collects consecutive typed inserts of the same device and measurements, and
+ * replays them through another replayer as one BatchInsertPlan, so that they are written into the
+ * memtable column by column instead of record by record. Any other plan replays the collected
+ * inserts first, so the logs are still applied in order. The caller must call {@link #flush()}
+ * after the last log.
+ */
+public class BatchedLogReplayer implements LogReplayer {
+
+  private LogReplayer replayer;
+  private int batchSize;
+
+  private List<InsertPlan> pendingPlans = new ArrayList<>();
+  private boolean pendingOverflow;
+
+  /**
+   * @param replayer the replayer the batches and the other plans are replayed by
+   * @param batchSize the max number of inserts in a batch
+   */
+  public BatchedLogReplayer(LogReplayer replayer, int batchSize) {
+    this.replayer = replayer;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void replay(PhysicalPlan plan, boolean isOverflow) throws ProcessorException {
+    if (!canBatch(plan)) {
+      flush();
+      replayer.replay(plan, isOverflow);
+      return;
+    }
+    InsertPlan insertPlan = (InsertPlan) plan;
+    if (!pendingPlans.isEmpty() && !isSameSchema(pendingPlans.get(0), insertPlan, isOverflow)) {
+      flush();
+    }
+    pendingPlans.add(insertPlan);
+    pendingOverflow = isOverflow;
+    if (pendingPlans.size() >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Replay the collected inserts.
+   */
+  public void flush() throws ProcessorException {
+    if (pendingPlans.isEmpty()) {
+      return;
+    }
+    try {
+      if (pendingPlans.size() == 1) {
+        replayer.replay(pendingPlans.get(0), pendingOverflow);
+      } else {
+        replayer.replay(toBatch(pendingPlans), pendingOverflow);
+      }
+    } finally {
+      pendingPlans.clear();
+    }
+  }
+
+  /**
+   * @return the number of inserts collected but not yet replayed
+   */
+  public int getPendingNum() {
+    return pendingPlans.size();
+  }
+
+  private boolean canBatch(PhysicalPlan plan) {
+    // values of the old insert logs are strings, which are parsed one by one
+    return batchSize > 1 && plan instanceof InsertPlan && ((InsertPlan) plan).isTyped();
+  }
+
+  private boolean isSameSchema(InsertPlan first, InsertPlan plan, boolean isOverflow) {
+    return pendingOverflow == isOverflow && first.getDeviceId().equals(plan.getDeviceId())
+        && first.getMeasurements().equals(plan.getMeasurements())
+        && isSameDataTypes(first.getDataPoints(), plan.getDataPoints());
+  }
+
+  private static boolean isSameDataTypes(List<DataPoint> first, List<DataPoint> dataPoints) {
+    for (int i = 0; i < first.size(); i++) {
+      if (first.get(i).getType() != dataPoints.get(i).getType()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BatchInsertPlan toBatch(List<InsertPlan> plans) {
+    List<DataPoint> firstPoints = plans.get(0).getDataPoints();
+    TSDataType[] dataTypes = new TSDataType[firstPoints.size()];
+    for (int i = 0; i < dataTypes.length; i++) {
+      dataTypes[i] = firstPoints.get(i).getType();
+    }
+    int rowCount = plans.size();
+    long[] times = new long[rowCount];
+    ColumnWriter[] columnWriters = new ColumnWriter[dataTypes.length];
+    Object[] columns = new Object[dataTypes.length];
+    for (int i = 0; i < dataTypes.length; i++) {
+      columns[i] = BatchInsertPlan.newColumn(dataTypes[i], rowCount);
+      columnWriters[i] = new ColumnWriter(columns[i]);
+    }
+    for (int row = 0; row < rowCount; row++) {
+      InsertPlan plan = plans.get(row);
+      times[row] = plan.getTime();
+      List<DataPoint> dataPoints = plan.getDataPoints();
+      for (int i = 0; i < dataTypes.length; i++) {
+        // the time argument is the row the value is put at
+        dataPoints.get(i).writeTo(row, columnWriters[i]);
+      }
+    }
+    InsertPlan first = plans.get(0);
+    return new BatchInsertPlan(first.getDeviceId(), first.getMeasurements(), dataTypes, times,
+        columns, rowCount);
+  }
+
+  /**
+   * puts each value at the row given as its time into a column created by
+   * {@link BatchInsertPlan#newColumn(TSDataType, int)}.
+   */
+  private static class ColumnWriter implements IPointWriter {
+
+    private Object column;
+
+    private ColumnWriter(Object column) {
+      this.column = column;
+    }
+
+    @Override
+    public void putLong(long t, long v) {
+      ((long[]) column)[(int) t] = v;
+    }
+
+    @Override
+    public void putInt(long t, int v) {
+      ((int[]) column)[(int) t] = v;
+    }
+
+    @Override
+    public void putFloat(long t, float v) {
+      ((float[]) column)[(int) t] = v;
+    }
+
+    @Override
+    public void putDouble(long t, double v) {
+      ((double[]) column)[(int) t] = v;
+    }
+
+    @Override
+    public void putBinary(long t, Binary v) {
+      ((Binary[]) column)[(int) t] = v;
+    }
+
+    @Override
+    public void putBoolean(long t, boolean v) {
+      ((boolean[]) column)[(int) t] = v;
+    }
+  }
+}
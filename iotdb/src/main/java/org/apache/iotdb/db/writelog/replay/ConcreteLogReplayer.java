@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -32,7 +33,6 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
-import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public class ConcreteLogReplayer implements LogReplayer {
 
@@ -48,6 +48,8 @@ public class ConcreteLogReplayer implements LogReplayer {
       if (plan instanceof InsertPlan) {
         InsertPlan insertPlan = (InsertPlan) plan;
         multiInsert(insertPlan);
+      } else if (plan instanceof BatchInsertPlan) {
+        FileNodeManager.getInstance().insertBatch((BatchInsertPlan) plan, true);
       } else if (plan instanceof UpdatePlan) {
         UpdatePlan updatePlan = (UpdatePlan) plan;
         update(updatePlan);
@@ -63,19 +65,17 @@ public class ConcreteLogReplayer implements LogReplayer {
 
   private void multiInsert(InsertPlan insertPlan)
       throws PathErrorException, FileNodeManagerException {
-    String deviceId = insertPlan.getDeviceId();
-    long insertTime = insertPlan.getTime();
-    List<String> measurementList = insertPlan.getMeasurements();
-    List<String> insertValues = insertPlan.getValues();
-
-    TSRecord tsRecord = new TSRecord(insertTime, deviceId);
-    for (int i = 0; i < measurementList.size(); i++) {
-      String pathKey = deviceId + "." + measurementList.get(i);
-      TSDataType dataType = MManager.getInstance().getSeriesType(pathKey);
-      String value = insertValues.get(i);
-      DataPoint dataPoint = DataPoint.getDataPoint(dataType, measurementList.get(i), value);
-      tsRecord.addTuple(dataPoint);
+    TSDataType[] seriesTypes = null;
+    if (!insertPlan.isTyped()) {
+      // values in the old log format are strings, which need the series types to be parsed
+      List<String> measurementList = insertPlan.getMeasurements();
+      seriesTypes = new TSDataType[measurementList.size()];
+      for (int i = 0; i < measurementList.size(); i++) {
+        String pathKey = insertPlan.getDeviceId() + "." + measurementList.get(i);
+        seriesTypes[i] = MManager.getInstance().getSeriesType(pathKey);
+      }
     }
+    TSRecord tsRecord = insertPlan.toTSRecord(seriesTypes);
     FileNodeManager.getInstance().insert(tsRecord, true);
   }
 
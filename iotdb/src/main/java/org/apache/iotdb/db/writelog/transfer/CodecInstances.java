@@ -20,6 +20,7 @@ package org.apache.iotdb.db.writelog.transfer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -34,6 +35,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -46,7 +48,9 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public class CodecInstances {
 
@@ -226,6 +230,248 @@ public class CodecInstances {
     }
   };
 
+  static final Codec<InsertPlan> typedInsertPlanCodec = new Codec<InsertPlan>() {
+    ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    @Override
+    public byte[] encode(InsertPlan plan) {
+      int type = SystemLogOperator.TYPED_INSERT;
+      checkBufferAndPutType(localBuffer, type);
+      ByteBuffer buffer = localBuffer.get();
+      buffer.put((byte) plan.getInsertType());
+      buffer.putLong(plan.getTime());
+
+      putString(buffer, plan.getDeviceId());
+
+      List<DataPoint> dataPoints = plan.getDataPoints();
+      buffer.putInt(dataPoints.size());
+      for (DataPoint dataPoint : dataPoints) {
+        putString(buffer, dataPoint.getMeasurementId());
+        buffer.put((byte) dataPoint.getType().serialize());
+        dataPoint.serializeValueTo(buffer);
+      }
+
+      return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    public InsertPlan decode(byte[] bytes) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+      buffer.get(); // read and skip an int representing "type"
+      int insertType = buffer.get();
+      long time = buffer.getLong();
+
+      String device = readString(buffer);
+
+      int size = buffer.getInt();
+      List<DataPoint> dataPoints = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        String measurement = readString(buffer);
+        TSDataType dataType = TSDataType.deserialize(buffer.get());
+        dataPoints.add(DataPoint.deserializeFrom(dataType, measurement, buffer));
+      }
+
+      return new InsertPlan(insertType, device, time, dataPoints);
+    }
+  };
+
+  /**
+   * version of the INSERT_V2 log, which follows its opcode.
+   */
+  static final byte INSERT_V2_VERSION = 2;
+  /**
+   * tag of a name which is written inline without being defined.
+   */
+  private static final int INLINE_NAME_TAG = 0;
+
+  /**
+   * Put a device or measurement name. The tag before the name is 0 if the name is written inline,
+   * 2 * id + 1 if the name is defined as id by this log, or 2 * id + 2 if the name is only referred
+   * to by its id defined by an earlier log.
+   *
+   * @param dictionary the dictionary of the log file, or null to write the name inline
+   */
+  static void putName(ByteBuffer buffer, String name, LogDictionary dictionary) {
+    int id = dictionary == null ? -1 : dictionary.getId(name);
+    if (id >= 0) {
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(2 * id + 2, buffer);
+      return;
+    }
+    id = dictionary == null ? -1 : dictionary.define(name);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(id >= 0 ? 2 * id + 1 : INLINE_NAME_TAG, buffer);
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, buffer);
+    buffer.put(bytes);
+  }
+
+  /**
+   * Read a name written by putName.
+   *
+   * @param dictionary the dictionary of the log file, or null if the log is decoded alone
+   */
+  static String readName(ByteBuffer buffer, LogDictionary dictionary) throws IOException {
+    int tag = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    if (tag != INLINE_NAME_TAG && tag % 2 == 0) {
+      int id = tag / 2 - 1;
+      String name = dictionary == null ? null : dictionary.getName(id);
+      if (name == null) {
+        throw new IOException("Undefined name id " + id + " in log");
+      }
+      return name;
+    }
+    int length = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    String name = new String(bytes, StandardCharsets.UTF_8);
+    if (tag != INLINE_NAME_TAG && dictionary != null) {
+      int id = tag / 2;
+      if (id >= LogDictionary.MAX_SIZE) {
+        throw new IOException("Illegal name id " + id + " in log");
+      }
+      dictionary.define(id, name);
+    }
+    return name;
+  }
+
+  /**
+   * Encode a typed InsertPlan in the compact INSERT_V2 format: the opcode, the version, the insert
+   * type, the time, the device, the number of measurements, then the measurement, the data type
+   * and the binary value of each measurement. Names are written by putName.
+   */
+  static void encodeInsertV2(InsertPlan plan, LogDictionary dictionary, ByteBuffer buffer) {
+    buffer.put((byte) SystemLogOperator.INSERT_V2);
+    buffer.put(INSERT_V2_VERSION);
+    buffer.put((byte) plan.getInsertType());
+    buffer.putLong(plan.getTime());
+    putName(buffer, plan.getDeviceId(), dictionary);
+
+    List<DataPoint> dataPoints = plan.getDataPoints();
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(dataPoints.size(), buffer);
+    for (DataPoint dataPoint : dataPoints) {
+      putName(buffer, dataPoint.getMeasurementId(), dictionary);
+      buffer.put((byte) dataPoint.getType().serialize());
+      dataPoint.serializeValueTo(buffer);
+    }
+  }
+
+  static InsertPlan decodeInsertV2(ByteBuffer buffer, LogDictionary dictionary)
+      throws IOException {
+    buffer.get(); // read and skip an int representing "type"
+    byte version = buffer.get();
+    if (version != INSERT_V2_VERSION) {
+      throw new IOException("Unsupported insert log version " + version);
+    }
+    int insertType = buffer.get();
+    long time = buffer.getLong();
+    String device = readName(buffer, dictionary);
+
+    int size = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    List<DataPoint> dataPoints = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      String measurement = readName(buffer, dictionary);
+      TSDataType dataType = TSDataType.deserialize(buffer.get());
+      dataPoints.add(DataPoint.deserializeFrom(dataType, measurement, buffer));
+    }
+    return new InsertPlan(insertType, device, time, dataPoints);
+  }
+
+  /**
+   * Encodes and decodes INSERT_V2 logs alone, the names are written inline.
+   */
+  static final Codec<InsertPlan> insertV2PlanCodec = new Codec<InsertPlan>() {
+    ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    @Override
+    public byte[] encode(InsertPlan plan) {
+      return encodeInsertV2(plan, null, localBuffer);
+    }
+
+    @Override
+    public InsertPlan decode(byte[] bytes) throws IOException {
+      return decodeInsertV2(ByteBuffer.wrap(bytes), null);
+    }
+  };
+
+  /**
+   * Encode a typed InsertPlan in the INSERT_V2 format into the thread local buffer.
+   *
+   * @return the encoded log
+   */
+  static byte[] encodeInsertV2(InsertPlan plan, LogDictionary dictionary,
+      ThreadLocal<ByteBuffer> localBuffer) {
+    if (localBuffer.get() == null) {
+      localBuffer.set(ByteBuffer.allocate(config.getMaxLogEntrySize()));
+    }
+    ByteBuffer buffer = localBuffer.get();
+    buffer.clear();
+    encodeInsertV2(plan, dictionary, buffer);
+    // the log outlives the thread local buffer in the log cache or the group commit queue
+    return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+  }
+
+  static final Codec<BatchInsertPlan> batchInsertPlanCodec = new Codec<BatchInsertPlan>() {
+    ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+    @Override
+    public byte[] encode(BatchInsertPlan plan) {
+      int type = SystemLogOperator.BATCH_INSERT;
+      checkBufferAndPutType(localBuffer, type);
+      ByteBuffer buffer = localBuffer.get();
+
+      putString(buffer, plan.getDeviceId());
+
+      List<String> measurementList = plan.getMeasurements();
+      TSDataType[] dataTypes = plan.getDataTypes();
+      buffer.putInt(measurementList.size());
+      for (int i = 0; i < measurementList.size(); i++) {
+        putString(buffer, measurementList.get(i));
+        buffer.put((byte) dataTypes[i].serialize());
+      }
+
+      int rowCount = plan.getRowCount();
+      buffer.putInt(rowCount);
+      long[] times = plan.getTimes();
+      for (int i = 0; i < rowCount; i++) {
+        buffer.putLong(times[i]);
+      }
+      Object[] columns = plan.getColumns();
+      for (int i = 0; i < columns.length; i++) {
+        BatchInsertPlan.serializeColumn(dataTypes[i], columns[i], rowCount, buffer);
+      }
+
+      return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    public BatchInsertPlan decode(byte[] bytes) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+      buffer.get(); // read and skip an int representing "type"
+      String device = readString(buffer);
+
+      int size = buffer.getInt();
+      List<String> measurementsList = new ArrayList<>(size);
+      TSDataType[] dataTypes = new TSDataType[size];
+      for (int i = 0; i < size; i++) {
+        measurementsList.add(readString(buffer));
+        dataTypes[i] = TSDataType.deserialize(buffer.get());
+      }
+
+      int rowCount = buffer.getInt();
+      long[] times = new long[rowCount];
+      for (int i = 0; i < rowCount; i++) {
+        times[i] = buffer.getLong();
+      }
+      Object[] columns = new Object[size];
+      for (int i = 0; i < size; i++) {
+        columns[i] = BatchInsertPlan.deserializeColumn(dataTypes[i], rowCount, buffer);
+      }
+
+      return new BatchInsertPlan(device, measurementsList, dataTypes, times, columns, rowCount);
+    }
+  };
+
   static final Codec<MetadataPlan> metadataPlanCodec = new Codec<MetadataPlan>() {
     ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
 
@@ -317,7 +563,7 @@ public class CodecInstances {
 
       byte encodingByte = buffer.get();
       TSEncoding encoding = null;
-      if (compressorByte != NULL_VALUE_LEN) {
+      if (encodingByte != NULL_VALUE_LEN) {
         encoding = TSEncoding.deserialize(encodingByte);
       }
 
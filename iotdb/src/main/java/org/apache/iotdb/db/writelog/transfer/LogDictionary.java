@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.transfer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LogDictionary maps the device and measurement names in a log file to ids, so that a name is only
+ * written once in the file and then referred to by its id. The writer of a log file keeps one to
+ * encode the logs and resets it when it starts a new file, the reader keeps one to decode the
+ * file. Since an id is always defined in a log before it is referred to, and a definition
+ * overrides an older one, a file appended by another file can still be decoded.
+ *
+ * <p>A LogDictionary is not thread-safe, the logs must be encoded in the order they are written.
+ */
+public class LogDictionary {
+
+  /**
+   * when this many names are defined, new names are written inline without being defined.
+   */
+  static final int MAX_SIZE = 1 << 16;
+
+  private Map<String, Integer> ids = new HashMap<>();
+  private List<String> names = new ArrayList<>();
+
+  /**
+   * @return the id of the name, or -1 if the name is not defined
+   */
+  int getId(String name) {
+    Integer id = ids.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Define a new name when encoding.
+   *
+   * @return the id of the name, or -1 if the dictionary is full
+   */
+  int define(String name) {
+    if (names.size() >= MAX_SIZE) {
+      return -1;
+    }
+    int id = names.size();
+    names.add(name);
+    ids.put(name, id);
+    return id;
+  }
+
+  /**
+   * Define a name read from a log when decoding.
+   */
+  void define(int id, String name) {
+    while (names.size() <= id) {
+      names.add(null);
+    }
+    names.set(id, name);
+  }
+
+  /**
+   * @return the name of the id, or null if it is not defined
+   */
+  String getName(int id) {
+    return id < names.size() ? names.get(id) : null;
+  }
+
+  public void reset() {
+    ids.clear();
+    names.clear();
+  }
+}
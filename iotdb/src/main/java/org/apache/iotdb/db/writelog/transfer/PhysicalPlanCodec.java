@@ -41,7 +41,10 @@ public enum PhysicalPlanCodec {
   METADATAPLAN(SystemLogOperator.METADATA, CodecInstances.metadataPlanCodec),
   AUTHORPLAN(SystemLogOperator.AUTHOR, CodecInstances.authorPlanCodec),
   LOADDATAPLAN(SystemLogOperator.LOADDATA, CodecInstances.loadDataPlanCodec),
-  PROPERTYPLAN(SystemLogOperator.PROPERTY, CodecInstances.propertyPlanCodec);
+  PROPERTYPLAN(SystemLogOperator.PROPERTY, CodecInstances.propertyPlanCodec),
+  TYPEDINSERTPLAN(SystemLogOperator.TYPED_INSERT, CodecInstances.typedInsertPlanCodec),
+  BATCHINSERTPLAN(SystemLogOperator.BATCH_INSERT, CodecInstances.batchInsertPlanCodec),
+  INSERTV2PLAN(SystemLogOperator.INSERT_V2, CodecInstances.insertV2PlanCodec);
 
   private static final HashMap<Integer, PhysicalPlanCodec> codecMap = new HashMap<>();
 
@@ -20,20 +20,52 @@ package org.apache.iotdb.db.writelog.transfer;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WALOverSizedException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 
 public class PhysicalPlanLogTransfer {
 
   private PhysicalPlanLogTransfer() {
   }
 
+  private static ThreadLocal<ByteBuffer> insertV2Buffer = new ThreadLocal<>();
+
   public static byte[] operatorToLog(PhysicalPlan plan) throws IOException {
+    return operatorToLog(plan, null);
+  }
+
+  /**
+   * Serialize a plan into a log. A typed InsertPlan is written in the INSERT_V2 format, whose
+   * device and measurement names are encoded by the dictionary of the log file.
+   *
+   * @param dictionary the dictionary of the log file the log is written to, or null if the log
+   * should be decoded alone
+   */
+  public static byte[] operatorToLog(PhysicalPlan plan, LogDictionary dictionary)
+      throws IOException {
+    if (plan instanceof InsertPlan && ((InsertPlan) plan).isTyped()) {
+      try {
+        return CodecInstances.encodeInsertV2((InsertPlan) plan, dictionary, insertV2Buffer);
+      } catch (BufferOverflowException e) {
+        throw new WALOverSizedException("Plan " + plan.toString() + " is too big to write to WAL");
+      }
+    }
     Codec<PhysicalPlan> codec;
     switch (plan.getOperatorType()) {
       case INSERT:
         codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.INSERT).codec;
         break;
+      case BATCHINSERT:
+        codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.BATCH_INSERT)
+            .codec;
+        break;
       case UPDATE:
         codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.UPDATE).codec;
         break;
@@ -81,9 +113,76 @@ public class PhysicalPlanLogTransfer {
   }
 
   public static PhysicalPlan logToOperator(byte[] opInBytes) throws IOException {
+    return logToOperator(opInBytes, null);
+  }
+
+  /**
+   * Deserialize a log, both the old logs and the INSERT_V2 logs can be read.
+   *
+   * @param dictionary the dictionary of the log file the log is read from, or null if the log is
+   * decoded alone
+   */
+  public static PhysicalPlan logToOperator(byte[] opInBytes, LogDictionary dictionary)
+      throws IOException {
     // the first byte determines the opCode
     int opCode = opInBytes[0];
+    if (opCode == SystemLogOperator.INSERT_V2) {
+      return CodecInstances.decodeInsertV2(ByteBuffer.wrap(opInBytes), dictionary);
+    }
     Codec<PhysicalPlan> codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(opCode).codec;
     return codec.decode(opInBytes);
   }
+
+  /**
+   * Deserialize a log from the position to the limit of the buffer. An INSERT_V2 log is decoded
+   * from the buffer directly, other logs are copied out first.
+   *
+   * @param dictionary the dictionary of the log file the log is read from, or null if the log is
+   * decoded alone
+   */
+  public static PhysicalPlan logToOperator(ByteBuffer log, LogDictionary dictionary)
+      throws IOException {
+    int opCode = log.get(log.position());
+    if (opCode == SystemLogOperator.INSERT_V2) {
+      return CodecInstances.decodeInsertV2(log, dictionary);
+    }
+    byte[] opInBytes = new byte[log.remaining()];
+    log.get(opInBytes);
+    Codec<PhysicalPlan> codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(opCode).codec;
+    return codec.decode(opInBytes);
+  }
+
+  /**
+   * split a batch into plans of consecutive rows whose logs fit in the max log entry size, so that
+   * a large batch is written as several logs instead of being rejected. The batch itself is
+   * returned if it fits. A single row larger than the max size is left alone and fails when it is
+   * serialized.
+   */
+  public static List<BatchInsertPlan> splitForLog(BatchInsertPlan plan) {
+    int maxSize = IoTDBDescriptor.getInstance().getConfig().getMaxLogEntrySize();
+    // the type, the device, the measurements with their types and the row count
+    long headerSize = 1L + Integer.BYTES + plan.getDeviceId().getBytes().length + Integer.BYTES
+        + Integer.BYTES;
+    for (String measurement : plan.getMeasurements()) {
+      headerSize += Integer.BYTES + measurement.getBytes().length + 1;
+    }
+
+    List<BatchInsertPlan> plans = new ArrayList<>();
+    int from = 0;
+    long size = headerSize;
+    for (int i = 0; i < plan.getRowCount(); i++) {
+      int rowSize = plan.getRowSerializedSize(i);
+      if (size + rowSize > maxSize && i > from) {
+        plans.add(plan.subPlan(from, i));
+        from = i;
+        size = headerSize;
+      }
+      size += rowSize;
+    }
+    if (from == 0) {
+      return Collections.singletonList(plan);
+    }
+    plans.add(plan.subPlan(from, plan.getRowCount()));
+    return plans;
+  }
 }
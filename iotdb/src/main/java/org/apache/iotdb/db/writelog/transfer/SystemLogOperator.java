@@ -32,4 +32,8 @@ public class SystemLogOperator {
   public static final int AUTHOR = 4;
   public static final int LOADDATA = 5;
   public static final int PROPERTY = 6;
+  public static final int TYPED_INSERT = 7;
+  public static final int BATCH_INSERT = 8;
+  public static final int INSERT_V2 = 9;
+  public static final int COMPRESSED_BATCH = 10;
 }
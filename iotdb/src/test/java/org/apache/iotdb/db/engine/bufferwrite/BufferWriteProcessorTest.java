@@ -32,22 +32,31 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.Directories;
 import org.apache.iotdb.db.engine.MetadataManagerHelper;
 import org.apache.iotdb.db.engine.PathUtils;
+import org.apache.iotdb.db.engine.pool.FlushManager;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.version.SysTimeVersionController;
+import org.apache.iotdb.db.exception.BufferWriteProcessorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.FileSchemaUtils;
 import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 import org.junit.After;
 import org.junit.Assert;
@@ -94,6 +103,10 @@ public class BufferWriteProcessorTest {
 
   private String insertPath = "insertPath";
 
+  // a timestamp block and an INT32 value block, a flush happens when the next block is allocated
+  private static final int BLOCK_POINT_NUM = PrimitiveArrayPool.ARRAY_SIZE;
+  private static final int BLOCK_MEM_SIZE = (8 + 4) * BLOCK_POINT_NUM;
+
   @Before
   public void setUp() throws Exception {
     parameters.put(FileNodeConstants.BUFFERWRITE_FLUSH_ACTION, bfflushaction);
@@ -102,7 +115,7 @@ public class BufferWriteProcessorTest {
     // origin value
     groupSizeInByte = TsFileConf.groupSizeInByte;
     // new value
-    TsFileConf.groupSizeInByte = 1024;
+    TsFileConf.groupSizeInByte = BLOCK_MEM_SIZE;
     // init metadata
     MetadataManagerHelper.initMetadata();
     EnvironmentUtils.envSetUp();
@@ -123,7 +136,7 @@ public class BufferWriteProcessorTest {
     bufferwrite = new BufferWriteProcessor(directories.getFolderForTest(), deviceId, insertPath,
         parameters, SysTimeVersionController.INSTANCE,
         FileSchemaUtils.constructFileSchema(deviceId));
-    for (int i = 1; i < 100; i++) {
+    for (int i = 1; i <= BLOCK_POINT_NUM + 13; i++) {
       bufferwrite.write(deviceId, measurementId, i, dataType, String.valueOf(i));
     }
     // waiting for the end of flush
@@ -167,7 +180,7 @@ public class BufferWriteProcessorTest {
     bufferwrite = new BufferWriteProcessor(directories.getFolderForTest(), deviceId, insertPath,
         parameters, SysTimeVersionController.INSTANCE,
         FileSchemaUtils.constructFileSchema(deviceId));
-    for (int i = 1; i < 100; i++) {
+    for (int i = 1; i <= BLOCK_POINT_NUM + 13; i++) {
       bufferwrite.write(deviceId, measurementId, i, dataType, String.valueOf(i));
     }
     // waiting for the end of flush
@@ -202,15 +215,18 @@ public class BufferWriteProcessorTest {
     assertFalse(bufferwrite.isFlush());
     assertTrue(bufferwrite.canBeClosed());
     assertEquals(0, bufferwrite.memoryUsage());
-    assertEquals(TsFileIOWriter.magicStringBytes.length, bufferwrite.getFileSize());
+    assertEquals(TsFileIOWriter.getHeadSize(TSFileConfig.CURRENT_VERSION),
+        bufferwrite.getFileSize());
     assertEquals(0, bufferwrite.getMetaSize());
     long lastFlushTime = bufferwrite.getLastFlushTime();
-    for (int i = 1; i <= 85; i++) {
+    for (int i = 1; i <= BLOCK_POINT_NUM; i++) {
       bufferwrite.write(deviceId, measurementId, i, dataType, String.valueOf(i));
-      assertEquals(i * 12, bufferwrite.memoryUsage());
+      assertEquals(BLOCK_MEM_SIZE, bufferwrite.memoryUsage());
     }
     assertEquals(lastFlushTime, bufferwrite.getLastFlushTime());
-    bufferwrite.write(deviceId, measurementId, 86, dataType, String.valueOf(86));
+    int flushedTime = BLOCK_POINT_NUM + 1;
+    bufferwrite.write(deviceId, measurementId, flushedTime, dataType,
+        String.valueOf(flushedTime));
     //assert a flush() is called.
     assertNotEquals(bufferwrite.getLastFlushTime(), lastFlushTime);
     // sleep to the end of flush
@@ -233,20 +249,20 @@ public class BufferWriteProcessorTest {
     ChunkMetaData chunkMetaData = pair.right.get(0);
     assertEquals(measurementId, chunkMetaData.getMeasurementUid());
     assertEquals(dataType, chunkMetaData.getTsDataType());
-    for (int i = 87; i <= 100; i++) {
+    for (int i = flushedTime + 1; i <= flushedTime + 14; i++) {
       bufferwrite.write(deviceId, measurementId, i, dataType, String.valueOf(i));
-      assertEquals((i - 86) * 12, bufferwrite.memoryUsage());
+      assertEquals(BLOCK_MEM_SIZE, bufferwrite.memoryUsage());
     }
     pair = bufferwrite
         .queryBufferWriteData(deviceId, measurementId, dataType, Collections.emptyMap());
     ReadOnlyMemChunk rawSeriesChunk = (ReadOnlyMemChunk) pair.left;
     assertFalse(rawSeriesChunk.isEmpty());
-    assertEquals(87, rawSeriesChunk.getMinTimestamp());
-    Assert.assertEquals(87, rawSeriesChunk.getValueAtMinTime().getInt());
-    assertEquals(100, rawSeriesChunk.getMaxTimestamp());
-    Assert.assertEquals(100, rawSeriesChunk.getValueAtMaxTime().getInt());
+    assertEquals(flushedTime + 1, rawSeriesChunk.getMinTimestamp());
+    Assert.assertEquals(flushedTime + 1, rawSeriesChunk.getValueAtMinTime().getInt());
+    assertEquals(flushedTime + 14, rawSeriesChunk.getMaxTimestamp());
+    Assert.assertEquals(flushedTime + 14, rawSeriesChunk.getValueAtMaxTime().getInt());
     Iterator<TimeValuePair> iterator = rawSeriesChunk.getIterator();
-    for (int i = 87; i <= 100; i++) {
+    for (int i = flushedTime + 1; i <= flushedTime + 14; i++) {
       iterator.hasNext();
       TimeValuePair timeValuePair = iterator.next();
       assertEquals(i, timeValuePair.getTimestamp());
@@ -254,4 +270,74 @@ public class BufferWriteProcessorTest {
     }
     bufferwrite.close();
   }
+
+  @Test
+  public void testFlushQueueAndBackPressure() throws Exception {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int maxFlushingMemTableNum = config.getMaxFlushingMemTableNum();
+    long backPressureWaitTime = config.getFlushBackPressureWaitTimeInMs();
+    config.setMaxFlushingMemTableNum(2);
+    config.setFlushBackPressureWaitTimeInMs(100);
+    // the flushes cannot end until the latch is released
+    CountDownLatch flushBlocker = new CountDownLatch(1);
+    Map<String, Action> blockingParameters = new HashMap<>(parameters);
+    blockingParameters.put(FileNodeConstants.FILENODE_PROCESSOR_FLUSH_ACTION, () -> {
+      try {
+        flushBlocker.await();
+      } catch (InterruptedException e) {
+        throw new ActionException(e);
+      }
+    });
+    try {
+      bufferwrite = new BufferWriteProcessor(directories.getFolderForTest(), deviceId, insertPath,
+          blockingParameters, SysTimeVersionController.INSTANCE,
+          FileSchemaUtils.constructFileSchema(deviceId));
+      // the writer is not blocked by the unfinished flush
+      bufferwrite.write(deviceId, measurementId, 1, dataType, "1");
+      Future<Boolean> firstFlush = bufferwrite.flush();
+      bufferwrite.write(deviceId, measurementId, 2, dataType, "2");
+      Future<Boolean> secondFlush = bufferwrite.flush();
+      assertFalse(firstFlush.isDone());
+      assertEquals(2, bufferwrite.getFlushingMemTableNum());
+      ReadOnlyMemChunk memChunk = bufferwrite
+          .queryBufferWriteData(deviceId, measurementId, dataType, Collections.emptyMap()).left;
+      assertEquals(1, memChunk.getMinTimestamp());
+      assertEquals(2, memChunk.getMaxTimestamp());
+
+      // fill the work memtable, its writer waits in flush() for a flushing slot
+      Thread filler = new Thread(() -> {
+        try {
+          for (int i = 3; i <= BLOCK_POINT_NUM + 3; i++) {
+            bufferwrite.write(deviceId, measurementId, i, dataType, String.valueOf(i));
+          }
+        } catch (BufferWriteProcessorException e) {
+          LOGGER.error(e.getMessage(), e);
+        }
+      });
+      filler.start();
+      while (bufferwrite.memoryUsage() <= 3 * BLOCK_MEM_SIZE) {
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+      long rejectCount = FlushManager.getInstance().getBackPressureRejectCount();
+      TSRecord record = new TSRecord(BLOCK_POINT_NUM + 4, deviceId);
+      record.addTuple(new IntDataPoint(measurementId, BLOCK_POINT_NUM + 4));
+      try {
+        bufferwrite.write(record, () -> true);
+        Assert.fail("the insertion should be rejected");
+      } catch (BufferWriteProcessorException e) {
+        assertEquals(rejectCount + 1, FlushManager.getInstance().getBackPressureRejectCount());
+      }
+
+      flushBlocker.countDown();
+      filler.join();
+      assertTrue(firstFlush.get(10, TimeUnit.SECONDS));
+      assertTrue(secondFlush.get(10, TimeUnit.SECONDS));
+      bufferwrite.close();
+      assertEquals(0, bufferwrite.getFlushingMemTableNum());
+    } finally {
+      flushBlocker.countDown();
+      config.setMaxFlushingMemTableNum(maxFlushingMemTableNum);
+      config.setFlushBackPressureWaitTimeInMs(backPressureWaitTime);
+    }
+  }
 }
@@ -35,6 +35,7 @@ import org.apache.iotdb.db.engine.memtable.MemTableFlushUtil;
 import org.apache.iotdb.db.engine.memtable.MemTableTestUtils;
 import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
@@ -77,7 +78,8 @@ public class RestorableTsFileIOWriterTest {
     Pair<Long, List<ChunkGroupMetaData>> pair = writer.readRestoreInfo();
     assertEquals(true, new File(restorePath).exists());
 
-    assertEquals(TsFileIOWriter.magicStringBytes.length, (long) pair.left);
+    assertEquals(TsFileIOWriter.getHeadSize(TSFileConfig.CURRENT_VERSION),
+        (long) pair.left);
     assertEquals(0, pair.right.size());
     writer.endFile(new FileSchema());
     deleteInsertFile();
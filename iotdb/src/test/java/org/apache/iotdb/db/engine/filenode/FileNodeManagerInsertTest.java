@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.MetadataArgsErrorException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerInsertTest {
+
+  private static final int OVERFLOW = 1;
+  private static final int BUFFERWRITE = 2;
+
+  private String processorName = "root.test";
+  private String measurementId = "s0";
+
+  @Before
+  public void setUp() throws MetadataArgsErrorException, PathErrorException, IOException,
+      FileNodeManagerException {
+    MManager.getInstance().setStorageLevelToMTree(processorName);
+    MManager.getInstance().addPathToMTree(processorName + "." + measurementId,
+        TSDataType.INT64.toString(), TSEncoding.PLAIN.toString());
+    FileNodeManager.getInstance().addTimeSeries(new Path(processorName, measurementId),
+        TSDataType.INT64, TSEncoding.PLAIN, CompressionType.valueOf(TSFileConfig.compressor),
+        Collections.emptyMap());
+  }
+
+  @After
+  public void tearDown() throws IOException, FileNodeManagerException {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testLatePointsInMemTable() throws FileNodeManagerException {
+    assertEquals(BUFFERWRITE, insert(100));
+    // late but not flushed yet, so they are kept in the working memtable
+    for (long time = 99; time >= 50; time--) {
+      assertEquals(BUFFERWRITE, insert(time));
+    }
+    assertEquals(BUFFERWRITE, insert(75));
+
+    Iterator<TimeValuePair> iterator = query().getSeqDataSource().getReadableChunk()
+        .getIterator();
+    long expectedTime = 50;
+    while (iterator.hasNext()) {
+      TimeValuePair pair = iterator.next();
+      assertEquals(expectedTime, pair.getTimestamp());
+      assertEquals(expectedTime, pair.getValue().getLong());
+      expectedTime++;
+    }
+    assertEquals(101, expectedTime);
+  }
+
+  @Test
+  public void testHistoricalPointsInOverflow() throws FileNodeManagerException {
+    assertEquals(BUFFERWRITE, insert(100));
+    assertEquals(BUFFERWRITE, insert(50));
+    FileNodeManager.getInstance().closeAll();
+
+    // earlier than the flushed data
+    assertEquals(OVERFLOW, insert(60));
+    assertEquals(OVERFLOW, insert(100));
+    assertEquals(BUFFERWRITE, insert(101));
+  }
+
+  private int insert(long time) throws FileNodeManagerException {
+    TSRecord record = new TSRecord(time, processorName);
+    record.addTuple(new LongDataPoint(measurementId, time));
+    return FileNodeManager.getInstance().insert(record, false);
+  }
+
+  private QueryDataSource query() throws FileNodeManagerException {
+    SingleSeriesExpression expression = new SingleSeriesExpression(
+        new Path(processorName, measurementId), null);
+    return FileNodeManager.getInstance().query(expression, new QueryContext());
+  }
+}
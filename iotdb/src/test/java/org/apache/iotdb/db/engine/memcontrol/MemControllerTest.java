@@ -50,7 +50,7 @@ public class MemControllerTest {
       dummyUser[i] = new Object();
     }
 
-    // every one request 1 GB, should get 7 safes, 8 warning and 5 dangerous
+    // every one request 1 GB, should get 7 safes, 8 warning and 5 dangerous, all are recorded
     for (int i = 0; i < 7; i++) {
       BasicMemController.UsageLevel level = memController.reportUse(dummyUser[i], 1 * GB);
       assertEquals(BasicMemController.UsageLevel.SAFE, level);
@@ -63,19 +63,26 @@ public class MemControllerTest {
       BasicMemController.UsageLevel level = memController.reportUse(dummyUser[i], 1 * GB);
       assertEquals(BasicMemController.UsageLevel.DANGEROUS, level);
     }
-    assertEquals(15 * GB, memController.getTotalUsage());
+    assertEquals(20 * GB, memController.getTotalUsage());
     // every one free its mem
     for (int i = 0; i < 7; i++) {
       memController.reportFree(dummyUser[i], 1 * GB);
-      assertEquals((14 - i) * GB, memController.getTotalUsage());
+      assertEquals((19 - i) * GB, memController.getTotalUsage());
     }
     for (int i = 7; i < 15; i++) {
       memController.reportFree(dummyUser[i], 2 * GB);
-      assertEquals((14 - i) * GB, memController.getTotalUsage());
+      assertEquals((19 - i) * GB, memController.getTotalUsage());
+    }
+    for (int i = 15; i < 20; i++) {
+      memController.reportFree(dummyUser[i], 1 * GB);
+      assertEquals((19 - i) * GB, memController.getTotalUsage());
     }
     // ask for a too big mem
     BasicMemController.UsageLevel level = memController.reportUse(dummyUser[0], 100 * GB);
     assertEquals(BasicMemController.UsageLevel.DANGEROUS, level);
+    assertEquals(100 * GB, memController.getTotalUsage());
+    memController.reportFree(dummyUser[0], 100 * GB);
+    assertEquals(0, memController.getTotalUsage());
     // single user ask continuously
     for (int i = 0; i < 8 * 1024 - 1; i++) {
       level = memController.reportUse(dummyUser[0], 1 * MB);
@@ -91,5 +98,6 @@ public class MemControllerTest {
           memController.getTotalUsage() / GB + " " + memController.getTotalUsage() / MB % 1024);
       assertEquals(BasicMemController.UsageLevel.DANGEROUS, level);
     }
+    assertEquals(17 * GB, memController.getTotalUsage());
   }
 }
@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentMemTableTest {
+
+  @Test
+  public void concurrentInsertTest() throws Exception {
+    IMemTable memTable = new ConcurrentMemTable();
+    int threadNum = 8;
+    int deviceNum = 4;
+    int pointNum = 5000;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threadNum; t++) {
+        int threadIndex = t;
+        futures.add(pool.submit(() -> {
+          // every thread writes its own time range of every device and of a shared series
+          for (int i = 0; i < pointNum; i++) {
+            long time = (long) i * threadNum + threadIndex;
+            TSRecord record = new TSRecord(time, "d" + (i % deviceNum));
+            record.addTuple(new LongDataPoint("s0", time));
+            record.addTuple(new LongDataPoint("s" + (threadIndex + 1), time));
+            memTable.insert(record);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    Assert.assertEquals(deviceNum, memTable.getMemTableMap().size());
+    Assert.assertEquals(2 * threadNum * pointNum, memTable.size());
+    for (int d = 0; d < deviceNum; d++) {
+      List<TimeValuePair> pairs = memTable.getMemTableMap().get("d" + d).get("s0")
+          .getSortedTimeValuePairList();
+      Assert.assertEquals(threadNum * pointNum / deviceNum, pairs.size());
+      long lastTime = -1;
+      for (TimeValuePair pair : pairs) {
+        Assert.assertTrue(pair.getTimestamp() > lastTime);
+        Assert.assertEquals(pair.getTimestamp(), pair.getValue().getLong());
+        lastTime = pair.getTimestamp();
+      }
+    }
+  }
+
+  @Test
+  public void copyTest() {
+    IMemTable memTable = new ConcurrentMemTable();
+    memTable.write("d0", "s0", TSDataType.INT64, 1, "1");
+    IMemTable copy = memTable.copy();
+    Assert.assertTrue(copy instanceof ConcurrentMemTable);
+    copy.write("d1", "s0", TSDataType.INT64, 2, "2");
+    Assert.assertEquals(1, memTable.getMemTableMap().size());
+    Assert.assertEquals(2, copy.getMemTableMap().size());
+  }
+
+  @Test
+  public void copyDeleteTest() {
+    IMemTable memTable = new ConcurrentMemTable();
+    for (long time = 1; time <= 10; time++) {
+      memTable.write("d0", "s0", TSDataType.INT64, time, String.valueOf(time));
+    }
+    IWritableMemChunk chunk = memTable.getMemTableMap().get("d0").get("s0");
+    IMemTable copy = memTable.copy();
+    copy.delete("d0", "s0", 5);
+    // the series of the copy is replaced, while the memtable still has the whole series
+    Assert.assertSame(chunk, memTable.getMemTableMap().get("d0").get("s0"));
+    Assert.assertEquals(10, memTable.size());
+    Assert.assertNotSame(chunk, copy.getMemTableMap().get("d0").get("s0"));
+    Assert.assertEquals(5, copy.size());
+  }
+}
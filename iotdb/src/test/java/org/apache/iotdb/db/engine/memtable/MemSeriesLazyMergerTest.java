@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MemSeriesLazyMergerTest {
+
+  private String deviceId = "d1";
+  private String measurementId = "s1";
+
+  @Test
+  public void testNotOverlapped() {
+    IMemTable older = new PrimitiveMemTable();
+    IMemTable newer = new PrimitiveMemTable();
+    for (int i = 0; i < 100; i++) {
+      older.write(deviceId, measurementId, TSDataType.INT64, 99 - i, String.valueOf(i));
+      newer.write(deviceId, measurementId, TSDataType.INT64, 199 - i, String.valueOf(i));
+    }
+    List<TimeValuePair> res = merge(older, newer);
+    Assert.assertEquals(200, res.size());
+    for (int i = 0; i < res.size(); i++) {
+      Assert.assertEquals(i, res.get(i).getTimestamp());
+    }
+  }
+
+  @Test
+  public void testOverlapped() {
+    IMemTable older = new PrimitiveMemTable();
+    IMemTable newer = new PrimitiveMemTable();
+    // older: 0, 2, 4, ..., 198 and newer: 100, 101, ..., 299
+    for (int i = 0; i < 100; i++) {
+      older.write(deviceId, measurementId, TSDataType.INT64, 2 * i, "0");
+    }
+    for (int i = 299; i >= 100; i--) {
+      newer.write(deviceId, measurementId, TSDataType.INT64, i, "1");
+    }
+    List<TimeValuePair> res = merge(older, newer);
+    Assert.assertEquals(250, res.size());
+    for (int i = 0; i < res.size(); i++) {
+      TimeValuePair pair = res.get(i);
+      long expectedTime = i < 50 ? 2 * i : i + 50;
+      Assert.assertEquals(expectedTime, pair.getTimestamp());
+      // the point of the newer memtable wins
+      Assert.assertEquals(expectedTime < 100 ? 0 : 1, pair.getValue().getLong());
+    }
+  }
+
+  private List<TimeValuePair> merge(IMemTable older, IMemTable newer) {
+    MemSeriesLazyMerger merger = new MemSeriesLazyMerger();
+    merger.addMemSeries(
+        older.query(deviceId, measurementId, TSDataType.INT64, Collections.emptyMap()));
+    merger.addMemSeries(
+        newer.query(deviceId, measurementId, TSDataType.INT64, Collections.emptyMap()));
+    return new ReadOnlyMemChunk(TSDataType.INT64, merger, Collections.emptyMap())
+        .getSortedTimeValuePairList();
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.schema.FileSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+import org.junit.After;
+import org.junit.Test;
+
+public class MemTableFlushUtilTest {
+
+  private static final int DEVICE_NUM = 10;
+  private static final int MEASUREMENT_NUM = 50;
+  private static final int POINT_NUM = 1000;
+
+  private String filePath = "memTableFlushUtilTest.tsfile";
+
+  @After
+  public void tearDown() throws IOException {
+    EnvironmentUtils.cleanDir(filePath);
+  }
+
+  @Test
+  public void testFlushManySeries() throws IOException {
+    FileSchema schema = new FileSchema();
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      schema.registerMeasurement(new MeasurementSchema("s" + i, TSDataType.INT64,
+          TSEncoding.RLE));
+    }
+    IMemTable memTable = new PrimitiveMemTable();
+    for (int d = 0; d < DEVICE_NUM; d++) {
+      for (int s = 0; s < MEASUREMENT_NUM; s++) {
+        // in descending order, so every series is sorted while being flushed
+        for (long time = POINT_NUM; time > 0; time--) {
+          memTable.write("d" + d, "s" + s, TSDataType.INT64, time,
+              String.valueOf(time * d + s));
+        }
+      }
+    }
+
+    TsFileIOWriter writer = new TsFileIOWriter(new File(filePath));
+    MemTableFlushUtil.flushMemTable(schema, writer, memTable, 0);
+    writer.endFile(schema);
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(filePath);
+    TsFileMetaData metaData = reader.readFileMetadata();
+    assertEquals(DEVICE_NUM, metaData.getDeviceMap().size());
+    for (Entry<String, Map<String, IWritableMemChunk>> deviceEntry : memTable.getMemTableMap()
+        .entrySet()) {
+      List<ChunkGroupMetaData> chunkGroups = reader
+          .readTsDeviceMetaData(metaData.getDeviceMap().get(deviceEntry.getKey()))
+          .getChunkGroupMetaDataList();
+      assertEquals(1, chunkGroups.size());
+      // the chunks are written in the order of the memtable
+      List<ChunkMetaData> chunks = chunkGroups.get(0).getChunkMetaDataList();
+      List<String> measurements = new ArrayList<>(deviceEntry.getValue().keySet());
+      assertEquals(measurements.size(), chunks.size());
+      for (int i = 0; i < chunks.size(); i++) {
+        assertEquals(measurements.get(i), chunks.get(i).getMeasurementUid());
+        assertEquals(1, chunks.get(i).getStartTime());
+        assertEquals(POINT_NUM, chunks.get(i).getEndTime());
+        assertEquals(POINT_NUM, chunks.get(i).getNumOfPoints());
+      }
+    }
+
+    ReadOnlyTsFile readOnlyTsFile = new ReadOnlyTsFile(reader);
+    QueryExpression queryExpression = QueryExpression.create();
+    for (int d = 0; d < DEVICE_NUM; d++) {
+      for (int s = 0; s < MEASUREMENT_NUM; s++) {
+        queryExpression.addSelectedPath(new Path("d" + d, "s" + s));
+      }
+    }
+    QueryDataSet dataSet = readOnlyTsFile.query(queryExpression);
+    long time = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      time++;
+      assertEquals(time, record.getTimestamp());
+      for (int d = 0; d < DEVICE_NUM; d++) {
+        for (int s = 0; s < MEASUREMENT_NUM; s++) {
+          assertEquals(time * d + s,
+              record.getFields().get(d * MEASUREMENT_NUM + s).getLongV());
+        }
+      }
+    }
+    assertEquals(POINT_NUM, time);
+    readOnlyTsFile.close();
+  }
+}
@@ -0,0 +1,69 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import org.apache.iotdb.db.utils.datastructure.PrimitiveArrayPool;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemTablePoolTest {
+
+  @Before
+  public void setUp() {
+    PrimitiveArrayPool.getInstance().clear();
+  }
+
+  @Test
+  public void recycleTest() {
+    MemTablePool memTablePool = MemTablePool.getInstance();
+    PrimitiveArrayPool arrayPool = PrimitiveArrayPool.getInstance();
+    int pointNum = PrimitiveArrayPool.ARRAY_SIZE * 4;
+
+    IMemTable memTable = memTablePool.getAvailableMemTable();
+    Assert.assertTrue(memTable.isEmpty());
+    for (int i = 0; i < pointNum; i++) {
+      memTable.write("d0", "s0", TSDataType.INT64, i, (Object) (long) i);
+    }
+    // 4 timestamp blocks and 4 value blocks, all newly allocated
+    Assert.assertEquals(0, arrayPool.getHitCount());
+    Assert.assertEquals(8, arrayPool.getMissCount());
+
+    memTablePool.putBack(memTable);
+    Assert.assertTrue(memTable.isEmpty());
+    Assert.assertEquals(8L * 8 * PrimitiveArrayPool.ARRAY_SIZE, arrayPool.getPooledMemory());
+
+    long memTableHitCount = memTablePool.getHitCount();
+    IMemTable nextMemTable = memTablePool.getAvailableMemTable();
+    Assert.assertSame(memTable, nextMemTable);
+    Assert.assertEquals(memTableHitCount + 1, memTablePool.getHitCount());
+    for (int i = 0; i < pointNum; i++) {
+      nextMemTable.write("d1", "s1", TSDataType.DOUBLE, i, (Object) (double) i);
+    }
+    // long[] and double[] blocks have the same size, the timestamp blocks are reused
+    Assert.assertEquals(4, arrayPool.getHitCount());
+    Assert.assertEquals(12, arrayPool.getMissCount());
+    Assert.assertEquals(pointNum, nextMemTable.size());
+    Assert.assertEquals(pointNum - 1,
+        nextMemTable.getMemTableMap().get("d1").get("s1").getSortedTVList().getDouble(pointNum - 1),
+        0.0);
+    memTablePool.putBack(nextMemTable);
+  }
+}
@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Random;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
@@ -29,6 +30,9 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,6 +63,26 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(count, i);
   }
 
+  @Test
+  public void memSeriesIteratorTest() {
+    WritableMemChunk series = new WritableMemChunk(TSDataType.INT64);
+    Assert.assertTrue(series.isEmpty());
+    int count = 1000;
+    for (int i = count - 1; i >= 0; i--) {
+      series.write(i, (Object) (long) i);
+      // a duplicated timestamp, the last written value is kept
+      series.write(i, (Object) (i * 10L));
+    }
+    Assert.assertFalse(series.isEmpty());
+    Iterator<TimeValuePair> it = series.getIterator();
+    for (int i = 0; i < count; i++) {
+      TimeValuePair pair = it.next();
+      Assert.assertEquals(i, pair.getTimestamp());
+      Assert.assertEquals(i * 10L, pair.getValue().getLong());
+    }
+    Assert.assertFalse(it.hasNext());
+  }
+
   @Test
   public void simpleTest() {
     IMemTable memTable = new PrimitiveMemTable();
@@ -87,6 +111,77 @@ public class PrimitiveMemTableTest {
     }
   }
 
+  @Test
+  public void typedInsertTest() {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    int dataSize = 1000;
+    long increasedMemSize = 0;
+    for (int i = dataSize - 1; i >= 0; i--) {
+      TSRecord record = new TSRecord(i, deviceId);
+      record.addTuple(new IntDataPoint("s1", i));
+      record.addTuple(new StringDataPoint("s2", new Binary(String.valueOf(i))));
+      increasedMemSize += memTable.insert(record);
+    }
+    Assert.assertEquals(increasedMemSize, memTable.memSize());
+    Iterator<TimeValuePair> intPairs = memTable
+        .query(deviceId, "s1", TSDataType.INT32, Collections.emptyMap())
+        .getSortedTimeValuePairList().iterator();
+    Iterator<TimeValuePair> textPairs = memTable
+        .query(deviceId, "s2", TSDataType.TEXT, Collections.emptyMap())
+        .getSortedTimeValuePairList().iterator();
+    for (int i = 0; i < dataSize; i++) {
+      TimeValuePair intPair = intPairs.next();
+      Assert.assertEquals(i, intPair.getTimestamp());
+      Assert.assertEquals(i, intPair.getValue().getInt());
+      Assert.assertEquals(String.valueOf(i), textPairs.next().getValue().getStringValue());
+    }
+    Assert.assertFalse(intPairs.hasNext());
+  }
+
+  @Test(expected = UnSupportedDataTypeException.class)
+  public void typedInsertOfWrongTypeTest() {
+    IMemTable memTable = new PrimitiveMemTable();
+    memTable.write("d1", "s1", TSDataType.INT64, 1, "1");
+    TSRecord record = new TSRecord(2, "d1");
+    record.addTuple(new IntDataPoint("s1", 2));
+    memTable.insert(record);
+  }
+
+  @Test
+  public void batchInsertTest() {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    // larger than one block of the TVList, and not sorted across the two batches
+    int dataSize = 1500;
+    for (int batch = 1; batch >= 0; batch--) {
+      long[] times = new long[dataSize];
+      long[] longValues = new long[dataSize];
+      Binary[] textValues = new Binary[dataSize];
+      for (int i = 0; i < dataSize; i++) {
+        times[i] = batch * dataSize + i;
+        longValues[i] = times[i] * 10;
+        textValues[i] = new Binary(String.valueOf(times[i]));
+      }
+      memTable.insertBatch(new BatchInsertPlan(deviceId, Arrays.asList("s1", "s2"),
+          new TSDataType[]{TSDataType.INT64, TSDataType.TEXT}, times,
+          new Object[]{longValues, textValues}, dataSize));
+    }
+    Iterator<TimeValuePair> longPairs = memTable
+        .query(deviceId, "s1", TSDataType.INT64, Collections.emptyMap())
+        .getSortedTimeValuePairList().iterator();
+    Iterator<TimeValuePair> textPairs = memTable
+        .query(deviceId, "s2", TSDataType.TEXT, Collections.emptyMap())
+        .getSortedTimeValuePairList().iterator();
+    for (int i = 0; i < 2 * dataSize; i++) {
+      TimeValuePair longPair = longPairs.next();
+      Assert.assertEquals(i, longPair.getTimestamp());
+      Assert.assertEquals(i * 10L, longPair.getValue().getLong());
+      Assert.assertEquals(String.valueOf(i), textPairs.next().getValue().getStringValue());
+    }
+    Assert.assertFalse(longPairs.hasNext());
+  }
+
   private void write(IMemTable memTable, String deviceId, String sensorId, TSDataType dataType,
       int size) {
     int dataSize = 100;
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.pool;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FlushManagerTest {
+
+  private FlushManager flushManager;
+
+  @Before
+  public void setUp() {
+    ExecutorService pool = Executors.newSingleThreadExecutor();
+    flushManager = new FlushManager(pool);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    flushManager.close(true, 10000);
+  }
+
+  @Test
+  public void testLargestFirst() throws Exception {
+    CountDownLatch blocker = new CountDownLatch(1);
+    // occupy the only flush thread, so that the following tasks are pending
+    Future<?> blocking = flushManager.submit(() -> {
+      blocker.await();
+      return null;
+    }, Long.MAX_VALUE);
+
+    List<Long> flushOrder = Collections.synchronizedList(new ArrayList<>());
+    List<Future<Long>> futures = new ArrayList<>();
+    for (long memSize : new long[]{10, 1000, 1, 100}) {
+      futures.add(flushManager.submit(() -> {
+        flushOrder.add(memSize);
+        return memSize;
+      }, memSize));
+    }
+    blocker.countDown();
+    blocking.get();
+    for (Future<Long> future : futures) {
+      future.get();
+    }
+    assertEquals(Arrays.asList(1000L, 100L, 10L, 1L), flushOrder);
+    assertEquals(0, flushManager.getPendingTaskNum());
+    assertEquals(5, flushManager.getCompletedTaskNum());
+  }
+}
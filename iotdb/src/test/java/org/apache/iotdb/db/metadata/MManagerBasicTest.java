@@ -288,6 +288,30 @@ public class MManagerBasicTest {
     }
   }
 
+  @Test
+  public void testDefaultCompressor() {
+
+    MManager manager = MManager.getInstance();
+    try {
+      manager.setStorageLevelToMTree("root.laptop.d1", CompressionType.LZ4);
+      manager.setStorageLevelToMTree("root.laptop.d2");
+      assertEquals(CompressionType.LZ4, manager.getDefaultCompressor("root.laptop.d1.s1"));
+      assertEquals(compressionType, manager.getDefaultCompressor("root.laptop.d2.s1"));
+
+      manager.addPathToMTree("root.laptop.d1.s1", TSDataType.INT32, TSEncoding.PLAIN, null,
+          null);
+      manager.addPathToMTree("root.laptop.d1.s2", TSDataType.INT32, TSEncoding.PLAIN,
+          CompressionType.ZSTD, null);
+      assertEquals(CompressionType.LZ4,
+          manager.getSchemaForOnePath("root.laptop.d1.s1").getCompressor());
+      assertEquals(CompressionType.ZSTD,
+          manager.getSchemaForOnePath("root.laptop.d1.s2").getCompressor());
+    } catch (PathErrorException | IOException | MetadataArgsErrorException e) {
+      e.printStackTrace();
+      fail(e.getMessage());
+    }
+  }
+
   @Test
   public void testGetAllFileNamesByPath() {
 
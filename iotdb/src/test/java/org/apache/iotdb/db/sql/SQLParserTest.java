@@ -110,6 +110,25 @@ public class SQLParserTest {
     }
   }
 
+  @Test
+  public void setStorageGroupWithCompressor() throws ParseException {
+    ArrayList<String> ans = new ArrayList<>(
+        Arrays.asList("TOK_SET", "TOK_STORAGEGROUP", "TOK_PATH", "TOK_ROOT", "a", "b", "c",
+            "TOK_COMPRESSOR", "ZSTD"));
+    ArrayList<String> rec = new ArrayList<>();
+    AstNode astTree = ParseGenerator
+        .generateAST("set storage group to root.a.b.c with compressor=ZSTD");
+    astTree = ParseUtils.findRootNonNullToken(astTree);
+    recursivePrintSon(astTree, rec);
+
+    assertEquals(ans.size(), rec.size());
+    int i = 0;
+    while (i <= rec.size() - 1) {
+      assertEquals(rec.get(i), ans.get(i));
+      i++;
+    }
+  }
+
   @Test
   public void multiInsert() throws ParseException {
     // template for test case
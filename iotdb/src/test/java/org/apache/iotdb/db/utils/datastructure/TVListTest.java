@@ -0,0 +1,205 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TVListTest {
+
+  @Test
+  public void testIntTVList() {
+    TVList tvList = TVList.newList(TSDataType.INT32);
+    int count = 10000;
+    for (int i = 0; i < count; i++) {
+      tvList.putInt(i, i);
+    }
+    Assert.assertEquals(count, tvList.size());
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals((long) i, tvList.getTime(i));
+      Assert.assertEquals(i, tvList.getInt(i));
+    }
+  }
+
+  @Test
+  public void testAllTypes() {
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 3 + 1;
+    for (TSDataType dataType : TSDataType.values()) {
+      TVList tvList = TVList.newList(dataType);
+      for (int i = 0; i < count; i++) {
+        put(tvList, i);
+      }
+      for (int i = 0; i < count; i++) {
+        Assert.assertEquals((long) i, tvList.getTime(i));
+        check(tvList, i);
+      }
+    }
+  }
+
+  @Test
+  public void testClearAndReuse() {
+    TVList tvList = TVList.newList(TSDataType.DOUBLE);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putDouble(i, i);
+    }
+    tvList.clear();
+    Assert.assertEquals(0, tvList.size());
+    for (int i = 0; i < 10; i++) {
+      tvList.putDouble(i + 1000, i);
+    }
+    Assert.assertEquals(10, tvList.size());
+    Assert.assertEquals(1009, tvList.getTime(9));
+    Assert.assertEquals(9.0, tvList.getDouble(9), 0.0);
+  }
+
+  @Test
+  public void testSortedAppendSkipsSort() {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertTrue(tvList.isSorted());
+    tvList.putLong(999, -1);
+    Assert.assertFalse(tvList.isSorted());
+    tvList.sort();
+    Assert.assertTrue(tvList.isSorted());
+    Assert.assertEquals(1000, tvList.size());
+    Assert.assertEquals(-1, tvList.getLong(999));
+  }
+
+  @Test
+  public void testSortAndDeduplicate() {
+    TVList tvList = TVList.newList(TSDataType.INT32);
+    Random random = new Random(0);
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 10 + 7;
+    int timeRange = count / 3;
+    Map<Long, Integer> expected = new TreeMap<>();
+    for (int i = 0; i < count; i++) {
+      long time = random.nextInt(timeRange);
+      tvList.putInt(time, i);
+      expected.put(time, i);
+    }
+    tvList.sort();
+    Assert.assertEquals(expected.size(), tvList.size());
+    int index = 0;
+    for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+      Assert.assertEquals((long) entry.getKey(), tvList.getTime(index));
+      Assert.assertEquals((int) entry.getValue(), tvList.getInt(index));
+      index++;
+    }
+    Assert.assertEquals(tvList.getTime(tvList.size() - 1), tvList.getMaxTime());
+
+    // the list can still be appended after being sorted
+    tvList.putInt(timeRange + 1, -1);
+    Assert.assertTrue(tvList.isSorted());
+    Assert.assertEquals(expected.size() + 1, tvList.size());
+    Assert.assertEquals(-1, tvList.getInt(expected.size()));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testWrongType() {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    tvList.putInt(1, 1);
+  }
+
+  @Test
+  public void testMemSize() {
+    TVList longList = TVList.newList(TSDataType.INT64);
+    Assert.assertEquals(0, longList.getMemSize());
+    longList.putLong(1, 1);
+    Assert.assertEquals(16L * PrimitiveArrayPool.ARRAY_SIZE, longList.getMemSize());
+    for (int i = 2; i <= PrimitiveArrayPool.ARRAY_SIZE + 1; i++) {
+      longList.putLong(i, i);
+    }
+    Assert.assertEquals(2 * 16L * PrimitiveArrayPool.ARRAY_SIZE, longList.getMemSize());
+    longList.clear();
+    Assert.assertEquals(0, longList.getMemSize());
+
+    TVList binaryList = TVList.newList(TSDataType.TEXT);
+    binaryList.putBinary(2, Binary.valueOf("abc"));
+    binaryList.putBinary(1, Binary.valueOf("de"));
+    binaryList.putBinary(2, Binary.valueOf("fghij"));
+    Assert.assertEquals(16L * PrimitiveArrayPool.ARRAY_SIZE + 10, binaryList.getMemSize());
+    // "abc" is replaced by "fghij" of the same timestamp
+    binaryList.sort();
+    Assert.assertEquals(16L * PrimitiveArrayPool.ARRAY_SIZE + 7, binaryList.getMemSize());
+  }
+
+  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  public void testOutOfBound() {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    tvList.putLong(1, 1);
+    tvList.getLong(1);
+  }
+
+  private void put(TVList tvList, int i) {
+    switch (tvList.getDataType()) {
+      case BOOLEAN:
+        tvList.putBoolean(i, i % 2 == 0);
+        break;
+      case INT32:
+        tvList.putInt(i, i);
+        break;
+      case INT64:
+        tvList.putLong(i, i);
+        break;
+      case FLOAT:
+        tvList.putFloat(i, i);
+        break;
+      case DOUBLE:
+        tvList.putDouble(i, i);
+        break;
+      case TEXT:
+        tvList.putBinary(i, new Binary(String.valueOf(i)));
+        break;
+      default:
+        Assert.fail();
+    }
+  }
+
+  private void check(TVList tvList, int i) {
+    switch (tvList.getDataType()) {
+      case BOOLEAN:
+        Assert.assertEquals(i % 2 == 0, tvList.getBoolean(i));
+        break;
+      case INT32:
+        Assert.assertEquals(i, tvList.getInt(i));
+        break;
+      case INT64:
+        Assert.assertEquals(i, tvList.getLong(i));
+        break;
+      case FLOAT:
+        Assert.assertEquals(i, tvList.getFloat(i), 0.0f);
+        break;
+      case DOUBLE:
+        Assert.assertEquals(i, tvList.getDouble(i), 0.0);
+        break;
+      case TEXT:
+        Assert.assertEquals(String.valueOf(i), tvList.getBinary(i).getStringValue());
+        break;
+      default:
+        Assert.fail();
+    }
+  }
+}
@@ -129,6 +129,72 @@ public class RecoverTest {
     }
   }
 
+  @Test
+  public void testRecoverFromCheckpoint() throws IOException, RecoverException {
+    // this test ends the first of two overlapped flushes, so only the logs after the checkpoint
+    // are replayed.
+    File tempRestore = new File("testtemp", "restore");
+    File tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+
+    try {
+      MManager.getInstance().setStorageLevelToMTree("root.testLogNode");
+    } catch (PathErrorException ignored) {
+    }
+    ExclusiveWriteLogNode logNode = new ExclusiveWriteLogNode("root.testLogNode",
+        tempRestore.getPath(),
+        tempProcessorStore.getPath());
+
+    try {
+      InsertPlan bwInsertPlan = new InsertPlan(1, "logTestDevice", 100,
+          Arrays.asList("s1", "s2", "s3", "s4"),
+          Arrays.asList("1.0", "15", "str", "false"));
+      UpdatePlan updatePlan = new UpdatePlan(0, 100, "2.0", new Path("root.logTestDevice.s1"));
+      DeletePlan deletePlan = new DeletePlan(50, new Path("root.logTestDevice.s1"));
+
+      List<PhysicalPlan> plansToCheck = new ArrayList<>();
+      plansToCheck.add(updatePlan);
+      plansToCheck.add(deletePlan);
+
+      logNode.write(bwInsertPlan);
+      logNode.notifyStartFlush();
+      long checkpoint = new File(logNode.getLogDirectory(),
+          ExclusiveWriteLogNode.WAL_FILE_NAME + ExclusiveWriteLogNode.OLD_SUFFIX).length();
+      logNode.write(updatePlan);
+      logNode.notifyStartFlush();
+      logNode.notifyEndFlush(null);
+      assertEquals(checkpoint, ExclusiveWriteLogNode.readCheckpoint(logNode.getLogDirectory()));
+      logNode.write(deletePlan);
+      logNode.forceSync();
+
+      ExclusiveLogRecoverPerformer performer = new ExclusiveLogRecoverPerformer(
+          tempRestore.getPath(),
+          tempProcessorStore.getPath(), logNode);
+      // used to check that the flushed insertion is skipped
+      DummyLogReplayer dummyLogReplayer = new DummyLogReplayer();
+      dummyLogReplayer.plansToCheck = plansToCheck;
+      performer.setReplayer(dummyLogReplayer);
+      DummyFileNodeRecoverPerformer fileNodeRecoverPerformer = new DummyFileNodeRecoverPerformer();
+      performer.setFileNodeRecoverPerformer(fileNodeRecoverPerformer);
+      logNode.setRecoverPerformer(performer);
+
+      logNode.recover();
+      assertEquals(plansToCheck.size(), dummyLogReplayer.currPos);
+
+      // the log diretory should be empty now, including the checkpoint
+      File logDir = new File(logNode.getLogDirectory());
+      File[] files = logDir.listFiles();
+      assertTrue(files == null || files.length == 0);
+    } finally {
+      logNode.delete();
+      tempRestore.delete();
+      tempProcessorStore.delete();
+      tempRestore.getParentFile().delete();
+    }
+  }
+
   @Test
   public void testRecoverFromRecoverFiles() throws IOException, RecoverException {
     // this test write a log file and try to recover from these logs as if a previous attempt is interrupted when
@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.manager.SharedLogNodeManager;
+import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedLogNodeManagerTest {
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private boolean enableWal;
+  private boolean enableSharedWal;
+  private long sharedWalSegmentSize;
+
+  private File tempRestore = new File("testtemp", "restore");
+  private File tempProcessorStore = new File("testtemp", "processorStore");
+
+  @Before
+  public void setUp() throws Exception {
+    enableWal = config.isEnableWal();
+    enableSharedWal = config.isEnableSharedWal();
+    sharedWalSegmentSize = config.getSharedWalSegmentSize();
+    config.setEnableWal(true);
+    config.setEnableSharedWal(true);
+    config.setSharedWalSegmentSize(1024);
+    EnvironmentUtils.envSetUp();
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    SharedLogNodeManager.getInstance().close();
+    EnvironmentUtils.cleanEnv();
+    tempRestore.delete();
+    tempProcessorStore.delete();
+    tempRestore.getParentFile().delete();
+    config.setEnableWal(enableWal);
+    config.setEnableSharedWal(enableSharedWal);
+    config.setSharedWalSegmentSize(sharedWalSegmentSize);
+  }
+
+  @Test
+  public void testSegmentDeletionAndSplit() throws IOException {
+    SharedLogNodeManager manager = SharedLogNodeManager.getInstance();
+    WriteLogNode nodeA = manager.getNode("root.a-bufferwrite", tempRestore.getPath(),
+        tempProcessorStore.getPath());
+    WriteLogNode nodeB = manager.getNode("root.b-bufferwrite", tempRestore.getPath(),
+        tempProcessorStore.getPath());
+    File streamDirectory = new File(config.getWalFolder(),
+        SharedLogNodeManager.SHARED_WAL_FOLDER + File.separator + "0");
+
+    for (int i = 0; i < 50; i++) {
+      nodeA.write(insertPlan("root.a", i));
+      nodeB.write(insertPlan("root.b", i));
+      nodeA.forceSync();
+    }
+    int segmentNum = countSegments(streamDirectory);
+    assertTrue(segmentNum > 2);
+
+    // the flushed logs of A are still needed by B
+    nodeA.notifyStartFlush();
+    for (int i = 50; i < 60; i++) {
+      nodeA.write(insertPlan("root.a", i));
+    }
+    nodeA.forceSync();
+    nodeA.notifyEndFlush(null);
+    assertTrue(countSegments(streamDirectory) >= segmentNum);
+
+    // only the segments with the unflushed logs of A are left
+    nodeB.notifyStartFlush();
+    nodeB.notifyEndFlush(null);
+    assertTrue(countSegments(streamDirectory) < segmentNum);
+
+    // the unflushed logs are split into the log file of A when the manager is opened again
+    manager.close();
+    assertTrue(manager.hasWAL("root.a"));
+    assertFalse(manager.hasWAL("root.b"));
+    assertEquals(0, countSegments(streamDirectory));
+
+    File logFile = new File(config.getWalFolder(),
+        "root.a-bufferwrite" + File.separator + ExclusiveWriteLogNode.WAL_FILE_NAME);
+    RAFLogReader reader = new RAFLogReader(logFile);
+    long time = 50;
+    while (reader.hasNext()) {
+      assertEquals(time++, ((InsertPlan) reader.next()).getTime());
+    }
+    reader.close();
+    assertEquals(60, time);
+  }
+
+  private InsertPlan insertPlan(String deviceId, long time) {
+    return new InsertPlan(1, deviceId, time, Arrays.asList("s1", "s2"),
+        Arrays.asList("1.0", String.valueOf(time)));
+  }
+
+  private int countSegments(File streamDirectory) {
+    String[] segments = streamDirectory.list();
+    return segments == null ? 0 : segments.length;
+  }
+}
@@ -25,6 +25,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.zip.CRC32;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -32,6 +34,8 @@ import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.GroupCommitWriter;
+import org.apache.iotdb.db.writelog.io.RAFLogReader;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
@@ -179,6 +183,118 @@ public class WriteLogNodeTest {
     tempRestore.getParentFile().delete();
   }
 
+  @Test
+  public void testNotifyOverlappedFlushes() throws IOException {
+    // this test starts a second flush before the first one ends, the old file must be kept until
+    // both of them end
+    File tempRestore = new File("testtemp", "restore");
+    File tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+
+    WriteLogNode logNode = new ExclusiveWriteLogNode("root.logTestDevice", tempRestore.getPath(),
+        tempProcessorStore.getPath());
+
+    InsertPlan bwInsertPlan = new InsertPlan(1, "root.logTestDevice", 100,
+        Arrays.asList("s1", "s2", "s3", "s4"),
+        Arrays.asList("1.0", "15", "str", "false"));
+    DeletePlan deletePlan = new DeletePlan(50, new Path("root.logTestDevice.s1"));
+
+    File walFile = new File(
+        config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator + "wal");
+    File oldWalFile = new File(
+        config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator + "wal-old");
+
+    logNode.write(bwInsertPlan);
+    logNode.notifyStartFlush();
+    long firstFlushLength = oldWalFile.length();
+    assertTrue(firstFlushLength > 0);
+
+    logNode.write(deletePlan);
+    logNode.notifyStartFlush();
+    assertTrue(!walFile.exists());
+    assertTrue(oldWalFile.length() > firstFlushLength);
+
+    logNode.notifyEndFlush(null);
+    assertTrue(oldWalFile.exists());
+    logNode.notifyEndFlush(null);
+    assertTrue(!oldWalFile.exists());
+
+    logNode.delete();
+    tempRestore.delete();
+    tempProcessorStore.delete();
+    tempRestore.getParentFile().delete();
+  }
+
+  @Test
+  public void testGroupCommit() throws IOException, InterruptedException, ExecutionException {
+    // with group commit and force_wal_period_in_ms = 0, each write returns after its log is durable
+    boolean enableWalGroupCommit = config.isEnableWalGroupCommit();
+    long forceWalPeriodInMs = config.getForceWalPeriodInMs();
+    config.setEnableWalGroupCommit(true);
+    config.setForceWalPeriodInMs(0);
+    GroupCommitWriter.getInstance().start();
+    File tempRestore = new File("testtemp", "restore");
+    File tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+
+    try {
+      WriteLogNode logNode = new ExclusiveWriteLogNode("root.logTestDevice",
+          tempRestore.getPath(), tempProcessorStore.getPath());
+
+      InsertPlan bwInsertPlan = new InsertPlan(1, "root.logTestDevice", 100,
+          Arrays.asList("s1", "s2", "s3", "s4"),
+          Arrays.asList("1.0", "15", "str", "false"));
+      DeletePlan deletePlan = new DeletePlan(50, new Path("root.logTestDevice.s1"));
+
+      File walFile = new File(
+          config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator + "wal");
+      File oldWalFile = new File(
+          config.getWalFolder() + File.separator + "root.logTestDevice" + File.separator
+              + "wal-old");
+
+      logNode.write(bwInsertPlan);
+      logNode.write(deletePlan);
+      assertEquals(2, countLogs(walFile));
+
+      Future<Void> future = logNode.writeAsync(bwInsertPlan);
+      future.get();
+      assertEquals(3, countLogs(walFile));
+
+      // logs submitted before a flush starts are all in the old log file
+      for (int i = 0; i < 100; i++) {
+        logNode.writeAsync(deletePlan);
+      }
+      logNode.notifyStartFlush();
+      assertTrue(!walFile.exists());
+      assertEquals(103, countLogs(oldWalFile));
+      logNode.notifyEndFlush(null);
+
+      logNode.delete();
+    } finally {
+      GroupCommitWriter.getInstance().close();
+      config.setEnableWalGroupCommit(enableWalGroupCommit);
+      config.setForceWalPeriodInMs(forceWalPeriodInMs);
+      tempRestore.delete();
+      tempProcessorStore.delete();
+      tempRestore.getParentFile().delete();
+    }
+  }
+
+  private int countLogs(File logFile) throws IOException {
+    int count = 0;
+    RAFLogReader reader = new RAFLogReader(logFile);
+    while (reader.hasNext()) {
+      reader.next();
+      count++;
+    }
+    reader.close();
+    return count;
+  }
+
   @Test
   public void testSyncThreshold() throws IOException {
     // this test checks that if more logs than threshold are written, a sync will be triggered.
@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupCommitWriterTest {
+
+  private static final int THREAD_NUM = 4;
+  private static final int LOG_NUM = 500;
+
+  private String[] filePaths = {"groupCommit1.test", "groupCommit2.test"};
+
+  @Before
+  public void setUp() {
+    GroupCommitWriter.getInstance().start();
+  }
+
+  @After
+  public void tearDown() {
+    GroupCommitWriter.getInstance().close();
+    for (String filePath : filePaths) {
+      new File(filePath).delete();
+    }
+  }
+
+  @Test
+  public void testConcurrentSubmit() throws IOException, InterruptedException, ExecutionException {
+    LogWriter[] writers = new LogWriter[filePaths.length];
+    for (int i = 0; i < filePaths.length; i++) {
+      writers[i] = new LogWriter(filePaths[i]);
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(THREAD_NUM);
+    List<Future<List<CompletableFuture<Void>>>> submitted = new ArrayList<>();
+    for (int i = 0; i < THREAD_NUM; i++) {
+      String deviceId = "d" + i;
+      submitted.add(pool.submit(() -> {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int time = 0; time < LOG_NUM; time++) {
+          byte[] log = PhysicalPlanLogTransfer.operatorToLog(new InsertPlan(1, deviceId, time,
+              Arrays.asList("s1"), Arrays.asList(String.valueOf(time))));
+          futures.add(GroupCommitWriter.getInstance().submit(writers[time % writers.length], log));
+        }
+        return futures;
+      }));
+    }
+    for (Future<List<CompletableFuture<Void>>> future : submitted) {
+      for (CompletableFuture<Void> logFuture : future.get()) {
+        logFuture.get();
+        assertTrue(logFuture.isDone());
+      }
+    }
+    pool.shutdown();
+    for (LogWriter writer : writers) {
+      writer.close();
+    }
+
+    for (int i = 0; i < filePaths.length; i++) {
+      // the logs of each device are written in the order they are submitted
+      Map<String, Long> lastTimes = new HashMap<>();
+      int count = 0;
+      RAFLogReader reader = new RAFLogReader(new File(filePaths[i]));
+      while (reader.hasNext()) {
+        PhysicalPlan plan = reader.next();
+        InsertPlan insertPlan = (InsertPlan) plan;
+        assertEquals(i, insertPlan.getTime() % filePaths.length);
+        Long lastTime = lastTimes.put(insertPlan.getDeviceId(), insertPlan.getTime());
+        assertTrue(lastTime == null || lastTime < insertPlan.getTime());
+        count++;
+      }
+      reader.close();
+      assertEquals(THREAD_NUM * LOG_NUM / filePaths.length, count);
+    }
+  }
+
+  @Test
+  public void testCloseAndRestart() throws IOException, InterruptedException, ExecutionException {
+    LogWriter writer = new LogWriter(filePaths[0]);
+    byte[] log = PhysicalPlanLogTransfer.operatorToLog(new InsertPlan(1, "d1", 1,
+        Arrays.asList("s1"), Arrays.asList("1")));
+    CompletableFuture<Void> future = GroupCommitWriter.getInstance().submit(writer, log);
+    GroupCommitWriter.getInstance().close();
+    assertTrue(future.isDone());
+    assertTrue(!GroupCommitWriter.getInstance().isRunning());
+
+    // logs are rejected until the writer thread is restarted
+    assertTrue(GroupCommitWriter.getInstance().submit(writer, log).isCompletedExceptionally());
+    assertTrue(!GroupCommitWriter.getInstance().isRunning());
+    GroupCommitWriter.getInstance().start();
+    GroupCommitWriter.getInstance().submit(writer, log).get();
+    writer.close();
+
+    // a closed writer does not reopen its file
+    try {
+      GroupCommitWriter.getInstance().submit(writer, log).get();
+      fail("a closed log writer should reject logs");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IOException);
+    }
+
+    int count = 0;
+    RAFLogReader reader = new RAFLogReader(new File(filePaths[0]));
+    while (reader.hasNext()) {
+      reader.next();
+      count++;
+    }
+    reader.close();
+    assertEquals(2, count);
+  }
+}
@@ -19,9 +19,11 @@
 package org.apache.iotdb.db.writelog.io;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -31,6 +33,7 @@ import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.junit.Before;
 import org.junit.Test;
@@ -81,4 +84,82 @@ public class LogWriterReaderTest {
       new File(filePath).delete();
     }
   }
+
+  @Test
+  public void testMappedRead() throws IOException {
+    LogWriter writer = new LogWriter(filePath);
+    writer.write(logs);
+    writer.write(logs);
+    try {
+      writer.close();
+      int maxLogSize = 0;
+      for (byte[] log : logs) {
+        maxLogSize = Math.max(maxLogSize, LogWriter.LOG_HEADER_SIZE + log.length);
+      }
+      // regions smaller than two logs make the reader map the file several times
+      MappedLogReader reader = new MappedLogReader(2L * maxLogSize - 1);
+      reader.open(new File(filePath));
+      List<byte[]> res = new ArrayList<>();
+      while (reader.hasNext()) {
+        res.add(PhysicalPlanLogTransfer.operatorToLog(reader.next()));
+      }
+      reader.close();
+      assertEquals(2 * logs.size(), res.size());
+      for (int i = 0; i < res.size(); i++) {
+        assertArrayEquals(logs.get(i % logs.size()), res.get(i));
+      }
+    } finally {
+      new File(filePath).delete();
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testMappedReadBrokenLog() throws IOException {
+    LogWriter writer = new LogWriter(filePath);
+    writer.write(logs);
+    writer.close();
+    try (RandomAccessFile file = new RandomAccessFile(filePath, "rw")) {
+      // break the last byte of the first log
+      long position = LogWriter.LOG_HEADER_SIZE + logs.get(0).length - 1L;
+      file.seek(position);
+      byte b = file.readByte();
+      file.seek(position);
+      file.writeByte(b + 1);
+    }
+    MappedLogReader reader = new MappedLogReader();
+    try {
+      reader.open(new File(filePath));
+    } finally {
+      reader.close();
+      new File(filePath).delete();
+    }
+  }
+
+  @Test
+  public void testCompressedWriteAndRead() throws IOException {
+    LogWriter writer = new LogWriter(filePath, CompressionType.SNAPPY);
+    writer.write(logs);
+    writer.write(logs.subList(0, 1));
+    try {
+      writer.close();
+      List<byte[]> expected = new ArrayList<>(logs);
+      expected.add(logs.get(0));
+
+      ILogReader[] readers = {new RAFLogReader(), new MappedLogReader()};
+      for (ILogReader reader : readers) {
+        reader.open(new File(filePath));
+        List<byte[]> res = new ArrayList<>();
+        while (reader.hasNext()) {
+          res.add(PhysicalPlanLogTransfer.operatorToLog(reader.next()));
+        }
+        reader.close();
+        assertEquals(expected.size(), res.size());
+        for (int i = 0; i < expected.size(); i++) {
+          assertArrayEquals(expected.get(i), res.get(i));
+        }
+      }
+    } finally {
+      new File(filePath).delete();
+    }
+  }
 }
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.commons.io.FileUtils;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.junit.After;
+import org.junit.Test;
+
+public class SharedLogStreamTest {
+
+  private File directory = new File("sharedLogStreamTest");
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void testUnregisterNode() throws IOException {
+    SharedLogStream stream = new SharedLogStream(directory, 1024);
+    stream.registerNode(0, "root.a-bufferwrite");
+    stream.registerNode(1, "root.b-bufferwrite");
+    for (int i = 0; i < 50; i++) {
+      stream.append(0, log("root.a", i));
+      stream.append(1, log("root.b", i));
+      stream.sync();
+    }
+    assertTrue(stream.getSegmentNum() > 2);
+
+    // the segments with the logs of the deleted node are kept for the other node
+    stream.unregisterNode(0);
+    assertEquals(2, stream.getNodeNum());
+
+    for (int i = 50; i < 100; i++) {
+      stream.append(1, log("root.b", i));
+      stream.sync();
+    }
+    // no segment with the logs of the deleted node is left after the other node flushes
+    stream.checkpoint(1, stream.getNextSequence(1));
+    assertEquals(1, stream.getSegmentNum());
+    assertEquals(1, stream.getNodeNum());
+    stream.close();
+  }
+
+  private byte[] log(String deviceId, long time) throws IOException {
+    return PhysicalPlanLogTransfer.operatorToLog(new InsertPlan(1, deviceId, time,
+        Arrays.asList("s1", "s2"), Arrays.asList("1.0", String.valueOf(time))));
+  }
+}
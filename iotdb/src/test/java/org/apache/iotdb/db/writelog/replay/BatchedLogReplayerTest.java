@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.replay;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Test;
+
+public class BatchedLogReplayerTest {
+
+  private List<PhysicalPlan> replayedPlans = new ArrayList<>();
+  private LogReplayer recordingReplayer = (plan, isOverflow) -> replayedPlans.add(plan);
+
+  private InsertPlan typedPlan(String deviceId, long time) {
+    return new InsertPlan(1, deviceId, time, Arrays.asList("s1", "s2", "s3"),
+        new TSDataType[]{TSDataType.INT64, TSDataType.DOUBLE, TSDataType.TEXT},
+        new Object[]{time, time * 0.5, new Binary(String.valueOf(time))});
+  }
+
+  @Test
+  public void testBatchConsecutiveInserts() throws Exception {
+    BatchedLogReplayer replayer = new BatchedLogReplayer(recordingReplayer, 100);
+    for (long time = 1; time <= 3; time++) {
+      replayer.replay(typedPlan("root.sg.d1", time), false);
+    }
+    DeletePlan deletePlan = new DeletePlan(2, new Path("root.sg.d1.s1"));
+    replayer.replay(deletePlan, false);
+    replayer.replay(typedPlan("root.sg.d1", 4), false);
+    replayer.replay(typedPlan("root.sg.d2", 4), false);
+    replayer.flush();
+
+    assertEquals(4, replayedPlans.size());
+    BatchInsertPlan batch = (BatchInsertPlan) replayedPlans.get(0);
+    assertEquals(3, batch.getRowCount());
+    assertArrayEquals(new long[]{1, 2, 3}, batch.getTimes());
+    assertArrayEquals(new long[]{1, 2, 3}, (long[]) batch.getColumns()[0]);
+    assertArrayEquals(new double[]{0.5, 1.0, 1.5}, (double[]) batch.getColumns()[1], 0.0);
+    assertEquals(new Binary("3"), ((Binary[]) batch.getColumns()[2])[2]);
+    // the other plans keep their order
+    assertEquals(deletePlan, replayedPlans.get(1));
+    assertEquals("root.sg.d1", ((InsertPlan) replayedPlans.get(2)).getDeviceId());
+    assertEquals("root.sg.d2", ((InsertPlan) replayedPlans.get(3)).getDeviceId());
+  }
+
+  @Test
+  public void testBatchSize() throws Exception {
+    BatchedLogReplayer replayer = new BatchedLogReplayer(recordingReplayer, 2);
+    for (long time = 1; time <= 5; time++) {
+      replayer.replay(typedPlan("root.sg.d1", time), false);
+    }
+    assertEquals(2, replayedPlans.size());
+    assertEquals(1, replayer.getPendingNum());
+    replayer.flush();
+    assertEquals(3, replayedPlans.size());
+    assertTrue(replayedPlans.get(2) instanceof InsertPlan);
+  }
+
+  @Test
+  public void testUntypedInsertNotBatched() throws Exception {
+    BatchedLogReplayer replayer = new BatchedLogReplayer(recordingReplayer, 100);
+    InsertPlan plan = new InsertPlan(1, "root.sg.d1", 1, Arrays.asList("s1"),
+        Arrays.asList("1.0"));
+    replayer.replay(plan, false);
+    replayer.replay(plan, false);
+    assertEquals(2, replayedPlans.size());
+  }
+}
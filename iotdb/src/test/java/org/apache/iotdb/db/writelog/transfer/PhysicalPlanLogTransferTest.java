@@ -19,14 +19,19 @@
 package org.apache.iotdb.db.writelog.transfer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import org.apache.iotdb.db.auth.AuthException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.ArgsErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.qp.QueryProcessorException;
 import org.apache.iotdb.db.qp.QueryProcessor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -35,7 +40,10 @@ import org.apache.iotdb.db.qp.physical.sys.LoadDataPlan;
 import org.apache.iotdb.db.qp.physical.sys.MetadataPlan;
 import org.apache.iotdb.db.qp.physical.sys.PropertyPlan;
 import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.junit.Test;
 
 public class PhysicalPlanLogTransferTest {
@@ -43,6 +51,20 @@ public class PhysicalPlanLogTransferTest {
   private QueryProcessor processor = new QueryProcessor(new MemIntQpExecutor());
   private InsertPlan insertPlan = new InsertPlan(1, "device", 100,
       Arrays.asList("s1", "s2", "s3", "s4"), Arrays.asList("0.1", "100", "test", "false"));
+  private InsertPlan typedInsertPlan = new InsertPlan(1, "device", 100,
+      Arrays.asList("s1", "s2", "s3", "s4", "s5", "s6"),
+      new TSDataType[]{TSDataType.DOUBLE, TSDataType.INT32, TSDataType.TEXT, TSDataType.BOOLEAN,
+          TSDataType.INT64, TSDataType.FLOAT},
+      new Object[]{0.1, 100, new Binary("test"), false, 1000L, 1.5f});
+  private BatchInsertPlan batchInsertPlan = new BatchInsertPlan("device",
+      Arrays.asList("s1", "s2", "s3", "s4", "s5", "s6"),
+      new TSDataType[]{TSDataType.DOUBLE, TSDataType.INT32, TSDataType.TEXT, TSDataType.BOOLEAN,
+          TSDataType.INT64, TSDataType.FLOAT},
+      new long[]{100, 101, 102},
+      new Object[]{new double[]{0.1, 0.2, 0.3}, new int[]{1, 2, 3},
+          new Binary[]{new Binary("a"), new Binary("bc"), new Binary("")},
+          new boolean[]{true, false, true}, new long[]{1000L, 2000L, 3000L},
+          new float[]{1.5f, 2.5f, 3.5f}}, 3);
   private DeletePlan deletePlan = new DeletePlan(50, new Path("root.vehicle.device"));
   private UpdatePlan updatePlan = new UpdatePlan(0, 100, "2.0",
       new Path("root.vehicle.device.sensor"));
@@ -57,6 +79,18 @@ public class PhysicalPlanLogTransferTest {
     byte[] insertPlanProperty = insertPlanCodec.encode(insertPlan);
     assertEquals(true, Arrays.equals(insertPlanProperty, insertPlanBytesTest));
 
+    /** Typed Insert Plan test **/
+    byte[] typedInsertPlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan);
+    Codec<InsertPlan> typedInsertPlanCodec = CodecInstances.insertV2PlanCodec;
+    byte[] typedInsertPlanProperty = typedInsertPlanCodec.encode(typedInsertPlan);
+    assertEquals(true, Arrays.equals(typedInsertPlanProperty, typedInsertPlanBytesTest));
+
+    /** Batch Insert Plan test **/
+    byte[] batchInsertPlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(batchInsertPlan);
+    Codec<BatchInsertPlan> batchInsertPlanCodec = CodecInstances.batchInsertPlanCodec;
+    byte[] batchInsertPlanProperty = batchInsertPlanCodec.encode(batchInsertPlan);
+    assertEquals(true, Arrays.equals(batchInsertPlanProperty, batchInsertPlanBytesTest));
+
     /** Delete Plan test **/
     byte[] deletePlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(deletePlan);
     Codec<DeletePlan> deletePlanCodec = CodecInstances.deletePlanCodec;
@@ -111,6 +145,20 @@ public class PhysicalPlanLogTransferTest {
         .logToOperator(insertPlanBytesTest);
     assertEquals(true, insertPlanTest.equals(insertPlan));
 
+    /** Typed Insert Plan test **/
+    byte[] typedInsertPlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan);
+    InsertPlan typedInsertPlanTest = (InsertPlan) PhysicalPlanLogTransfer
+        .logToOperator(typedInsertPlanBytesTest);
+    assertEquals(true, typedInsertPlanTest.isTyped());
+    assertEquals(true, typedInsertPlanTest.equals(typedInsertPlan));
+    assertSameDataPoints(typedInsertPlan.getDataPoints(), typedInsertPlanTest.getDataPoints());
+
+    /** Batch Insert Plan test **/
+    byte[] batchInsertPlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(batchInsertPlan);
+    BatchInsertPlan batchInsertPlanTest = (BatchInsertPlan) PhysicalPlanLogTransfer
+        .logToOperator(batchInsertPlanBytesTest);
+    assertEquals(true, batchInsertPlanTest.equals(batchInsertPlan));
+
     /** Delete Plan test **/
     byte[] deletePlanBytesTest = PhysicalPlanLogTransfer.operatorToLog(deletePlan);
     DeletePlan deletePlanTest = (DeletePlan) PhysicalPlanLogTransfer
@@ -154,4 +202,76 @@ public class PhysicalPlanLogTransferTest {
     assertEquals(true, propertyPlanTest.equals(propertyPlan));
 
   }
-}
\ No newline at end of file
+  @Test
+  public void dictionaryEncodedLog() throws IOException {
+    LogDictionary writeDictionary = new LogDictionary();
+    LogDictionary readDictionary = new LogDictionary();
+    byte[] firstLog = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan, writeDictionary);
+    byte[] secondLog = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan, writeDictionary);
+    // the names are only written by the first log
+    assertEquals(true, secondLog.length < firstLog.length);
+
+    InsertPlan firstPlan = (InsertPlan) PhysicalPlanLogTransfer
+        .logToOperator(firstLog, readDictionary);
+    InsertPlan secondPlan = (InsertPlan) PhysicalPlanLogTransfer
+        .logToOperator(secondLog, readDictionary);
+    assertEquals(true, firstPlan.equals(typedInsertPlan));
+    assertEquals(true, secondPlan.equals(typedInsertPlan));
+    assertSameDataPoints(typedInsertPlan.getDataPoints(), secondPlan.getDataPoints());
+  }
+
+  private void assertSameDataPoints(List<DataPoint> expected, List<DataPoint> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getMeasurementId(), actual.get(i).getMeasurementId());
+      assertEquals(expected.get(i).getType(), actual.get(i).getType());
+      assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void undefinedNameInLog() throws IOException {
+    LogDictionary writeDictionary = new LogDictionary();
+    PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan, writeDictionary);
+    byte[] secondLog = PhysicalPlanLogTransfer.operatorToLog(typedInsertPlan, writeDictionary);
+    PhysicalPlanLogTransfer.logToOperator(secondLog, new LogDictionary());
+  }
+
+  @Test
+  public void splitLargeBatch() throws IOException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int maxLogEntrySize = config.getMaxLogEntrySize();
+    int rowCount = 1000;
+    long[] times = new long[rowCount];
+    long[] values = new long[rowCount];
+    Binary[] texts = new Binary[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = i;
+      values[i] = i * 10L;
+      texts[i] = new Binary(String.valueOf(i));
+    }
+    BatchInsertPlan largePlan = new BatchInsertPlan("device", Arrays.asList("s1", "s2"),
+        new TSDataType[]{TSDataType.INT64, TSDataType.TEXT}, times,
+        new Object[]{values, texts}, rowCount);
+    try {
+      config.setMaxLogEntrySize(1024);
+      List<BatchInsertPlan> plans = PhysicalPlanLogTransfer.splitForLog(largePlan);
+      assertTrue(plans.size() > 1);
+      int row = 0;
+      for (BatchInsertPlan plan : plans) {
+        byte[] log = PhysicalPlanLogTransfer.operatorToLog(plan);
+        assertTrue(log.length <= 1024);
+        BatchInsertPlan readPlan = (BatchInsertPlan) PhysicalPlanLogTransfer.logToOperator(log);
+        for (int i = 0; i < readPlan.getRowCount(); i++, row++) {
+          assertEquals(row, readPlan.getTimes()[i]);
+          assertEquals(row * 10L, readPlan.getValue(0, i));
+          assertEquals(texts[row], readPlan.getValue(1, i));
+        }
+      }
+      assertEquals(rowCount, row);
+    } finally {
+      config.setMaxLogEntrySize(maxLogEntrySize);
+    }
+    assertEquals(1, PhysicalPlanLogTransfer.splitForLog(largePlan).size());
+  }
+}
@@ -148,6 +148,30 @@ struct TSExecuteBatchStatementReq{
 }
 
 
+// Insert many rows of one device at once. The values are organized in columns: column i holds
+// the values of measurements[i], and the j-th value of every column belongs to the j-th timestamp.
+struct TSBatchInsertionReq {
+  // The session to execute the insertion against
+  1: required TS_SessionHandle sessionHandle
+
+  2: required string deviceId
+
+  3: required list<string> measurements
+
+  // The data type of each measurement, as serialized by TSDataType:
+  // 0: BOOLEAN, 1: INT32, 2: INT64, 3: FLOAT, 4: DOUBLE, 5: TEXT
+  4: required list<i32> types
+
+  // rowCount big-endian i64 timestamps
+  5: required binary timestamps
+
+  // The columns one after another, each of rowCount big-endian values of its type. A BOOLEAN
+  // value takes one byte, a TEXT value is the i32 length of its UTF-8 bytes followed by the bytes.
+  6: required binary values
+
+  7: required i32 rowCount
+}
+
 struct TSGetOperationStatusReq {
   // Session to run this request against
   1: required TSOperationHandle operationHandle
@@ -259,6 +283,8 @@ service TSIService {
 
 	TSExecuteBatchStatementResp executeBatchStatement(1:TSExecuteBatchStatementReq req);
 
+	TSExecuteBatchStatementResp insertBatch(1:TSBatchInsertionReq req);
+
 	TSExecuteStatementResp executeQueryStatement(1:TSExecuteStatementReq req);
 
 	TSExecuteStatementResp executeUpdateStatement(1:TSExecuteStatementReq req);
@@ -34,6 +34,10 @@ public class TSFileConfig {
   public static final int FLOAT_LENGTH = 32;
   public static final int FLAOT_LEADING_ZERO_LENGTH = 5;
   public static final int FLOAT_VALUE_LENGTH = 6;
+  // bit widths of the delta of deltas of integers after control codes '10', '110' and '1110'
+  public static final int DELTA_OF_DELTA_SHORT_LENGTH = 7;
+  public static final int DELTA_OF_DELTA_MEDIUM_LENGTH = 9;
+  public static final int DELTA_OF_DELTA_LONG_LENGTH = 12;
 
   // Encoder configuration
   public static final int DOUBLE_LENGTH = 64;
@@ -51,9 +55,32 @@ public class TSFileConfig {
   public static final String CONFIG_FILE_NAME = "tsfile-format.properties";
   public static final String MAGIC_STRING = "TsFilev0.8.0";
   /**
-   * Current version is 3.
+   * Version of the files which do not store their version after the head magic string. Their chunk
+   * headers do not record the encoding of timestamps, which is given by timeSeriesEncoder.
    */
-  public static final int CURRENT_VERSION = 3;
+  public static final int BASE_VERSION = 3;
+  /**
+   * Since version 4, the version is stored after the head magic string and chunk headers record
+   * the encoding of timestamps.
+   */
+  public static final int TIME_ENCODING_VERSION = 4;
+  /**
+   * Since version 5, ChunkMetaData is followed by the time index of the pages of the chunk.
+   */
+  public static final int PAGE_INDEX_VERSION = 5;
+  /**
+   * Since version 6, TsFileMetaData ends with a bloom filter over the paths of the series.
+   */
+  public static final int BLOOM_FILTER_VERSION = 6;
+  /**
+   * Since version 7, TsFileMetaData keeps the TsDeviceMetadataIndex of the devices in a table sorted
+   * by the device ids, instead of a map of them.
+   */
+  public static final int DEVICE_INDEX_TABLE_VERSION = 7;
+  /**
+   * Current version is 7. Files of the versions from BASE_VERSION to CURRENT_VERSION can be read.
+   */
+  public static final int CURRENT_VERSION = 7;
   /**
    * The default grow size of class BatchData.
    */
@@ -87,17 +114,23 @@ public class TSFileConfig {
    */
   public static int floatPrecision = 2;
   /**
-   * Encoder of time series, TsFile supports TS_2DIFF, PLAIN and RLE(run-length encoding) Default
-   * value is TS_2DIFF.
+   * Encoder of time series, TsFile supports TS_2DIFF, PLAIN, RLE(run-length encoding) and GORILLA
+   * (delta of delta). Default value is TS_2DIFF. A series may override it by the property
+   * time_encoding.
    */
   public static String timeSeriesEncoder = "TS_2DIFF";
   /**
    * Encoder of value series. default value is PLAIN. For int, long data type, TsFile also supports
-   * TS_2DIFF and RLE(run-length encoding). For float, double data type, TsFile also supports
-   * TS_2DIFF, RLE(run-length encoding) and GORILLA. For text data type, TsFile only supports
-   * PLAIN.
+   * TS_2DIFF, RLE(run-length encoding) and GORILLA(delta of delta). For float, double data type,
+   * TsFile also supports TS_2DIFF, RLE(run-length encoding) and GORILLA. For text data type,
+   * TsFile also supports PLAIN_DICTIONARY.
    */
   public static String valueEncoder = "PLAIN";
+  /**
+   * Max size in byte of the dictionary of a PLAIN_DICTIONARY encoded page, a page whose distinct
+   * values exceed it is encoded as PLAIN. Default value is 64KB.
+   */
+  public static int maxDictionarySize = 64 * 1024;
 
   // Compression configuration
   /**
@@ -127,8 +160,8 @@ public class TSFileConfig {
    */
   public static double dftSatisfyRate = 0.1;
   /**
-   * Data compression method, TsFile supports UNCOMPRESSED or SNAPPY. Default value is UNCOMPRESSED
-   * which means no compression
+   * Data compression method, TsFile supports UNCOMPRESSED, SNAPPY, GZIP, LZ4 or ZSTD. Default value
+   * is UNCOMPRESSED which means no compression.
    */
   public static String compressor = "UNCOMPRESSED";
   /**
@@ -139,6 +172,11 @@ public class TSFileConfig {
    * Default endian value is LITTLE_ENDIAN.
    */
   public static String endian = "LITTLE_ENDIAN";
+  /**
+   * The false positive rate of the bloom filter over the series paths of a TsFile, which is in
+   * (0, 1). Default value is 0.05.
+   */
+  public static double bloomFilterErrorRate = 0.05;
 
   /**
    * only can be used by TsFileDescriptor.
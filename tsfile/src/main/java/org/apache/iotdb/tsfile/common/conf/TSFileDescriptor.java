@@ -133,7 +133,18 @@ public class TSFileDescriptor {
           .getProperty("time_series_encoder", TSFileConfig.timeSeriesEncoder);
       TSFileConfig.valueEncoder = properties
           .getProperty("value_encoder", TSFileConfig.valueEncoder);
+      TSFileConfig.maxDictionarySize = Integer
+          .parseInt(properties
+              .getProperty("max_dictionary_size",
+                  Integer.toString(TSFileConfig.maxDictionarySize)));
       TSFileConfig.compressor = properties.getProperty("compressor", TSFileConfig.compressor);
+      TSFileConfig.bloomFilterErrorRate = Double.parseDouble(properties
+          .getProperty("bloom_filter_error_rate",
+              Double.toString(TSFileConfig.bloomFilterErrorRate)));
+      if (TSFileConfig.bloomFilterErrorRate <= 0 || TSFileConfig.bloomFilterErrorRate >= 1) {
+        LOGGER.warn("bloom_filter_error_rate should be in (0, 1), will set it as 0.05");
+        TSFileConfig.bloomFilterErrorRate = 0.05;
+      }
     } catch (IOException e) {
       LOGGER.warn("Cannot load config file, use default configuration", e);
     } catch (Exception e) {
@@ -19,9 +19,15 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import com.github.luben.zstd.Zstd;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.xerial.snappy.Snappy;
@@ -51,6 +57,12 @@ public interface ICompressor extends Serializable {
         return new NoCompressor();
       case SNAPPY:
         return new SnappyCompressor();
+      case GZIP:
+        return new GZIPCompressor();
+      case LZ4:
+        return new LZ4Compressor();
+      case ZSTD:
+        return new ZSTDCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -69,7 +81,11 @@ public interface ICompressor extends Serializable {
   /**
    * If the data is large, this function is better than byte[].
    *
-   * @param data MUST be DirectByteBuffer for Snappy.
+   * The positions of both buffers are not changed, and the limit of compressed is set to the end
+   * of the compressed data.
+   *
+   * @param data MUST be DirectByteBuffer for Snappy, both or neither of data and compressed MUST be
+   * DirectByteBuffer for ZSTD.
    * @param compressed MUST be DirectByteBuffer for Snappy.
    * @return byte length of compressed data.
    */
@@ -140,4 +156,178 @@ public interface ICompressor extends Serializable {
       return CompressionType.SNAPPY;
     }
   }
+
+  /**
+   * GZIPCompressor compresses data in the gzip format by java.util.zip, which has the best ratio
+   * of the supported compressors but is the slowest one. ByteBuffers are compressed through a
+   * copy of their content.
+   */
+  class GZIPCompressor implements ICompressor {
+
+    /**
+     * size of the gzip header and trailer, which are written without optional fields.
+     */
+    private static final int HEADER_AND_TRAILER_SIZE = 18;
+
+    private static byte[] gzip(byte[] data, int offset, int length) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(length / 2 + HEADER_AND_TRAILER_SIZE);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+        gzip.write(data, offset, length);
+      }
+      return out.toByteArray();
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return gzip(data, 0, data.length);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      byte[] result = gzip(data, offset, length);
+      System.arraycopy(result, 0, compressed, 0, result.length);
+      return result.length;
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      byte[] bytes = new byte[data.remaining()];
+      data.duplicate().get(bytes);
+      byte[] result = gzip(bytes, 0, bytes.length);
+      compressed.duplicate().put(result);
+      compressed.limit(compressed.position() + result.length);
+      return result.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      // the bound of deflate in zlib
+      return uncompressedDataSize + (uncompressedDataSize >> 12) + (uncompressedDataSize >> 14)
+          + (uncompressedDataSize >> 25) + 13 + HEADER_AND_TRAILER_SIZE;
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.GZIP;
+    }
+  }
+
+  /**
+   * LZ4Compressor compresses data into a LZ4 block, which is faster to compress and uncompress
+   * than Snappy. The block is preceded by the uncompressed length in 4 bytes, as it is not
+   * recorded in the block.
+   */
+  class LZ4Compressor implements ICompressor {
+
+    private static final net.jpountz.lz4.LZ4Compressor compressor = LZ4Factory.fastestInstance()
+        .fastCompressor();
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int size = compress(data, 0, data.length, compressed);
+      return Arrays.copyOf(compressed, size);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      try {
+        ByteBuffer.wrap(compressed).putInt(length);
+        return Integer.BYTES + compressor.compress(data, offset, length, compressed,
+            Integer.BYTES, compressed.length - Integer.BYTES);
+      } catch (LZ4Exception e) {
+        throw new IOException(e);
+      }
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int length = data.remaining();
+      try {
+        compressed.putInt(compressed.position(), length);
+        int size = Integer.BYTES + compressor.compress(data, data.position(), length, compressed,
+            compressed.position() + Integer.BYTES, compressed.remaining() - Integer.BYTES);
+        compressed.limit(compressed.position() + size);
+        return size;
+      } catch (LZ4Exception e) {
+        throw new IOException(e);
+      }
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return Integer.BYTES + compressor.maxCompressedLength(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.LZ4;
+    }
+  }
+
+  /**
+   * ZSTDCompressor compresses data into a zstd frame, which records the uncompressed length. Its
+   * ratio is close to GZIP at a speed close to Snappy.
+   */
+  class ZSTDCompressor implements ICompressor {
+
+    private static final int LEVEL = 3;
+
+    static int checkResult(long result) throws IOException {
+      if (Zstd.isError(result)) {
+        throw new IOException(Zstd.getErrorName(result));
+      }
+      return (int) result;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      byte[] compressed = new byte[getMaxBytesForCompression(data.length)];
+      int size = compress(data, 0, data.length, compressed);
+      return Arrays.copyOf(compressed, size);
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      return checkResult(Zstd.compressByteArray(compressed, 0, compressed.length, data, offset,
+          length, LEVEL));
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int size;
+      if (data.isDirect() && compressed.isDirect()) {
+        size = checkResult(Zstd.compressDirectByteBuffer(compressed, compressed.position(),
+            compressed.remaining(), data, data.position(), data.remaining(), LEVEL));
+      } else if (data.hasArray() && compressed.hasArray()) {
+        size = checkResult(Zstd.compressByteArray(compressed.array(),
+            compressed.arrayOffset() + compressed.position(), compressed.remaining(),
+            data.array(), data.arrayOffset() + data.position(), data.remaining(), LEVEL));
+      } else {
+        throw new IOException("ZSTDCompressor does not support a DirectByteBuffer together with "
+            + "a heap ByteBuffer");
+      }
+      compressed.limit(compressed.position() + size);
+      return size;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
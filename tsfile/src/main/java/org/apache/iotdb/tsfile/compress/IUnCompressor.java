@@ -19,8 +19,15 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import com.github.luben.zstd.Zstd;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.GZIPInputStream;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
@@ -47,6 +54,12 @@ public interface IUnCompressor {
         return new NoUnCompressor();
       case SNAPPY:
         return new SnappyUnCompressor();
+      case GZIP:
+        return new GZIPUnCompressor();
+      case LZ4:
+        return new LZ4UnCompressor();
+      case ZSTD:
+        return new ZSTDUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -85,10 +98,12 @@ public interface IUnCompressor {
       throws IOException;
 
   /**
-   * if the data is large, using this function is better.
+   * if the data is large, using this function is better. The positions of both buffers are not
+   * changed, and the limit of uncompressed is set to the end of the uncompressed data.
    *
-   * @param compressed MUST be DirectByteBuffer
-   * @param uncompressed MUST be DirectByteBuffer
+   * @param compressed MUST be DirectByteBuffer for Snappy, both or neither of compressed and
+   * uncompressed MUST be DirectByteBuffer for ZSTD.
+   * @param uncompressed MUST be DirectByteBuffer for Snappy
    */
   int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException;
 
@@ -188,4 +203,265 @@ public interface IUnCompressor {
       return CompressionType.SNAPPY;
     }
   }
+
+  class GZIPUnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GZIPUnCompressor.class);
+
+    /**
+     * size of the gzip header and trailer, which are written without optional fields.
+     */
+    private static final int HEADER_AND_TRAILER_SIZE = 18;
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return getUncompressedLength(ByteBuffer.wrap(array, offset, length));
+    }
+
+    /**
+     * the uncompressed length is the ISIZE field at the end of the gzip trailer.
+     */
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.remaining() < HEADER_AND_TRAILER_SIZE) {
+        throw new IOException(String.format(
+            "tsfile-compression GZIPUnCompressor: %d bytes are not a gzip stream",
+            buffer.remaining()));
+      }
+      return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)
+          .getInt(buffer.limit() - Integer.BYTES);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null) {
+        return new byte[0];
+      }
+
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression GZIPUnCompressor: errors occurs when uncompress input byte, "
+                + "bytes is {}",
+            bytes, e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(byteArray, offset, length);
+      if (uncompressedLength > output.length - outOffset) {
+        throw new IOException(String.format(
+            "tsfile-compression GZIPUnCompressor: %d bytes do not fit in the output of %d bytes",
+            uncompressedLength, output.length - outOffset));
+      }
+      try (GZIPInputStream in = new GZIPInputStream(
+          new ByteArrayInputStream(byteArray, offset, length))) {
+        int size = 0;
+        while (size < uncompressedLength) {
+          int read = in.read(output, outOffset + size, uncompressedLength - size);
+          if (read < 0) {
+            break;
+          }
+          size += read;
+        }
+        return size;
+      }
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      byte[] bytes = new byte[compressed.remaining()];
+      compressed.duplicate().get(bytes);
+      byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+      int size = uncompress(bytes, 0, bytes.length, output, 0);
+      uncompressed.duplicate().put(output, 0, size);
+      uncompressed.limit(uncompressed.position() + size);
+      return size;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.GZIP;
+    }
+  }
+
+  /**
+   * LZ4UnCompressor uncompresses the data written by {@link ICompressor.LZ4Compressor}, which is
+   * the uncompressed length in 4 bytes followed by a LZ4 block.
+   */
+  class LZ4UnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LZ4UnCompressor.class);
+
+    private static final LZ4SafeDecompressor decompressor = LZ4Factory.fastestInstance()
+        .safeDecompressor();
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return getUncompressedLength(ByteBuffer.wrap(array, offset, length));
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        throw new IOException(String.format(
+            "tsfile-compression LZ4UnCompressor: %d bytes are not a LZ4 block",
+            buffer.remaining()));
+      }
+      return buffer.getInt(buffer.position());
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null) {
+        return new byte[0];
+      }
+
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression LZ4UnCompressor: errors occurs when uncompress input byte, "
+                + "bytes is {}",
+            bytes, e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      int uncompressedLength = getUncompressedLength(byteArray, offset, length);
+      if (uncompressedLength > output.length - outOffset) {
+        throw new IOException(String.format(
+            "tsfile-compression LZ4UnCompressor: %d bytes do not fit in the output of %d bytes",
+            uncompressedLength, output.length - outOffset));
+      }
+      try {
+        return decompressor.decompress(byteArray, offset + Integer.BYTES, length - Integer.BYTES,
+            output, outOffset, uncompressedLength);
+      } catch (LZ4Exception e) {
+        throw new IOException(e);
+      }
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int uncompressedLength = getUncompressedLength(compressed);
+      if (uncompressedLength > uncompressed.remaining()) {
+        throw new IOException(String.format(
+            "tsfile-compression LZ4UnCompressor: %d bytes do not fit in the output of %d bytes",
+            uncompressedLength, uncompressed.remaining()));
+      }
+      try {
+        int size = decompressor.decompress(compressed, compressed.position() + Integer.BYTES,
+            compressed.remaining() - Integer.BYTES, uncompressed, uncompressed.position(),
+            uncompressedLength);
+        uncompressed.limit(uncompressed.position() + size);
+        return size;
+      } catch (LZ4Exception e) {
+        throw new IOException(e);
+      }
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.LZ4;
+    }
+  }
+
+  class ZSTDUnCompressor implements IUnCompressor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZSTDUnCompressor.class);
+
+    /**
+     * max size of the header of a zstd frame, which records the uncompressed length.
+     */
+    private static final int MAX_FRAME_HEADER_SIZE = 18;
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) throws IOException {
+      return getUncompressedLength(ByteBuffer.wrap(array, offset, length));
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) throws IOException {
+      byte[] header = new byte[Math.min(buffer.remaining(), MAX_FRAME_HEADER_SIZE)];
+      buffer.duplicate().get(header);
+      long size = Zstd.decompressedSize(header);
+      if (size < 0 || size > Integer.MAX_VALUE) {
+        throw new IOException(String.format(
+            "tsfile-compression ZSTDUnCompressor: illegal uncompressed length %d", size));
+      }
+      return (int) size;
+    }
+
+    @Override
+    public byte[] uncompress(byte[] bytes) {
+      if (bytes == null) {
+        return new byte[0];
+      }
+
+      try {
+        byte[] output = new byte[getUncompressedLength(bytes, 0, bytes.length)];
+        uncompress(bytes, 0, bytes.length, output, 0);
+        return output;
+      } catch (IOException e) {
+        LOGGER.error(
+            "tsfile-compression ZSTDUnCompressor: errors occurs when uncompress input byte, "
+                + "bytes is {}",
+            bytes, e);
+      }
+      return new byte[0];
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      return ICompressor.ZSTDCompressor.checkResult(Zstd.decompressByteArray(output, outOffset,
+          output.length - outOffset, byteArray, offset, length));
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int size;
+      if (compressed.isDirect() && uncompressed.isDirect()) {
+        size = ICompressor.ZSTDCompressor.checkResult(Zstd.decompressDirectByteBuffer(
+            uncompressed, uncompressed.position(), uncompressed.remaining(), compressed,
+            compressed.position(), compressed.remaining()));
+      } else if (compressed.hasArray() && uncompressed.hasArray()) {
+        size = ICompressor.ZSTDCompressor.checkResult(Zstd.decompressByteArray(
+            uncompressed.array(), uncompressed.arrayOffset() + uncompressed.position(),
+            uncompressed.remaining(), compressed.array(),
+            compressed.arrayOffset() + compressed.position(), compressed.remaining()));
+      } else {
+        throw new IOException("ZSTDUnCompressor does not support a DirectByteBuffer together "
+            + "with a heap ByteBuffer");
+      }
+      uncompressed.limit(uncompressed.position() + size);
+      return size;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
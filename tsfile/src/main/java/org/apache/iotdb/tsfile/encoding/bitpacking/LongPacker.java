@@ -115,6 +115,18 @@ public class LongPacker {
    * @param values - decoded result , the size of values should be 8
    */
   public void unpack8Values(byte[] buf, int offset, long[] values) {
+    unpack8Values(buf, offset, values, 0);
+  }
+
+  /**
+   * decode 8 values from byte array into 'values' from 'valuesOffset'.
+   *
+   * @param buf - array where bytes are in.
+   * @param offset - offset of first byte to be decoded in buf
+   * @param values - decoded result
+   * @param valuesOffset - index in 'values' of the first decoded value
+   */
+  public void unpack8Values(byte[] buf, int offset, long[] values, int valuesOffset) {
     int byteIdx = offset;
     int valueIdx = 0;
     // left bit(s) available for current byte in 'buf'
@@ -125,14 +137,14 @@ public class LongPacker {
     // decode long value one by one
     while (valueIdx < 8) {
       // set all the 64 bits in current value to '0'
-      values[valueIdx] = 0;
+      long value = 0;
       // read until 'totalBits' is equal to width
       while (totalBits < width) {
         // If 'leftBits' in current byte belongs to current long value
         if (width - totalBits >= leftBits) {
           // then put left bits in current byte to current long value
-          values[valueIdx] = values[valueIdx] << leftBits;
-          values[valueIdx] = values[valueIdx] | (((1L << leftBits) - 1) & buf[byteIdx]);
+          value = value << leftBits;
+          value = value | (((1L << leftBits) - 1) & buf[byteIdx]);
           totalBits += leftBits;
           // get next byte
           byteIdx++;
@@ -142,18 +154,17 @@ public class LongPacker {
         } else {
           // numbers of bits to be take
           int t = width - totalBits;
-          values[valueIdx] = values[valueIdx] << t;
-          values[valueIdx] = values[valueIdx]
-              | (((1L << leftBits) - 1) & buf[byteIdx]) >>> (leftBits - t);
+          value = value << t;
+          value = value | (((1L << leftBits) - 1) & buf[byteIdx]) >>> (leftBits - t);
           leftBits -= t;
           totalBits += t;
         }
       }
+      values[valuesOffset + valueIdx] = value;
       // Start to decode next long value
       valueIdx++;
       totalBits = 0;
     }
-
   }
 
   /**
@@ -168,12 +179,8 @@ public class LongPacker {
     int idx = 0;
     int k = 0;
     while (idx < length) {
-      long[] tv = new long[8];
-      // decode 8 values one time, current result will be saved in the array named 'tv'
-      unpack8Values(buf, idx, tv);
-      for (int i = 0; i < 8; i++) {
-        values[k + i] = tv[i];
-      }
+      // decode 8 values one time into their place in 'values'
+      unpack8Values(buf, idx, values, k);
       idx += width;
       k += 8;
     }
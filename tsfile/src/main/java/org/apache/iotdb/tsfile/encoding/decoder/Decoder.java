@@ -82,8 +82,18 @@ public abstract class Decoder {
           throw new TsFileDecodingException(
               "Decoder not found:" + type + " , DataType is :" + dataType);
       }
+    } else if (type == TSEncoding.PLAIN_DICTIONARY) {
+      if (dataType == TSDataType.TEXT) {
+        return new DictionaryDecoder();
+      }
+      throw new TsFileDecodingException(
+          "Decoder not found:" + type + " , DataType is :" + dataType);
     } else if (type == TSEncoding.GORILLA) {
       switch (dataType) {
+        case INT32:
+          return new IntGorillaDecoder();
+        case INT64:
+          return new LongGorillaDecoder();
         case FLOAT:
           return new SinglePrecisionDecoder();
         case DOUBLE:
@@ -130,6 +140,80 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supproted by Decoder");
   }
 
+  /**
+   * Decode at most len values into values from offset. The decoders override it to decode a batch
+   * without a virtual call per value.
+   *
+   * @return the number of values decoded, which is less than len only if the buffer has no more
+   * values
+   */
+  public int readBooleans(ByteBuffer buffer, boolean[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readBoolean(buffer);
+    }
+    return i;
+  }
+
+  /**
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int len) throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readInt(buffer);
+    }
+    return i;
+  }
+
+  /**
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int len) throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readLong(buffer);
+    }
+    return i;
+  }
+
+  /**
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readFloat(buffer);
+    }
+    return i;
+  }
+
+  /**
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readDouble(buffer);
+    }
+    return i;
+  }
+
+  /**
+   * @see #readBooleans(ByteBuffer, boolean[], int, int)
+   */
+  public int readBinaries(ByteBuffer buffer, Binary[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    while (i < len && hasNext(buffer)) {
+      values[offset + i++] = readBinary(buffer);
+    }
+    return i;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -114,6 +114,28 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    /**
+     * copy the decoded values of each pack at once.
+     */
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int len) {
+      int i = 0;
+      while (i < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + i++] = loadIntBatch(buffer);
+        } else {
+          int num = Math.min(len - i, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + i, num);
+          nextReadIndex += num;
+          i += num;
+        }
+      }
+      return i;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -231,6 +253,28 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    /**
+     * copy the decoded values of each pack at once.
+     */
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int len) {
+      int i = 0;
+      while (i < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          values[offset + i++] = loadIntBatch(buffer);
+        } else {
+          int num = Math.min(len - i, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + i, num);
+          nextReadIndex += num;
+          i += num;
+        }
+      }
+      return i;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
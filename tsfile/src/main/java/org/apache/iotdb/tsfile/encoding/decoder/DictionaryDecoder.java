@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.common.EndianType;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+/**
+ * Decoder for TEXT values encoded by {@link DictionaryEncoder}. The values of a page in dictionary
+ * mode are the entries of its dictionary, so each distinct value is deserialized once per page.
+ */
+public class DictionaryDecoder extends Decoder {
+
+  /**
+   * whether the mode and dictionary of the current page have been read.
+   */
+  private boolean isHeaderRead = false;
+  private boolean isPlain = false;
+  private Binary[] entries;
+
+  private IntRleDecoder idDecoder = new IntRleDecoder(EndianType.LITTLE_ENDIAN);
+  private PlainDecoder plainDecoder = new PlainDecoder(EndianType.LITTLE_ENDIAN);
+  /**
+   * the ids of the last batch, reused by the following batches.
+   */
+  private int[] ids;
+
+  public DictionaryDecoder() {
+    super(TSEncoding.PLAIN_DICTIONARY);
+  }
+
+  private void readHeader(ByteBuffer buffer) {
+    byte mode = buffer.get();
+    if (mode == DictionaryEncoder.PLAIN_MODE) {
+      isPlain = true;
+    } else if (mode == DictionaryEncoder.DICTIONARY_MODE) {
+      isPlain = false;
+      int entryNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+      entries = new Binary[entryNum];
+      for (int i = 0; i < entryNum; i++) {
+        byte[] bytes = new byte[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+        buffer.get(bytes);
+        entries[i] = new Binary(bytes);
+      }
+    } else {
+      throw new TsFileDecodingException(
+          String.format("tsfile-encoding DictionaryDecoder: unknown mode %d", mode));
+    }
+    isHeaderRead = true;
+  }
+
+  @Override
+  public Binary readBinary(ByteBuffer buffer) {
+    if (!isHeaderRead) {
+      readHeader(buffer);
+    }
+    if (isPlain) {
+      return plainDecoder.readBinary(buffer);
+    }
+    return entries[idDecoder.readInt(buffer)];
+  }
+
+  @Override
+  public int readBinaries(ByteBuffer buffer, Binary[] values, int offset, int len)
+      throws IOException {
+    if (!hasNext(buffer)) {
+      return 0;
+    }
+    if (!isHeaderRead) {
+      readHeader(buffer);
+    }
+    if (isPlain) {
+      return plainDecoder.readBinaries(buffer, values, offset, len);
+    }
+    if (ids == null || ids.length < len) {
+      ids = new int[len];
+    }
+    int num = idDecoder.readInts(buffer, ids, 0, len);
+    for (int i = 0; i < num; i++) {
+      values[offset + i] = entries[ids[i]];
+    }
+    return num;
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) throws IOException {
+    if (!isHeaderRead || isPlain) {
+      return buffer.remaining() > 0;
+    }
+    return idDecoder.hasNext(buffer);
+  }
+
+  @Override
+  public void reset() {
+    isHeaderRead = false;
+    isPlain = false;
+    entries = null;
+    idDecoder.reset();
+  }
+}
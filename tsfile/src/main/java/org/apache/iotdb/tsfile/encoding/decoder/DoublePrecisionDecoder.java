@@ -73,6 +73,24 @@ public class DoublePrecisionDecoder extends GorillaDecoder {
     return Double.NaN;
   }
 
+  /**
+   * the values after the first one are decoded in a loop without the checks of a single read.
+   */
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    if (!flag && len > 0 && hasNext(buffer)) {
+      values[offset + i++] = readDouble(buffer);
+    }
+    // the stream ends at the NaN written by the encoder, other streams may follow it
+    while (i < len && !isEnd) {
+      values[offset + i++] = Double.longBitsToDouble(preValue);
+      getNextValue(buffer);
+    }
+    return i;
+  }
+
   /**
    * check whether there is any value to encode left.
    *
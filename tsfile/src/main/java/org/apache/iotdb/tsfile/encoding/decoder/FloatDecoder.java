@@ -50,6 +50,12 @@ public class FloatDecoder extends Decoder {
    */
   private boolean isMaxPointNumberRead;
 
+  /**
+   * the encoded values of the last batch, reused by the following batches.
+   */
+  private int[] intValues;
+  private long[] longValues;
+
   public FloatDecoder(TSEncoding encodingType, TSDataType dataType) {
     super(encodingType);
     if (encodingType == TSEncoding.RLE) {
@@ -96,6 +102,40 @@ public class FloatDecoder extends Decoder {
     return value / maxPointValue;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int len)
+      throws IOException {
+    if (len == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (intValues == null || intValues.length < len) {
+      intValues = new int[len];
+    }
+    int num = decoder.readInts(buffer, intValues, 0, len);
+    for (int i = 0; i < num; i++) {
+      values[offset + i] = (float) (intValues[i] / maxPointValue);
+    }
+    return num;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int len)
+      throws IOException {
+    if (len == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    if (longValues == null || longValues.length < len) {
+      longValues = new long[len];
+    }
+    int num = decoder.readLongs(buffer, longValues, 0, len);
+    for (int i = 0; i < num; i++) {
+      values[offset + i] = longValues[i] / maxPointValue;
+    }
+    return num;
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
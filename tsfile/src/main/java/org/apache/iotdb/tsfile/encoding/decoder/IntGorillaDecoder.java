@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decoder for int value encoded by {@link IntGorillaEncoder}.
+ */
+public class IntGorillaDecoder extends GorillaDecoder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IntGorillaDecoder.class);
+  private int preValue;
+  private int preDelta;
+
+  public IntGorillaDecoder() {
+    //do nothing
+  }
+
+  @Override
+  public int readInt(ByteBuffer buffer) {
+    try {
+      if (!flag) {
+        flag = true;
+        preValue = 0;
+        for (int i = 0; i < 4; i++) {
+          preValue |= ReadWriteIOUtils.read(buffer) << (i * 8);
+        }
+        preDelta = 0;
+      }
+      int tmp = preValue;
+      getNextValue(buffer);
+      return tmp;
+    } catch (IOException e) {
+      LOGGER.error("IntGorillaDecoder cannot read int number", e);
+    }
+    return 0;
+  }
+
+  /**
+   * the values after the first one are decoded in a loop without the checks of a single read.
+   */
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    if (!flag && len > 0 && hasNext(buffer)) {
+      values[offset + i++] = readInt(buffer);
+    }
+    while (i < len && !isEnd) {
+      values[offset + i++] = preValue;
+      getNextValue(buffer);
+    }
+    return i;
+  }
+
+  @Override
+  public boolean hasNext(ByteBuffer buffer) throws IOException {
+    if (!flag) {
+      return buffer.remaining() > 0;
+    }
+    // the stream ends at '11111', other streams may follow it
+    return !isEnd;
+  }
+
+  /**
+   * read the control code and the delta of delta of the next value.
+   *
+   * @param buffer stream to read
+   * @throws IOException cannot read from stream
+   */
+  private void getNextValue(ByteBuffer buffer) throws IOException {
+    // the number of '1' before the first '0' of the control code
+    int code = 0;
+    while (code < 5 && readBit(buffer)) {
+      code++;
+    }
+    int deltaOfDelta;
+    switch (code) {
+      case 0:
+        deltaOfDelta = 0;
+        break;
+      case 1:
+        deltaOfDelta = readSigned(buffer, TSFileConfig.DELTA_OF_DELTA_SHORT_LENGTH);
+        break;
+      case 2:
+        deltaOfDelta = readSigned(buffer, TSFileConfig.DELTA_OF_DELTA_MEDIUM_LENGTH);
+        break;
+      case 3:
+        deltaOfDelta = readSigned(buffer, TSFileConfig.DELTA_OF_DELTA_LONG_LENGTH);
+        break;
+      case 4:
+        deltaOfDelta = readIntFromStream(buffer, Integer.SIZE);
+        break;
+      default:
+        isEnd = true;
+        return;
+    }
+    preDelta += deltaOfDelta;
+    preValue += preDelta;
+  }
+
+  /**
+   * read a two's complement number of the given bits.
+   */
+  private int readSigned(ByteBuffer buffer, int len) throws IOException {
+    int value = readIntFromStream(buffer, len);
+    return (value << (Integer.SIZE - len)) >> (Integer.SIZE - len);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.encoding.bitpacking.IntPacker;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
@@ -104,6 +105,45 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  /**
+   * fill the repeated value or copy the bit-packed values of each group at once.
+   */
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int len) {
+    int i = 0;
+    while (i < len) {
+      if (!isLengthAndBitWidthReaded) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        try {
+          readNext();
+        } catch (IOException e) {
+          LOGGER.error(
+              "tsfile-encoding IntRleDecoder: error occurs when reading all encoding number,"
+                  + " length is {}, bit width is {}",
+              length, bitWidth, e);
+        }
+      }
+      int num = Math.min(len - i, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(values, offset + i, offset + i + num, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + i, num);
+      }
+      currentCount -= num;
+      i += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return i;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
@@ -117,7 +157,11 @@ public class IntRleDecoder extends RleDecoder {
 
   @Override
   protected void readBitPackingBuffer(int bitPackedGroupCount, int lastBitPackedNum) {
-    currentBuffer = new int[bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM];
+    // the buffer is reused by the following groups
+    int valueNum = bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM;
+    if (currentBuffer == null || currentBuffer.length < valueNum) {
+      currentBuffer = new int[valueNum];
+    }
     byte[] bytes = new byte[bitPackedGroupCount * bitWidth];
     int bytesToRead = bitPackedGroupCount * bitWidth;
     bytesToRead = Math.min(bytesToRead, byteCache.remaining());
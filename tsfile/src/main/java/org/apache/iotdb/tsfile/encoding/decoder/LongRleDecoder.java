@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
@@ -99,6 +100,45 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  /**
+   * fill the repeated value or copy the bit-packed values of each group at once.
+   */
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int len) {
+    int i = 0;
+    while (i < len) {
+      if (!isLengthAndBitWidthReaded) {
+        if (!buffer.hasRemaining()) {
+          break;
+        }
+        // start to read a new rle+bit-packing pattern
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        try {
+          readNext();
+        } catch (IOException e) {
+          LOGGER.error(
+              "tsfile-encoding LongRleDecoder: error occurs when reading all encoding number,"
+                  + " length is {}, bit width is {}",
+              length, bitWidth, e);
+        }
+      }
+      int num = Math.min(len - i, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(values, offset + i, offset + i + num, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + i, num);
+      }
+      currentCount -= num;
+      i += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return i;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
@@ -113,7 +153,11 @@ public class LongRleDecoder extends RleDecoder {
   @Override
   protected void readBitPackingBuffer(int bitPackedGroupCount, int lastBitPackedNum)
       throws IOException {
-    currentBuffer = new long[bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM];
+    // the buffer is reused by the following groups
+    int valueNum = bitPackedGroupCount * TSFileConfig.RLE_MIN_REPEATED_NUM;
+    if (currentBuffer == null || currentBuffer.length < valueNum) {
+      currentBuffer = new long[valueNum];
+    }
     byte[] bytes = new byte[bitPackedGroupCount * bitWidth];
     int bytesToRead = bitPackedGroupCount * bitWidth;
     bytesToRead = Math.min(bytesToRead, byteCache.remaining());
@@ -123,4 +167,4 @@ public class LongRleDecoder extends RleDecoder {
     packer.unpackAllValues(bytes, bytesToRead, currentBuffer);
   }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -69,6 +69,24 @@ public class SinglePrecisionDecoder extends GorillaDecoder {
     return Float.NaN;
   }
 
+  /**
+   * the values after the first one are decoded in a loop without the checks of a single read.
+   */
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int len)
+      throws IOException {
+    int i = 0;
+    if (!flag && len > 0 && hasNext(buffer)) {
+      values[offset + i++] = readFloat(buffer);
+    }
+    // the stream ends at the NaN written by the encoder, other streams may follow it
+    while (i < len && !isEnd) {
+      values[offset + i++] = Float.intBitsToFloat(preValue);
+      getNextValue(buffer);
+    }
+    return i;
+  }
+
   /**
    * check whether there is any value to encode left.
    *
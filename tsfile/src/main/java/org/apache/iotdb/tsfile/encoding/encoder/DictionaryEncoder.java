@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.encoding.common.EndianType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+/**
+ * Encoder for TEXT values using a dictionary of the distinct values of a page. A page is encoded as
+ * {@code <mode> <encoded-data>}. In {@link #DICTIONARY_MODE}, the encoded data is the number of
+ * entries (unsigned var int), the entries, each of which is its length (unsigned var int) followed
+ * by its bytes, and the ids of the values in the dictionary encoded by {@link IntRleEncoder}. If
+ * the entries of a page exceed the max dictionary size, the page falls back to {@link #PLAIN_MODE},
+ * where the values are encoded by {@link PlainEncoder}.
+ */
+public class DictionaryEncoder extends Encoder {
+
+  public static final byte DICTIONARY_MODE = 0;
+  public static final byte PLAIN_MODE = 1;
+
+  /**
+   * max size in byte of the entries of a page.
+   */
+  private int maxDictionarySize;
+
+  private Map<Binary, Integer> entryIds = new HashMap<>();
+  private List<Binary> entries = new ArrayList<>();
+  /**
+   * size in byte of the encoded entries.
+   */
+  private int dictionarySize = 0;
+
+  private int[] ids = new int[TSFileConfig.DYNAMIC_DATA_SIZE];
+  private int idNum = 0;
+
+  /**
+   * whether the current page falls back to PLAIN_MODE.
+   */
+  private boolean isPlain = false;
+
+  private IntRleEncoder idEncoder = new IntRleEncoder(EndianType.LITTLE_ENDIAN);
+  private PlainEncoder plainEncoder;
+
+  public DictionaryEncoder(int maxStringLength, int maxDictionarySize) {
+    super(TSEncoding.PLAIN_DICTIONARY);
+    this.maxDictionarySize = maxDictionarySize;
+    this.plainEncoder = new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.TEXT,
+        maxStringLength);
+  }
+
+  @Override
+  public void encode(Binary value, ByteArrayOutputStream out) throws IOException {
+    if (isPlain) {
+      plainEncoder.encode(value, out);
+      return;
+    }
+    Integer id = entryIds.get(value);
+    if (id == null) {
+      int entrySize = getVarIntSize(value.getLength()) + value.getLength();
+      if (dictionarySize + entrySize > maxDictionarySize) {
+        fallBackToPlain(out);
+        plainEncoder.encode(value, out);
+        return;
+      }
+      id = entries.size();
+      entries.add(value);
+      entryIds.put(value, id);
+      dictionarySize += entrySize;
+    }
+    if (idNum == ids.length) {
+      ids = Arrays.copyOf(ids, ids.length * 2);
+    }
+    ids[idNum++] = id;
+  }
+
+  /**
+   * Write the values of the page before, which are not written yet, in PLAIN_MODE.
+   */
+  private void fallBackToPlain(ByteArrayOutputStream out) {
+    out.write(PLAIN_MODE);
+    for (int i = 0; i < idNum; i++) {
+      plainEncoder.encode(entries.get(ids[i]), out);
+    }
+    clearDictionary();
+    isPlain = true;
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (!isPlain && idNum > 0) {
+      out.write(DICTIONARY_MODE);
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(entries.size(), out);
+      for (Binary entry : entries) {
+        ReadWriteForEncodingUtils.writeUnsignedVarInt(entry.getLength(), out);
+        out.write(entry.getValues());
+      }
+      for (int i = 0; i < idNum; i++) {
+        idEncoder.encode(ids[i], out);
+      }
+      idEncoder.flush(out);
+    }
+    clearDictionary();
+    isPlain = false;
+  }
+
+  private void clearDictionary() {
+    entryIds.clear();
+    entries.clear();
+    dictionarySize = 0;
+    idNum = 0;
+  }
+
+  private static int getVarIntSize(int value) {
+    int size = 1;
+    while ((value & 0xFFFFFF80) != 0L) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // a new entry and its id
+    return plainEncoder.getOneItemMaxSize() + Integer.BYTES;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    if (isPlain) {
+      return 0;
+    }
+    // mode + entry number + entries + ids like IntRleEncoder
+    int groupNum = (idNum / 8 + 1) / 63 + 1;
+    return 1 + 5 + dictionarySize + 8 + groupNum * 5 + (long) idNum * 4;
+  }
+}
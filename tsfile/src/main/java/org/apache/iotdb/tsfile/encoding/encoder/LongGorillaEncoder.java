@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+
+/**
+ * Encoder for long value using the delta of delta encoding of gorilla, which suits timestamps and
+ * counters increasing at a fixed rate. The first value is written in 8 bytes, then each value is
+ * written as the difference between its delta and the delta before it:
+ * <ul>
+ * <li>'0' if the delta of delta is 0,</li>
+ * <li>'10', '110' or '1110' and the delta of delta in 7, 9 or 12 bits if it fits,</li>
+ * <li>'11110' and the delta of delta in 64 bits otherwise.</li>
+ * </ul>
+ * The stream ends with '11111'.
+ */
+public class LongGorillaEncoder extends GorillaEncoder {
+
+  private long preValue;
+  private long preDelta;
+
+  public LongGorillaEncoder() {
+    //allowed do nothing
+  }
+
+  @Override
+  public void encode(long value, ByteArrayOutputStream out) throws IOException {
+    if (!flag) {
+      // case: write first 8 byte value without any encoding
+      flag = true;
+      preValue = value;
+      preDelta = 0;
+      for (int i = 0; i < 8; i++) {
+        out.write((int) ((value >> (i * 8)) & 0xFF));
+      }
+      return;
+    }
+    long delta = value - preValue;
+    long deltaOfDelta = delta - preDelta;
+    if (deltaOfDelta == 0) {
+      // case: write '0'
+      writeBit(false, out);
+    } else if (fits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_SHORT_LENGTH)) {
+      writeBits(0b10, 2, out);
+      writeBits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_SHORT_LENGTH, out);
+    } else if (fits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_MEDIUM_LENGTH)) {
+      writeBits(0b110, 3, out);
+      writeBits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_MEDIUM_LENGTH, out);
+    } else if (fits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_LONG_LENGTH)) {
+      writeBits(0b1110, 4, out);
+      writeBits(deltaOfDelta, TSFileConfig.DELTA_OF_DELTA_LONG_LENGTH, out);
+    } else {
+      writeBits(0b11110, 5, out);
+      writeBits(deltaOfDelta, Long.SIZE, out);
+    }
+    preDelta = delta;
+    preValue = value;
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (flag) {
+      // case: write '11111' to end the stream
+      writeBits(0b11111, 5, out);
+      clearBuffer(out);
+    }
+    reset();
+  }
+
+  /**
+   * whether the value fits in a two's complement number of the given bits.
+   */
+  private static boolean fits(long value, int bits) {
+    return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+  }
+
+  /**
+   * write the lowest len bits of the value from the highest one.
+   */
+  private void writeBits(long value, int len, ByteArrayOutputStream out) {
+    for (int i = len - 1; i >= 0; i--) {
+      writeBit((value >>> i) & 1, out);
+    }
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // max(first 8 byte, case '11110' 5bit + 64bit = 69bit)
+    return 9;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    // at most 7 bits in the buffer + '11111'
+    return 2;
+  }
+}
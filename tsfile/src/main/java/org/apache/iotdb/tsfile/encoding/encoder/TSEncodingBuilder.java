@@ -56,6 +56,8 @@ public abstract class TSEncodingBuilder {
     switch (type) {
       case PLAIN:
         return new PLAIN();
+      case PLAIN_DICTIONARY:
+        return new PLAIN_DICTIONARY();
       case RLE:
         return new RLE();
       case TS_2DIFF:
@@ -119,6 +121,39 @@ public abstract class TSEncodingBuilder {
     }
   }
 
+  /**
+   * for TEXT.
+   */
+  public static class PLAIN_DICTIONARY extends TSEncodingBuilder {
+
+    private int maxStringLength = TSFileConfig.maxStringLength;
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      if (type == TSDataType.TEXT) {
+        return new DictionaryEncoder(maxStringLength, TSFileConfig.maxDictionarySize);
+      }
+      throw new UnSupportedDataTypeException(
+          "PLAIN_DICTIONARY doesn't support data type: " + type);
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // set max string length from initialized map or default value if not set
+      if (props == null || !props.containsKey(Encoder.MAX_STRING_LENGTH)) {
+        maxStringLength = TSFileConfig.maxStringLength;
+      } else {
+        maxStringLength = Integer.valueOf(props.get(Encoder.MAX_STRING_LENGTH));
+        if (maxStringLength < 0) {
+          maxStringLength = TSFileConfig.maxStringLength;
+          LOGGER.warn(
+              "cannot set max string length to negative value, replaced with default value:{}",
+              maxStringLength);
+        }
+      }
+    }
+  }
+
   /**
    * for ENUMS, INT32, BOOLEAN, INT64, FLOAT, DOUBLE.
    */
@@ -225,6 +260,10 @@ public abstract class TSEncodingBuilder {
     @Override
     public Encoder getEncoder(TSDataType type) {
       switch (type) {
+        case INT32:
+          return new IntGorillaEncoder();
+        case INT64:
+          return new LongGorillaEncoder();
         case FLOAT:
           return new SinglePrecisionEncoder();
         case DOUBLE:
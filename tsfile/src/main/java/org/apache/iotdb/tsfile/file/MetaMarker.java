@@ -29,6 +29,11 @@ public class MetaMarker {
   public static final byte CHUNK_GROUP_FOOTER = 0;
   public static final byte CHUNK_HEADER = 1;
   public static final byte SEPARATOR = 2;
+  /**
+   * the marker of the version after the head magic string, which is absent in the files of
+   * TSFileConfig.BASE_VERSION.
+   */
+  public static final byte VERSION = 3;
 
   private MetaMarker() {
   }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -39,6 +40,7 @@ public class ChunkHeader {
   private TSDataType dataType;
   private CompressionType compressionType;
   private TSEncoding encodingType;
+  private TSEncoding timeEncodingType;
   private int numOfPages;
   /**
    * The maximum time of the tombstones that take effect on this chunk. Only data with larger
@@ -52,29 +54,54 @@ public class ChunkHeader {
   public ChunkHeader(String measurementID, int dataSize, TSDataType dataType,
       CompressionType compressionType,
       TSEncoding encoding, int numOfPages) {
-    this(measurementID, dataSize, dataType, compressionType, encoding, numOfPages, 0);
+    this(measurementID, dataSize, dataType, compressionType, encoding,
+        TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder), numOfPages);
+  }
+
+  public ChunkHeader(String measurementID, int dataSize, TSDataType dataType,
+      CompressionType compressionType, TSEncoding encoding, TSEncoding timeEncoding,
+      int numOfPages) {
+    this(measurementID, dataSize, dataType, compressionType, encoding, timeEncoding, numOfPages,
+        0, TSFileConfig.CURRENT_VERSION);
   }
 
   private ChunkHeader(String measurementID, int dataSize, TSDataType dataType,
       CompressionType compressionType,
-      TSEncoding encoding, int numOfPages, long maxTombstoneTime) {
+      TSEncoding encoding, TSEncoding timeEncoding, int numOfPages, long maxTombstoneTime,
+      int version) {
     this.measurementID = measurementID;
     this.dataSize = dataSize;
     this.dataType = dataType;
     this.compressionType = compressionType;
     this.numOfPages = numOfPages;
     this.encodingType = encoding;
-    this.serializedSize = getSerializedSize(measurementID);
+    this.timeEncodingType = timeEncoding;
+    this.serializedSize = getSerializedSize(measurementID, version);
     this.maxTombstoneTime = maxTombstoneTime;
   }
 
   public static int getSerializedSize(String measurementID) {
-    return Byte.BYTES + Integer.BYTES + getSerializedSize(measurementID.length());
+    return getSerializedSize(measurementID, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * get the serialized size of a header in a file of the given version.
+   */
+  public static int getSerializedSize(String measurementID, int version) {
+    return Byte.BYTES + Integer.BYTES + getSerializedSize(measurementID.length(), version);
   }
 
-  private static int getSerializedSize(int measurementIdLength) {
+  private static int getSerializedSize(int measurementIdLength, int version) {
     return measurementIdLength + Integer.BYTES + TSDataType.getSerializedSize() + Integer.BYTES
-        + CompressionType.getSerializedSize() + TSEncoding.getSerializedSize() + Long.BYTES;
+        + CompressionType.getSerializedSize()
+        + (hasTimeEncoding(version) ? 2 : 1) * TSEncoding.getSerializedSize() + Long.BYTES;
+  }
+
+  /**
+   * whether the headers in a file of the given version record the encoding of timestamps.
+   */
+  private static boolean hasTimeEncoding(int version) {
+    return version >= TSFileConfig.TIME_ENCODING_VERSION;
   }
 
   /**
@@ -84,6 +111,17 @@ public class ChunkHeader {
    */
   public static ChunkHeader deserializeFrom(InputStream inputStream, boolean markerRead)
       throws IOException {
+    return deserializeFrom(inputStream, markerRead, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from inputStream.
+   *
+   * @param markerRead Whether the marker of the CHUNK_HEADER has been read
+   * @param version the version of the file which contains the header
+   */
+  public static ChunkHeader deserializeFrom(InputStream inputStream, boolean markerRead,
+      int version) throws IOException {
     if (!markerRead) {
       byte marker = (byte) inputStream.read();
       if (marker != MARKER) {
@@ -97,9 +135,11 @@ public class ChunkHeader {
     int numOfPages = ReadWriteIOUtils.readInt(inputStream);
     CompressionType type = ReadWriteIOUtils.readCompressionType(inputStream);
     TSEncoding encoding = ReadWriteIOUtils.readEncoding(inputStream);
+    TSEncoding timeEncoding = hasTimeEncoding(version) ? ReadWriteIOUtils.readEncoding(inputStream)
+        : TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder);
     long maxTombstoneTime = ReadWriteIOUtils.readLong(inputStream);
-    return new ChunkHeader(measurementID, dataSize, dataType, type, encoding, numOfPages,
-        maxTombstoneTime);
+    return new ChunkHeader(measurementID, dataSize, dataType, type, encoding, timeEncoding,
+        numOfPages, maxTombstoneTime, version);
   }
 
   /**
@@ -112,6 +152,20 @@ public class ChunkHeader {
    */
   public static ChunkHeader deserializeFrom(ByteBuffer byteBuffer, boolean markerRead)
       throws IOException {
+    return deserializeFrom(byteBuffer, markerRead, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from ByteBuffer.
+   *
+   * @param byteBuffer ByteBuffer
+   * @param markerRead read marker (boolean type)
+   * @param version the version of the file which contains the header
+   * @return CHUNK_HEADER object
+   * @throws IOException IOException
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer byteBuffer, boolean markerRead,
+      int version) throws IOException {
     if (!markerRead) {
       byte marker = byteBuffer.get();
       if (marker != MARKER) {
@@ -120,7 +174,7 @@ public class ChunkHeader {
     }
 
     String measurementID = ReadWriteIOUtils.readString(byteBuffer);
-    return deserializePartFrom(measurementID, byteBuffer);
+    return deserializePartFrom(measurementID, byteBuffer, version);
   }
 
   /**
@@ -134,6 +188,21 @@ public class ChunkHeader {
    */
   public static ChunkHeader deserializeFrom(TsFileInput input, long offset, boolean markerRead)
       throws IOException {
+    return deserializeFrom(input, offset, markerRead, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from TsFileInput.
+   *
+   * @param input TsFileInput
+   * @param offset offset
+   * @param markerRead read marker (boolean type)
+   * @param version the version of the file which contains the header
+   * @return CHUNK_HEADER object
+   * @throws IOException IOException
+   */
+  public static ChunkHeader deserializeFrom(TsFileInput input, long offset, boolean markerRead,
+      int version) throws IOException {
     long offsetVar = offset;
     if (!markerRead) {
       offsetVar++;
@@ -143,22 +212,25 @@ public class ChunkHeader {
     buffer.flip();
     int size = buffer.getInt();
     offsetVar += Integer.BYTES;
-    buffer = ByteBuffer.allocate(getSerializedSize(size));
+    buffer = ByteBuffer.allocate(getSerializedSize(size, version));
     ReadWriteIOUtils.readAsPossible(input, offsetVar, buffer);
     buffer.flip();
     String measurementID = ReadWriteIOUtils.readStringWithoutLength(buffer, size);
-    return deserializePartFrom(measurementID, buffer);
+    return deserializePartFrom(measurementID, buffer, version);
   }
 
-  private static ChunkHeader deserializePartFrom(String measurementID, ByteBuffer buffer) {
+  private static ChunkHeader deserializePartFrom(String measurementID, ByteBuffer buffer,
+      int version) {
     int dataSize = ReadWriteIOUtils.readInt(buffer);
     TSDataType dataType = TSDataType.deserialize(ReadWriteIOUtils.readShort(buffer));
     int numOfPages = ReadWriteIOUtils.readInt(buffer);
     CompressionType type = ReadWriteIOUtils.readCompressionType(buffer);
     TSEncoding encoding = ReadWriteIOUtils.readEncoding(buffer);
+    TSEncoding timeEncoding = hasTimeEncoding(version) ? ReadWriteIOUtils.readEncoding(buffer)
+        : TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder);
     long maxTombstoneTime = ReadWriteIOUtils.readLong(buffer);
-    return new ChunkHeader(measurementID, dataSize, dataType, type, encoding, numOfPages,
-        maxTombstoneTime);
+    return new ChunkHeader(measurementID, dataSize, dataType, type, encoding, timeEncoding,
+        numOfPages, maxTombstoneTime, version);
   }
 
   public int getSerializedSize() {
@@ -185,6 +257,18 @@ public class ChunkHeader {
    * @throws IOException IOException
    */
   public int serializeTo(OutputStream outputStream) throws IOException {
+    return serializeTo(outputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * serialize to outputStream in the layout of the given version.
+   *
+   * @param outputStream outputStream
+   * @param version the version of the file which contains the header
+   * @return length
+   * @throws IOException IOException
+   */
+  public int serializeTo(OutputStream outputStream, int version) throws IOException {
     int length = 0;
     length += ReadWriteIOUtils.write(MetaMarker.CHUNK_HEADER, outputStream);
     length += ReadWriteIOUtils.write(measurementID, outputStream);
@@ -193,6 +277,9 @@ public class ChunkHeader {
     length += ReadWriteIOUtils.write(numOfPages, outputStream);
     length += ReadWriteIOUtils.write(compressionType, outputStream);
     length += ReadWriteIOUtils.write(encodingType, outputStream);
+    if (hasTimeEncoding(version)) {
+      length += ReadWriteIOUtils.write(timeEncodingType, outputStream);
+    }
     length += ReadWriteIOUtils.write(maxTombstoneTime, outputStream);
     return length;
   }
@@ -212,6 +299,7 @@ public class ChunkHeader {
     length += ReadWriteIOUtils.write(numOfPages, buffer);
     length += ReadWriteIOUtils.write(compressionType, buffer);
     length += ReadWriteIOUtils.write(encodingType, buffer);
+    length += ReadWriteIOUtils.write(timeEncodingType, buffer);
     length += ReadWriteIOUtils.write(maxTombstoneTime, buffer);
     return length;
   }
@@ -228,6 +316,10 @@ public class ChunkHeader {
     return encodingType;
   }
 
+  public TSEncoding getTimeEncodingType() {
+    return timeEncodingType;
+  }
+
   public long getMaxTombstoneTime() {
     return maxTombstoneTime;
   }
@@ -241,7 +333,7 @@ public class ChunkHeader {
     return "CHUNK_HEADER{" + "measurementID='" + measurementID + '\'' + ", dataSize=" + dataSize
         + ", dataType="
         + dataType + ", compressionType=" + compressionType + ", encodingType=" + encodingType
-        + ", numOfPages="
+        + ", timeEncodingType=" + timeEncodingType + ", numOfPages="
         + numOfPages + ", serializedSize=" + serializedSize + '}';
   }
 }
@@ -26,6 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 /**
@@ -94,6 +95,19 @@ public class ChunkGroupMetaData {
    * @throws IOException IOException
    */
   public static ChunkGroupMetaData deserializeFrom(InputStream inputStream) throws IOException {
+    return deserializeFrom(inputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from InputStream.
+   *
+   * @param inputStream inputStream
+   * @param fileVersion the version of the file which contains the metadata
+   * @return ChunkGroupMetaData object
+   * @throws IOException IOException
+   */
+  public static ChunkGroupMetaData deserializeFrom(InputStream inputStream, int fileVersion)
+      throws IOException {
     ChunkGroupMetaData chunkGroupMetaData = new ChunkGroupMetaData();
 
     chunkGroupMetaData.deviceID = ReadWriteIOUtils.readString(inputStream);
@@ -108,7 +122,7 @@ public class ChunkGroupMetaData {
     List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
 
     for (int i = 0; i < size; i++) {
-      ChunkMetaData metaData = ChunkMetaData.deserializeFrom(inputStream);
+      ChunkMetaData metaData = ChunkMetaData.deserializeFrom(inputStream, fileVersion);
       chunkMetaDataList.add(metaData);
       chunkGroupMetaData.serializedSize += metaData.getSerializedSize();
     }
@@ -124,6 +138,17 @@ public class ChunkGroupMetaData {
    * @return ChunkGroupMetaData object
    */
   public static ChunkGroupMetaData deserializeFrom(ByteBuffer buffer) {
+    return deserializeFrom(buffer, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from ByteBuffer.
+   *
+   * @param buffer ByteBuffer
+   * @param fileVersion the version of the file which contains the metadata
+   * @return ChunkGroupMetaData object
+   */
+  public static ChunkGroupMetaData deserializeFrom(ByteBuffer buffer, int fileVersion) {
     ChunkGroupMetaData chunkGroupMetaData = new ChunkGroupMetaData();
 
     chunkGroupMetaData.deviceID = ReadWriteIOUtils.readString(buffer);
@@ -138,7 +163,7 @@ public class ChunkGroupMetaData {
 
     List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
     for (int i = 0; i < size; i++) {
-      ChunkMetaData metaData = ChunkMetaData.deserializeFrom(buffer);
+      ChunkMetaData metaData = ChunkMetaData.deserializeFrom(buffer, fileVersion);
       chunkMetaDataList.add(metaData);
       chunkGroupMetaData.serializedSize += metaData.getSerializedSize();
     }
@@ -213,6 +238,18 @@ public class ChunkGroupMetaData {
    * @throws IOException IOException
    */
   public int serializeTo(OutputStream outputStream) throws IOException {
+    return serializeTo(outputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * serialize to outputStream in the layout of the given version.
+   *
+   * @param outputStream outputStream
+   * @param fileVersion the version of the file which contains the metadata
+   * @return byte length
+   * @throws IOException IOException
+   */
+  public int serializeTo(OutputStream outputStream, int fileVersion) throws IOException {
     int byteLen = 0;
     byteLen += ReadWriteIOUtils.write(deviceID, outputStream);
     byteLen += ReadWriteIOUtils.write(startOffsetOfChunkGroup, outputStream);
@@ -221,7 +258,7 @@ public class ChunkGroupMetaData {
 
     byteLen += ReadWriteIOUtils.write(chunkMetaDataList.size(), outputStream);
     for (ChunkMetaData chunkMetaData : chunkMetaDataList) {
-      byteLen += chunkMetaData.serializeTo(outputStream);
+      byteLen += chunkMetaData.serializeTo(outputStream, fileVersion);
     }
     return byteLen;
   }
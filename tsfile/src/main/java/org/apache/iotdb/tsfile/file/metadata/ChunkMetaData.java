@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
@@ -60,6 +61,12 @@ public class ChunkMetaData {
 
   private TsDigest valuesStatistics;
 
+  /**
+   * time index of the pages, which is null if the chunk has one page or its pages are not ordered
+   * by time.
+   */
+  private PageIndex pageIndex;
+
   private ChunkMetaData() {
   }
 
@@ -89,6 +96,19 @@ public class ChunkMetaData {
    * @throws IOException IOException
    */
   public static ChunkMetaData deserializeFrom(InputStream inputStream) throws IOException {
+    return deserializeFrom(inputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from InputStream.
+   *
+   * @param inputStream InputStream
+   * @param fileVersion the version of the file which contains the metadata
+   * @return ChunkMetaData object
+   * @throws IOException IOException
+   */
+  public static ChunkMetaData deserializeFrom(InputStream inputStream, int fileVersion)
+      throws IOException {
     ChunkMetaData chunkMetaData = new ChunkMetaData();
 
     chunkMetaData.measurementUid = ReadWriteIOUtils.readString(inputStream);
@@ -102,6 +122,9 @@ public class ChunkMetaData {
     chunkMetaData.tsDataType = ReadWriteIOUtils.readDataType(inputStream);
 
     chunkMetaData.valuesStatistics = TsDigest.deserializeFrom(inputStream);
+    if (hasPageIndex(fileVersion)) {
+      chunkMetaData.pageIndex = PageIndex.deserializeFrom(inputStream);
+    }
 
     return chunkMetaData;
   }
@@ -113,6 +136,17 @@ public class ChunkMetaData {
    * @return ChunkMetaData object
    */
   public static ChunkMetaData deserializeFrom(ByteBuffer buffer) {
+    return deserializeFrom(buffer, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from ByteBuffer.
+   *
+   * @param buffer ByteBuffer
+   * @param fileVersion the version of the file which contains the metadata
+   * @return ChunkMetaData object
+   */
+  public static ChunkMetaData deserializeFrom(ByteBuffer buffer, int fileVersion) {
     ChunkMetaData chunkMetaData = new ChunkMetaData();
 
     chunkMetaData.measurementUid = ReadWriteIOUtils.readString(buffer);
@@ -123,10 +157,20 @@ public class ChunkMetaData {
     chunkMetaData.tsDataType = ReadWriteIOUtils.readDataType(buffer);
 
     chunkMetaData.valuesStatistics = TsDigest.deserializeFrom(buffer);
+    if (hasPageIndex(fileVersion)) {
+      chunkMetaData.pageIndex = PageIndex.deserializeFrom(buffer);
+    }
 
     return chunkMetaData;
   }
 
+  /**
+   * whether the metadata in a file of the given version is followed by the page index.
+   */
+  private static boolean hasPageIndex(int fileVersion) {
+    return fileVersion >= TSFileConfig.PAGE_INDEX_VERSION;
+  }
+
   /**
    * get serialized size.
    *
@@ -137,7 +181,8 @@ public class ChunkMetaData {
         4 * Long.BYTES + // 4 long: offsetOfChunkHeader, numOfPoints, startTime, endTime
         TSDataType.getSerializedSize() + // TSDataType
         (valuesStatistics == null ? TsDigest.getNullDigestSize()
-            : valuesStatistics.getSerializedSize());
+            : valuesStatistics.getSerializedSize()) +
+        (pageIndex == null ? PageIndex.getNullPageIndexSize() : pageIndex.getSerializedSize());
 
   }
 
@@ -176,6 +221,14 @@ public class ChunkMetaData {
 
   }
 
+  public PageIndex getPageIndex() {
+    return pageIndex;
+  }
+
+  public void setPageIndex(PageIndex pageIndex) {
+    this.pageIndex = pageIndex;
+  }
+
   public long getStartTime() {
     return startTime;
   }
@@ -208,6 +261,18 @@ public class ChunkMetaData {
    * @throws IOException IOException
    */
   public int serializeTo(OutputStream outputStream) throws IOException {
+    return serializeTo(outputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * serialize to outputStream in the layout of the given version.
+   *
+   * @param outputStream outputStream
+   * @param fileVersion the version of the file which contains the metadata
+   * @return length
+   * @throws IOException IOException
+   */
+  public int serializeTo(OutputStream outputStream, int fileVersion) throws IOException {
     int byteLen = 0;
 
     byteLen += ReadWriteIOUtils.write(measurementUid, outputStream);
@@ -222,6 +287,14 @@ public class ChunkMetaData {
     } else {
       byteLen += valuesStatistics.serializeTo(outputStream);
     }
+
+    if (hasPageIndex(fileVersion)) {
+      if (pageIndex == null) {
+        byteLen += PageIndex.serializeNullTo(outputStream);
+      } else {
+        byteLen += pageIndex.serializeTo(outputStream);
+      }
+    }
     return byteLen;
   }
 
@@ -232,6 +305,17 @@ public class ChunkMetaData {
    * @return length
    */
   public int serializeTo(ByteBuffer buffer) {
+    return serializeTo(buffer, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * serialize to ByteBuffer in the layout of the given version.
+   *
+   * @param buffer ByteBuffer
+   * @param fileVersion the version of the file which contains the metadata
+   * @return length
+   */
+  public int serializeTo(ByteBuffer buffer, int fileVersion) {
     int byteLen = 0;
 
     byteLen += ReadWriteIOUtils.write(measurementUid, buffer);
@@ -246,6 +330,14 @@ public class ChunkMetaData {
     } else {
       byteLen += valuesStatistics.serializeTo(buffer);
     }
+
+    if (hasPageIndex(fileVersion)) {
+      if (pageIndex == null) {
+        byteLen += PageIndex.serializeNullTo(buffer);
+      } else {
+        byteLen += pageIndex.serializeTo(buffer);
+      }
+    }
     return byteLen;
   }
 
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * Time index of the pages in a chunk, which records the start time, end time and offset of each
+ * page, so that a reader can jump to the pages of a time range without reading the headers of the
+ * others. The offset of a page is the position of its header relative to the start of the chunk
+ * data, and the statistics of a page are in its header. The pages must be ordered by time, i.e.,
+ * each page starts after the previous one ends.
+ */
+public class PageIndex {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private int pageNum;
+  private long[] startTimes;
+  private long[] endTimes;
+  private int[] offsets;
+
+  public PageIndex() {
+    this(INITIAL_CAPACITY);
+  }
+
+  private PageIndex(int capacity) {
+    startTimes = new long[capacity];
+    endTimes = new long[capacity];
+    offsets = new int[capacity];
+  }
+
+  /**
+   * @return the size of serializing an absent page index
+   */
+  public static int getNullPageIndexSize() {
+    return Integer.BYTES;
+  }
+
+  public static int serializeNullTo(OutputStream outputStream) throws IOException {
+    return ReadWriteIOUtils.write(0, outputStream);
+  }
+
+  public static int serializeNullTo(ByteBuffer buffer) {
+    return ReadWriteIOUtils.write(0, buffer);
+  }
+
+  /**
+   * use given input stream to deserialize.
+   *
+   * @param inputStream -given input stream
+   * @return -an instance of PageIndex, or null if the page index is absent
+   */
+  public static PageIndex deserializeFrom(InputStream inputStream) throws IOException {
+    int pageNum = ReadWriteIOUtils.readInt(inputStream);
+    if (pageNum <= 0) {
+      return null;
+    }
+    PageIndex pageIndex = new PageIndex(pageNum);
+    for (int i = 0; i < pageNum; i++) {
+      pageIndex.addPage(ReadWriteIOUtils.readLong(inputStream),
+          ReadWriteIOUtils.readLong(inputStream), ReadWriteIOUtils.readInt(inputStream));
+    }
+    return pageIndex;
+  }
+
+  /**
+   * use given buffer to deserialize.
+   *
+   * @param buffer -given buffer
+   * @return -an instance of PageIndex, or null if the page index is absent
+   */
+  public static PageIndex deserializeFrom(ByteBuffer buffer) {
+    int pageNum = ReadWriteIOUtils.readInt(buffer);
+    if (pageNum <= 0) {
+      return null;
+    }
+    PageIndex pageIndex = new PageIndex(pageNum);
+    for (int i = 0; i < pageNum; i++) {
+      pageIndex.addPage(ReadWriteIOUtils.readLong(buffer), ReadWriteIOUtils.readLong(buffer),
+          ReadWriteIOUtils.readInt(buffer));
+    }
+    return pageIndex;
+  }
+
+  /**
+   * add the next page of the chunk.
+   *
+   * @param startTime the min timestamp of the page
+   * @param endTime the max timestamp of the page
+   * @param offset the position of the page header relative to the start of the chunk data
+   */
+  public void addPage(long startTime, long endTime, int offset) {
+    if (pageNum == offsets.length) {
+      int capacity = Math.max(INITIAL_CAPACITY, pageNum * 2);
+      startTimes = Arrays.copyOf(startTimes, capacity);
+      endTimes = Arrays.copyOf(endTimes, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+    }
+    startTimes[pageNum] = startTime;
+    endTimes[pageNum] = endTime;
+    offsets[pageNum] = offset;
+    pageNum++;
+  }
+
+  /**
+   * @return whether each page starts after the previous one ends, which is required for searching
+   * the pages by time
+   */
+  public boolean isTimeOrdered() {
+    for (int i = 1; i < pageNum; i++) {
+      if (startTimes[i] <= endTimes[i - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * binary search the first page whose end time is not smaller than the given time.
+   *
+   * @param time the given time
+   * @return the index of the page, or the page number if all pages end before the time
+   */
+  public int searchPage(long time) {
+    int low = 0;
+    int high = pageNum;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (endTimes[mid] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * get the index of the pages in [fromPage, toPage), whose offsets are relative to the header of
+   * fromPage.
+   */
+  public PageIndex subIndex(int fromPage, int toPage) {
+    PageIndex subIndex = new PageIndex(Math.max(1, toPage - fromPage));
+    for (int i = fromPage; i < toPage; i++) {
+      subIndex.addPage(startTimes[i], endTimes[i], offsets[i] - offsets[fromPage]);
+    }
+    return subIndex;
+  }
+
+  public int getPageNum() {
+    return pageNum;
+  }
+
+  public long getStartTime(int page) {
+    return startTimes[page];
+  }
+
+  public long getEndTime(int page) {
+    return endTimes[page];
+  }
+
+  public int getOffset(int page) {
+    return offsets[page];
+  }
+
+  public int getSerializedSize() {
+    return Integer.BYTES + pageNum * (2 * Long.BYTES + Integer.BYTES);
+  }
+
+  /**
+   * use given outputStream to serialize.
+   *
+   * @param outputStream -given outputStream
+   * @return -byte length
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteIOUtils.write(pageNum, outputStream);
+    for (int i = 0; i < pageNum; i++) {
+      byteLen += ReadWriteIOUtils.write(startTimes[i], outputStream);
+      byteLen += ReadWriteIOUtils.write(endTimes[i], outputStream);
+      byteLen += ReadWriteIOUtils.write(offsets[i], outputStream);
+    }
+    return byteLen;
+  }
+
+  /**
+   * use given buffer to serialize.
+   *
+   * @param buffer -given buffer
+   * @return -byte length
+   */
+  public int serializeTo(ByteBuffer buffer) {
+    int byteLen = ReadWriteIOUtils.write(pageNum, buffer);
+    for (int i = 0; i < pageNum; i++) {
+      byteLen += ReadWriteIOUtils.write(startTimes[i], buffer);
+      byteLen += ReadWriteIOUtils.write(endTimes[i], buffer);
+      byteLen += ReadWriteIOUtils.write(offsets[i], buffer);
+    }
+    return byteLen;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("pageNum %d", pageNum);
+  }
+}
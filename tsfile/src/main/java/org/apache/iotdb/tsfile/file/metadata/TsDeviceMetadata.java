@@ -26,6 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 public class TsDeviceMetadata {
@@ -62,6 +63,18 @@ public class TsDeviceMetadata {
    * @return -device meta data
    */
   public static TsDeviceMetadata deserializeFrom(InputStream inputStream) throws IOException {
+    return deserializeFrom(inputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from the inputstream.
+   *
+   * @param inputStream -input stream to deserialize
+   * @param fileVersion -the version of the file which contains the metadata
+   * @return -device meta data
+   */
+  public static TsDeviceMetadata deserializeFrom(InputStream inputStream, int fileVersion)
+      throws IOException {
     TsDeviceMetadata deviceMetadata = new TsDeviceMetadata();
 
     deviceMetadata.startTime = ReadWriteIOUtils.readLong(inputStream);
@@ -71,7 +84,7 @@ public class TsDeviceMetadata {
     if (size > 0) {
       List<ChunkGroupMetaData> chunkGroupMetaDataList = new ArrayList<>();
       for (int i = 0; i < size; i++) {
-        chunkGroupMetaDataList.add(ChunkGroupMetaData.deserializeFrom(inputStream));
+        chunkGroupMetaDataList.add(ChunkGroupMetaData.deserializeFrom(inputStream, fileVersion));
       }
       deviceMetadata.chunkGroupMetadataList = chunkGroupMetaDataList;
     }
@@ -87,6 +100,17 @@ public class TsDeviceMetadata {
    * @return -device meta data
    */
   public static TsDeviceMetadata deserializeFrom(ByteBuffer buffer) {
+    return deserializeFrom(buffer, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize from the given buffer.
+   *
+   * @param buffer -buffer to deserialize
+   * @param fileVersion -the version of the file which contains the metadata
+   * @return -device meta data
+   */
+  public static TsDeviceMetadata deserializeFrom(ByteBuffer buffer, int fileVersion) {
     TsDeviceMetadata deviceMetadata = new TsDeviceMetadata();
 
     deviceMetadata.startTime = ReadWriteIOUtils.readLong(buffer);
@@ -96,7 +120,7 @@ public class TsDeviceMetadata {
     if (size > 0) {
       List<ChunkGroupMetaData> chunkGroupMetaDataList = new ArrayList<>();
       for (int i = 0; i < size; i++) {
-        chunkGroupMetaDataList.add(ChunkGroupMetaData.deserializeFrom(buffer));
+        chunkGroupMetaDataList.add(ChunkGroupMetaData.deserializeFrom(buffer, fileVersion));
       }
       deviceMetadata.chunkGroupMetadataList = chunkGroupMetaDataList;
     }
@@ -171,6 +195,17 @@ public class TsDeviceMetadata {
    * @return -byte length of the outputStream
    */
   public int serializeTo(OutputStream outputStream) throws IOException {
+    return serializeTo(outputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * serialize to the outputStream in the layout of the given version.
+   *
+   * @param outputStream -outputStream to determine byte length
+   * @param fileVersion -the version of the file which contains the metadata
+   * @return -byte length of the outputStream
+   */
+  public int serializeTo(OutputStream outputStream, int fileVersion) throws IOException {
     int byteLen = 0;
     byteLen += ReadWriteIOUtils.write(startTime, outputStream);
     byteLen += ReadWriteIOUtils.write(endTime, outputStream);
@@ -180,7 +215,7 @@ public class TsDeviceMetadata {
     } else {
       byteLen += ReadWriteIOUtils.write(chunkGroupMetadataList.size(), outputStream);
       for (ChunkGroupMetaData chunkGroupMetaData : chunkGroupMetadataList) {
-        byteLen += chunkGroupMetaData.serializeTo(outputStream);
+        byteLen += chunkGroupMetaData.serializeTo(outputStream, fileVersion);
       }
     }
     return byteLen;
@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+/**
+ * The TsDeviceMetadataIndex of each device in a TsFileMetaData, kept in its serialized form and
+ * searched without being deserialized. It is serialized as the number of devices, the size of the
+ * body and the body, which is the offset of each entry in the body followed by the entries, i.e.,
+ * the device id and its TsDeviceMetadataIndex, sorted by device id. A device is binary searched
+ * by the offsets, so only the entries it compares with are deserialized.
+ *
+ * <p>The table is immutable and can be read by multiple threads.
+ */
+public class TsDeviceMetadataIndexTable {
+
+  private final int deviceNum;
+
+  /**
+   * the body from position 0 to the limit.
+   */
+  private final ByteBuffer body;
+
+  private TsDeviceMetadataIndexTable(int deviceNum, ByteBuffer body) {
+    this.deviceNum = deviceNum;
+    this.body = body;
+  }
+
+  /**
+   * serialize the indexes of the devices into a table.
+   *
+   * @param deviceIndexMap -the TsDeviceMetadataIndex of each device
+   * @return -a table of the sorted devices
+   */
+  public static TsDeviceMetadataIndexTable of(Map<String, TsDeviceMetadataIndex> deviceIndexMap)
+      throws IOException {
+    Map<String, TsDeviceMetadataIndex> sortedMap = new TreeMap<>(deviceIndexMap);
+    int deviceNum = sortedMap.size();
+    PublicBAOS entries = new PublicBAOS();
+    int[] offsets = new int[deviceNum];
+    int i = 0;
+    for (Map.Entry<String, TsDeviceMetadataIndex> entry : sortedMap.entrySet()) {
+      offsets[i++] = deviceNum * Integer.BYTES + entries.size();
+      ReadWriteIOUtils.write(entry.getKey(), entries);
+      entry.getValue().serializeTo(entries);
+    }
+    ByteBuffer body = ByteBuffer.allocate(deviceNum * Integer.BYTES + entries.size());
+    for (int offset : offsets) {
+      body.putInt(offset);
+    }
+    body.put(entries.getBuf(), 0, entries.size());
+    body.flip();
+    return new TsDeviceMetadataIndexTable(deviceNum, body);
+  }
+
+  /**
+   * use given input stream to deserialize, which reads the body into a buffer.
+   *
+   * @param inputStream -given input stream
+   * @return -an instance of TsDeviceMetadataIndexTable
+   */
+  public static TsDeviceMetadataIndexTable deserializeFrom(InputStream inputStream)
+      throws IOException {
+    int deviceNum = ReadWriteIOUtils.readInt(inputStream);
+    int bodySize = ReadWriteIOUtils.readInt(inputStream);
+    ByteBuffer body = ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, bodySize));
+    return new TsDeviceMetadataIndexTable(deviceNum, body);
+  }
+
+  /**
+   * use given buffer to deserialize, which keeps a slice of the buffer as the body instead of
+   * copying it.
+   *
+   * @param buffer -given buffer, whose position is moved to the end of the table
+   * @return -an instance of TsDeviceMetadataIndexTable
+   */
+  public static TsDeviceMetadataIndexTable deserializeFrom(ByteBuffer buffer) {
+    int deviceNum = ReadWriteIOUtils.readInt(buffer);
+    int bodySize = ReadWriteIOUtils.readInt(buffer);
+    ByteBuffer body = buffer.slice();
+    body.limit(bodySize);
+    buffer.position(buffer.position() + bodySize);
+    return new TsDeviceMetadataIndexTable(deviceNum, body);
+  }
+
+  public int getDeviceNum() {
+    return deviceNum;
+  }
+
+  /**
+   * @return a buffer of the body positioned at the entry of the i-th device
+   */
+  private ByteBuffer entry(int i) {
+    ByteBuffer entry = body.duplicate();
+    entry.position(body.getInt(i * Integer.BYTES));
+    return entry;
+  }
+
+  /**
+   * @return the id of the i-th device in order
+   */
+  public String getDevice(int i) {
+    return ReadWriteIOUtils.readString(entry(i));
+  }
+
+  /**
+   * binary search the device.
+   *
+   * @param device -device id
+   * @return -the index of the device, or (-(insertion point) - 1) if it is absent
+   */
+  public int search(String device) {
+    int low = 0;
+    int high = deviceNum - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = getDevice(mid).compareTo(device);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  public boolean containsDevice(String device) {
+    return search(device) >= 0;
+  }
+
+  /**
+   * @return the TsDeviceMetadataIndex of the device, or null if it is absent
+   */
+  public TsDeviceMetadataIndex getDeviceMetadataIndex(String device) {
+    int i = search(device);
+    if (i < 0) {
+      return null;
+    }
+    ByteBuffer entry = entry(i);
+    // skip the device id
+    ReadWriteIOUtils.readString(entry);
+    return TsDeviceMetadataIndex.deserializeFrom(entry);
+  }
+
+  /**
+   * deserialize all entries.
+   *
+   * @return -the TsDeviceMetadataIndex of each device, sorted by device id
+   */
+  public Map<String, TsDeviceMetadataIndex> toMap() {
+    Map<String, TsDeviceMetadataIndex> deviceIndexMap = new TreeMap<>();
+    for (int i = 0; i < deviceNum; i++) {
+      ByteBuffer entry = entry(i);
+      deviceIndexMap.put(ReadWriteIOUtils.readString(entry),
+          TsDeviceMetadataIndex.deserializeFrom(entry));
+    }
+    return deviceIndexMap;
+  }
+
+  public int getSerializedSize() {
+    return 2 * Integer.BYTES + body.limit();
+  }
+
+  /**
+   * use given outputStream to serialize.
+   *
+   * @param outputStream -given outputStream
+   * @return -byte length
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteIOUtils.write(deviceNum, outputStream);
+    byteLen += ReadWriteIOUtils.write(body.limit(), outputStream);
+    ByteBuffer duplicate = body.duplicate();
+    duplicate.position(0);
+    byte[] bytes = new byte[duplicate.remaining()];
+    duplicate.get(bytes);
+    outputStream.write(bytes);
+    return byteLen + bytes.length;
+  }
+
+  /**
+   * use given buffer to serialize.
+   *
+   * @param buffer -given buffer
+   * @return -byte length
+   */
+  public int serializeTo(ByteBuffer buffer) {
+    int byteLen = ReadWriteIOUtils.write(deviceNum, buffer);
+    byteLen += ReadWriteIOUtils.write(body.limit(), buffer);
+    ByteBuffer duplicate = body.duplicate();
+    duplicate.position(0);
+    byteLen += duplicate.remaining();
+    buffer.put(duplicate);
+    return byteLen;
+  }
+}
@@ -25,7 +25,9 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
@@ -34,8 +36,19 @@ import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
  */
 public class TsFileMetaData {
 
+  /**
+   * the TsDeviceMetadataIndex of each device, which is null if this TsFileMetaData is deserialized
+   * from a file of version DEVICE_INDEX_TABLE_VERSION or later and the indexes are kept in
+   * deviceIndexTable instead.
+   */
   private Map<String, TsDeviceMetadataIndex> deviceIndexMap = new HashMap<>();
 
+  /**
+   * the serialized TsDeviceMetadataIndex of each device, which is searched without deserializing
+   * all of them. It is used only if deviceIndexMap is null.
+   */
+  private TsDeviceMetadataIndexTable deviceIndexTable;
+
   /**
    * TSFile schema for this file. This schema contains metadata for all the time series.
    */
@@ -52,6 +65,12 @@ public class TsFileMetaData {
    */
   private String createdBy;
 
+  /**
+   * bloom filter over the full paths of the series in this file, null if absent. It is serialized
+   * only if currentVersion is not older than TSFileConfig.BLOOM_FILTER_VERSION.
+   */
+  private BloomFilter bloomFilter;
+
   public TsFileMetaData() {
     //do nothing
   }
@@ -76,19 +95,37 @@ public class TsFileMetaData {
    * @return -a instance of TsFileMetaData
    */
   public static TsFileMetaData deserializeFrom(InputStream inputStream) throws IOException {
+    return deserializeFrom(inputStream, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize data from the inputStream.
+   *
+   * @param inputStream -input stream use to deserialize
+   * @param fileVersion -the version in the head of the file
+   * @return -a instance of TsFileMetaData
+   */
+  public static TsFileMetaData deserializeFrom(InputStream inputStream, int fileVersion)
+      throws IOException {
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
-    int size = ReadWriteIOUtils.readInt(inputStream);
-    if (size > 0) {
-      Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
-      String key;
-      TsDeviceMetadataIndex value;
-      for (int i = 0; i < size; i++) {
-        key = ReadWriteIOUtils.readString(inputStream);
-        value = TsDeviceMetadataIndex.deserializeFrom(inputStream);
-        deviceMap.put(key, value);
+    int size;
+    if (hasDeviceIndexTable(fileVersion)) {
+      fileMetaData.deviceIndexTable = TsDeviceMetadataIndexTable.deserializeFrom(inputStream);
+      fileMetaData.deviceIndexMap = null;
+    } else {
+      size = ReadWriteIOUtils.readInt(inputStream);
+      if (size > 0) {
+        Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
+        String key;
+        TsDeviceMetadataIndex value;
+        for (int i = 0; i < size; i++) {
+          key = ReadWriteIOUtils.readString(inputStream);
+          value = TsDeviceMetadataIndex.deserializeFrom(inputStream);
+          deviceMap.put(key, value);
+        }
+        fileMetaData.deviceIndexMap = deviceMap;
       }
-      fileMetaData.deviceIndexMap = deviceMap;
     }
 
     size = ReadWriteIOUtils.readInt(inputStream);
@@ -109,6 +146,10 @@ public class TsFileMetaData {
       fileMetaData.createdBy = ReadWriteIOUtils.readString(inputStream);
     }
 
+    if (hasBloomFilter(fileVersion) && ReadWriteIOUtils.readIsNull(inputStream)) {
+      fileMetaData.bloomFilter = BloomFilter.deserializeFrom(inputStream);
+    }
+
     return fileMetaData;
   }
 
@@ -119,19 +160,37 @@ public class TsFileMetaData {
    * @return -a instance of TsFileMetaData
    */
   public static TsFileMetaData deserializeFrom(ByteBuffer buffer) throws IOException {
+    return deserializeFrom(buffer, TSFileConfig.CURRENT_VERSION);
+  }
+
+  /**
+   * deserialize data from the buffer.
+   *
+   * @param buffer -buffer use to deserialize
+   * @param fileVersion -the version in the head of the file
+   * @return -a instance of TsFileMetaData
+   */
+  public static TsFileMetaData deserializeFrom(ByteBuffer buffer, int fileVersion)
+      throws IOException {
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
-    int size = ReadWriteIOUtils.readInt(buffer);
-    if (size > 0) {
-      Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
-      String key;
-      TsDeviceMetadataIndex value;
-      for (int i = 0; i < size; i++) {
-        key = ReadWriteIOUtils.readString(buffer);
-        value = TsDeviceMetadataIndex.deserializeFrom(buffer);
-        deviceMap.put(key, value);
+    int size;
+    if (hasDeviceIndexTable(fileVersion)) {
+      fileMetaData.deviceIndexTable = TsDeviceMetadataIndexTable.deserializeFrom(buffer);
+      fileMetaData.deviceIndexMap = null;
+    } else {
+      size = ReadWriteIOUtils.readInt(buffer);
+      if (size > 0) {
+        Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
+        String key;
+        TsDeviceMetadataIndex value;
+        for (int i = 0; i < size; i++) {
+          key = ReadWriteIOUtils.readString(buffer);
+          value = TsDeviceMetadataIndex.deserializeFrom(buffer);
+          deviceMap.put(key, value);
+        }
+        fileMetaData.deviceIndexMap = deviceMap;
       }
-      fileMetaData.deviceIndexMap = deviceMap;
     }
 
     size = ReadWriteIOUtils.readInt(buffer);
@@ -152,9 +211,28 @@ public class TsFileMetaData {
       fileMetaData.createdBy = ReadWriteIOUtils.readString(buffer);
     }
 
+    if (hasBloomFilter(fileVersion) && ReadWriteIOUtils.readIsNull(buffer)) {
+      fileMetaData.bloomFilter = BloomFilter.deserializeFrom(buffer);
+    }
+
     return fileMetaData;
   }
 
+  /**
+   * whether the metadata of a file of the given version ends with the bloom filter.
+   */
+  private static boolean hasBloomFilter(int fileVersion) {
+    return fileVersion >= TSFileConfig.BLOOM_FILTER_VERSION;
+  }
+
+  /**
+   * whether the metadata of a file of the given version keeps the device indexes in a table, or in
+   * a map otherwise.
+   */
+  private static boolean hasDeviceIndexTable(int fileVersion) {
+    return fileVersion >= TSFileConfig.DEVICE_INDEX_TABLE_VERSION;
+  }
+
   /**
    * add time series metadata to list. THREAD NOT SAFE
    *
@@ -166,7 +244,7 @@ public class TsFileMetaData {
 
   @Override
   public String toString() {
-    return "TsFileMetaData{" + "deviceIndexMap=" + deviceIndexMap + ", measurementSchema="
+    return "TsFileMetaData{" + "deviceIndexMap=" + getDeviceMap() + ", measurementSchema="
         + measurementSchema
         + ", CURRENT_VERSION=" + currentVersion + ", createdBy='" + createdBy + '\'' + '}';
   }
@@ -187,20 +265,57 @@ public class TsFileMetaData {
     this.createdBy = createdBy;
   }
 
+  public BloomFilter getBloomFilter() {
+    return bloomFilter;
+  }
+
+  public void setBloomFilter(BloomFilter bloomFilter) {
+    this.bloomFilter = bloomFilter;
+  }
+
+  /**
+   * check the bloom filter of this file before reading the metadata of a series.
+   *
+   * @param path -the full path of the series
+   * @return -false if the series is absent in this file, or true if it may be present
+   */
+  public boolean mayContainSeries(String path) {
+    return bloomFilter == null || bloomFilter.contains(path);
+  }
+
+  /**
+   * get the TsDeviceMetadataIndex of all devices. If this TsFileMetaData is deserialized, all of
+   * them are deserialized into a new map on each call, so use containsDevice() and
+   * getDeviceMetadataIndex() to look up some devices, and use setDeviceMap() to change them.
+   *
+   * @return -the TsDeviceMetadataIndex of each device
+   */
   public Map<String, TsDeviceMetadataIndex> getDeviceMap() {
-    return deviceIndexMap;
+    return deviceIndexMap != null ? deviceIndexMap : deviceIndexTable.toMap();
   }
 
   public void setDeviceMap(Map<String, TsDeviceMetadataIndex> deviceMap) {
     this.deviceIndexMap = deviceMap;
+    this.deviceIndexTable = null;
+  }
+
+  public int getDeviceNum() {
+    return deviceIndexMap != null ? deviceIndexMap.size() : deviceIndexTable.getDeviceNum();
   }
 
   public boolean containsDevice(String deltaObjUid) {
-    return this.deviceIndexMap.containsKey(deltaObjUid);
+    return deviceIndexMap != null ? deviceIndexMap.containsKey(deltaObjUid)
+        : deviceIndexTable.containsDevice(deltaObjUid);
   }
 
   public TsDeviceMetadataIndex getDeviceMetadataIndex(String deltaObjUid) {
-    return this.deviceIndexMap.get(deltaObjUid);
+    return deviceIndexMap != null ? deviceIndexMap.get(deltaObjUid)
+        : deviceIndexTable.getDeviceMetadataIndex(deltaObjUid);
+  }
+
+  private TsDeviceMetadataIndexTable getDeviceIndexTable() throws IOException {
+    return deviceIndexMap != null ? TsDeviceMetadataIndexTable.of(deviceIndexMap)
+        : deviceIndexTable;
   }
 
   public boolean containsMeasurement(String measurement) {
@@ -234,10 +349,15 @@ public class TsFileMetaData {
   public int serializeTo(OutputStream outputStream) throws IOException {
     int byteLen = 0;
 
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), outputStream);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
-      byteLen += entry.getValue().serializeTo(outputStream);
+    if (hasDeviceIndexTable(currentVersion)) {
+      byteLen += getDeviceIndexTable().serializeTo(outputStream);
+    } else {
+      Map<String, TsDeviceMetadataIndex> deviceMap = getDeviceMap();
+      byteLen += ReadWriteIOUtils.write(deviceMap.size(), outputStream);
+      for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceMap.entrySet()) {
+        byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
+        byteLen += entry.getValue().serializeTo(outputStream);
+      }
     }
 
     byteLen += ReadWriteIOUtils.write(measurementSchema.size(), outputStream);
@@ -253,6 +373,13 @@ public class TsFileMetaData {
       byteLen += ReadWriteIOUtils.write(createdBy, outputStream);
     }
 
+    if (hasBloomFilter(currentVersion)) {
+      byteLen += ReadWriteIOUtils.writeIsNull(bloomFilter, outputStream);
+      if (bloomFilter != null) {
+        byteLen += bloomFilter.serializeTo(outputStream);
+      }
+    }
+
     return byteLen;
   }
 
@@ -265,10 +392,15 @@ public class TsFileMetaData {
   public int serializeTo(ByteBuffer buffer) throws IOException {
     int byteLen = 0;
 
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), buffer);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
-      byteLen += entry.getValue().serializeTo(buffer);
+    if (hasDeviceIndexTable(currentVersion)) {
+      byteLen += getDeviceIndexTable().serializeTo(buffer);
+    } else {
+      Map<String, TsDeviceMetadataIndex> deviceMap = getDeviceMap();
+      byteLen += ReadWriteIOUtils.write(deviceMap.size(), buffer);
+      for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceMap.entrySet()) {
+        byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
+        byteLen += entry.getValue().serializeTo(buffer);
+      }
     }
 
     byteLen += ReadWriteIOUtils.write(measurementSchema.size(), buffer);
@@ -284,6 +416,13 @@ public class TsFileMetaData {
       byteLen += ReadWriteIOUtils.write(createdBy, buffer);
     }
 
+    if (hasBloomFilter(currentVersion)) {
+      byteLen += ReadWriteIOUtils.writeIsNull(bloomFilter, buffer);
+      if (bloomFilter != null) {
+        byteLen += bloomFilter.serializeTo(buffer);
+      }
+    }
+
     return byteLen;
   }
 
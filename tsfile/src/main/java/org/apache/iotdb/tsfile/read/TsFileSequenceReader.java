@@ -18,8 +18,6 @@
  */
 package org.apache.iotdb.tsfile.read;
 
-import static org.apache.iotdb.tsfile.write.writer.TsFileIOWriter.magicStringBytes;
-
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -38,6 +36,7 @@ import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
@@ -46,8 +45,10 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.reader.DefaultTsFileInput;
 import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+import org.apache.iotdb.tsfile.read.reader.page.PageBufferPool;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,13 +59,17 @@ public class TsFileSequenceReader implements AutoCloseable{
   private TsFileInput tsFileInput;
   private long fileMetadataPos;
   private int fileMetadataSize;
+  /**
+   * the version in the head of the file, which is read on demand.
+   */
+  private int version = -1;
   private ByteBuffer markerBuffer = ByteBuffer.allocate(Byte.BYTES);
   protected String file;
 
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
-   * file metadata size.Then the reader will skip the first TSFileConfig.MAGIC_STRING.length() bytes
-   * of the file for preparing reading real data.
+   * file metadata size.Then the reader will skip the head of the file, i.e., the magic string and
+   * the version, for preparing reading real data.
    *
    * @param file the data file
    * @throws IOException If some I/O error occurs
@@ -95,8 +100,8 @@ public class TsFileSequenceReader implements AutoCloseable{
 
   /**
    * Create a file reader of the given file. The reader will read the tail of the file to get the
-   * file metadata size.Then the reader will skip the first TSFileConfig.MAGIC_STRING.length() bytes
-   * of the file for preparing reading real data.
+   * file metadata size.Then the reader will skip the head of the file, i.e., the magic string and
+   * the version, for preparing reading real data.
    *
    * @param input given input
    */
@@ -142,8 +147,13 @@ public class TsFileSequenceReader implements AutoCloseable{
     fileMetadataSize = ReadWriteIOUtils.readInt(metadataSize);
     fileMetadataPos =
         tsFileInput.size() - TSFileConfig.MAGIC_STRING.length() - Integer.BYTES - fileMetadataSize;
-    // skip the magic header
-    tsFileInput.position(TSFileConfig.MAGIC_STRING.length());
+    int headSize = TsFileIOWriter.getHeadSize(readVersion());
+    if (fileMetadataSize < 0 || fileMetadataPos < headSize) {
+      throw new IOException(String.format("The file metadata of TsFile %s is broken, its size is %d",
+          file, fileMetadataSize));
+    }
+    // skip the magic header and the version
+    tsFileInput.position(headSize);
   }
 
   public long getFileMetadataPos() {
@@ -202,10 +212,40 @@ public class TsFileSequenceReader implements AutoCloseable{
   }
 
   /**
-   * this function does not modify the position of the file reader.
+   * read the version after the head magic string. The files of TSFileConfig.BASE_VERSION do not
+   * store their version, and a file without a complete head is of TSFileConfig.CURRENT_VERSION
+   * since it has no data. This function does not modify the position of the file reader.
+   */
+  public int readVersion() throws IOException {
+    if (version == -1) {
+      long totalSize = tsFileInput.size();
+      int magicLength = TSFileConfig.MAGIC_STRING.length();
+      if (totalSize <= magicLength) {
+        version = TSFileConfig.CURRENT_VERSION;
+      } else if (readMarker(magicLength) != MetaMarker.VERSION) {
+        version = TSFileConfig.BASE_VERSION;
+      } else if (totalSize < TsFileIOWriter.getHeadSize(TSFileConfig.CURRENT_VERSION)) {
+        version = TSFileConfig.CURRENT_VERSION;
+      } else {
+        version = readData(magicLength + Byte.BYTES, Integer.BYTES).getInt();
+      }
+    }
+    return version;
+  }
+
+  /**
+   * read the file metadata in the layout of the version of the file. This function does not modify
+   * the position of the file reader.
+   *
+   * @throws IOException if the file is of a version newer than TSFileConfig.CURRENT_VERSION
    */
   public TsFileMetaData readFileMetadata() throws IOException {
-    return TsFileMetaData.deserializeFrom(readData(fileMetadataPos, fileMetadataSize));
+    int fileVersion = readVersion();
+    if (fileVersion > TSFileConfig.CURRENT_VERSION) {
+      throw new IOException(String.format("TsFile %s of version %d is not supported, the current "
+          + "version is %d", file, fileVersion, TSFileConfig.CURRENT_VERSION));
+    }
+    return TsFileMetaData.deserializeFrom(readData(fileMetadataPos, fileMetadataSize), fileVersion);
   }
 
   /**
@@ -219,7 +259,7 @@ public class TsFileSequenceReader implements AutoCloseable{
       return data.get();
     } else {
       //no real data
-      return TSFileConfig.MAGIC_STRING.length();
+      return TsFileIOWriter.getHeadSize(readVersion());
     }
   }
 
@@ -227,7 +267,8 @@ public class TsFileSequenceReader implements AutoCloseable{
    * this function does not modify the position of the file reader.
    */
   public TsDeviceMetadata readTsDeviceMetaData(TsDeviceMetadataIndex index) throws IOException {
-    return TsDeviceMetadata.deserializeFrom(readData(index.getOffset(), index.getLen()));
+    return TsDeviceMetadata
+        .deserializeFrom(readData(index.getOffset(), index.getLen()), readVersion());
   }
 
   /**
@@ -274,7 +315,7 @@ public class TsFileSequenceReader implements AutoCloseable{
    * @throws IOException io error
    */
   public ChunkHeader readChunkHeader() throws IOException {
-    return ChunkHeader.deserializeFrom(tsFileInput.wrapAsInputStream(), true);
+    return ChunkHeader.deserializeFrom(tsFileInput.wrapAsInputStream(), true, readVersion());
   }
 
   /**
@@ -284,7 +325,7 @@ public class TsFileSequenceReader implements AutoCloseable{
    * @param markerRead true if the offset does not contains the marker , otherwise false
    */
   private ChunkHeader readChunkHeader(long position, boolean markerRead) throws IOException {
-    return ChunkHeader.deserializeFrom(tsFileInput, position, markerRead);
+    return ChunkHeader.deserializeFrom(tsFileInput, position, markerRead, readVersion());
   }
 
   /**
@@ -328,7 +369,40 @@ public class TsFileSequenceReader implements AutoCloseable{
     ChunkHeader header = readChunkHeader(metaData.getOffsetOfChunkHeader(), false);
     ByteBuffer buffer = readChunk(metaData.getOffsetOfChunkHeader() + header.getSerializedSize(),
         header.getDataSize());
-    return new Chunk(header, buffer);
+    Chunk chunk = new Chunk(header, buffer);
+    chunk.setPageIndex(metaData.getPageIndex());
+    return chunk;
+  }
+
+  /**
+   * read the pages of a chunk which overlap [startTime, endTime]. The pages are searched in the
+   * page index of the chunk, so the others are not read from disk. The whole chunk is read if it
+   * has no page index.
+   *
+   * @param metaData -given chunk meta data
+   * @return -chunk whose data only contains the overlapping pages
+   */
+  public Chunk readMemChunk(ChunkMetaData metaData, long startTime, long endTime)
+      throws IOException {
+    PageIndex pageIndex = metaData.getPageIndex();
+    if (pageIndex == null) {
+      return readMemChunk(metaData);
+    }
+    ChunkHeader header = readChunkHeader(metaData.getOffsetOfChunkHeader(), false);
+    int pageNum = pageIndex.getPageNum();
+    int fromPage = pageIndex.searchPage(startTime);
+    int toPage = fromPage;
+    while (toPage < pageNum && pageIndex.getStartTime(toPage) <= endTime) {
+      toPage++;
+    }
+    int fromOffset = fromPage < pageNum ? pageIndex.getOffset(fromPage) : header.getDataSize();
+    int toOffset = toPage < pageNum ? pageIndex.getOffset(toPage) : header.getDataSize();
+    ByteBuffer buffer = fromOffset == toOffset ? ByteBuffer.allocate(0)
+        : readChunk(metaData.getOffsetOfChunkHeader() + header.getSerializedSize() + fromOffset,
+            toOffset - fromOffset);
+    Chunk chunk = new Chunk(header, buffer);
+    chunk.setPageIndex(pageIndex.subIndex(fromPage, toPage));
+    return chunk;
   }
 
   /**
@@ -371,6 +445,10 @@ public class TsFileSequenceReader implements AutoCloseable{
   }
 
 
+  /**
+   * read the page from the current position and uncompress it into a new buffer, which is owned by
+   * the caller.
+   */
   public ByteBuffer readPage(PageHeader header, CompressionType type) throws IOException {
     return readPage(header, type, -1);
   }
@@ -378,18 +456,28 @@ public class TsFileSequenceReader implements AutoCloseable{
   private ByteBuffer readPage(PageHeader header, CompressionType type, long position)
       throws IOException {
     ByteBuffer buffer = readData(position, header.getCompressedSize());
+    if (type == CompressionType.UNCOMPRESSED) {
+      return buffer;
+    }
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
     ByteBuffer uncompressedBuffer = ByteBuffer.allocate(header.getUncompressedSize());
-    switch (type) {
-      case UNCOMPRESSED:
-        return buffer;
-      default:
-        // FIXME if the buffer is not array-implemented.
-        unCompressor.uncompress(buffer.array(), buffer.position(), buffer.remaining(),
-            uncompressedBuffer.array(),
-            0);
-        return uncompressedBuffer;
-    }
+    unCompressor.uncompress(buffer.array(), buffer.position(), buffer.remaining(),
+        uncompressedBuffer.array(), 0);
+    return uncompressedBuffer;
+  }
+
+  /**
+   * read the page from the current position and uncompress it without allocating buffers. The page
+   * is read into a direct buffer of the thread and uncompressed into another one, see {@link
+   * PageBufferPool}, so the returned buffer is overwritten when the thread reads the next page,
+   * and it must be consumed before that.
+   */
+  public ByteBuffer readPageIntoPooledBuffer(PageHeader header, CompressionType type)
+      throws IOException {
+    ByteBuffer buffer = PageBufferPool.getCompressedBuffer(header.getCompressedSize());
+    readData(-1, buffer);
+    return PageBufferPool.uncompressIntoPooledBuffer(IUnCompressor.getUnCompressor(type), buffer,
+        header.getUncompressedSize());
   }
 
   /**
@@ -433,6 +521,18 @@ public class TsFileSequenceReader implements AutoCloseable{
    */
   private ByteBuffer readData(long position, int size) throws IOException {
     ByteBuffer buffer = ByteBuffer.allocate(size);
+    readData(position, buffer);
+    return buffer;
+  }
+
+  /**
+   * read data into the buffer from its position to its limit, then flip it.
+   *
+   * @param position the read will start from this position. if -1, it will start from the current
+   * position of the file
+   */
+  private void readData(long position, ByteBuffer buffer) throws IOException {
+    int size = buffer.remaining();
     if (position == -1) {
       if (ReadWriteIOUtils.readAsPossible(tsFileInput, buffer) != size) {
         throw new IOException("reach the end of the data");
@@ -443,7 +543,6 @@ public class TsFileSequenceReader implements AutoCloseable{
       }
     }
     buffer.flip();
-    return buffer;
   }
 
   /**
@@ -495,12 +594,13 @@ public class TsFileSequenceReader implements AutoCloseable{
     if (fileSize < TSFileConfig.MAGIC_STRING.length()) {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
-    String magic = readHeadMagic(true);
+    String magic = readHeadMagic();
     if (!magic.equals(TSFileConfig.MAGIC_STRING)) {
       return TsFileCheckStatus.INCOMPATIBLE_FILE;
     }
 
-    if (fileSize == TSFileConfig.MAGIC_STRING.length()) {
+    int headSize = TsFileIOWriter.getHeadSize(readVersion());
+    if (fileSize <= headSize) {
       return TsFileCheckStatus.ONLY_MAGIC_HEAD;
     } else if (readTailMagic().equals(magic)) {
       loadMetadataSize();
@@ -510,7 +610,8 @@ public class TsFileSequenceReader implements AutoCloseable{
     }
 
     // not a complete file, we will recover it...
-    long truncatedPosition = magicStringBytes.length;
+    tsFileInput.position(headSize);
+    long truncatedPosition = headSize;
     boolean goon = true;
     byte marker;
     try {
@@ -531,6 +632,7 @@ public class TsFileSequenceReader implements AutoCloseable{
             }
             //if there is something wrong with a chunk, we will drop this part of data
             // (the whole ChunkGroup)
+            fileOffsetOfChunk = this.position() - 1;
             ChunkHeader header = this.readChunkHeader();
             measurementID = header.getMeasurementID();
             if (newSchema != null) {
@@ -539,7 +641,6 @@ public class TsFileSequenceReader implements AutoCloseable{
                       header.getEncodingType(), header.getCompressionType()));
             }
             dataType = header.getDataType();
-            fileOffsetOfChunk = this.position() - 1;
             if (header.getNumOfPages() > 0) {
               PageHeader pageHeader = this.readPageHeader(header.getDataType());
               numOfPoints += pageHeader.getNumOfValues();
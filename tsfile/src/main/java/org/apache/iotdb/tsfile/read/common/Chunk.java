@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.common;
 
 import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 
 /**
  * used in query.
@@ -29,6 +30,10 @@ public class Chunk {
   private ChunkHeader chunkHeader;
   private ByteBuffer chunkData;
   private long deletedAt = -1;
+  /**
+   * time index of the pages in chunkData, null if absent.
+   */
+  private PageIndex pageIndex;
 
   public Chunk(ChunkHeader header, ByteBuffer buffer) {
     this.chunkHeader = header;
@@ -50,4 +55,12 @@ public class Chunk {
   public void setDeletedAt(long deletedAt) {
     this.deletedAt = deletedAt;
   }
+
+  public PageIndex getPageIndex() {
+    return pageIndex;
+  }
+
+  public void setPageIndex(PageIndex pageIndex) {
+    this.pageIndex = pageIndex;
+  }
 }
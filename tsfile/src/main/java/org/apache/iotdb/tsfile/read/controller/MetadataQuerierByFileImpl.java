@@ -108,6 +108,10 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
     // group measurements by device
     TreeMap<String, Set<String>> deviceMeasurementsMap = new TreeMap<>();
     for (Path path : paths) {
+      if (!fileMetaData.containsDevice(path.getDevice()) || !fileMetaData
+          .mayContainSeries(path.getFullPath())) {
+        continue;
+      }
       if (!deviceMeasurementsMap.containsKey(path.getDevice())) {
         deviceMeasurementsMap.put(path.getDevice(), new HashSet<>());
       }
@@ -192,7 +196,9 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
 
   private List<ChunkMetaData> loadChunkMetadata(Path path) throws IOException {
 
-    if (!fileMetaData.containsDevice(path.getDevice())) {
+    // the bloom filter avoids reading the TsDeviceMetadata of a device without the measurement
+    if (!fileMetaData.containsDevice(path.getDevice()) || !fileMetaData
+        .mayContainSeries(path.getFullPath())) {
       return new ArrayList<>();
     }
 
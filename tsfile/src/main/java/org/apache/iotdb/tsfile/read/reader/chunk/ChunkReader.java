@@ -20,17 +20,16 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.compress.IUnCompressor;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.page.PageBufferPool;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 
 public abstract class ChunkReader {
@@ -38,11 +37,23 @@ public abstract class ChunkReader {
   ChunkHeader chunkHeader;
   private ByteBuffer chunkDataBuffer;
 
+  /**
+   * time index of the pages, which the pages are searched in without reading their headers, null
+   * if the chunk has no page index.
+   */
+  private PageIndex pageIndex;
+  /**
+   * the position of chunkDataBuffer which the page offsets in the page index are relative to.
+   */
+  private int chunkDataStart;
+  /**
+   * the page in the page index which chunkDataBuffer is positioned at.
+   */
+  private int nextPage;
+
   private IUnCompressor unCompressor;
   private Decoder valueDecoder;
-  private Decoder timeDecoder = Decoder.getDecoderByType(
-      TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder),
-      TSDataType.INT64);
+  private Decoder timeDecoder;
 
   private Filter filter;
 
@@ -66,11 +77,14 @@ public abstract class ChunkReader {
   public ChunkReader(Chunk chunk, Filter filter) {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
+    this.pageIndex = chunk.getPageIndex();
+    this.chunkDataStart = chunkDataBuffer.position();
     this.deletedAt = chunk.getDeletedAt();
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
     valueDecoder = Decoder
         .getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    timeDecoder = Decoder.getDecoderByType(chunkHeader.getTimeEncodingType(), TSDataType.INT64);
     data = new BatchData(chunkHeader.getDataType());
   }
 
@@ -88,13 +102,16 @@ public abstract class ChunkReader {
 
     // construct next satisfied page header
     while (chunkDataBuffer.remaining() > 0) {
+      if (pageIndex != null && !skipToNextCandidatePage()) {
+        break;
+      }
       // deserialize a PageHeader from chunkDataBuffer
       PageHeader pageHeader = PageHeader
           .deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
 
       // if the current page satisfies
       if (pageSatisfied(pageHeader)) {
-        PageReader pageReader = constructPageReaderForNextPage(pageHeader.getCompressedSize());
+        PageReader pageReader = constructPageReaderForNextPage(pageHeader);
         if (pageReader.hasNextBatch()) {
           data = pageReader.nextBatch();
           return data;
@@ -111,27 +128,76 @@ public abstract class ChunkReader {
     return data;
   }
 
+  /**
+   * skip the pages which can not satisfy according to the page index, i.e., binary search the
+   * first page which ends at or after {@link #pageEndTimeLowerBound()} and check the times of the
+   * following pages by {@link #pageSatisfied(long, long)}, then position chunkDataBuffer at the
+   * header of the first candidate page.
+   *
+   * @return false if no page remains
+   */
+  private boolean skipToNextCandidatePage() {
+    int pageNum = pageIndex.getPageNum();
+    nextPage = Math.max(nextPage, pageIndex.searchPage(pageEndTimeLowerBound()));
+    while (nextPage < pageNum && !pageSatisfied(pageIndex.getStartTime(nextPage),
+        pageIndex.getEndTime(nextPage))) {
+      nextPage++;
+    }
+    if (nextPage >= pageNum) {
+      chunkDataBuffer.position(chunkDataBuffer.limit());
+      return false;
+    }
+    chunkDataBuffer.position(chunkDataStart + pageIndex.getOffset(nextPage));
+    nextPage++;
+    return true;
+  }
+
   private void skipBytesInStreamByLength(long length) {
     chunkDataBuffer.position(chunkDataBuffer.position() + (int) length);
   }
 
   public abstract boolean pageSatisfied(PageHeader pageHeader);
 
-  private PageReader constructPageReaderForNextPage(int compressedPageBodyLength)
+  /**
+   * check a page by its times in the page index before its header is read, which must not reject
+   * a page with any point to return.
+   */
+  protected boolean pageSatisfied(long startTime, long endTime) {
+    return endTime > deletedAt;
+  }
+
+  /**
+   * @return the time which the pages ending before can not satisfy, used to binary search the page
+   * index
+   */
+  protected long pageEndTimeLowerBound() {
+    return deletedAt == Long.MAX_VALUE ? deletedAt : deletedAt + 1;
+  }
+
+  /**
+   * The page is uncompressed from a slice of the chunk into a buffer of the thread, see {@link
+   * PageBufferPool}, so the reader must be consumed before the next page is read.
+   */
+  private PageReader constructPageReaderForNextPage(PageHeader pageHeader)
       throws IOException {
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
+    int compressedPageBodyLength = pageHeader.getCompressedSize();
 
     // already in memory
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
       throw new IOException(
           "unexpected byte read length when read compressedPageBody. Expected:"
-              + Arrays.toString(compressedPageBody) + ". Actual:" + chunkDataBuffer
+              + compressedPageBodyLength + ". Actual:" + chunkDataBuffer
               .remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+    ByteBuffer compressedPageBody = chunkDataBuffer.slice();
+    compressedPageBody.limit(compressedPageBodyLength);
+    skipBytesInStreamByLength(compressedPageBodyLength);
     valueDecoder.reset();
-    PageReader reader = new PageReader(ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody)),
+    timeDecoder.reset();
+    PageReader reader = new PageReader(PageBufferPool
+        .uncompressIntoPooledBuffer(unCompressor, compressedPageBody,
+            pageHeader.getUncompressedSize()),
         chunkHeader.getDataType(),
         valueDecoder, timeDecoder, filter);
     reader.setDeletedAt(deletedAt);
@@ -36,6 +36,11 @@ public class ChunkReaderByTimestamp extends ChunkReader {
     return maxTimestamp >= currentTimestamp && maxTimestamp > deletedAt;
   }
 
+  @Override
+  protected long pageEndTimeLowerBound() {
+    return Math.max(currentTimestamp, super.pageEndTimeLowerBound());
+  }
+
   public void setCurrentTimestamp(long currentTimestamp) {
     this.currentTimestamp = currentTimestamp;
   }
@@ -45,4 +45,10 @@ public class ChunkReaderWithFilter extends ChunkReader {
     return filter.satisfy(digest);
   }
 
+  @Override
+  protected boolean pageSatisfied(long startTime, long endTime) {
+    return super.pageSatisfied(startTime, endTime) && filter
+        .satisfyStartEndTime(startTime, endTime);
+  }
+
 }
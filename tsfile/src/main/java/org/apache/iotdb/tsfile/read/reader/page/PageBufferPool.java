@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader.page;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+/**
+ * PageBufferPool keeps the buffers of each thread which pages are read and uncompressed into, so
+ * that no buffer is allocated for each page. A page in a direct buffer is uncompressed into a
+ * pooled direct buffer, and a page in a heap buffer is uncompressed from its array into a pooled
+ * heap buffer, neither of which copies the compressed page. A pooled buffer is reused by the next
+ * page of the same thread, so a page must be decoded before the thread reads another one.
+ */
+public class PageBufferPool {
+
+  /**
+   * pages larger than it use new buffers, so that a thread does not keep a large buffer after
+   * reading a large page.
+   */
+  static final int MAX_POOLED_SIZE = 16 * 1024 * 1024;
+
+  private static final ThreadLocal<ByteBuffer> compressedBuffer = new ThreadLocal<>();
+  private static final ThreadLocal<ByteBuffer> uncompressedDirectBuffer = new ThreadLocal<>();
+  private static final ThreadLocal<ByteBuffer> uncompressedHeapBuffer = new ThreadLocal<>();
+
+  private PageBufferPool() {
+  }
+
+  /**
+   * @return a direct buffer of the thread to read a compressed page into, whose position is 0
+   * and limit is the size
+   */
+  public static ByteBuffer getCompressedBuffer(int size) {
+    return getBuffer(compressedBuffer, size, true);
+  }
+
+  /**
+   * Uncompress the page from the position to the limit of compressed, which are not changed.
+   *
+   * @param uncompressedSize the uncompressed size in the page header
+   * @return the uncompressed page from position 0, which is a slice of compressed if the page is
+   * not compressed, or a buffer of the thread otherwise
+   */
+  public static ByteBuffer uncompressIntoPooledBuffer(IUnCompressor unCompressor,
+      ByteBuffer compressed, int uncompressedSize) throws IOException {
+    if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      return compressed.slice();
+    }
+    ByteBuffer uncompressed;
+    int size;
+    if (compressed.isDirect()) {
+      uncompressed = getBuffer(uncompressedDirectBuffer, uncompressedSize, true);
+      size = unCompressor.uncompress(compressed, uncompressed);
+    } else {
+      uncompressed = getBuffer(uncompressedHeapBuffer, uncompressedSize, false);
+      if (compressed.hasArray()) {
+        size = unCompressor.uncompress(compressed.array(),
+            compressed.arrayOffset() + compressed.position(), compressed.remaining(),
+            uncompressed.array(), uncompressed.arrayOffset());
+      } else {
+        // a read-only heap buffer
+        byte[] bytes = new byte[compressed.remaining()];
+        compressed.duplicate().get(bytes);
+        size = unCompressor.uncompress(bytes, 0, bytes.length, uncompressed.array(),
+            uncompressed.arrayOffset());
+      }
+    }
+    if (size != uncompressedSize) {
+      throw new IOException(String.format(
+          "The page is uncompressed into %d bytes, but its header records %d bytes", size,
+          uncompressedSize));
+    }
+    uncompressed.position(0);
+    uncompressed.limit(uncompressedSize);
+    return uncompressed;
+  }
+
+  private static ByteBuffer getBuffer(ThreadLocal<ByteBuffer> local, int size, boolean direct) {
+    if (size > MAX_POOLED_SIZE) {
+      return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    }
+    ByteBuffer buffer = local.get();
+    if (buffer == null || buffer.capacity() < size) {
+      // grow at least twice to avoid reallocating for pages of slightly increasing sizes
+      int capacity = buffer == null ? size
+          : Math.max(size, Math.min(buffer.capacity() * 2, MAX_POOLED_SIZE));
+      buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+      local.set(buffer);
+    }
+    buffer.clear();
+    buffer.limit(size);
+    return buffer;
+  }
+}
@@ -30,6 +30,11 @@ import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 public class PageReader {
 
+  /**
+   * number of points decoded by one call of the decoders.
+   */
+  private static final int DECODE_BATCH_SIZE = 1024;
+
   private TSDataType dataType;
 
   /** decoder for value column */
@@ -89,12 +94,7 @@ public class PageReader {
    * may return an empty BatchData
    */
   public BatchData nextBatch() throws IOException {
-    if (filter == null) {
-      data = getAllPageData();
-    } else {
-      data = getAllPageDataWithFilter();
-    }
-
+    data = getAllPageData();
     return data;
   }
 
@@ -103,140 +103,137 @@ public class PageReader {
   }
 
   private BatchData getAllPageData() throws IOException {
-
     BatchData pageData = new BatchData(dataType, true);
 
+    // the time and value columns are decoded in batches of primitive values
+    long[] times = new long[DECODE_BATCH_SIZE];
+    Object values = newValueArray();
     while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putBoolean(aBoolean);
-          }
-          break;
-        case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putInt(anInt);
-          }
-          break;
-        case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putLong(aLong);
-          }
-          break;
-        case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putFloat(aFloat);
-          }
-          break;
-        case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putDouble(aDouble);
-          }
-          break;
-        case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (timestamp > deletedAt) {
-            pageData.putTime(timestamp);
-            pageData.putBinary(aBinary);
-          }
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      int timeNum = timeDecoder.readLongs(timeBuffer, times, 0, DECODE_BATCH_SIZE);
+      int valueNum = readValues(values, timeNum);
+      if (valueNum < timeNum) {
+        throw new IOException(String.format(
+            "The page has %d values fewer than its timestamps", timeNum - valueNum));
       }
+      putValues(pageData, times, values, timeNum);
     }
     return pageData;
   }
 
-  private BatchData getAllPageDataWithFilter() throws IOException {
-    BatchData pageData = new BatchData(dataType, true);
+  private Object newValueArray() {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[DECODE_BATCH_SIZE];
+      case INT32:
+        return new int[DECODE_BATCH_SIZE];
+      case INT64:
+        return new long[DECODE_BATCH_SIZE];
+      case FLOAT:
+        return new float[DECODE_BATCH_SIZE];
+      case DOUBLE:
+        return new double[DECODE_BATCH_SIZE];
+      case TEXT:
+        return new Binary[DECODE_BATCH_SIZE];
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
 
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          readBoolean(pageData, timestamp);
-          break;
-        case INT32:
-          readInt(pageData, timestamp);
-          break;
-        case INT64:
-          readLong(pageData, timestamp);
-          break;
-        case FLOAT:
-          readFloat(pageData, timestamp);
-          break;
-        case DOUBLE:
-          readDouble(pageData, timestamp);
-          break;
-        case TEXT:
-          readText(pageData, timestamp);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+  private int readValues(Object values, int len) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        return valueDecoder.readBooleans(valueBuffer, (boolean[]) values, 0, len);
+      case INT32:
+        return valueDecoder.readInts(valueBuffer, (int[]) values, 0, len);
+      case INT64:
+        return valueDecoder.readLongs(valueBuffer, (long[]) values, 0, len);
+      case FLOAT:
+        return valueDecoder.readFloats(valueBuffer, (float[]) values, 0, len);
+      case DOUBLE:
+        return valueDecoder.readDoubles(valueBuffer, (double[]) values, 0, len);
+      case TEXT:
+        return valueDecoder.readBinaries(valueBuffer, (Binary[]) values, 0, len);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+  }
 
-    return pageData;
+  private void putValues(BatchData pageData, long[] times, Object values, int num) {
+    switch (dataType) {
+      case BOOLEAN:
+        putBooleans(pageData, times, (boolean[]) values, num);
+        break;
+      case INT32:
+        putInts(pageData, times, (int[]) values, num);
+        break;
+      case INT64:
+        putLongs(pageData, times, (long[]) values, num);
+        break;
+      case FLOAT:
+        putFloats(pageData, times, (float[]) values, num);
+        break;
+      case DOUBLE:
+        putDoubles(pageData, times, (double[]) values, num);
+        break;
+      case TEXT:
+        putBinaries(pageData, times, (Binary[]) values, num);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
   }
 
-  private void readBoolean(BatchData pageData, long timestamp) {
-    boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBoolean)) {
-      pageData.putTime(timestamp);
-      pageData.putBoolean(aBoolean);
+  private void putBooleans(BatchData pageData, long[] times, boolean[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putBoolean(values[i]);
+      }
     }
   }
 
-  private void readInt(BatchData pageData, long timestamp) {
-    int anInt = valueDecoder.readInt(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, anInt)) {
-      pageData.putTime(timestamp);
-      pageData.putInt(anInt);
+  private void putInts(BatchData pageData, long[] times, int[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putInt(values[i]);
+      }
     }
   }
 
-  private void readLong(BatchData pageData, long timestamp) {
-    long aLong = valueDecoder.readLong(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aLong)) {
-      pageData.putTime(timestamp);
-      pageData.putLong(aLong);
+  private void putLongs(BatchData pageData, long[] times, long[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putLong(values[i]);
+      }
     }
   }
 
-  private void readFloat(BatchData pageData, long timestamp) {
-    float aFloat = valueDecoder.readFloat(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aFloat)) {
-      pageData.putTime(timestamp);
-      pageData.putFloat(aFloat);
+  private void putFloats(BatchData pageData, long[] times, float[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putFloat(values[i]);
+      }
     }
   }
 
-  private void readDouble(BatchData pageData, long timestamp) {
-    double aDouble = valueDecoder.readDouble(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aDouble)) {
-      pageData.putTime(timestamp);
-      pageData.putDouble(aDouble);
+  private void putDoubles(BatchData pageData, long[] times, double[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putDouble(values[i]);
+      }
     }
   }
 
-  private void readText(BatchData pageData, long timestamp) {
-    Binary aBinary = valueDecoder.readBinary(valueBuffer);
-    if (timestamp > deletedAt && filter.satisfy(timestamp, aBinary)) {
-      pageData.putTime(timestamp);
-      pageData.putBinary(aBinary);
+  private void putBinaries(BatchData pageData, long[] times, Binary[] values, int num) {
+    for (int i = 0; i < num; i++) {
+      if (times[i] > deletedAt && (filter == null || filter.satisfy(times[i], values[i]))) {
+        pageData.putTime(times[i]);
+        pageData.putBinary(values[i]);
+      }
     }
   }
 
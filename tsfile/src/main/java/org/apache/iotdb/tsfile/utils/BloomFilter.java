@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A bloom filter over strings, which tells that a string is absent without false negatives, or
+ * that it may be present with a false positive rate set when the filter is created.
+ */
+public class BloomFilter {
+
+  private static final int MINIMAL_SIZE = 256;
+  private static final int MAXIMAL_HASH_FUNCTION_SIZE = 8;
+
+  /**
+   * the number of bits, which is a multiple of 64.
+   */
+  private final int size;
+  private final int hashFunctionSize;
+  private final long[] bits;
+
+  private BloomFilter(int size, int hashFunctionSize, long[] bits) {
+    this.size = size;
+    this.hashFunctionSize = hashFunctionSize;
+    this.bits = bits;
+  }
+
+  /**
+   * get an empty bloom filter of the optimal size and number of hash functions.
+   *
+   * @param errorPercent the expected false positive rate, in (0, 1)
+   * @param numOfElement the number of strings to be added
+   * @return an empty bloom filter
+   */
+  public static BloomFilter getEmptyBloomFilter(double errorPercent, int numOfElement) {
+    errorPercent = Math.max(errorPercent, Double.MIN_NORMAL);
+    errorPercent = Math.min(errorPercent, 0.5);
+    numOfElement = Math.max(numOfElement, 1);
+
+    double ln2 = Math.log(2);
+    long optimalSize = (long) Math.ceil(-numOfElement * Math.log(errorPercent) / ln2 / ln2);
+    int size = (int) Math.min(Integer.MAX_VALUE - Long.SIZE + 1,
+        Math.max(MINIMAL_SIZE, optimalSize));
+    size = (size + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+    int hashFunctionSize = (int) Math.round((double) size / numOfElement * ln2);
+    hashFunctionSize = Math.max(1, Math.min(MAXIMAL_HASH_FUNCTION_SIZE, hashFunctionSize));
+    return new BloomFilter(size, hashFunctionSize, new long[size / Long.SIZE]);
+  }
+
+  /**
+   * use given input stream to deserialize.
+   *
+   * @param inputStream -given input stream
+   * @return -an instance of BloomFilter
+   */
+  public static BloomFilter deserializeFrom(InputStream inputStream) throws IOException {
+    int size = ReadWriteIOUtils.readInt(inputStream);
+    int hashFunctionSize = ReadWriteIOUtils.readInt(inputStream);
+    long[] bits = new long[size / Long.SIZE];
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = ReadWriteIOUtils.readLong(inputStream);
+    }
+    return new BloomFilter(size, hashFunctionSize, bits);
+  }
+
+  /**
+   * use given buffer to deserialize.
+   *
+   * @param buffer -given buffer
+   * @return -an instance of BloomFilter
+   */
+  public static BloomFilter deserializeFrom(ByteBuffer buffer) {
+    int size = ReadWriteIOUtils.readInt(buffer);
+    int hashFunctionSize = ReadWriteIOUtils.readInt(buffer);
+    long[] bits = new long[size / Long.SIZE];
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = ReadWriteIOUtils.readLong(buffer);
+    }
+    return new BloomFilter(size, hashFunctionSize, bits);
+  }
+
+  public void add(String value) {
+    long hash = hash(value);
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashFunctionSize; i++) {
+      int index = ((hash1 + i * hash2) & Integer.MAX_VALUE) % size;
+      bits[index >>> 6] |= 1L << index;
+    }
+  }
+
+  /**
+   * @return false if the value is absent, or true if it may be present
+   */
+  public boolean contains(String value) {
+    long hash = hash(value);
+    int hash1 = (int) hash;
+    int hash2 = (int) (hash >>> 32);
+    for (int i = 0; i < hashFunctionSize; i++) {
+      int index = ((hash1 + i * hash2) & Integer.MAX_VALUE) % size;
+      if ((bits[index >>> 6] & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 64-bit FNV-1a hash of the UTF-8 bytes, whose bits are mixed by the finalizer of MurmurHash3 so
+   * that the two halves can be used as independent hashes.
+   */
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getHashFunctionSize() {
+    return hashFunctionSize;
+  }
+
+  public int getSerializedSize() {
+    return 2 * Integer.BYTES + bits.length * Long.BYTES;
+  }
+
+  /**
+   * use given outputStream to serialize.
+   *
+   * @param outputStream -given outputStream
+   * @return -byte length
+   */
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteIOUtils.write(size, outputStream);
+    byteLen += ReadWriteIOUtils.write(hashFunctionSize, outputStream);
+    for (long word : bits) {
+      byteLen += ReadWriteIOUtils.write(word, outputStream);
+    }
+    return byteLen;
+  }
+
+  /**
+   * use given buffer to serialize.
+   *
+   * @param buffer -given buffer
+   * @return -byte length
+   */
+  public int serializeTo(ByteBuffer buffer) {
+    int byteLen = ReadWriteIOUtils.write(size, buffer);
+    byteLen += ReadWriteIOUtils.write(hashFunctionSize, buffer);
+    for (long word : bits) {
+      byteLen += ReadWriteIOUtils.write(word, buffer);
+    }
+    return byteLen;
+  }
+}
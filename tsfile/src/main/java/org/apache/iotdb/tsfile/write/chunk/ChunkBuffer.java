@@ -25,6 +25,7 @@ import java.nio.channels.WritableByteChannel;
 import org.apache.iotdb.tsfile.compress.ICompressor;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
@@ -51,6 +52,11 @@ public class ChunkBuffer {
    */
   private PublicBAOS pageBuffer;
 
+  /**
+   * time index of the pages in pageBuffer.
+   */
+  private PageIndex pageIndex;
+
   private long totalValueCount;
   private long maxTimestamp;
   private long minTimestamp = -1;
@@ -65,6 +71,7 @@ public class ChunkBuffer {
     this.schema = schema;
     this.compressor = ICompressor.getCompressor(schema.getCompressor());
     this.pageBuffer = new PublicBAOS();
+    this.pageIndex = new PageIndex();
   }
 
   public int getNumOfPages() {
@@ -118,6 +125,7 @@ public class ChunkBuffer {
     }
 
     int headerSize = 0;
+    int pageOffset = pageBuffer.size();
 
     // write the page header to IOWriter
     try {
@@ -156,6 +164,7 @@ public class ChunkBuffer {
       throw new PageException(
           "meet IO Exception in buffer append,but we cannot understand it:" + e.getMessage());
     }
+    pageIndex.addPage(minTimestamp, maxTimestamp, pageOffset);
     return headerSize + uncompressedSize;
   }
 
@@ -196,7 +205,9 @@ public class ChunkBuffer {
     long size = writer.getPos() - totalByteSize;
     assert size == pageBuffer.size();
 
-    writer.endChunk(totalValueCount);
+    // a chunk of one page or unordered pages can not be searched by the page index
+    writer.endChunk(totalValueCount,
+        pageIndex.getPageNum() > 1 && pageIndex.isTimeOrdered() ? pageIndex : null);
     return headerSize + size;
   }
 
@@ -206,6 +217,7 @@ public class ChunkBuffer {
   public void reset() {
     minTimestamp = -1;
     pageBuffer.reset();
+    pageIndex = new PageIndex();
     totalValueCount = 0;
   }
 
@@ -77,8 +77,8 @@ public class ChunkGroupWriterImpl implements IChunkGroupWriter {
     // make sure all the pages have been compressed into buffers, so that we can get correct
     // groupWriter.getCurrentChunkGroupSize().
     sealAllChunks();
-    ChunkGroupFooter footer = new ChunkGroupFooter(deviceId, getCurrentChunkGroupSize(),
-        getSeriesNumber());
+    ChunkGroupFooter footer = new ChunkGroupFooter(deviceId,
+        getCurrentChunkGroupSize(fileWriter.getVersion()), getSeriesNumber());
     for (IChunkWriter seriesWriter : chunkWriters.values()) {
       seriesWriter.writeToFileWriter(fileWriter);
     }
@@ -95,10 +95,10 @@ public class ChunkGroupWriterImpl implements IChunkGroupWriter {
   }
 
   @Override
-  public long getCurrentChunkGroupSize() {
+  public long getCurrentChunkGroupSize(int version) {
     long size = 0;
     for (IChunkWriter writer : chunkWriters.values()) {
-      size += writer.getCurrentChunkSize();
+      size += writer.getCurrentChunkSize(version);
     }
     return size;
   }
@@ -275,10 +275,10 @@ public class ChunkWriterImpl implements IChunkWriter {
   }
 
   @Override
-  public long getCurrentChunkSize() {
+  public long getCurrentChunkSize(int version) {
     // return the serialized size of the chunk header + all pages
-    return ChunkHeader.getSerializedSize(measurementSchema.getMeasurementId()) + chunkBuffer
-        .getCurrentDataSize();
+    return ChunkHeader.getSerializedSize(measurementSchema.getMeasurementId(), version)
+        + chunkBuffer.getCurrentDataSize();
   }
 
   @Override
@@ -81,9 +81,10 @@ public interface IChunkGroupWriter {
 
   /** get the serialized size of current chunkGroup header + all chunks.
    *        Notice, the value does not include any un-sealed page in the chunks.
+   * @param version the version of the file the chunks are written into
    * @return the serialized size of current chunkGroup header + all chunk
    */
-  long getCurrentChunkGroupSize();
+  long getCurrentChunkGroupSize(int version);
 
   int getSeriesNumber();
 }
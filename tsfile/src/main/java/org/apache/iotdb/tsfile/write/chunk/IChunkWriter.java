@@ -79,8 +79,11 @@ public interface IChunkWriter {
    * return the serialized size of the chunk header + all pages (not including the un-sealed page).
    * Notice, call this method before calling writeToFileWriter(), otherwise the page buffer in
    * memory will be cleared.
+   *
+   * @param version the version of the file the chunk is written into, which decides the size of
+   * the chunk header
    */
-  long getCurrentChunkSize();
+  long getCurrentChunkSize(int version);
 
   /**
    * seal the current page which may has not enough data points in force.
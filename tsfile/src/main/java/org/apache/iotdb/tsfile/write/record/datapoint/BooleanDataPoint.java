@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.record.datapoint;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
 import org.slf4j.Logger;
@@ -55,6 +56,16 @@ public class BooleanDataPoint extends DataPoint {
     writer.write(time, value);
   }
 
+  @Override
+  public void writeTo(long time, IPointWriter writer) {
+    writer.putBoolean(time, value);
+  }
+
+  @Override
+  public void serializeValueTo(ByteBuffer buffer) {
+    buffer.put((byte) (value ? 1 : 0));
+  }
+
   @Override
   public Object getValue() {
     return value;
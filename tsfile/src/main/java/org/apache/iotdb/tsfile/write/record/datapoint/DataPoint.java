@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.write.record.datapoint;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -99,6 +100,35 @@ public abstract class DataPoint {
     return dataPoint;
   }
 
+  /**
+   * Construct one data point with data type and a value which is already of the corresponding java
+   * type (Integer, Long, Float, Double, Boolean or Binary), so that no string parsing is needed.
+   *
+   * @param dataType data type
+   * @param measurementId measurement id
+   * @param value value of the java type matching dataType
+   * @return data point class according to data type
+   */
+  public static DataPoint getDataPoint(TSDataType dataType, String measurementId, Object value) {
+    switch (dataType) {
+      case INT32:
+        return new IntDataPoint(measurementId, (Integer) value);
+      case INT64:
+        return new LongDataPoint(measurementId, (Long) value);
+      case FLOAT:
+        return new FloatDataPoint(measurementId, (Float) value);
+      case DOUBLE:
+        return new DoubleDataPoint(measurementId, (Double) value);
+      case BOOLEAN:
+        return new BooleanDataPoint(measurementId, (Boolean) value);
+      case TEXT:
+        return new StringDataPoint(measurementId, (Binary) value);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
   /**
    * write this DataPoint by a SeriesWriter.
    *
@@ -108,6 +138,54 @@ public abstract class DataPoint {
    */
   public abstract void writeTo(long time, IChunkWriter writer) throws IOException;
 
+  /**
+   * put the value of this DataPoint to the writer by the method of its data type.
+   *
+   * @param time timestamp
+   * @param writer writer
+   */
+  public abstract void writeTo(long time, IPointWriter writer);
+
+  /**
+   * serialize the value of this DataPoint in its binary form: one byte for a boolean, the value
+   * itself for a number, or the length followed by the bytes for a text.
+   *
+   * @param buffer ByteBuffer to be written
+   */
+  public abstract void serializeValueTo(ByteBuffer buffer);
+
+  /**
+   * Construct one data point with data type and a value written by {@link
+   * #serializeValueTo(ByteBuffer)}.
+   *
+   * @param dataType data type
+   * @param measurementId measurement id
+   * @param buffer ByteBuffer to be read
+   * @return data point class according to data type
+   */
+  public static DataPoint deserializeFrom(TSDataType dataType, String measurementId,
+      ByteBuffer buffer) {
+    switch (dataType) {
+      case INT32:
+        return new IntDataPoint(measurementId, buffer.getInt());
+      case INT64:
+        return new LongDataPoint(measurementId, buffer.getLong());
+      case FLOAT:
+        return new FloatDataPoint(measurementId, buffer.getFloat());
+      case DOUBLE:
+        return new DoubleDataPoint(measurementId, buffer.getDouble());
+      case BOOLEAN:
+        return new BooleanDataPoint(measurementId, buffer.get() == 1);
+      case TEXT:
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new StringDataPoint(measurementId, new Binary(bytes));
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
   public String getMeasurementId() {
     return measurementId;
   }
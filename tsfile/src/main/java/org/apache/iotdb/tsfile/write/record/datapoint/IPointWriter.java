@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.record.datapoint;
+
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * a receiver of time-value pairs which takes each value in its primitive type. A DataPoint puts its
+ * value by the method of its data type in {@link DataPoint#writeTo(long, IPointWriter)}, so the
+ * value is never boxed.
+ */
+public interface IPointWriter {
+
+  void putLong(long t, long v);
+
+  void putInt(long t, int v);
+
+  void putFloat(long t, float v);
+
+  void putDouble(long t, double v);
+
+  void putBinary(long t, Binary v);
+
+  void putBoolean(long t, boolean v);
+}
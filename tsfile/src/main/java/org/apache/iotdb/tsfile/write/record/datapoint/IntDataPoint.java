@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.record.datapoint;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
 import org.slf4j.Logger;
@@ -54,6 +55,16 @@ public class IntDataPoint extends DataPoint {
 
   }
 
+  @Override
+  public void writeTo(long time, IPointWriter writer) {
+    writer.putInt(time, value);
+  }
+
+  @Override
+  public void serializeValueTo(ByteBuffer buffer) {
+    buffer.putInt(value);
+  }
+
   @Override
   public Object getValue() {
     return value;
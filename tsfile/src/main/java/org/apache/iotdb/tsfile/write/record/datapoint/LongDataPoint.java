@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.record.datapoint;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
 import org.slf4j.Logger;
@@ -56,6 +57,16 @@ public class LongDataPoint extends DataPoint {
 
   }
 
+  @Override
+  public void writeTo(long time, IPointWriter writer) {
+    writer.putLong(time, value);
+  }
+
+  @Override
+  public void serializeValueTo(ByteBuffer buffer) {
+    buffer.putLong(value);
+  }
+
   @Override
   public Object getValue() {
     return value;
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.record.datapoint;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
@@ -57,6 +58,18 @@ public class StringDataPoint extends DataPoint {
 
   }
 
+  @Override
+  public void writeTo(long time, IPointWriter writer) {
+    writer.putBinary(time, value);
+  }
+
+  @Override
+  public void serializeValueTo(ByteBuffer buffer) {
+    byte[] bytes = value.getValues();
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
   @Override
   public Object getValue() {
     return value;
@@ -50,6 +50,11 @@ import org.apache.iotdb.tsfile.utils.StringContainer;
  */
 public class MeasurementSchema implements Comparable<MeasurementSchema>, Serializable {
 
+  /**
+   * the property of the encoding of timestamps, which overrides TSFileConfig.timeSeriesEncoder.
+   */
+  public static final String TIME_ENCODING = "time_encoding";
+
   private TSDataType type;
   private TSEncoding encoding;
   private String measurementId;
@@ -199,14 +204,25 @@ public class MeasurementSchema implements Comparable<MeasurementSchema>, Seriali
     }
   }
 
+  /**
+   * get the encoding of timestamps, which is given by the property time_encoding or
+   * TSFileConfig.timeSeriesEncoder.
+   */
+  public TSEncoding getTimeEncodingType() {
+    String timeEncoding = props == null ? null : props.get(TIME_ENCODING);
+    if (timeEncoding == null) {
+      timeEncoding = TSFileConfig.timeSeriesEncoder;
+    }
+    return TSEncoding.valueOf(timeEncoding.toUpperCase());
+  }
+
   /**
    * function for getting time encoder.
    * TODO can I be optimized?
    */
   public Encoder getTimeEncoder() {
-    TSEncoding timeSeriesEncoder = TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder);
     TSDataType timeType = TSDataType.valueOf(TSFileConfig.timeSeriesDataType);
-    return TSEncodingBuilder.getConverter(timeSeriesEncoder).getEncoder(timeType);
+    return TSEncodingBuilder.getConverter(getTimeEncodingType()).getEncoder(timeType);
   }
 
   /**
@@ -23,7 +23,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
-import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.read.TsFileCheckStatus;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
@@ -69,6 +68,8 @@ public class NativeRestorableIOWriter extends TsFileIOWriter {
           return;
         }
         truncatedPosition = reader.selfCheck(knownSchemas, chunkGroupMetaDataList, !append);
+        // go on writing the file in its own version
+        version = reader.readVersion();
         if (truncatedPosition == TsFileCheckStatus.COMPLETE_FILE && !append) {
             this.canWrite = false;
             out.close();
@@ -77,7 +78,9 @@ public class NativeRestorableIOWriter extends TsFileIOWriter {
           throw new IOException(
               String.format("%s is not in TsFile format.", file.getAbsolutePath()));
         } else if (truncatedPosition == TsFileCheckStatus.ONLY_MAGIC_HEAD) {
-          out.truncate(TSFileConfig.MAGIC_STRING.length());
+          // the head may be incomplete, so rewrite it
+          out.truncate(0);
+          startFile();
         } else {
           //remove broken data
           out.truncate(truncatedPosition);
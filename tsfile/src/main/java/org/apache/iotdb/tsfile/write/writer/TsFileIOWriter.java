@@ -24,8 +24,10 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
@@ -34,6 +36,7 @@ import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDigest;
@@ -42,6 +45,8 @@ import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -69,6 +74,11 @@ public class TsFileIOWriter {
   private ChunkGroupMetaData currentChunkGroupMetaData;
   private ChunkMetaData currentChunkMetaData;
   protected boolean canWrite = true;
+  /**
+   * the version of the file, which is older than TSFileConfig.CURRENT_VERSION if data is appended
+   * into an existing file.
+   */
+  protected int version = TSFileConfig.CURRENT_VERSION;
 
   /**
    * empty construct function.
@@ -118,6 +128,22 @@ public class TsFileIOWriter {
 
   protected void startFile() throws IOException {
     out.write(magicStringBytes);
+    version = TSFileConfig.CURRENT_VERSION;
+    ReadWriteIOUtils.write(MetaMarker.VERSION, out.wrapAsStream());
+    ReadWriteIOUtils.write(version, out.wrapAsStream());
+  }
+
+  /**
+   * get the size of the head of a file, i.e., the position of its first chunk group.
+   *
+   * @param version the version of the file
+   * @return the size of the magic string, followed by the version since TIME_ENCODING_VERSION
+   */
+  public static int getHeadSize(int version) {
+    if (version < TSFileConfig.TIME_ENCODING_VERSION) {
+      return magicStringBytes.length;
+    }
+    return magicStringBytes.length + Byte.BYTES + Integer.BYTES;
   }
 
   /**
@@ -153,10 +179,17 @@ public class TsFileIOWriter {
         out.getPosition(), minTime,
         maxTime);
 
+    TSEncoding timeEncoding = descriptor.getTimeEncodingType();
+    if (version < TSFileConfig.TIME_ENCODING_VERSION && !timeEncoding
+        .equals(TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder))) {
+      throw new IOException(String.format("Cannot write timestamps of %s encoded by %s into a "
+              + "TsFile of version %d, which only supports %s", descriptor.getMeasurementId(),
+          timeEncoding, version, TSFileConfig.timeSeriesEncoder));
+    }
     ChunkHeader header = new ChunkHeader(descriptor.getMeasurementId(), dataSize, tsDataType,
         compressionCodecName,
-        encodingType, numOfPages);
-    header.serializeTo(out.wrapAsStream());
+        encodingType, timeEncoding, numOfPages);
+    int headerSize = header.serializeTo(out.wrapAsStream(), version);
     LOG.debug("finish series chunk:{} header, file position {}", header, out.getPosition());
 
     Map<String, ByteBuffer> statisticsMap = new HashMap<>();
@@ -173,7 +206,7 @@ public class TsFileIOWriter {
 
     currentChunkMetaData.setDigest(tsDigest);
 
-    return header.getSerializedSize();
+    return headerSize;
   }
 
   /**
@@ -182,7 +215,18 @@ public class TsFileIOWriter {
    * @param totalValueCount -set the number of points to the currentChunkMetaData
    */
   public void endChunk(long totalValueCount) {
+    endChunk(totalValueCount, null);
+  }
+
+  /**
+   * end chunk and write some log.
+   *
+   * @param totalValueCount -set the number of points to the currentChunkMetaData
+   * @param pageIndex -the time index of the pages of the chunk, null if absent
+   */
+  public void endChunk(long totalValueCount, PageIndex pageIndex) {
     currentChunkMetaData.setNumOfPoints(totalValueCount);
+    currentChunkMetaData.setPageIndex(pageIndex);
     currentChunkGroupMetaData.addTimeSeriesChunkMetaData(currentChunkMetaData);
     LOG.debug("end series chunk:{},totalvalue:{}", currentChunkMetaData, totalValueCount);
     currentChunkMetaData = null;
@@ -221,7 +265,10 @@ public class TsFileIOWriter {
         this.chunkGroupMetaDataList);
 
     TsFileMetaData tsFileMetaData = new TsFileMetaData(tsDeviceMetadataIndexMap, schemaDescriptors,
-        TSFileConfig.CURRENT_VERSION);
+        version);
+    if (version >= TSFileConfig.BLOOM_FILTER_VERSION) {
+      tsFileMetaData.setBloomFilter(buildBloomFilter(this.chunkGroupMetaDataList));
+    }
 
     long footerIndex = out.getPosition();
     LOG.debug("start to flush the footer,file pos:{}", footerIndex);
@@ -242,6 +289,28 @@ public class TsFileIOWriter {
     LOG.info("output stream is closed");
   }
 
+  /**
+   * build the bloom filter over the full paths of the series in this file.
+   *
+   * @param chunkGroupMetaDataList all chunk group metadata in memory
+   * @return bloom filter in TsFileMetaData
+   */
+  private BloomFilter buildBloomFilter(List<ChunkGroupMetaData> chunkGroupMetaDataList) {
+    Set<String> paths = new HashSet<>();
+    for (ChunkGroupMetaData chunkGroupMetaData : chunkGroupMetaDataList) {
+      for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+        paths.add(new Path(chunkGroupMetaData.getDeviceID(), chunkMetaData.getMeasurementUid())
+            .getFullPath());
+      }
+    }
+    BloomFilter bloomFilter = BloomFilter
+        .getEmptyBloomFilter(TSFileConfig.bloomFilterErrorRate, paths.size());
+    for (String path : paths) {
+      bloomFilter.add(path);
+    }
+    return bloomFilter;
+  }
+
   /**
    * 1. group chunkGroupMetaDataList to TsDeviceMetadata 2. flush TsDeviceMetadata 3. get
    * TsDeviceMetadataIndex
@@ -266,7 +335,7 @@ public class TsFileIOWriter {
 
       // flush tsChunkGroupBlockMetaData
       offset = out.getPosition();
-      int size = currentTsDeviceMetadata.serializeTo(out.wrapAsStream());
+      int size = currentTsDeviceMetadata.serializeTo(out.wrapAsStream(), version);
 
       TsDeviceMetadataIndex tsDeviceMetadataIndex = new TsDeviceMetadataIndex(offset, size,
           currentTsDeviceMetadata);
@@ -322,6 +391,10 @@ public class TsFileIOWriter {
     return canWrite;
   }
 
+  public int getVersion() {
+    return version;
+  }
+
   /**
    * close the inputstream or file channel in force. This is just used for Testing.
    */
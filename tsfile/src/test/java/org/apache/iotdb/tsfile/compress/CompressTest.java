@@ -21,7 +21,9 @@ package org.apache.iotdb.tsfile.compress;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.junit.After;
 import org.junit.Before;
@@ -81,4 +83,53 @@ public class CompressTest {
     assertEquals(inputString, result);
   }
 
+  @Test
+  public void gzipLz4ZstdTest() throws IOException {
+    CompressionType[] types = {CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD};
+    byte[] input = inputString.getBytes("UTF-8");
+    for (CompressionType type : types) {
+      ICompressor compressor = ICompressor.getCompressor(type);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+
+      byte[] compressed = compressor.compress(input);
+      assertEquals(input.length, unCompressor.getUncompressedLength(compressed, 0,
+          compressed.length));
+      assertEquals(inputString, new String(unCompressor.uncompress(compressed), "UTF-8"));
+
+      byte[] buffer = new byte[compressor.getMaxBytesForCompression(input.length)];
+      int size = compressor.compress(input, 0, input.length, buffer);
+      byte[] output = new byte[input.length + 3];
+      assertEquals(input.length, unCompressor.uncompress(buffer, 0, size, output, 3));
+      assertEquals(inputString, new String(output, 3, input.length, "UTF-8"));
+    }
+  }
+
+  @Test
+  public void directByteBufferTest() throws IOException {
+    CompressionType[] types = {CompressionType.GZIP, CompressionType.LZ4, CompressionType.ZSTD};
+    byte[] input = inputString.getBytes("UTF-8");
+    for (CompressionType type : types) {
+      ICompressor compressor = ICompressor.getCompressor(type);
+      IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
+      ByteBuffer data = ByteBuffer.allocateDirect(input.length + 2);
+      data.position(2);
+      data.put(input);
+      data.position(2);
+      ByteBuffer compressed = ByteBuffer
+          .allocateDirect(compressor.getMaxBytesForCompression(input.length) + 1);
+      compressed.position(1);
+      int size = compressor.compress(data, compressed);
+      assertEquals(2, data.position());
+      assertEquals(1, compressed.position());
+      assertEquals(1 + size, compressed.limit());
+
+      assertEquals(input.length, unCompressor.getUncompressedLength(compressed));
+      ByteBuffer uncompressed = ByteBuffer.allocateDirect(input.length);
+      assertEquals(input.length, unCompressor.uncompress(compressed, uncompressed));
+      byte[] output = new byte[input.length];
+      uncompressed.get(output);
+      assertEquals(inputString, new String(output, "UTF-8"));
+    }
+  }
+
 }
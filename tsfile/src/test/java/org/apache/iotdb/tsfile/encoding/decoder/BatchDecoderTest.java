@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.common.EndianType;
+import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoublePrecisionEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongRleEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Test;
+
+public class BatchDecoderTest {
+
+  private static final int VALUE_NUM = 3000;
+  // not a multiple of the pack or group sizes, so batches end in the middle of them
+  private static final int BATCH_SIZE = 77;
+  private static final double DELTA = 0.0000001;
+  // a float of the scaled integer may differ from the float division in the last bit
+  private static final double FLOAT_DELTA = 0.001;
+
+  private long longValue(int i) {
+    // runs of repeated values followed by varying ones, to use both rle and bit-packing
+    return i % 200 < 100 ? i / 100 * 7L : i * 31L - 1000;
+  }
+
+  @Test
+  public void testReadInts() throws IOException {
+    Encoder[] encoders = {new IntRleEncoder(EndianType.LITTLE_ENDIAN),
+        new DeltaBinaryEncoder.IntDeltaEncoder(),
+        new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.INT32, 0), new IntGorillaEncoder()};
+    Decoder[] decoders = {new IntRleDecoder(EndianType.LITTLE_ENDIAN),
+        new DeltaBinaryDecoder.IntDeltaDecoder(), new PlainDecoder(EndianType.LITTLE_ENDIAN),
+        new IntGorillaDecoder()};
+    for (int k = 0; k < encoders.length; k++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int i = 0; i < VALUE_NUM; i++) {
+        encoders[k].encode((int) longValue(i), out);
+      }
+      encoders[k].flush(out);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      int[] values = new int[BATCH_SIZE];
+      int index = 0;
+      int num;
+      while ((num = decoders[k].readInts(buffer, values, 0, BATCH_SIZE)) > 0) {
+        for (int i = 0; i < num; i++) {
+          assertEquals((int) longValue(index++), values[i]);
+        }
+      }
+      assertEquals(VALUE_NUM, index);
+    }
+  }
+
+  @Test
+  public void testReadLongs() throws IOException {
+    Encoder[] encoders = {new LongRleEncoder(EndianType.LITTLE_ENDIAN),
+        new DeltaBinaryEncoder.LongDeltaEncoder(),
+        new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.INT64, 0), new LongGorillaEncoder()};
+    Decoder[] decoders = {new LongRleDecoder(EndianType.LITTLE_ENDIAN),
+        new DeltaBinaryDecoder.LongDeltaDecoder(), new PlainDecoder(EndianType.LITTLE_ENDIAN),
+        new LongGorillaDecoder()};
+    for (int k = 0; k < encoders.length; k++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int i = 0; i < VALUE_NUM; i++) {
+        encoders[k].encode(longValue(i), out);
+      }
+      encoders[k].flush(out);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      long[] values = new long[BATCH_SIZE];
+      int index = 0;
+      int num;
+      while ((num = decoders[k].readLongs(buffer, values, 0, BATCH_SIZE)) > 0) {
+        for (int i = 0; i < num; i++) {
+          assertEquals(longValue(index++), values[i]);
+        }
+      }
+      assertEquals(VALUE_NUM, index);
+    }
+  }
+
+  @Test
+  public void testReadFloats() throws IOException {
+    Encoder[] encoders = {new SinglePrecisionEncoder(),
+        new FloatEncoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT, 2),
+        new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.FLOAT, 0)};
+    Decoder[] decoders = {new SinglePrecisionDecoder(),
+        new FloatDecoder(TSEncoding.TS_2DIFF, TSDataType.FLOAT),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN)};
+    for (int k = 0; k < encoders.length; k++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int i = 0; i < VALUE_NUM; i++) {
+        encoders[k].encode(longValue(i) / 100.0f, out);
+      }
+      encoders[k].flush(out);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      float[] values = new float[BATCH_SIZE];
+      int index = 0;
+      int num;
+      while ((num = decoders[k].readFloats(buffer, values, 0, BATCH_SIZE)) > 0) {
+        for (int i = 0; i < num; i++) {
+          assertEquals(longValue(index++) / 100.0f, values[i], FLOAT_DELTA);
+        }
+      }
+      assertEquals(VALUE_NUM, index);
+    }
+  }
+
+  @Test
+  public void testReadDoubles() throws IOException {
+    Encoder[] encoders = {new DoublePrecisionEncoder(),
+        new FloatEncoder(TSEncoding.RLE, TSDataType.DOUBLE, 2),
+        new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.DOUBLE, 0)};
+    Decoder[] decoders = {new DoublePrecisionDecoder(),
+        new FloatDecoder(TSEncoding.RLE, TSDataType.DOUBLE),
+        new PlainDecoder(EndianType.LITTLE_ENDIAN)};
+    for (int k = 0; k < encoders.length; k++) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int i = 0; i < VALUE_NUM; i++) {
+        encoders[k].encode(longValue(i) / 100.0, out);
+      }
+      encoders[k].flush(out);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      double[] values = new double[BATCH_SIZE];
+      int index = 0;
+      int num;
+      while ((num = decoders[k].readDoubles(buffer, values, 0, BATCH_SIZE)) > 0) {
+        for (int i = 0; i < num; i++) {
+          assertEquals(longValue(index++) / 100.0, values[i], DELTA);
+        }
+      }
+      assertEquals(VALUE_NUM, index);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.encoding.common.EndianType;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Test;
+
+public class DictionaryDecoderTest {
+
+  private List<Binary> statusList(int num, int cardinality) {
+    List<Binary> list = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      list.add(new Binary("status_" + (i * 7 % cardinality)));
+    }
+    return list;
+  }
+
+  private ByteBuffer encode(DictionaryEncoder encoder, List<Binary> values) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (Binary value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private void checkDecode(Decoder decoder, ByteBuffer buffer, List<Binary> values)
+      throws IOException {
+    for (Binary value : values) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readBinary(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    List<Binary> values = statusList(10000, 10);
+    ByteBuffer buffer = encode(new DictionaryEncoder(128, 1024), values);
+    assertEquals(DictionaryEncoder.DICTIONARY_MODE, buffer.get(0));
+    checkDecode(new DictionaryDecoder(), buffer, values);
+
+    ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+    PlainEncoder plainEncoder = new PlainEncoder(EndianType.LITTLE_ENDIAN, TSDataType.TEXT, 128);
+    for (Binary value : values) {
+      plainEncoder.encode(value, plainOut);
+    }
+    assertTrue(buffer.limit() * 10 < plainOut.size());
+  }
+
+  @Test
+  public void testFallBackToPlain() throws IOException {
+    List<Binary> values = statusList(1000, 1000);
+    ByteBuffer buffer = encode(new DictionaryEncoder(128, 1024), values);
+    assertEquals(DictionaryEncoder.PLAIN_MODE, buffer.get(0));
+    checkDecode(new DictionaryDecoder(), buffer, values);
+  }
+
+  @Test
+  public void testPages() throws IOException {
+    // the encoder and decoder are reused by pages of different modes
+    DictionaryEncoder encoder = new DictionaryEncoder(128, 1024);
+    DictionaryDecoder decoder = new DictionaryDecoder();
+    List<Binary> lowCardinality = statusList(500, 5);
+    List<Binary> highCardinality = statusList(500, 500);
+    List<List<Binary>> pages = new ArrayList<>();
+    pages.add(lowCardinality);
+    pages.add(highCardinality);
+    pages.add(lowCardinality);
+    for (List<Binary> page : pages) {
+      ByteBuffer buffer = encode(encoder, page);
+      decoder.reset();
+      Binary[] decoded = new Binary[page.size()];
+      int num = 0;
+      while (decoder.hasNext(buffer)) {
+        num += decoder.readBinaries(buffer, decoded, num, 77);
+      }
+      assertEquals(page.size(), num);
+      for (int i = 0; i < num; i++) {
+        assertEquals(page.get(i), decoded[i]);
+      }
+    }
+  }
+}
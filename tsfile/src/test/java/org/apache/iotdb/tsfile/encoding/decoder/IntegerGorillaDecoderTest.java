@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntGorillaEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongGorillaEncoder;
+import org.junit.Test;
+
+public class IntegerGorillaDecoderTest {
+
+  private static final int ROW_NUM = 10000;
+
+  @Test
+  public void testTimestamps() throws IOException {
+    // a fixed cadence with a small jitter and some gaps
+    List<Long> data = new ArrayList<>();
+    long time = System.currentTimeMillis();
+    for (int i = 0; i < ROW_NUM; i++) {
+      time += i % 10 == 0 ? 1001 : 1000;
+      if (i % 1000 == 999) {
+        time += 3600 * 1000L;
+      }
+      data.add(time);
+    }
+    ByteBuffer buffer = encodeLongs(new LongGorillaEncoder(), data);
+    // less than 4 bits per point
+    assertTrue(buffer.remaining() < ROW_NUM / 2);
+    checkLongs(new LongGorillaDecoder(), buffer, data);
+  }
+
+  @Test
+  public void testLongBoundaries() throws IOException {
+    List<Long> data = new ArrayList<>();
+    long[] values = {0, Long.MAX_VALUE, Long.MIN_VALUE, -1, 64, -64, 63, -65, 256, -257, 2047,
+        -2049, 1L << 40, 5, 5, 5};
+    for (long value : values) {
+      data.add(value);
+    }
+    checkLongs(new LongGorillaDecoder(), encodeLongs(new LongGorillaEncoder(), data), data);
+  }
+
+  @Test
+  public void testIntBoundaries() throws IOException {
+    List<Integer> data = new ArrayList<>();
+    int[] values = {0, Integer.MAX_VALUE, Integer.MIN_VALUE, -1, 64, -64, 63, -65, 256, -257,
+        2047, -2049, 1 << 20, 5, 5, 5};
+    for (int value : values) {
+      data.add(value);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = new IntGorillaEncoder();
+    for (int value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new IntGorillaDecoder();
+    for (int value : data) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readInt(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testPages() throws IOException {
+    // the encoder and decoder are reused by pages, like those of a chunk
+    Encoder encoder = new LongGorillaEncoder();
+    Decoder decoder = new LongGorillaDecoder();
+    for (int page = 0; page < 3; page++) {
+      List<Long> data = new ArrayList<>();
+      for (int i = 0; i < ROW_NUM; i++) {
+        data.add(page * 100000L + i * (page + 1));
+      }
+      decoder.reset();
+      checkLongs(decoder, encodeLongs(encoder, data), data);
+    }
+    // an empty page
+    decoder.reset();
+    assertFalse(decoder.hasNext(encodeLongs(encoder, new ArrayList<>())));
+  }
+
+  private ByteBuffer encodeLongs(Encoder encoder, List<Long> data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (long value : data) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  private void checkLongs(Decoder decoder, ByteBuffer buffer, List<Long> data)
+      throws IOException {
+    for (long value : data) {
+      assertTrue(decoder.hasNext(buffer));
+      assertEquals(value, decoder.readLong(buffer));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
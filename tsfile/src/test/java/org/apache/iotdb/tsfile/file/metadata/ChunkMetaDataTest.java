@@ -18,10 +18,18 @@
  */
 package org.apache.iotdb.tsfile.file.metadata;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
 import org.apache.iotdb.tsfile.file.metadata.utils.Utils;
@@ -60,6 +68,48 @@ public class ChunkMetaDataTest {
     serialized(readMetaData);
   }
 
+  @Test
+  public void testPageIndex() throws IOException {
+    ChunkMetaData metaData = TestHelper.createSimpleTimeSeriesChunkMetaData();
+    PageIndex pageIndex = new PageIndex();
+    pageIndex.addPage(START_TIME, START_TIME + 100, 0);
+    pageIndex.addPage(START_TIME + 101, END_TIME, 4096);
+    metaData.setPageIndex(pageIndex);
+    serialized(metaData);
+    ChunkMetaData readMetaData = deSerialized();
+    Utils.isTimeSeriesChunkMetadataEqual(metaData, readMetaData);
+
+    ByteBuffer buffer = ByteBuffer.allocate(metaData.getSerializedSize());
+    metaData.serializeTo(buffer);
+    assertFalse(buffer.hasRemaining());
+    buffer.flip();
+    Utils.isTimeSeriesChunkMetadataEqual(metaData, ChunkMetaData.deserializeFrom(buffer));
+  }
+
+  @Test
+  public void testPageIndexOfOldVersion() throws IOException {
+    ChunkMetaData metaData = TestHelper.createSimpleTimeSeriesChunkMetaData();
+    PageIndex pageIndex = new PageIndex();
+    pageIndex.addPage(START_TIME, START_TIME + 100, 0);
+    pageIndex.addPage(START_TIME + 101, END_TIME, 4096);
+    metaData.setPageIndex(pageIndex);
+
+    // a file older than PAGE_INDEX_VERSION has no page index after the digest
+    int oldVersion = TSFileConfig.PAGE_INDEX_VERSION - 1;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int size = metaData.serializeTo(out, oldVersion);
+    assertEquals(metaData.getSerializedSize() - pageIndex.getSerializedSize(), size);
+    assertEquals(size, out.size());
+
+    ChunkMetaData readMetaData = ChunkMetaData
+        .deserializeFrom(new ByteArrayInputStream(out.toByteArray()), oldVersion);
+    assertNull(readMetaData.getPageIndex());
+    assertEquals(metaData.getNumOfPoints(), readMetaData.getNumOfPoints());
+    readMetaData = ChunkMetaData.deserializeFrom(ByteBuffer.wrap(out.toByteArray()), oldVersion);
+    assertNull(readMetaData.getPageIndex());
+    assertEquals(metaData.getEndTime(), readMetaData.getEndTime());
+  }
+
   private ChunkMetaData deSerialized() {
     FileInputStream fis = null;
     ChunkMetaData metaData = null;
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class PageIndexTest {
+
+  /**
+   * pages of [i * 100, i * 100 + 49] at offset i * 1000.
+   */
+  private PageIndex createPageIndex(int pageNum) {
+    PageIndex pageIndex = new PageIndex();
+    for (int i = 0; i < pageNum; i++) {
+      pageIndex.addPage(i * 100L, i * 100L + 49, i * 1000);
+    }
+    return pageIndex;
+  }
+
+  @Test
+  public void testSearchPage() {
+    PageIndex pageIndex = createPageIndex(20);
+    assertEquals(20, pageIndex.getPageNum());
+    assertEquals(0, pageIndex.searchPage(Long.MIN_VALUE));
+    assertEquals(0, pageIndex.searchPage(49));
+    assertEquals(1, pageIndex.searchPage(50));
+    assertEquals(1, pageIndex.searchPage(120));
+    assertEquals(19, pageIndex.searchPage(1949));
+    assertEquals(20, pageIndex.searchPage(1950));
+  }
+
+  @Test
+  public void testTimeOrdered() {
+    PageIndex pageIndex = createPageIndex(10);
+    assertTrue(pageIndex.isTimeOrdered());
+    pageIndex.addPage(949, 1000, 10000);
+    assertFalse(pageIndex.isTimeOrdered());
+  }
+
+  @Test
+  public void testSubIndex() {
+    PageIndex subIndex = createPageIndex(10).subIndex(3, 6);
+    assertEquals(3, subIndex.getPageNum());
+    for (int i = 0; i < 3; i++) {
+      assertEquals((i + 3) * 100L, subIndex.getStartTime(i));
+      assertEquals((i + 3) * 100L + 49, subIndex.getEndTime(i));
+      assertEquals(i * 1000, subIndex.getOffset(i));
+    }
+    assertEquals(0, createPageIndex(10).subIndex(10, 10).getPageNum());
+  }
+
+  @Test
+  public void testSerialize() {
+    PageIndex pageIndex = createPageIndex(10);
+    ByteBuffer buffer = ByteBuffer.allocate(pageIndex.getSerializedSize()
+        + PageIndex.getNullPageIndexSize());
+    pageIndex.serializeTo(buffer);
+    PageIndex.serializeNullTo(buffer);
+    buffer.flip();
+    PageIndex readPageIndex = PageIndex.deserializeFrom(buffer);
+    assertEquals(pageIndex.getPageNum(), readPageIndex.getPageNum());
+    for (int i = 0; i < pageIndex.getPageNum(); i++) {
+      assertEquals(pageIndex.getStartTime(i), readPageIndex.getStartTime(i));
+      assertEquals(pageIndex.getEndTime(i), readPageIndex.getEndTime(i));
+      assertEquals(pageIndex.getOffset(i), readPageIndex.getOffset(i));
+    }
+    assertNull(PageIndex.deserializeFrom(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+}
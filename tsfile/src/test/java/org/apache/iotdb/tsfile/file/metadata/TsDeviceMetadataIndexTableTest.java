@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.iotdb.tsfile.file.metadata.utils.Utils;
+import org.junit.Test;
+
+public class TsDeviceMetadataIndexTableTest {
+
+  private static final int DEVICE_NUM = 1000;
+
+  private Map<String, TsDeviceMetadataIndex> createDeviceIndexMap() {
+    Map<String, TsDeviceMetadataIndex> deviceIndexMap = new HashMap<>();
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      TsDeviceMetadata deviceMetadata = new TsDeviceMetadata();
+      deviceMetadata.setStartTime(i * 100L);
+      deviceMetadata.setEndTime(i * 100L + 99);
+      deviceIndexMap.put("root.sg.d" + i, new TsDeviceMetadataIndex(i * 1000L, i, deviceMetadata));
+    }
+    return deviceIndexMap;
+  }
+
+  private void checkTable(Map<String, TsDeviceMetadataIndex> deviceIndexMap,
+      TsDeviceMetadataIndexTable table) {
+    assertEquals(deviceIndexMap.size(), table.getDeviceNum());
+    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
+      assertTrue(table.containsDevice(entry.getKey()));
+      Utils.isTsDeviceMetadataIndexEqual(entry.getValue(),
+          table.getDeviceMetadataIndex(entry.getKey()));
+    }
+    assertFalse(table.containsDevice("root.sg.d"));
+    assertFalse(table.containsDevice("root.sg.d" + DEVICE_NUM));
+    assertNull(table.getDeviceMetadataIndex("root.sg.e0"));
+  }
+
+  @Test
+  public void testSearch() throws IOException {
+    Map<String, TsDeviceMetadataIndex> deviceIndexMap = createDeviceIndexMap();
+    TsDeviceMetadataIndexTable table = TsDeviceMetadataIndexTable.of(deviceIndexMap);
+    checkTable(deviceIndexMap, table);
+    for (int i = 1; i < table.getDeviceNum(); i++) {
+      assertTrue(table.getDevice(i - 1).compareTo(table.getDevice(i)) < 0);
+      assertEquals(i, table.search(table.getDevice(i)));
+    }
+    assertEquals(-1, table.search("root.sg.a"));
+    assertEquals(-DEVICE_NUM - 1, table.search("root.sg.z"));
+    assertEquals(deviceIndexMap.keySet(), table.toMap().keySet());
+  }
+
+  @Test
+  public void testEmpty() throws IOException {
+    TsDeviceMetadataIndexTable table = TsDeviceMetadataIndexTable.of(new HashMap<>());
+    assertEquals(0, table.getDeviceNum());
+    assertFalse(table.containsDevice("root.sg.d0"));
+    assertTrue(table.toMap().isEmpty());
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    Map<String, TsDeviceMetadataIndex> deviceIndexMap = createDeviceIndexMap();
+    TsDeviceMetadataIndexTable table = TsDeviceMetadataIndexTable.of(deviceIndexMap);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(table.getSerializedSize(), table.serializeTo(out));
+    ByteBuffer buffer = ByteBuffer.allocate(table.getSerializedSize() + Integer.BYTES);
+    table.serializeTo(buffer);
+    buffer.putInt(DEVICE_NUM);
+    buffer.flip();
+
+    checkTable(deviceIndexMap,
+        TsDeviceMetadataIndexTable.deserializeFrom(new ByteArrayInputStream(out.toByteArray())));
+    TsDeviceMetadataIndexTable readTable = TsDeviceMetadataIndexTable.deserializeFrom(buffer);
+    assertEquals(DEVICE_NUM, buffer.getInt());
+    checkTable(deviceIndexMap, readTable);
+
+    ByteArrayOutputStream reserialized = new ByteArrayOutputStream();
+    readTable.serializeTo(reserialized);
+    checkTable(deviceIndexMap, TsDeviceMetadataIndexTable
+        .deserializeFrom(new ByteArrayInputStream(reserialized.toByteArray())));
+  }
+}
@@ -18,13 +18,18 @@
  */
 package org.apache.iotdb.tsfile.file.metadata;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
 import org.apache.iotdb.tsfile.file.metadata.utils.Utils;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -55,6 +60,49 @@ public class TsFileMetaDataTest {
     serialized(readMetaData);
   }
 
+  @Test
+  public void testBloomFilterOfOldVersion() throws IOException {
+    TsFileMetaData tsfMetaData = TestHelper.createSimpleFileMetaData();
+    tsfMetaData.setCurrentVersion(TSFileConfig.BLOOM_FILTER_VERSION - 1);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    int size = tsfMetaData.serializeTo(outputStream);
+    Assert.assertEquals(size, outputStream.size());
+
+    ByteBuffer buffer = ByteBuffer.wrap(outputStream.toByteArray());
+    TsFileMetaData readMetaData = TsFileMetaData
+        .deserializeFrom(buffer, TSFileConfig.BLOOM_FILTER_VERSION - 1);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertNull(readMetaData.getBloomFilter());
+    tsfMetaData.setBloomFilter(null);
+    Utils.isFileMetaDataEqual(tsfMetaData, readMetaData);
+  }
+
+  @Test
+  public void testDeviceIndexOfOldVersion() throws IOException {
+    TsFileMetaData tsfMetaData = TestHelper.createSimpleFileMetaData();
+    tsfMetaData.setCurrentVersion(TSFileConfig.DEVICE_INDEX_TABLE_VERSION - 1);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    int size = tsfMetaData.serializeTo(outputStream);
+    Assert.assertEquals(size, outputStream.size());
+
+    ByteBuffer buffer = ByteBuffer.wrap(outputStream.toByteArray());
+    TsFileMetaData readMetaData = TsFileMetaData
+        .deserializeFrom(buffer, TSFileConfig.DEVICE_INDEX_TABLE_VERSION - 1);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(tsfMetaData.getDeviceNum(), readMetaData.getDeviceNum());
+    for (String device : tsfMetaData.getDeviceMap().keySet()) {
+      Assert.assertTrue(readMetaData.containsDevice(device));
+      Utils.isTsDeviceMetadataIndexEqual(tsfMetaData.getDeviceMetadataIndex(device),
+          readMetaData.getDeviceMetadataIndex(device));
+    }
+    Utils.isFileMetaDataEqual(tsfMetaData, readMetaData);
+
+    TsFileMetaData streamMetaData = TsFileMetaData
+        .deserializeFrom(new ByteArrayInputStream(outputStream.toByteArray()),
+            TSFileConfig.DEVICE_INDEX_TABLE_VERSION - 1);
+    Utils.isFileMetaDataEqual(tsfMetaData, streamMetaData);
+  }
+
   private TsFileMetaData deSerialized() {
     FileInputStream fis = null;
     TsFileMetaData metaData = null;
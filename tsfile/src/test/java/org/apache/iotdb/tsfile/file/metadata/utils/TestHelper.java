@@ -39,6 +39,7 @@ import org.apache.iotdb.tsfile.file.metadata.TsFileMetaDataTest;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
@@ -56,6 +57,11 @@ public class TestHelper {
     metaData.addMeasurementSchema(TestHelper.createSimpleMeasurementSchema());
     metaData.addMeasurementSchema(TestHelper.createSimpleMeasurementSchema());
     metaData.setCreatedBy(TsFileMetaDataTest.CREATED_BY);
+    BloomFilter bloomFilter = BloomFilter.getEmptyBloomFilter(0.05, 5);
+    for (String device : metaData.getDeviceMap().keySet()) {
+      bloomFilter.add(device + "." + TimeSeriesMetadataTest.measurementUID);
+    }
+    metaData.setBloomFilter(bloomFilter);
     return metaData;
   }
 
@@ -28,6 +28,7 @@ import java.util.Map;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
@@ -133,6 +134,17 @@ public class Utils {
             metadata2.getDigest().getStatistics(),
             "statistics");
       }
+      if (Utils.isTwoObjectsNotNULL(metadata1.getPageIndex(), metadata2.getPageIndex(),
+          "pageIndex")) {
+        PageIndex pageIndex1 = metadata1.getPageIndex();
+        PageIndex pageIndex2 = metadata2.getPageIndex();
+        assertEquals(pageIndex1.getPageNum(), pageIndex2.getPageNum());
+        for (int i = 0; i < pageIndex1.getPageNum(); i++) {
+          assertEquals(pageIndex1.getStartTime(i), pageIndex2.getStartTime(i));
+          assertEquals(pageIndex1.getEndTime(i), pageIndex2.getEndTime(i));
+          assertEquals(pageIndex1.getOffset(i), pageIndex2.getOffset(i));
+        }
+      }
     }
   }
 
@@ -209,6 +221,19 @@ public class Utils {
 
       assertEquals(metadata1.getCurrentVersion(), metadata2.getCurrentVersion());
       assertEquals(metadata1.getCreatedBy(), metadata2.getCreatedBy());
+
+      if (Utils.isTwoObjectsNotNULL(metadata1.getBloomFilter(), metadata2.getBloomFilter(),
+          "bloomFilter")) {
+        assertEquals(metadata1.getBloomFilter().getSize(), metadata2.getBloomFilter().getSize());
+        assertEquals(metadata1.getBloomFilter().getHashFunctionSize(),
+            metadata2.getBloomFilter().getHashFunctionSize());
+        for (String device : metadata1.getDeviceMap().keySet()) {
+          for (String measurement : metadata1.getMeasurementSchema().keySet()) {
+            String path = device + "." + measurement;
+            assertEquals(metadata1.mayContainSeries(path), metadata2.mayContainSeries(path));
+          }
+        }
+      }
     }
   }
 
@@ -48,12 +48,12 @@ public class TsFileRestorableReaderTest {
     assertTrue(file.delete());
   }
 
-  @Test(expected = IllegalArgumentException.class)
+  @Test(expected = IOException.class)
   public void testToReadDamagedFileNoRepair() throws IOException {
     File file = new File(FILE_PATH);
 
     IncompleteFileTestUtil.writeFileWithOneIncompleteChunkHeader(file);
-    // This should throw an Illegal Argument Exception
+    // This should throw an IOException since the file metadata is broken
     TsFileSequenceReader reader = new TsFileRestorableReader(FILE_PATH, false);
   }
 }
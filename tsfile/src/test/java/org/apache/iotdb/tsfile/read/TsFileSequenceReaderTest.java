@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.read;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,12 +33,17 @@ import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
 import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
 import org.apache.iotdb.tsfile.write.TsFileWriter;
@@ -55,6 +61,12 @@ import static org.junit.Assert.assertTrue;
 public class TsFileSequenceReaderTest {
 
   private static final String FILE_PATH = TsFileGeneratorForTest.outputDataFile;
+  /**
+   * a file written by TsFile of BASE_VERSION, whose devices d1 and d2 have two chunk groups of 100
+   * rows in total, in which s1 is t, s2 is t * 10 and s3 is t + 0.5 of both devices, s4 is t * 0.25
+   * and s5 is "v" + t of d1, and s6 is whether t is even of d2.
+   */
+  private static final String BASE_VERSION_FILE_PATH = "src/test/resources/base_version.tsfile";
   private TsFileSequenceReader fileReader;
   private int rowCount = 1000;
   private ReadOnlyTsFile tsFile;
@@ -113,5 +125,129 @@ public class TsFileSequenceReaderTest {
     reader.close();
   }
 
+  @Test
+  public void testReadBaseVersion() throws IOException {
+    TsFileSequenceReader reader = new TsFileSequenceReader(BASE_VERSION_FILE_PATH);
+    assertEquals(TSFileConfig.BASE_VERSION, reader.readVersion());
+    TsFileMetaData metaData = reader.readFileMetadata();
+    assertEquals(2, metaData.getDeviceNum());
+    Assert.assertNull(metaData.getBloomFilter());
+    assertTrue(metaData.mayContainSeries("d1.s1"));
+    for (String device : new String[]{"d1", "d2"}) {
+      TsDeviceMetadata deviceMetadata = reader
+          .readTsDeviceMetaData(metaData.getDeviceMetadataIndex(device));
+      assertEquals(2, deviceMetadata.getChunkGroupMetaDataList().size());
+      for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+        for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+          Assert.assertNull(chunkMetaData.getPageIndex());
+          ChunkHeader header = reader.readMemChunk(chunkMetaData).getHeader();
+          assertEquals(TSEncoding.valueOf(TSFileConfig.timeSeriesEncoder),
+              header.getTimeEncodingType());
+        }
+      }
+    }
+
+    ReadOnlyTsFile baseVersionFile = new ReadOnlyTsFile(reader);
+    QueryExpression queryExpression = QueryExpression.create()
+        .addSelectedPath(new Path("d1.s1")).addSelectedPath(new Path("d1.s5"))
+        .addSelectedPath(new Path("d2.s3")).addSelectedPath(new Path("d2.s6"));
+    QueryDataSet queryDataSet = baseVersionFile.query(queryExpression);
+    long time = 0;
+    while (queryDataSet.hasNext()) {
+      RowRecord rowRecord = queryDataSet.next();
+      time++;
+      assertEquals(time, rowRecord.getTimestamp());
+      assertEquals(time, rowRecord.getFields().get(0).getIntV());
+      assertEquals("v" + time, rowRecord.getFields().get(1).getStringValue());
+      assertEquals(time + 0.5f, rowRecord.getFields().get(2).getFloatV(), 0);
+      assertEquals(time % 2 == 0, rowRecord.getFields().get(3).getBoolV());
+    }
+    assertEquals(100, time);
+    baseVersionFile.close();
+  }
+
+  @Test
+  public void testReadPage() throws IOException {
+    List<byte[]> pageBytes = new ArrayList<>();
+    TsFileSequenceReader reader = new TsFileSequenceReader(BASE_VERSION_FILE_PATH);
+    List<ByteBuffer> pages = readAllPages(reader, false, pageBytes);
+    reader.close();
+    assertTrue(pages.size() > 1);
+    // the pages are not overwritten by the pages read after them
+    for (int i = 0; i < pages.size(); i++) {
+      Assert.assertArrayEquals(pageBytes.get(i), toArray(pages.get(i)));
+    }
 
+    List<byte[]> pooledPageBytes = new ArrayList<>();
+    reader = new TsFileSequenceReader(BASE_VERSION_FILE_PATH);
+    readAllPages(reader, true, pooledPageBytes);
+    reader.close();
+    assertEquals(pageBytes.size(), pooledPageBytes.size());
+    for (int i = 0; i < pageBytes.size(); i++) {
+      Assert.assertArrayEquals(pageBytes.get(i), pooledPageBytes.get(i));
+    }
+  }
+
+  /**
+   * read all the pages of the file from the current position of the reader.
+   *
+   * @param pageBytes the content of each page when it is read
+   * @return the buffer of each page
+   */
+  private List<ByteBuffer> readAllPages(TsFileSequenceReader reader, boolean pooled,
+      List<byte[]> pageBytes) throws IOException {
+    List<ByteBuffer> pages = new ArrayList<>();
+    byte marker;
+    while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+          ChunkHeader header = reader.readChunkHeader();
+          for (int j = 0; j < header.getNumOfPages(); j++) {
+            PageHeader pageHeader = reader.readPageHeader(header.getDataType());
+            ByteBuffer page = pooled
+                ? reader.readPageIntoPooledBuffer(pageHeader, header.getCompressionType())
+                : reader.readPage(pageHeader, header.getCompressionType());
+            pages.add(page);
+            pageBytes.add(toArray(page));
+          }
+          break;
+        case MetaMarker.CHUNK_GROUP_FOOTER:
+          reader.readChunkGroupFooter();
+          break;
+        default:
+          MetaMarker.handleUnexpectedMarker(marker);
+      }
+    }
+    return pages;
+  }
+
+  private byte[] toArray(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testReadUnsupportedVersion() throws IOException {
+    TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH);
+    assertEquals(TSFileConfig.CURRENT_VERSION, reader.readVersion());
+    reader.close();
+
+    // rewrite the head as if the file was written by a newer version
+    try (RandomAccessFile file = new RandomAccessFile(FILE_PATH, "rw")) {
+      file.seek(TSFileConfig.MAGIC_STRING.length());
+      assertEquals(MetaMarker.VERSION, file.readByte());
+      file.writeInt(TSFileConfig.CURRENT_VERSION + 1);
+    }
+
+    reader = new TsFileSequenceReader(FILE_PATH);
+    try {
+      reader.readFileMetadata();
+      Assert.fail("a file of an unsupported version should not be read");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("is not supported"));
+    } finally {
+      reader.close();
+    }
+  }
 }
\ No newline at end of file
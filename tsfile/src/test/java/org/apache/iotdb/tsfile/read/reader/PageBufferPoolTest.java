@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.read.reader.page.PageBufferPool;
+import org.junit.Test;
+
+public class PageBufferPoolTest {
+
+  private byte[] page(int size) {
+    byte[] page = new byte[size];
+    for (int i = 0; i < size; i++) {
+      page[i] = (byte) (i % 100 < 50 ? i / 100 : i);
+    }
+    return page;
+  }
+
+  /**
+   * @return the compressed page at position 3 of a heap or direct buffer
+   */
+  private ByteBuffer compress(byte[] page, boolean direct) throws IOException {
+    byte[] compressed = ICompressor.getCompressor(CompressionType.GZIP).compress(page);
+    ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(compressed.length + 5)
+        : ByteBuffer.allocate(compressed.length + 5);
+    buffer.position(3);
+    buffer.put(compressed);
+    buffer.flip();
+    buffer.position(3);
+    return buffer;
+  }
+
+  private byte[] toArray(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void testUncompress() throws IOException {
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.GZIP);
+    for (boolean direct : new boolean[]{false, true}) {
+      byte[] page = page(3000);
+      ByteBuffer compressed = compress(page, direct);
+      ByteBuffer uncompressed = PageBufferPool
+          .uncompressIntoPooledBuffer(unCompressor, compressed, page.length);
+      assertEquals(direct, uncompressed.isDirect());
+      assertEquals(3, compressed.position());
+      assertEquals(0, uncompressed.position());
+      assertArrayEquals(page, toArray(uncompressed));
+
+      // a smaller page reuses the buffer of the thread
+      byte[] smallPage = page(1000);
+      ByteBuffer smallUncompressed = PageBufferPool.uncompressIntoPooledBuffer(unCompressor,
+          compress(smallPage, direct), smallPage.length);
+      assertSame(uncompressed, smallUncompressed);
+      assertArrayEquals(smallPage, toArray(smallUncompressed));
+    }
+  }
+
+  @Test
+  public void testUncompressed() throws IOException {
+    byte[] page = page(1000);
+    ByteBuffer chunk = ByteBuffer.allocate(page.length + 2);
+    chunk.position(2);
+    chunk.put(page);
+    chunk.position(2);
+    ByteBuffer uncompressed = PageBufferPool.uncompressIntoPooledBuffer(
+        IUnCompressor.getUnCompressor(CompressionType.UNCOMPRESSED), chunk, page.length);
+    // the page is not copied
+    assertSame(chunk.array(), uncompressed.array());
+    assertArrayEquals(page, toArray(uncompressed));
+  }
+
+  @Test
+  public void testWrongSize() throws IOException {
+    byte[] page = page(1000);
+    try {
+      PageBufferPool
+          .uncompressIntoPooledBuffer(IUnCompressor.getUnCompressor(CompressionType.GZIP),
+              compress(page, false), page.length + 1);
+      fail();
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains(String.valueOf(page.length)));
+    }
+  }
+
+  @Test
+  public void testCompressedBuffer() {
+    ByteBuffer buffer = PageBufferPool.getCompressedBuffer(100);
+    assertTrue(buffer.isDirect());
+    assertEquals(0, buffer.position());
+    assertEquals(100, buffer.limit());
+    assertSame(buffer, PageBufferPool.getCompressedBuffer(50));
+    assertEquals(50, buffer.limit());
+  }
+}
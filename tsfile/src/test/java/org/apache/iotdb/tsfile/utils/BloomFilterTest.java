@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+  private static final int NUM = 10000;
+
+  private BloomFilter createBloomFilter(double errorPercent) {
+    BloomFilter bloomFilter = BloomFilter.getEmptyBloomFilter(errorPercent, NUM);
+    for (int i = 0; i < NUM; i++) {
+      bloomFilter.add("root.sg.device_" + i + ".sensor_" + i % 10);
+    }
+    return bloomFilter;
+  }
+
+  @Test
+  public void testFalsePositiveRate() {
+    for (double errorPercent : new double[]{0.1, 0.05, 0.01}) {
+      BloomFilter bloomFilter = createBloomFilter(errorPercent);
+      for (int i = 0; i < NUM; i++) {
+        assertTrue(bloomFilter.contains("root.sg.device_" + i + ".sensor_" + i % 10));
+      }
+      int falsePositiveNum = 0;
+      for (int i = 0; i < NUM; i++) {
+        if (bloomFilter.contains("root.sg.device_" + i + ".sensor_" + (i % 10 + 10))) {
+          falsePositiveNum++;
+        }
+      }
+      assertTrue(falsePositiveNum < NUM * errorPercent * 1.5);
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    BloomFilter bloomFilter = BloomFilter.getEmptyBloomFilter(0.05, 0);
+    assertTrue(bloomFilter.getSize() > 0);
+    assertFalse(bloomFilter.contains("root.sg.d1.s1"));
+    bloomFilter.add("root.sg.d1.s1");
+    assertTrue(bloomFilter.contains("root.sg.d1.s1"));
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    BloomFilter bloomFilter = createBloomFilter(0.05);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(bloomFilter.getSerializedSize(), bloomFilter.serializeTo(out));
+    ByteBuffer buffer = ByteBuffer.allocate(bloomFilter.getSerializedSize());
+    bloomFilter.serializeTo(buffer);
+    buffer.flip();
+
+    BloomFilter[] readBloomFilters = {
+        BloomFilter.deserializeFrom(new ByteArrayInputStream(out.toByteArray())),
+        BloomFilter.deserializeFrom(buffer)};
+    for (BloomFilter readBloomFilter : readBloomFilters) {
+      assertEquals(bloomFilter.getSize(), readBloomFilter.getSize());
+      assertEquals(bloomFilter.getHashFunctionSize(), readBloomFilter.getHashFunctionSize());
+      for (int i = 0; i < NUM; i++) {
+        String path = "root.sg.device_" + i + ".sensor_" + (i % 20);
+        assertEquals(bloomFilter.contains(path), readBloomFilter.contains(path));
+      }
+    }
+  }
+}
@@ -102,5 +102,10 @@ public class TsFileIOWriterTest {
         .get(TimeSeriesMetadataTest.measurementUID);
     Assert.assertEquals(TimeSeriesMetadataTest.measurementUID, actual.getMeasurementId());
     Assert.assertEquals(1, metaData.getDeviceMap().size());
+
+    // bloom filter
+    Assert.assertTrue(
+        metaData.mayContainSeries(deviceId + "." + TimeSeriesMetadataTest.measurementUID));
+    Assert.assertFalse(metaData.mayContainSeries(deviceId + ".sensor_absent"));
   }
 }
@@ -25,21 +25,40 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.PageIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
 import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
 import org.junit.Before;
@@ -220,6 +239,143 @@ public class TsFileReadWriteTest {
     reader.close();
   }
 
+  @Test
+  public void gorillaTimeEncodingTest() throws IOException, WriteProcessException {
+    int count = 1024 * 1024 + 1023;
+    TsFileWriter tsFileWriter = new TsFileWriter(f);
+    // timestamps of sensor_1 are encoded by GORILLA, those of sensor_2 by the default encoding
+    tsFileWriter.addMeasurement(new MeasurementSchema("sensor_1", TSDataType.INT64,
+        TSEncoding.GORILLA, CompressionType.valueOf(TSFileConfig.compressor),
+        Collections.singletonMap(MeasurementSchema.TIME_ENCODING, TSEncoding.GORILLA.name())));
+    tsFileWriter
+        .addMeasurement(new MeasurementSchema("sensor_2", TSDataType.INT32, TSEncoding.GORILLA));
+    for (long i = 1; i < count; i++) {
+      // a fixed cadence of 1000 with a small jitter
+      TSRecord tsRecord = new TSRecord(i * 1000 + i % 7, "device_1");
+      tsRecord.addTuple(new LongDataPoint("sensor_1", i * 10));
+      tsRecord.addTuple(new IntDataPoint("sensor_2", (int) (i % 100)));
+      tsFileWriter.write(tsRecord);
+    }
+    tsFileWriter.close();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(path);
+    ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
+    ArrayList<Path> paths = new ArrayList<>();
+    paths.add(new Path("device_1.sensor_1"));
+    paths.add(new Path("device_1.sensor_2"));
+    QueryDataSet queryDataSet = readTsFile.query(QueryExpression.create(paths, null));
+    long i = 1;
+    while (queryDataSet.hasNext()) {
+      RowRecord r = queryDataSet.next();
+      assertEquals(i * 1000 + i % 7, r.getTimestamp());
+      assertEquals(i * 10, r.getFields().get(0).getLongV());
+      assertEquals(i % 100, r.getFields().get(1).getIntV());
+      i++;
+    }
+    assertEquals(count, i);
+    reader.close();
+  }
+
+  @Test
+  public void compressedPagesTest() throws IOException, WriteProcessException {
+    int count = 100000;
+    TsFileWriter tsFileWriter = new TsFileWriter(f);
+    // the pages of both series are uncompressed into the same buffers of the thread
+    tsFileWriter.addMeasurement(new MeasurementSchema("sensor_1", TSDataType.INT64,
+        TSEncoding.PLAIN, CompressionType.GZIP));
+    tsFileWriter.addMeasurement(new MeasurementSchema("sensor_2", TSDataType.TEXT,
+        TSEncoding.PLAIN, CompressionType.LZ4));
+    for (long i = 1; i < count; i++) {
+      TSRecord tsRecord = new TSRecord(i, "device_1");
+      tsRecord.addTuple(new LongDataPoint("sensor_1", i * 10));
+      tsRecord.addTuple(new StringDataPoint("sensor_2", new Binary("value_" + i % 100)));
+      tsFileWriter.write(tsRecord);
+    }
+    tsFileWriter.close();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(path);
+    ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
+    ArrayList<Path> paths = new ArrayList<>();
+    paths.add(new Path("device_1.sensor_1"));
+    paths.add(new Path("device_1.sensor_2"));
+    QueryDataSet queryDataSet = readTsFile.query(QueryExpression.create(paths, null));
+    long i = 1;
+    while (queryDataSet.hasNext()) {
+      RowRecord r = queryDataSet.next();
+      assertEquals(i, r.getTimestamp());
+      assertEquals(i * 10, r.getFields().get(0).getLongV());
+      assertEquals("value_" + i % 100, r.getFields().get(1).getStringValue());
+      i++;
+    }
+    assertEquals(count, i);
+    reader.close();
+  }
+
+  @Test
+  public void pageIndexTest() throws IOException, WriteProcessException {
+    int count = 100000;
+    TsFileWriter tsFileWriter = new TsFileWriter(f);
+    tsFileWriter.addMeasurement(new MeasurementSchema("sensor_1", TSDataType.INT64,
+        TSEncoding.PLAIN));
+    tsFileWriter.addMeasurement(new MeasurementSchema("sensor_2", TSDataType.INT64,
+        TSEncoding.PLAIN));
+    for (long i = 1; i < count; i++) {
+      TSRecord tsRecord = new TSRecord(i, "device_1");
+      tsRecord.addTuple(new LongDataPoint("sensor_1", i * 10));
+      tsRecord.addTuple(new LongDataPoint("sensor_2", i));
+      tsFileWriter.write(tsRecord);
+    }
+    tsFileWriter.close();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(path);
+    List<ChunkMetaData> chunkMetaDataList = new MetadataQuerierByFileImpl(reader)
+        .getChunkMetaDataList(new Path("device_1.sensor_1"));
+    ChunkMetaData chunkMetaData = chunkMetaDataList.get(0);
+    PageIndex pageIndex = chunkMetaData.getPageIndex();
+    assertTrue(pageIndex.getPageNum() > 2);
+
+    // only the pages overlapping the time range are read
+    long startTime = pageIndex.getEndTime(0) + 1;
+    long endTime = startTime + 10;
+    Chunk chunk = reader.readMemChunk(chunkMetaData, startTime, endTime);
+    assertEquals(1, chunk.getPageIndex().getPageNum());
+    assertTrue(chunk.getData().remaining() < chunk.getHeader().getDataSize());
+    ChunkReader chunkReader = new ChunkReaderWithoutFilter(chunk);
+    BatchData batchData = chunkReader.nextBatch();
+    assertEquals(startTime, batchData.currentTime());
+    assertEquals(pageIndex.getStartTime(1), batchData.currentTime());
+
+    // the pages are skipped by the page index for a time filter
+    ReadOnlyTsFile readTsFile = new ReadOnlyTsFile(reader);
+    ArrayList<Path> paths = new ArrayList<>();
+    paths.add(new Path("device_1.sensor_1"));
+    IExpression expression = new GlobalTimeExpression(
+        FilterFactory.and(TimeFilter.gtEq(50000L), TimeFilter.lt(50100L)));
+    QueryDataSet queryDataSet = readTsFile.query(QueryExpression.create(paths, expression));
+    long i = 50000;
+    while (queryDataSet.hasNext()) {
+      RowRecord r = queryDataSet.next();
+      assertEquals(i, r.getTimestamp());
+      assertEquals(i * 10, r.getFields().get(0).getLongV());
+      i++;
+    }
+    assertEquals(50100, i);
+
+    // and for reading by timestamps
+    expression = new SingleSeriesExpression(new Path("device_1.sensor_2"),
+        FilterFactory.or(ValueFilter.lt(100L), ValueFilter.gtEq(count - 100L)));
+    queryDataSet = readTsFile.query(QueryExpression.create(paths, expression));
+    int num = 0;
+    while (queryDataSet.hasNext()) {
+      RowRecord r = queryDataSet.next();
+      assertTrue(r.getTimestamp() < 100 || r.getTimestamp() >= count - 100);
+      assertEquals(r.getTimestamp() * 10, r.getFields().get(0).getLongV());
+      num++;
+    }
+    assertEquals(199, num);
+    reader.close();
+  }
+
   @Test
   public void readEmptyMeasurementTest() throws IOException, WriteProcessException {
     TsFileWriter tsFileWriter = new TsFileWriter(f);
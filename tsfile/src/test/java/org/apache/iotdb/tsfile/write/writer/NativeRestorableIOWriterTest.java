@@ -27,18 +27,28 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.FloatStatistics;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
 import org.apache.iotdb.tsfile.read.TsFileCheckStatus;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.write.TsFileWriter;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.junit.Test;
 
@@ -46,6 +56,7 @@ import org.junit.Test;
 public class NativeRestorableIOWriterTest {
 
   private static final String FILE_NAME = "test.ts";
+  private static final int HEAD_SIZE = TsFileIOWriter.getHeadSize(TSFileConfig.CURRENT_VERSION);
 
   @Test(expected = IOException.class)
   public void testBadHeadMagic() throws Exception {
@@ -74,7 +85,7 @@ public class NativeRestorableIOWriterTest {
     assertEquals(TsFileCheckStatus.COMPLETE_FILE, rWriter.getTruncatedPosition());
     assertFalse(rWriter.canWrite());
     rWriter = new NativeRestorableIOWriter(file, true);
-    assertEquals(TSFileConfig.MAGIC_STRING.length(), rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     writer = new TsFileWriter(rWriter);
     writer.close();
     assertTrue(file.delete());
@@ -88,11 +99,11 @@ public class NativeRestorableIOWriterTest {
     //we have to flush using inner API.
     writer.getIOWriter().out.write(new byte[] {MetaMarker.CHUNK_HEADER});
     writer.getIOWriter().forceClose();
-    assertEquals(TsFileIOWriter.magicStringBytes.length + 1, file.length());
+    assertEquals(HEAD_SIZE + 1, file.length());
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     writer = new TsFileWriter(rWriter);
     writer.close();
-    assertEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     assertTrue(file.delete());
   }
 
@@ -105,7 +116,7 @@ public class NativeRestorableIOWriterTest {
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     TsFileWriter writer = new TsFileWriter(rWriter);
     writer.close();
-    assertEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     assertTrue(file.delete());
   }
 
@@ -122,7 +133,7 @@ public class NativeRestorableIOWriterTest {
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     writer = new TsFileWriter(rWriter);
     writer.close();
-    assertEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     assertTrue(file.delete());
   }
 
@@ -144,7 +155,7 @@ public class NativeRestorableIOWriterTest {
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     writer = new TsFileWriter(rWriter);
     writer.close();
-    assertEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     assertTrue(file.delete());
   }
 
@@ -164,7 +175,7 @@ public class NativeRestorableIOWriterTest {
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     writer = new TsFileWriter(rWriter);
     writer.close();
-    assertEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     assertTrue(file.delete());
   }
 
@@ -184,7 +195,7 @@ public class NativeRestorableIOWriterTest {
     NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file);
     writer = new TsFileWriter(rWriter);
     writer.close();
-    assertNotEquals(TsFileIOWriter.magicStringBytes.length, rWriter.getTruncatedPosition());
+    assertNotEquals(HEAD_SIZE, rWriter.getTruncatedPosition());
     TsFileSequenceReader reader = new TsFileSequenceReader(FILE_NAME);
     TsDeviceMetadataIndex index = reader.readFileMetadata().getDeviceMap().get("d1");
     assertEquals(1, reader.readTsDeviceMetaData(index).getChunkGroupMetaDataList().size());
@@ -312,4 +323,41 @@ public class NativeRestorableIOWriterTest {
     reader.close();
     assertTrue(file.delete());
   }
+
+  @Test
+  public void testAppendBaseVersionFile() throws Exception {
+    File file = new File(FILE_NAME);
+    Files.copy(Paths.get("src/test/resources/base_version.tsfile"), file.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+
+    NativeRestorableIOWriter rWriter = new NativeRestorableIOWriter(file, true);
+    assertTrue(rWriter.canWrite());
+    assertEquals(TSFileConfig.BASE_VERSION, rWriter.getVersion());
+    TsFileWriter writer = new TsFileWriter(rWriter);
+    writer.write(new TSRecord(101, "d1").addTuple(new IntDataPoint("s1", 101)));
+    writer.write(new TSRecord(102, "d1").addTuple(new IntDataPoint("s1", 102)));
+    writer.close();
+
+    TsFileSequenceReader reader = new TsFileSequenceReader(FILE_NAME);
+    assertEquals(TSFileConfig.BASE_VERSION, reader.readVersion());
+    TsFileMetaData metaData = reader.readFileMetadata();
+    assertEquals(2, metaData.getDeviceNum());
+    TsDeviceMetadataIndex index = metaData.getDeviceMetadataIndex("d1");
+    assertEquals(3, reader.readTsDeviceMetaData(index).getChunkGroupMetaDataList().size());
+    index = metaData.getDeviceMetadataIndex("d2");
+    assertEquals(2, reader.readTsDeviceMetaData(index).getChunkGroupMetaDataList().size());
+
+    ReadOnlyTsFile tsFile = new ReadOnlyTsFile(reader);
+    QueryDataSet queryDataSet = tsFile
+        .query(QueryExpression.create().addSelectedPath(new Path("d1.s1")));
+    int count = 0;
+    while (queryDataSet.hasNext()) {
+      RowRecord rowRecord = queryDataSet.next();
+      count++;
+      assertEquals(count, rowRecord.getFields().get(0).getIntV());
+    }
+    assertEquals(102, count);
+    tsFile.close();
+    assertTrue(file.delete());
+  }
 }
\ No newline at end of file